@@ -0,0 +1,122 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.entities.AccountPermission;
+import com.lqviet.accountservices.entities.AccountSetting;
+import com.lqviet.accountservices.enums.ValueType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derived getters of the account entities that run on every request touching an account
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountEntityBenchmark {
+    private Account unlockedAccount;
+    private Account lockedAccount;
+    private Account accountWithoutName;
+    private AccountPermission scopedPermission;
+    private AccountPermission globalPermission;
+    private AccountSetting integerSetting;
+    private AccountSetting malformedIntegerSetting;
+
+    @Setup
+    public void setUp() {
+        unlockedAccount = Account.builder()
+                .username("reader_01")
+                .email("reader_01@example.com")
+                .password("hash")
+                .firstName("Aiko")
+                .lastName("Tanaka")
+                .build();
+        lockedAccount = Account.builder()
+                .username("reader_02")
+                .email("reader_02@example.com")
+                .password("hash")
+                .lockedUntil(LocalDateTime.now().plusHours(1))
+                .build();
+        accountWithoutName = Account.builder()
+                .username("reader_03")
+                .email("reader_03@example.com")
+                .password("hash")
+                .build();
+        scopedPermission = AccountPermission.builder()
+                .accountId(1L)
+                .permissionName("novel.edit")
+                .resourceType("novel")
+                .resourceId(42L)
+                .build();
+        globalPermission = AccountPermission.builder()
+                .accountId(1L)
+                .permissionName("novel.read")
+                .build();
+        integerSetting = AccountSetting.builder()
+                .accountId(1L)
+                .settingKey("reader.font-size")
+                .settingValue("16")
+                .valueType(ValueType.INTEGER)
+                .build();
+        malformedIntegerSetting = AccountSetting.builder()
+                .accountId(1L)
+                .settingKey("reader.line-height")
+                .settingValue("1.5")
+                .valueType(ValueType.INTEGER)
+                .build();
+    }
+
+    @Benchmark
+    public boolean isAccountNonLocked() {
+        return unlockedAccount.isAccountNonLocked();
+    }
+
+    @Benchmark
+    public boolean isAccountNonLockedWhileLocked() {
+        return lockedAccount.isAccountNonLocked();
+    }
+
+    @Benchmark
+    public String getFullName() {
+        return unlockedAccount.getFullName();
+    }
+
+    @Benchmark
+    public String getFullNameFallback() {
+        return accountWithoutName.getFullName();
+    }
+
+    @Benchmark
+    public String getScopedResourceIdentifier() {
+        return scopedPermission.getResourceIdentifier();
+    }
+
+    @Benchmark
+    public String getGlobalResourceIdentifier() {
+        return globalPermission.getResourceIdentifier();
+    }
+
+    @Benchmark
+    public Integer getIntegerValue() {
+        return integerSetting.getIntegerValue();
+    }
+
+    @Benchmark
+    public Integer getMalformedIntegerValue() {
+        return malformedIntegerSetting.getIntegerValue();
+    }
+}
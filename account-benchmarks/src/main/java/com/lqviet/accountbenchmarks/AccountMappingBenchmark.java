@@ -0,0 +1,47 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.mappers.AccountMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to {@link AccountResponse} mapping
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountMappingBenchmark {
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = Account.builder()
+                .username("reader_01")
+                .email("reader_01@example.com")
+                .password("hash")
+                .firstName("Aiko")
+                .lastName("Tanaka")
+                .phoneNumber("+84901234567")
+                .build();
+    }
+
+    @Benchmark
+    public AccountResponse toResponse() {
+        return AccountMapper.toResponse(account);
+    }
+}
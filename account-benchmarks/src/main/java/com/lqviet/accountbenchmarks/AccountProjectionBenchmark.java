@@ -0,0 +1,154 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.mappers.AccountMapper;
+import com.lqviet.accountservices.repositories.AccountRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account reads as they were served before (load the managed entity, map it to {@link AccountResponse}) against
+ * the constructor-expression projections, each in a read-only transaction like the lookup service.
+ * <p>
+ * The score is queries per second; allocations per query are the {@code gc.alloc.rate.norm} figure of the gc
+ * profiler the benchmark profile runs with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountProjectionBenchmark {
+    private static final int PAGE_SIZE = 50;
+
+    @Param("10000")
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private TransactionTemplate readOnly;
+    private EntityManager entityManager;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        accountRepository = context.getBean(AccountRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        List<Account> batch = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            batch.add(BenchmarkContext.account("reader_" + i)
+                    .firstName("Linh")
+                    .lastName("Nguyen")
+                    .status(i % 4 == 0 ? AccountStatus.PENDING_VERIFICATION : AccountStatus.ACTIVE)
+                    .build());
+        }
+        ids = accountRepository.saveAll(batch).stream().mapToLong(Account::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountResponse entityById() {
+        long id = randomId();
+        return readOnly.execute(status -> accountRepository.findById(id).map(AccountMapper::toResponse).orElse(null));
+    }
+
+    @Benchmark
+    public AccountResponse projectionById() {
+        long id = randomId();
+        return readOnly.execute(status -> accountRepository.findResponseById(id).orElse(null));
+    }
+
+    @Benchmark
+    public AccountResponse entityByUsername() {
+        String username = randomUsername();
+        return readOnly.execute(status ->
+                accountRepository.findByUsername(username).map(AccountMapper::toResponse).orElse(null));
+    }
+
+    @Benchmark
+    public AccountResponse projectionByUsername() {
+        String username = randomUsername();
+        return readOnly.execute(status -> accountRepository.findResponseByUsername(username).orElse(null));
+    }
+
+    @Benchmark
+    public AccountResponse entityByEmail() {
+        String email = randomUsername() + "@example.com";
+        return readOnly.execute(status ->
+                accountRepository.findByEmail(email).map(AccountMapper::toResponse).orElse(null));
+    }
+
+    @Benchmark
+    public AccountResponse projectionByEmail() {
+        String email = randomUsername() + "@example.com";
+        return readOnly.execute(status -> accountRepository.findResponseByEmail(email).orElse(null));
+    }
+
+    /**
+     * The same keyset page as {@link #projectionByStatus()}, selecting entities
+     */
+    @Benchmark
+    public List<AccountResponse> entityByStatus() {
+        long afterId = randomId();
+        return readOnly.execute(status -> entityManager.createQuery("""
+                        select a from Account a
+                        where a.status = :status and a.id > :afterId and a.isDeleted = false
+                        order by a.id
+                        """, Account.class)
+                .setParameter("status", AccountStatus.ACTIVE)
+                .setParameter("afterId", afterId)
+                .setMaxResults(PAGE_SIZE)
+                .getResultStream()
+                .map(AccountMapper::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<AccountResponse> projectionByStatus() {
+        long afterId = randomId();
+        return readOnly.execute(status ->
+                accountRepository.findResponsesByStatus(AccountStatus.ACTIVE, afterId, PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private String randomUsername() {
+        return "reader_" + ThreadLocalRandom.current().nextInt(accounts);
+    }
+}
@@ -0,0 +1,75 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.repositories.AccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring Data lookups through the real repositories and Hibernate mappings, against H2 as a Postgres stand-in.
+ * Absolute numbers are not comparable with Postgres; the benchmark exists to catch regressions in the
+ * mapping, query derivation and session handling layered on top of the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountRepositoryBenchmark {
+    @Param("10000")
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        accountRepository = context.getBean(AccountRepository.class);
+        List<Account> batch = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            batch.add(BenchmarkContext.account("reader_" + i).build());
+        }
+        ids = accountRepository.saveAll(batch).stream().mapToLong(Account::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Account> findById() {
+        return accountRepository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public Optional<Account> findByUsername() {
+        return accountRepository.findByUsername("reader_" + ThreadLocalRandom.current().nextInt(accounts));
+    }
+
+    @Benchmark
+    public Optional<Account> findByEmail() {
+        return accountRepository.findByEmail("reader_" + ThreadLocalRandom.current().nextInt(accounts) + "@example.com");
+    }
+}
@@ -0,0 +1,102 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.entities.AccountAuditLog;
+import com.lqviet.accountservices.enums.ValueEncoding;
+import com.lqviet.accountservices.repositories.AccountAuditLogBatchRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit log inserts with the old and new values stored as plain text against the binary encoding.
+ * <p>
+ * The score is rows per second; the stored bytes per row of each encoding are printed when the trial ends:
+ * the encoded value sizes always, and the whole table's on-disk size per row when running against Postgres
+ * ({@code ACCOUNT_BENCH_POSTGRES_URL}), where TOAST compression applies to both encodings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditValueEncodingBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"TEXT", "BINARY"})
+    private ValueEncoding encoding;
+
+    private ConfigurableApplicationContext context;
+    private AccountAuditLogBatchRepository repository;
+    private List<AccountAuditLog> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--account.codec.encoding=" + encoding);
+        repository = context.getBean(AccountAuditLogBatchRepository.class);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(accountUpdate(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_audit_logs", Long.class);
+        Double valueBytes = jdbcTemplate.queryForObject("""
+                SELECT AVG(COALESCE(OCTET_LENGTH(old_values_bin), 0) + COALESCE(OCTET_LENGTH(new_values_bin), 0))
+                FROM account_audit_logs
+                """, Double.class);
+        StringBuilder report = new StringBuilder("\n[storage] encoding=").append(encoding)
+                .append(" rows=").append(rows)
+                .append(" value bytes/row=").append(String.format("%.1f", valueBytes));
+        if (BenchmarkContext.isPostgres() && rows != null && rows > 0) {
+            Long bytes = jdbcTemplate.queryForObject(
+                    "SELECT pg_total_relation_size('account_audit_logs')", Long.class);
+            report.append(" table bytes/row=").append(String.format("%.1f", (double) bytes / rows));
+        }
+        System.out.println(report);
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() {
+        repository.insertAll(batch);
+    }
+
+    private static AccountAuditLog accountUpdate(int i) {
+        String before = """
+                {"username":"reader_%d","email":"reader_%d@example.com","firstName":"Linh","lastName":"Nguyen",
+                 "status":"PENDING_VERIFICATION","emailVerified":false,"loginCount":%d,
+                 "lastLoginAt":"2025-06-01T10:15:30","updatedAt":"2025-06-01T10:15:30","isDeleted":false}
+                """.formatted(i, i, i);
+        String after = """
+                {"username":"reader_%d","email":"reader_%d@example.com","firstName":"Linh","lastName":"Nguyen",
+                 "status":"ACTIVE","emailVerified":true,"loginCount":%d,
+                 "lastLoginAt":"2025-06-02T08:00:00","updatedAt":"2025-06-02T08:00:00","isDeleted":false}
+                """.formatted(i, i, i + 1);
+        AccountAuditLog log = AccountAuditLog.forUpdate("accounts", (long) i, before, after,
+                "status,emailVerified,loginCount,lastLoginAt,updatedAt", null);
+        log.setAccountId((long) i);
+        return log;
+    }
+}
@@ -0,0 +1,95 @@
+package com.lqviet.accountbenchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file with the committed baseline and fails when a benchmark regressed by more than
+ * the tolerance.
+ * <p>
+ * Throughput benchmarks regress when their score drops, every other mode when it grows. Benchmarks missing from
+ * the baseline are reported and skipped. Passing {@code record=true} replaces the baseline with the current
+ * results; the baseline should only be recorded on the machine the check runs on.
+ * <pre>
+ * usage: BaselineCheck result.json baseline.json tolerance record
+ * </pre>
+ */
+public final class BaselineCheck {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        boolean record = Boolean.parseBoolean(args[3]);
+
+        if (record) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Recorded " + result + " as the new baseline " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline + ", run with -Dbenchmark.record=true to record one");
+            return;
+        }
+
+        Map<String, Score> current = read(result);
+        Map<String, Score> expected = read(baseline);
+        List<String> regressions = new ArrayList<>();
+        current.forEach((key, score) -> {
+            Score reference = expected.get(key);
+            if (reference == null) {
+                System.out.println("[new]        " + key + " " + score);
+                return;
+            }
+            double change = (score.value() - reference.value()) / reference.value();
+            boolean regressed = score.higherIsBetter() ? change < -tolerance : change > tolerance;
+            String line = String.format("%-12s %s %s (baseline %s, %+.1f%%)",
+                    regressed ? "[regression]" : "[ok]", key, score, reference, change * 100);
+            System.out.println(line);
+            if (regressed) {
+                regressions.add(line);
+            }
+        });
+
+        if (!regressions.isEmpty()) {
+            System.err.println(regressions.size() + " benchmark(s) regressed by more than "
+                    + Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : OBJECT_MAPPER.readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            run.path("params").properties().forEach(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            key.append(" [").append(run.path("mode").asText()).append(']');
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key.toString(), new Score(metric.path("score").asDouble(), metric.path("scoreUnit").asText(),
+                    "thrpt".equals(run.path("mode").asText())));
+        }
+        return scores;
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter) {
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.AccountServicesApplication;
+import com.lqviet.accountservices.entities.Account;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the real account-services context against an in-memory H2 database in PostgreSQL mode, without the web
+ * server unless {@link #startWeb} is used, and with every background job pushed out of the benchmark window.
+ * <p>
+ * Setting {@code ACCOUNT_BENCH_POSTGRES_URL} (a JDBC URL including credentials) runs against that Postgres
+ * instead; the schema is created and dropped by Hibernate, so point it at a scratch database.
+ */
+final class BenchmarkContext {
+
+    static final String POSTGRES_URL = System.getenv("ACCOUNT_BENCH_POSTGRES_URL");
+
+    /**
+     * A bcrypt hash of the length the service stores, so seeded accounts pass the entity's size constraint
+     */
+    static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOa4YhXoHf2mLvr1Ilz4Nc6dSk7rKyP3W";
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Seed account that passes validation; benchmarks add whatever else they need before building it
+     */
+    static Account.AccountBuilder account(String username) {
+        return Account.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password(PASSWORD_HASH);
+    }
+
+    static boolean isPostgres() {
+        return POSTGRES_URL != null && !POSTGRES_URL.isBlank();
+    }
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        return start(WebApplicationType.NONE, extraArgs);
+    }
+
+    /**
+     * Starts the embedded Tomcat as well, on a random port ({@code local.server.port})
+     */
+    static ConfigurableApplicationContext startWeb(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(extraArgs));
+        args.add("--server.port=0");
+        return start(WebApplicationType.SERVLET, args.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... extraArgs) {
+        Path registry;
+        try {
+            registry = Files.createTempFile("session-registry", ".bin");
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create the session registry file", e);
+        }
+        List<String> args = new ArrayList<>(List.of(
+                isPostgres()
+                        ? "--spring.datasource.url=" + POSTGRES_URL
+                        : "--spring.datasource.url=jdbc:h2:mem:accounts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+                        + ";DEFAULT_NULL_ORDERING=HIGH;IGNORE_UNKNOWN_SETTINGS=TRUE;DB_CLOSE_DELAY=-1",
+                isPostgres()
+                        ? "--spring.datasource.driver-class-name=org.postgresql.Driver"
+                        : "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.open-in-view=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--account.session.registry.path=" + registry,
+                "--account.session.registry.capacity=65536",
+                "--account.session.registry.purge-interval=1d",
+                "--account.sweeper.interval=1d",
+                "--account.partitioning.enabled=false",
+                "--account.broadcast.resume-interval=1d",
+                "--account.notifications.reconcile-interval=1d",
+                "--account.tokens.refresh-interval=1d",
+                "--account.tokens.rebuild-interval=1d",
+                "--account.availability.refresh-interval=1d",
+                "--account.availability.rebuild-interval=1d",
+                "--account.codec.migration-interval=1d"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(AccountServicesApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+    }
+}
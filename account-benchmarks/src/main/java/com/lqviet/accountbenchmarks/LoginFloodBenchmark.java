@@ -0,0 +1,136 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.passwords.PasswordVerificationPool;
+import com.lqviet.accountservices.repositories.AccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account reads while 64 threads flood the login path, with BCrypt run on the request thread ({@code inline})
+ * against BCrypt handed to the {@link PasswordVerificationPool} ({@code pooled}).
+ * <p>
+ * The figure to compare is the latency distribution of {@code read} in each group, and against the same reads
+ * without a flood ({@code quiet}); the {@code login} rows show what the flood itself got through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginFloodBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param("1000")
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private PasswordVerificationPool verificationPool;
+    private BCryptPasswordEncoder encoder;
+    private TransactionTemplate readOnly;
+    private String hash;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        accountRepository = context.getBean(AccountRepository.class);
+        verificationPool = context.getBean(PasswordVerificationPool.class);
+        encoder = new BCryptPasswordEncoder(10);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        hash = encoder.encode(PASSWORD);
+        List<Account> batch = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            batch.add(Account.builder()
+                    .username("login_" + i)
+                    .email("login_" + i + "@example.com")
+                    .password(hash)
+                    .firstName("Linh")
+                    .lastName("Nguyen")
+                    .status(AccountStatus.ACTIVE)
+                    .build());
+        }
+        ids = accountRepository.saveAll(batch).stream().mapToLong(Account::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("quiet")
+    @GroupThreads(4)
+    public AccountResponse quietRead() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("inline")
+    @GroupThreads(64)
+    public boolean inlineLogin() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Group("inline")
+    @GroupThreads(4)
+    public AccountResponse inlineRead() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("pooled")
+    @GroupThreads(64)
+    public boolean pooledLogin() {
+        try {
+            return verificationPool.matches(randomId(), PASSWORD, hash);
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("pooled")
+    @GroupThreads(4)
+    public AccountResponse pooledRead() {
+        return read();
+    }
+
+    private AccountResponse read() {
+        long id = randomId();
+        return readOnly.execute(status -> accountRepository.findResponseById(id).orElse(null));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
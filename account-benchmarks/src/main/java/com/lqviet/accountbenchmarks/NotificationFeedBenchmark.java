@@ -0,0 +1,185 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.broadcasts.BroadcastChunkWriter;
+import com.lqviet.accountservices.dtos.responses.AccountNotificationResponse;
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.entities.NotificationBroadcast;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.enums.BroadcastDeliveryMode;
+import com.lqviet.accountservices.enums.BroadcastStatus;
+import com.lqviet.accountservices.enums.NotificationType;
+import com.lqviet.accountservices.pagination.KeysetCursor;
+import com.lqviet.accountservices.repositories.AccountNotificationFeedRepository;
+import com.lqviet.accountservices.repositories.AccountNotificationFeedRepository.UnreadCount;
+import com.lqviet.accountservices.repositories.AccountRepository;
+import com.lqviet.accountservices.repositories.NotificationBroadcastRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materialized against lazy broadcast delivery: the same accounts, personal notifications and broadcasts are
+ * stored both ways, then the first two feed pages and the unread count are read for random accounts.
+ * <p>
+ * Storage of each mode is printed once the data is in place: row counts always, and on-disk relation sizes
+ * when running against Postgres ({@code ACCOUNT_BENCH_POSTGRES_URL}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationFeedBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final List<String> TABLES = List.of(
+            "account_notifications", "notification_broadcasts", "notification_broadcast_states");
+
+    @Param({"MATERIALIZED", "LAZY"})
+    private BroadcastDeliveryMode mode;
+
+    @Param("5000")
+    private int accounts;
+
+    @Param("10")
+    private int personalPerAccount;
+
+    @Param("30")
+    private int broadcasts;
+
+    private ConfigurableApplicationContext context;
+    private AccountNotificationFeedRepository feedRepository;
+    private long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        feedRepository = context.getBean(AccountNotificationFeedRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Account> batch = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            batch.add(BenchmarkContext.account("reader_" + i)
+                    .status(AccountStatus.ACTIVE)
+                    .build());
+        }
+        accountIds = context.getBean(AccountRepository.class).saveAll(batch).stream()
+                .mapToLong(Account::getId)
+                .toArray();
+        insertPersonalNotifications(jdbcTemplate);
+        insertBroadcasts();
+        printStorage(jdbcTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AccountNotificationResponse> firstPage() {
+        return feedRepository.findPage(randomAccount(), KeysetCursor.START, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<AccountNotificationResponse> secondPage() {
+        long accountId = randomAccount();
+        List<AccountNotificationResponse> first = feedRepository.findPage(accountId, KeysetCursor.START, PAGE_SIZE);
+        AccountNotificationResponse last = first.get(first.size() - 1);
+        return feedRepository.findPage(accountId,
+                new KeysetCursor(last.getCreatedAt(), last.getSource().ordinal(), last.getId()), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UnreadCount countUnread() {
+        return feedRepository.countUnread(randomAccount(), LocalDateTime.now());
+    }
+
+    private long randomAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(accountIds.length)];
+    }
+
+    private void insertPersonalNotifications(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = Arrays.stream(accountIds).boxed().toList();
+        for (int n = 0; n < personalPerAccount; n++) {
+            int index = n;
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO account_notifications (account_id, title, message, notification_type, status,
+                                                       created_at, updated_at, is_deleted)
+                    VALUES (?, ?, ?, 'INFO', 'UNREAD', ?, ?, false)
+                    """, ids, 1000, (ps, accountId) -> {
+                ps.setLong(1, accountId);
+                ps.setString(2, "Chapter " + index + " is out");
+                ps.setString(3, "A novel you follow has a new chapter");
+                ps.setTimestamp(4, now);
+                ps.setTimestamp(5, now);
+            });
+        }
+    }
+
+    private void insertBroadcasts() throws Exception {
+        NotificationBroadcastRepository broadcastRepository = context.getBean(NotificationBroadcastRepository.class);
+        BroadcastChunkWriter chunkWriter = context.getBean(BroadcastChunkWriter.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        List<Long> ids = Arrays.stream(accountIds).boxed().toList();
+        for (int i = 0; i < broadcasts; i++) {
+            NotificationBroadcast broadcast = broadcastRepository.save(NotificationBroadcast.builder()
+                    .title("Site announcement " + i)
+                    .message("Scheduled maintenance window and new reader features")
+                    .notificationType(NotificationType.SYSTEM)
+                    .deliveryMode(mode)
+                    .status(BroadcastStatus.COMPLETED)
+                    .build());
+            if (mode == BroadcastDeliveryMode.MATERIALIZED) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try {
+                        chunkWriter.write(broadcast, ids);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    private void printStorage(JdbcTemplate jdbcTemplate) {
+        StringBuilder report = new StringBuilder("\n[storage] mode=").append(mode);
+        long totalBytes = 0;
+        for (String table : TABLES) {
+            Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+            report.append("\n[storage] ").append(table).append(" rows=").append(rows);
+            if (BenchmarkContext.isPostgres()) {
+                Long bytes = jdbcTemplate.queryForObject(
+                        "SELECT pg_total_relation_size(to_regclass(?))", Long.class, table);
+                totalBytes += bytes == null ? 0 : bytes;
+                report.append(" bytes=").append(bytes);
+            }
+        }
+        if (BenchmarkContext.isPostgres()) {
+            report.append("\n[storage] total bytes=").append(totalBytes);
+        }
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,109 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.repositories.AccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the HTTP path: many concurrent clients page through {@code GET /api/v1/accounts?status=} against
+ * the embedded Tomcat, once on the platform-thread pool and once on virtual threads, with and without the request
+ * concurrency limiter.
+ * <p>
+ * Every request runs a read-only transaction, so the 10-connection pool is the bottleneck and the client count
+ * ({@code @Threads}, override with {@code -t}) is well above both the pool and Tomcat's 200 platform threads.
+ * Throughput is the requests/s score; p99 latency is the {@code p0.99} line of the sample-time run. Rejected
+ * requests (503) count as completed calls, so compare {@code account.concurrency.rejected} as well when the
+ * limiter is on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(512)
+@Fork(1)
+public class RequestExecutionBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"false", "true"})
+    private boolean limiter;
+
+    @Param("10000")
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startWeb(
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--account.concurrency.enabled=" + limiter,
+                "--server.tomcat.threads.max=200",
+                "--server.tomcat.max-connections=8192",
+                "--server.tomcat.accept-count=1000",
+                "--spring.datasource.hikari.maximum-pool-size=10");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/v1/accounts?status=ACTIVE&limit=" + PAGE_SIZE + "&after=";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        List<Account> batch = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            batch.add(BenchmarkContext.account("client_" + i)
+                    .status(AccountStatus.ACTIVE)
+                    .build());
+        }
+        ids = accountRepository.saveAll(batch).stream().mapToLong(Account::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int pageByStatus() throws IOException, InterruptedException {
+        long after = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + after))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
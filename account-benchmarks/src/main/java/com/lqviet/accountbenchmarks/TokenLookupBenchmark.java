@@ -0,0 +1,96 @@
+package com.lqviet.accountbenchmarks;
+
+import com.lqviet.accountservices.entities.AccountToken;
+import com.lqviet.accountservices.enums.TokenType;
+import com.lqviet.accountservices.repositories.AccountTokenRepository;
+import com.lqviet.accountservices.services.AccountTokenService;
+import com.lqviet.accountservices.tokens.TokenBloomFilter;
+import com.lqviet.accountservices.tokens.TokenDigests;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification under an attack-like load: many threads submitting random tokens, with or without a
+ * trickle of genuine ones.
+ * <p>
+ * {@code garbageUnfiltered} is the same garbage lookup going straight to the digest index, i.e. the cost every
+ * guessed token had before the filter was put in front of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TokenLookupBenchmark {
+
+    @Param("20000")
+    private int tokens;
+
+    private ConfigurableApplicationContext context;
+    private AccountTokenService tokenService;
+    private AccountTokenRepository tokenRepository;
+    private String[] issued;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        tokenService = context.getBean(AccountTokenService.class);
+        tokenRepository = context.getBean(AccountTokenRepository.class);
+        issued = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            issued[i] = tokenService.issue((long) i + 1, TokenType.PASSWORD_RESET, Duration.ofHours(1), null).token();
+        }
+        context.getBean(TokenBloomFilter.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<AccountToken> garbage() {
+        return tokenService.verify(TokenDigests.generate(), TokenType.PASSWORD_RESET);
+    }
+
+    @Benchmark
+    public Optional<AccountToken> garbageUnfiltered() {
+        return tokenRepository.findByTokenHash(TokenDigests.digest(TokenDigests.generate()));
+    }
+
+    @Benchmark
+    public Optional<AccountToken> valid() {
+        return tokenService.verify(issued[ThreadLocalRandom.current().nextInt(issued.length)],
+                TokenType.PASSWORD_RESET);
+    }
+
+    /**
+     * One genuine token per hundred guesses
+     */
+    @Benchmark
+    public Optional<AccountToken> mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String token = random.nextInt(100) == 0 ? issued[random.nextInt(issued.length)] : TokenDigests.generate();
+        return tokenService.verify(token, TokenType.PASSWORD_RESET);
+    }
+}
@@ -3,6 +3,7 @@ package com.lqviet.accountservices;
 import com.lqviet.baseentity.annotations.EnableBaseEntity;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main application class for Account Services
@@ -17,6 +18,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 @SpringBootApplication
 @EnableBaseEntity
+@ConfigurationPropertiesScan
 public class AccountServicesApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,23 @@
+package com.lqviet.accountservices.audit;
+
+import com.lqviet.accountservices.enums.AuditAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of one committed entity change, as captured on the committing thread.
+ * <p>
+ * Only the properties that matter for the action are kept: the dirty ones for updates, the non-null ones for
+ * inserts and all of them for deletes. The arrays are parallel; values are the state objects Hibernate already
+ * held, so capturing costs a few array copies and nothing is serialized until the change reaches the pipeline.
+ */
+public record AuditChange(String tableName,
+                          Long recordId,
+                          Long accountId,
+                          AuditAction action,
+                          String[] propertyNames,
+                          Object[] oldValues,
+                          Object[] newValues,
+                          Long performedBy,
+                          LocalDateTime actionDate) {
+}
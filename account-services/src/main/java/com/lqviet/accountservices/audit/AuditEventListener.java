@@ -0,0 +1,230 @@
+package com.lqviet.accountservices.audit;
+
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.enums.AuditAction;
+import com.lqviet.accountservices.pipelines.BoundedBatchPipeline;
+import com.lqviet.accountservices.properties.AuditProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Feeds committed entity changes into the audit pipeline.
+ * <p>
+ * Registered for Hibernate's post-commit insert, update and delete events, so rolled back work is never audited
+ * and the capture happens after the request's transaction is already durable. For updates only the dirty
+ * properties are copied; a flip of {@code is_deleted} is recorded as {@link AuditAction#SOFT_DELETE} or
+ * {@link AuditAction#RESTORE}. Serialization and the insert happen on the pipeline's drainer thread.
+ * <p>
+ * Writes made with plain JDBC never reach this listener; {@link JdbcWriteAuditor} lists which of them are audited
+ * explicitly and which are left out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuditEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private final EntityManagerFactory entityManagerFactory;
+    private final BoundedBatchPipeline<AuditChange> auditPipeline;
+    private final AuditProperties properties;
+    private final Map<String, EntityModel> models = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityModel model = model(event.getPersister(), event.getEntity());
+        if (model.excluded()) {
+            return;
+        }
+        Object[] state = event.getState();
+        int[] present = new int[state.length];
+        int count = 0;
+        for (int i = 0; i < state.length; i++) {
+            if (state[i] != null) {
+                present[count++] = i;
+            }
+        }
+        submit(model, event.getEntity(), event.getId(), AuditAction.INSERT, Arrays.copyOf(present, count),
+                null, state);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityModel model = model(event.getPersister(), event.getEntity());
+        if (model.excluded()) {
+            return;
+        }
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            dirty = compare(event.getOldState(), event.getState());
+        }
+        if (dirty.length == 0) {
+            return;
+        }
+        submit(model, event.getEntity(), event.getId(), updateAction(model, dirty, event.getState()), dirty,
+                event.getOldState(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityModel model = model(event.getPersister(), event.getEntity());
+        if (model.excluded()) {
+            return;
+        }
+        Object[] state = event.getDeletedState();
+        int[] all = new int[state == null ? 0 : state.length];
+        Arrays.setAll(all, i -> i);
+        submit(model, event.getEntity(), event.getId(), AuditAction.DELETE, all, state, null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    private void submit(EntityModel model, Object entity, Object id, AuditAction action, int[] indexes,
+                        Object[] oldState, Object[] newState) {
+        String[] names = new String[indexes.length];
+        Object[] oldValues = oldState == null ? null : new Object[indexes.length];
+        Object[] newValues = newState == null ? null : new Object[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            int index = indexes[i];
+            names[i] = model.propertyNames()[index];
+            if (oldValues != null) {
+                oldValues[i] = model.masked()[index] ? AuditLogWriter.MASK : oldState[index];
+            }
+            if (newValues != null) {
+                newValues[i] = model.masked()[index] ? AuditLogWriter.MASK : newState[index];
+            }
+        }
+        Object[] state = newState != null ? newState : oldState;
+        Long recordId = id instanceof Long value ? value : null;
+        Long accountId = entity instanceof Account ? recordId
+                : model.accountIdIndex() >= 0 && state != null && state[model.accountIdIndex()] instanceof Long ownerId
+                ? ownerId : null;
+        Long performedBy = model.modifiedByIndex() >= 0 && state != null
+                ? parseUserId(state[model.modifiedByIndex()]) : null;
+        AuditChange change = new AuditChange(model.tableName(), recordId, accountId, action, names, oldValues,
+                newValues, performedBy, LocalDateTime.now());
+        if (!auditPipeline.submit(change)) {
+            log.warn("Audit pipeline is saturated, dropped {} of {} #{}", action, model.tableName(), recordId);
+        }
+    }
+
+    private static AuditAction updateAction(EntityModel model, int[] dirty, Object[] state) {
+        if (model.deletedIndex() >= 0) {
+            for (int index : dirty) {
+                if (index == model.deletedIndex()) {
+                    return Boolean.TRUE.equals(state[index]) ? AuditAction.SOFT_DELETE : AuditAction.RESTORE;
+                }
+            }
+        }
+        return AuditAction.UPDATE;
+    }
+
+    private static int[] compare(Object[] oldState, Object[] state) {
+        if (oldState == null) {
+            int[] all = new int[state.length];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        return IntStream.range(0, state.length)
+                .filter(i -> !Objects.deepEquals(oldState[i], state[i]))
+                .toArray();
+    }
+
+    private static Long parseUserId(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Long.valueOf(text);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private EntityModel model(EntityPersister persister, Object entity) {
+        return models.computeIfAbsent(persister.getEntityName(), name -> {
+            Class<?> type = entity.getClass();
+            String[] propertyNames = persister.getPropertyNames();
+            boolean[] masked = new boolean[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                masked[i] = isMasked(propertyNames[i]);
+            }
+            Table table = type.getAnnotation(Table.class);
+            return new EntityModel(
+                    properties.getExcludedEntities().contains(type.getSimpleName()),
+                    table != null && !table.name().isEmpty() ? table.name() : type.getSimpleName(),
+                    propertyNames,
+                    masked,
+                    indexOf(propertyNames, "accountId"),
+                    Math.max(indexOf(propertyNames, "isDeleted"), indexOf(propertyNames, "deleted")),
+                    indexOf(propertyNames, "lastModifiedBy"));
+        });
+    }
+
+    private boolean isMasked(String propertyName) {
+        return properties.getMaskedProperties().contains(propertyName)
+                || properties.getMaskedSuffixes().stream().anyMatch(propertyName::endsWith);
+    }
+
+    private static int indexOf(String[] propertyNames, String name) {
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (propertyNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record EntityModel(boolean excluded, String tableName, String[] propertyNames, boolean[] masked,
+                               int accountIdIndex, int deletedIndex, int modifiedByIndex) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.lqviet.accountservices.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lqviet.accountservices.entities.AccountAuditLog;
+import com.lqviet.accountservices.repositories.AccountAuditLogBatchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sink of the audit pipeline: turns captured changes into {@link AccountAuditLog} rows and inserts them in one
+ * batch. Runs on the drainer thread, so the JSON diffs are never built on a request thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditLogWriter {
+    static final String MASK = "***";
+
+    private static final int CHANGED_FIELDS_LENGTH = 500;
+
+    private final AccountAuditLogBatchRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public void write(List<AuditChange> changes) {
+        List<AccountAuditLog> logs = new ArrayList<>(changes.size());
+        for (AuditChange change : changes) {
+            logs.add(toLog(change));
+        }
+        repository.insertAll(logs);
+    }
+
+    AccountAuditLog toLog(AuditChange change) {
+        String oldValues = toJson(change.propertyNames(), change.oldValues());
+        String newValues = toJson(change.propertyNames(), change.newValues());
+        AccountAuditLog entry = switch (change.action()) {
+            case INSERT -> AccountAuditLog.forInsert(change.tableName(), change.recordId(), newValues,
+                    change.performedBy());
+            case DELETE -> AccountAuditLog.forDelete(change.tableName(), change.recordId(), oldValues,
+                    change.performedBy());
+            default -> AccountAuditLog.forUpdate(change.tableName(), change.recordId(), oldValues, newValues,
+                    changedFields(change.propertyNames()), change.performedBy());
+        };
+        entry.setAction(change.action());
+        entry.setAccountId(change.accountId());
+        entry.setActionDate(change.actionDate());
+        return entry;
+    }
+
+    private String toJson(String[] names, Object[] values) {
+        if (values == null) {
+            return null;
+        }
+        Map<String, Object> diff = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            diff.put(names[i], values[i]);
+        }
+        try {
+            return objectMapper.writeValueAsString(diff);
+        } catch (JsonProcessingException e) {
+            // A value Jackson cannot handle should not cost the whole entry
+            diff.replaceAll((name, value) -> value == null ? null : String.valueOf(value));
+            try {
+                return objectMapper.writeValueAsString(diff);
+            } catch (JsonProcessingException unexpected) {
+                throw new IllegalStateException("Cannot serialize audit values", unexpected);
+            }
+        }
+    }
+
+    private static String changedFields(String[] names) {
+        String joined = String.join(",", names);
+        return joined.length() <= CHANGED_FIELDS_LENGTH ? joined : joined.substring(0, CHANGED_FIELDS_LENGTH);
+    }
+}
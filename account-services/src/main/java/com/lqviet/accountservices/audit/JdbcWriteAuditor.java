@@ -0,0 +1,40 @@
+package com.lqviet.accountservices.audit;
+
+import com.lqviet.accountservices.enums.AuditAction;
+import com.lqviet.accountservices.pipelines.BoundedBatchPipeline;
+import com.lqviet.accountservices.properties.AuditProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audits changes written with plain JDBC, which Hibernate and therefore {@link AuditEventListener} never see.
+ * <p>
+ * Only account locks and unlocks of the login buffer are recorded this way. The other JDBC writers are left out
+ * on purpose, as they change nothing an audit is asked about: login bookkeeping ({@code failed_login_attempts},
+ * {@code last_login_at}), session activity, the expiry sweeper, password rehashes (same password, new encoding),
+ * the token digest backfill, codec re-encoding and notification fan-out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JdbcWriteAuditor {
+    private final BoundedBatchPipeline<AuditChange> auditPipeline;
+    private final AuditProperties properties;
+
+    /**
+     * Records an update of an {@code accounts} row whose previous values are unknown
+     */
+    public void accountUpdated(Long accountId, String[] propertyNames, Object[] newValues) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        AuditChange change = new AuditChange("accounts", accountId, accountId, AuditAction.UPDATE, propertyNames,
+                null, newValues, null, LocalDateTime.now());
+        if (!auditPipeline.submit(change)) {
+            log.warn("Audit pipeline is saturated, dropped {} of accounts #{}", AuditAction.UPDATE, accountId);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.lqviet.accountservices.availability;
+
+import com.lqviet.accountservices.enums.AccountChangeType;
+import com.lqviet.accountservices.events.AccountChangedEvent;
+import com.lqviet.accountservices.filters.BloomFilter;
+import com.lqviet.accountservices.properties.AvailabilityProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bloom filter over every username and email held in {@code accounts}, soft-deleted rows included since they
+ * still hold their values under the unique constraints.
+ * <p>
+ * Usernames and emails share one filter under distinct prefixes. Accounts created or renamed through this replica
+ * are added once their transaction has committed; accounts created by other replicas are picked up by an
+ * incremental scan by id every refresh interval. Renames made on other replicas only reach the filter with the
+ * next rebuild, which streams both columns of the whole table into a new filter and swaps it in. A value the
+ * filter misses is then briefly reported free and the unique constraint still rejects the insert.
+ * <p>
+ * Rebuilds run on a thread of the filter, starting once the application is ready: streaming the whole table takes
+ * long enough that it must neither hold up startup nor the other jobs of the shared scheduler.
+ * <p>
+ * Until the first build has finished the filter is not ready and every check goes to the database. Meters:
+ * {@code account.availability.filter.expected.fpp} (false positive rate at the current fill) and
+ * {@code account.availability.filter.bytes} (size of the bit array).
+ */
+@Slf4j
+@Component
+public class AccountIdentifierFilter {
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String EMAIL_PREFIX = "e:";
+    private static final String IDENTIFIERS_SQL = """
+            SELECT id, username, email
+            FROM accounts
+            WHERE id > ?
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AvailabilityProperties properties;
+    private final TransactionTemplate readOnly;
+    private final ScheduledExecutorService rebuilds = Executors.newSingleThreadScheduledExecutor(
+            task -> Thread.ofPlatform().name("identifier-filter-rebuild").daemon(true).unstarted(task));
+
+    private volatile BloomFilter current;
+    private BloomFilter next;
+    private long highestId;
+
+    public AccountIdentifierFilter(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   AvailabilityProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+        Gauge.builder("account.availability.filter.expected.fpp", this,
+                        filter -> filter.current == null ? Double.NaN : filter.current.currentFalsePositiveRate())
+                .register(meterRegistry);
+        Gauge.builder("account.availability.filter.bytes", this,
+                        filter -> filter.current == null ? 0 : filter.current.bitSize() / 8.0)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * @return false only when no account can hold this username
+     */
+    public boolean mightHoldUsername(String username) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(USERNAME_PREFIX + username);
+    }
+
+    /**
+     * @return false only when no account can hold this email
+     */
+    public boolean mightHoldEmail(String email) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(EMAIL_PREFIX + email);
+    }
+
+    public synchronized void add(String username, String email) {
+        if (current != null) {
+            put(current, username, email);
+        }
+        if (next != null) {
+            put(next, username, email);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (event.changeType() != AccountChangeType.DELETED) {
+            add(event.username(), event.email());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getRebuildInterval().toMillis();
+        rebuilds.scheduleWithFixedDelay(this::rebuild, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilds.shutdownNow();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            Long accounts = jdbcTemplate.queryForObject("SELECT count(*) FROM accounts", Long.class);
+            // Leave room for the accounts created until the next rebuild
+            BloomFilter filter = new BloomFilter(
+                    Math.max(properties.getExpectedAccounts(), accounts == null ? 0 : accounts * 2),
+                    properties.getFalsePositiveRate());
+            synchronized (this) {
+                next = filter;
+            }
+            // Postgres only streams with a cursor inside a transaction; otherwise the whole table is buffered
+            Long scannedUpTo = readOnly.execute(status -> scan(0, filter));
+            synchronized (this) {
+                current = filter;
+                next = null;
+                highestId = Math.max(highestId, scannedUpTo == null ? 0 : scannedUpTo);
+            }
+            log.info("Rebuilt the username/email filter from {} accounts in {} ms ({} bits, {} hashes)", accounts,
+                    (System.nanoTime() - start) / 1_000_000, filter.bitSize(), filter.hashCount());
+        } catch (RuntimeException e) {
+            log.warn("Rebuilding the username/email filter failed, keeping the previous one", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.availability.refresh-interval:2s}")
+    public void refresh() {
+        if (current == null) {
+            return;
+        }
+        long from;
+        synchronized (this) {
+            from = Math.max(0, highestId - properties.getRefreshOverlap());
+        }
+        try {
+            long scannedUpTo = scan(from, null);
+            synchronized (this) {
+                highestId = Math.max(highestId, scannedUpTo);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refreshing the username/email filter failed", e);
+        }
+    }
+
+    /**
+     * Streams the accounts after {@code afterId} into {@code target}, or through {@link #add} when it is null
+     */
+    private long scan(long afterId, BloomFilter target) {
+        long[] highest = {afterId};
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(IDENTIFIERS_SQL);
+            statement.setFetchSize(10_000);
+            statement.setLong(1, afterId);
+            return statement;
+        }, rs -> {
+            highest[0] = rs.getLong(1);
+            if (target == null) {
+                add(rs.getString(2), rs.getString(3));
+            } else {
+                put(target, rs.getString(2), rs.getString(3));
+            }
+        });
+        return highest[0];
+    }
+
+    private static void put(BloomFilter filter, String username, String email) {
+        if (username != null) {
+            filter.put(USERNAME_PREFIX + username);
+        }
+        if (email != null) {
+            filter.put(EMAIL_PREFIX + email);
+        }
+    }
+}
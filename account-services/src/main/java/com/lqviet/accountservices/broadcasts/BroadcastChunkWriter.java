@@ -0,0 +1,112 @@
+package com.lqviet.accountservices.broadcasts;
+
+import com.lqviet.accountservices.entities.NotificationBroadcast;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes one broadcast notification per account of a chunk into {@code account_notifications}.
+ * <p>
+ * On Postgres the chunk is streamed through {@code COPY ... FROM STDIN}: every row shares the same text, so
+ * the CSV tail after the account id is encoded once per chunk. Other databases get a single JDBC batch.
+ * Both run on the connection of the surrounding transaction, so a chunk commits with its checkpoint.
+ */
+@Component
+@RequiredArgsConstructor
+public class BroadcastChunkWriter {
+    private static final String COPY_SQL = """
+            COPY account_notifications (account_id, title, message, notification_type, status, action_url,
+                                        expires_at, created_at, updated_at, is_deleted)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO account_notifications (account_id, title, message, notification_type, status, action_url,
+                                               expires_at, created_at, updated_at, is_deleted)
+            VALUES (?, ?, ?, ?, 'UNREAD', ?, ?, ?, ?, false)
+            """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void write(NotificationBroadcast broadcast, List<Long> accountIds) throws SQLException, IOException {
+        LocalDateTime now = LocalDateTime.now();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                copy(connection.unwrap(PGConnection.class), broadcast, accountIds, now);
+            } else {
+                batch(broadcast, accountIds, now);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void copy(PGConnection connection, NotificationBroadcast broadcast, List<Long> accountIds,
+                      LocalDateTime now) throws SQLException, IOException {
+        byte[] tail = csvTail(broadcast, now);
+        ByteArrayOutputStream rows = new ByteArrayOutputStream(accountIds.size() * (tail.length + 12));
+        for (Long accountId : accountIds) {
+            rows.write(Long.toString(accountId).getBytes(StandardCharsets.US_ASCII));
+            rows.write(tail);
+        }
+        CopyManager copyManager = connection.getCopyAPI();
+        copyManager.copyIn(COPY_SQL, new ByteArrayInputStream(rows.toByteArray()));
+    }
+
+    private void batch(NotificationBroadcast broadcast, List<Long> accountIds, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_SQL, accountIds, accountIds.size(), (ps, accountId) -> {
+            ps.setLong(1, accountId);
+            ps.setString(2, broadcast.getTitle());
+            ps.setString(3, broadcast.getMessage());
+            ps.setString(4, broadcast.getNotificationType().name());
+            ps.setString(5, broadcast.getActionUrl());
+            if (broadcast.getExpiresAt() != null) {
+                ps.setTimestamp(6, Timestamp.valueOf(broadcast.getExpiresAt()));
+            } else {
+                ps.setNull(6, Types.TIMESTAMP);
+            }
+            ps.setTimestamp(7, timestamp);
+            ps.setTimestamp(8, timestamp);
+        });
+    }
+
+    /**
+     * Everything after the account id of a CSV row; empty unquoted fields are NULL in COPY's CSV format
+     */
+    private static byte[] csvTail(NotificationBroadcast broadcast, LocalDateTime now) {
+        StringBuilder tail = new StringBuilder()
+                .append(',').append(quote(broadcast.getTitle()))
+                .append(',').append(quote(broadcast.getMessage()))
+                .append(',').append(broadcast.getNotificationType().name())
+                .append(",UNREAD")
+                .append(',').append(quote(broadcast.getActionUrl()))
+                .append(',').append(broadcast.getExpiresAt() == null ? "" : broadcast.getExpiresAt().toString())
+                .append(',').append(now)
+                .append(',').append(now)
+                .append(",false\n");
+        return tail.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+        return value == null ? "" : '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,297 @@
+package com.lqviet.accountservices.broadcasts;
+
+import com.lqviet.accountservices.entities.NotificationBroadcast;
+import com.lqviet.accountservices.entities.NotificationBroadcastCheckpoint;
+import com.lqviet.accountservices.enums.BroadcastStatus;
+import com.lqviet.accountservices.events.NotificationsDeliveredEvent;
+import com.lqviet.accountservices.properties.BroadcastProperties;
+import com.lqviet.accountservices.repositories.NotificationBroadcastCheckpointRepository;
+import com.lqviet.accountservices.repositories.NotificationBroadcastRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers a {@link NotificationBroadcast} to every live account that existed when it was sent, the same
+ * accounts a lazy broadcast is visible to.
+ * <p>
+ * The account id space is cut into ranges, each with a {@link NotificationBroadcastCheckpoint}, and the
+ * ranges are worked by a fixed pool. A worker walks its range by keyset in chunks; each chunk is written by
+ * {@link BroadcastChunkWriter} in the same transaction that advances the checkpoint, under a
+ * {@code FOR UPDATE SKIP LOCKED} lock on it. A crash therefore loses at most the uncommitted chunk, and any
+ * replica can resume a broadcast (at startup and periodically) without two of them writing the same range.
+ * <p>
+ * Planning locks the broadcast row and only plans a broadcast that is still pending, so it happens once even when
+ * the request that sent it and a resume scan race. The scan therefore also starts pending broadcasts, which
+ * covers one whose sender stopped between saving it and planning it.
+ * <p>
+ * {@code account.broadcast.rows} counts delivered notifications; its rate is the rows/sec figure. Each
+ * completed broadcast also logs its own rate.
+ */
+@Slf4j
+@Component
+public class BroadcastFanOutEngine {
+    private static final String TARGETS_SQL = """
+            SELECT id
+            FROM accounts
+            WHERE is_deleted = false
+              AND created_at <= ?
+              AND id > ?
+              AND id <= ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String LOCK_CHECKPOINT_SQL = """
+            SELECT last_account_id
+            FROM notification_broadcast_checkpoints
+            WHERE id = ?
+              AND completed = false
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String ADVANCE_CHECKPOINT_SQL = """
+            UPDATE notification_broadcast_checkpoints
+            SET last_account_id = ?, delivered = delivered + ?, completed = ?, updated_at = ?
+            WHERE id = ?
+            """;
+
+    private static final String LOCK_BROADCAST_SQL = """
+            SELECT status
+            FROM notification_broadcasts
+            WHERE id = ?
+            FOR UPDATE
+            """;
+
+    private static final String COMPLETE_BROADCAST_SQL = """
+            UPDATE notification_broadcasts
+            SET status = 'COMPLETED',
+                completed_at = ?,
+                updated_at = ?,
+                delivered_count = (SELECT COALESCE(SUM(delivered), 0)
+                                   FROM notification_broadcast_checkpoints
+                                   WHERE broadcast_id = ?)
+            WHERE id = ?
+              AND status = 'RUNNING'
+              AND NOT EXISTS (SELECT 1
+                              FROM notification_broadcast_checkpoints
+                              WHERE broadcast_id = ?
+                                AND completed = false)
+            """;
+
+    private final NotificationBroadcastRepository broadcastRepository;
+    private final NotificationBroadcastCheckpointRepository checkpointRepository;
+    private final BroadcastChunkWriter chunkWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BroadcastProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, BroadcastRun> runs = new ConcurrentHashMap<>();
+    private final Counter rows;
+
+    public BroadcastFanOutEngine(NotificationBroadcastRepository broadcastRepository,
+                                 NotificationBroadcastCheckpointRepository checkpointRepository,
+                                 BroadcastChunkWriter chunkWriter,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 BroadcastProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.broadcastRepository = broadcastRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.chunkWriter = chunkWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getParallelism(), properties.getParallelism(),
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getParallelism() * properties.getPartitionsPerWorker()),
+                task -> Thread.ofPlatform().name("broadcast-" + threads.incrementAndGet()).daemon(true).unstarted(task));
+        this.rows = meterRegistry.counter("account.broadcast.rows");
+        meterRegistry.gauge("account.broadcast.running", runs, Map::size);
+    }
+
+    /**
+     * Plans the partitions of a pending broadcast if needed and schedules every unfinished one
+     */
+    public void start(Long broadcastId) {
+        NotificationBroadcast broadcast = transactionTemplate.execute(status -> plan(broadcastId));
+        if (broadcast == null || broadcast.getStatus() != BroadcastStatus.RUNNING) {
+            return;
+        }
+        List<NotificationBroadcastCheckpoint> pending = checkpointRepository.findByBroadcastId(broadcastId).stream()
+                .filter(checkpoint -> !checkpoint.getCompleted())
+                .toList();
+        if (pending.isEmpty()) {
+            complete(broadcastId);
+            return;
+        }
+        BroadcastRun run = new BroadcastRun(broadcast, pending.size());
+        if (runs.putIfAbsent(broadcastId, run) != null) {
+            return;
+        }
+        for (NotificationBroadcastCheckpoint checkpoint : pending) {
+            try {
+                executor.execute(() -> runPartition(run, checkpoint.getId(), checkpoint.getRangeEnd()));
+            } catch (RejectedExecutionException e) {
+                // The resume job picks the partition up once the pool has room
+                run.partitionDone(this);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${account.broadcast.resume-interval:1m}",
+            initialDelayString = "${account.broadcast.resume-interval:1m}")
+    public void resume() {
+        for (NotificationBroadcast broadcast : broadcastRepository.findByStatusIn(
+                List.of(BroadcastStatus.PENDING, BroadcastStatus.RUNNING))) {
+            if (!runs.containsKey(broadcast.getId())) {
+                start(broadcast.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private NotificationBroadcast plan(Long broadcastId) {
+        // Held until the checkpoints are saved, so a second planner waits and then finds the broadcast running
+        jdbcTemplate.queryForList(LOCK_BROADCAST_SQL, String.class, broadcastId);
+        NotificationBroadcast broadcast = broadcastRepository.findById(broadcastId).orElse(null);
+        if (broadcast == null || broadcast.getStatus() != BroadcastStatus.PENDING) {
+            return broadcast;
+        }
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                "SELECT MIN(id) AS low, MAX(id) AS high FROM accounts WHERE is_deleted = false");
+        long low = bounds.get("low") == null ? 0 : ((Number) bounds.get("low")).longValue() - 1;
+        long high = bounds.get("high") == null ? 0 : ((Number) bounds.get("high")).longValue();
+        int partitions = (int) Math.max(1, Math.min(properties.getParallelism() * properties.getPartitionsPerWorker(),
+                high - low));
+        long width = Math.ceilDiv(high - low, partitions);
+        List<NotificationBroadcastCheckpoint> checkpoints = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            long start = low + i * width;
+            checkpoints.add(NotificationBroadcastCheckpoint.builder()
+                    .broadcastId(broadcastId)
+                    .partitionIndex(i)
+                    .rangeStart(start)
+                    .rangeEnd(i == partitions - 1 ? high : Math.min(high, start + width))
+                    .lastAccountId(start)
+                    .build());
+        }
+        checkpointRepository.saveAll(checkpoints);
+        broadcast.setStatus(BroadcastStatus.RUNNING);
+        broadcast.setStartedAt(LocalDateTime.now());
+        return broadcastRepository.save(broadcast);
+    }
+
+    private void runPartition(BroadcastRun run, Long checkpointId, long rangeEnd) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Boolean more = transactionTemplate.execute(status -> deliverChunk(run, checkpointId, rangeEnd));
+                if (!Boolean.TRUE.equals(more)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Broadcast {} stopped in partition checkpoint {}, it resumes from there",
+                    run.broadcast().getId(), checkpointId, e);
+        } finally {
+            run.partitionDone(this);
+        }
+    }
+
+    /**
+     * @return whether the partition has more accounts to deliver to
+     */
+    private boolean deliverChunk(BroadcastRun run, Long checkpointId, long rangeEnd) {
+        List<Long> locked = jdbcTemplate.queryForList(LOCK_CHECKPOINT_SQL, Long.class, checkpointId);
+        if (locked.isEmpty()) {
+            // Completed, or being worked by another replica
+            return false;
+        }
+        long cursor = locked.get(0);
+        List<Long> accountIds = jdbcTemplate.queryForList(TARGETS_SQL, Long.class,
+                Timestamp.valueOf(run.broadcast().getCreatedAt()), cursor, rangeEnd, properties.getChunkSize());
+        boolean more = accountIds.size() == properties.getChunkSize();
+        if (!accountIds.isEmpty()) {
+            try {
+                chunkWriter.write(run.broadcast(), accountIds);
+            } catch (SQLException | IOException e) {
+                throw new IllegalStateException("Failed to write broadcast chunk after account " + cursor, e);
+            }
+            cursor = accountIds.get(accountIds.size() - 1);
+            eventPublisher.publishEvent(new NotificationsDeliveredEvent(accountIds, run.broadcast().getExpiresAt()));
+        }
+        jdbcTemplate.update(ADVANCE_CHECKPOINT_SQL, cursor, accountIds.size(), !more,
+                Timestamp.valueOf(LocalDateTime.now()), checkpointId);
+        rows.increment(accountIds.size());
+        run.delivered(accountIds.size());
+        return more;
+    }
+
+    private void complete(Long broadcastId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(COMPLETE_BROADCAST_SQL, now, now, broadcastId, broadcastId, broadcastId);
+    }
+
+    private static final class BroadcastRun {
+        private final NotificationBroadcast broadcast;
+        private final AtomicInteger remaining;
+        private final AtomicLong delivered = new AtomicLong();
+        private final long startNanos = System.nanoTime();
+
+        private BroadcastRun(NotificationBroadcast broadcast, int partitions) {
+            this.broadcast = broadcast;
+            this.remaining = new AtomicInteger(partitions);
+        }
+
+        private NotificationBroadcast broadcast() {
+            return broadcast;
+        }
+
+        private void delivered(int count) {
+            delivered.addAndGet(count);
+        }
+
+        private void partitionDone(BroadcastFanOutEngine engine) {
+            if (remaining.decrementAndGet() > 0) {
+                return;
+            }
+            engine.runs.remove(broadcast.getId());
+            engine.complete(broadcast.getId());
+            double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+            log.info("Broadcast {} run delivered {} notifications in {}s ({} rows/s)", broadcast.getId(),
+                    delivered.get(), String.format("%.1f", seconds), Math.round(delivered.get() / seconds));
+        }
+    }
+}
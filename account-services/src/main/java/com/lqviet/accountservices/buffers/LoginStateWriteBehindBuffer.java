@@ -0,0 +1,392 @@
+package com.lqviet.accountservices.buffers;
+
+import com.lqviet.accountservices.audit.JdbcWriteAuditor;
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.enums.AccountChangeType;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.events.AccountChangedEvent;
+import com.lqviet.accountservices.properties.LoginThrottleProperties;
+import com.lqviet.accountservices.properties.LoginWriteBehindProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for the login bookkeeping columns of {@code accounts}.
+ * <p>
+ * Successful and failed logins only touch {@code last_login_at} and {@code failed_login_attempts}, so instead of
+ * dirtying the whole {@link Account} entity on every attempt they are coalesced per account in memory and written
+ * as periodic JDBC batches. Failure counts are flushed as deltas, which keeps concurrent writers additive.
+ * <p>
+ * The lockout rule of {@link Account#incrementFailedLoginAttempts()}, with the thresholds of
+ * {@link LoginThrottleProperties}, is evaluated under the per-account monitor, so exactly one of several concurrent
+ * failures crosses the threshold, and that transition is written synchronously before the caller returns.
+ * Failures against an account that is already locked are only counted. {@link #lock} applies a lock decided
+ * elsewhere, such as by the sliding-window throttle, the same way.
+ * <p>
+ * A successful login lifts a lock. The accounts actually unlocked by a flush get an {@link AccountChangedEvent}
+ * like a lock does, so caches stop serving them as locked. State of a locked account is kept until the lock runs
+ * out, however long it sits idle. Locks and unlocks are also audited through {@link JdbcWriteAuditor}, as these
+ * JDBC writes bypass the entity audit trail.
+ */
+@Slf4j
+@Component
+public class LoginStateWriteBehindBuffer {
+    private static final String FLUSH_SQL = """
+            UPDATE accounts
+            SET failed_login_attempts = CASE WHEN ? THEN 0 ELSE failed_login_attempts END + ?,
+                last_login_at = COALESCE(?, last_login_at)
+            WHERE id = ?
+            """;
+
+    /**
+     * Lifts the lock of accounts that logged in successfully; only rows that were locked are returned
+     */
+    private static final String UNLOCK_SQL = """
+            UPDATE accounts
+            SET locked_until = NULL,
+                status = CASE WHEN status = 'LOCKED' THEN 'ACTIVE' ELSE status END
+            WHERE id = ANY (?)
+              AND (locked_until IS NOT NULL OR status = 'LOCKED')
+            RETURNING id, status
+            """;
+
+    private static final String LOCK_SQL = """
+            UPDATE accounts
+            SET failed_login_attempts = CASE WHEN ? THEN 0 ELSE failed_login_attempts END + ?,
+                last_login_at = COALESCE(?, last_login_at),
+                status = 'LOCKED',
+                locked_until = ?
+            WHERE id = ?
+            """;
+
+    private static final String[] LOCK_AUDIT_PROPERTIES = {"status", "lockedUntil"};
+
+    private final ConcurrentHashMap<Long, LoginState> states = new ConcurrentHashMap<>();
+    /**
+     * Serializes batch flushes and lock writes so a stale reset can never overwrite a fresh lock
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcWriteAuditor auditor;
+    private final LoginWriteBehindProperties properties;
+    private final LoginThrottleProperties throttleProperties;
+    private final Counter recordedEvents;
+    private final Counter flushedRows;
+    private final Counter lockTransitions;
+
+    public LoginStateWriteBehindBuffer(JdbcTemplate jdbcTemplate,
+                                       ApplicationEventPublisher eventPublisher,
+                                       JdbcWriteAuditor auditor,
+                                       LoginWriteBehindProperties properties,
+                                       LoginThrottleProperties throttleProperties,
+                                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.auditor = auditor;
+        this.properties = properties;
+        this.throttleProperties = throttleProperties;
+        this.recordedEvents = meterRegistry.counter("account.login.buffer.events");
+        this.flushedRows = meterRegistry.counter("account.login.buffer.rows.flushed");
+        this.lockTransitions = meterRegistry.counter("account.login.buffer.locks");
+        Gauge.builder("account.login.buffer.pending", states, ConcurrentHashMap::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffered equivalent of {@link Account#updateLastLoginAt()}
+     */
+    public void recordSuccessfulLogin(Long accountId) {
+        LoginState state = states.computeIfAbsent(accountId, id -> new LoginState(0));
+        synchronized (state) {
+            state.recordSuccess(LocalDateTime.now());
+        }
+        recordedEvents.increment();
+    }
+
+    /**
+     * Buffered equivalent of {@link Account#incrementFailedLoginAttempts()}
+     *
+     * @param account the account as loaded by the caller, used to seed the counter the first time it is seen
+     * @return whether the account is locked after this failure
+     */
+    public boolean recordFailedLogin(Account account) {
+        Long accountId = account.getId();
+        LoginState state = states.computeIfAbsent(accountId, id -> new LoginState(account.getFailedLoginAttempts()));
+        recordedEvents.increment();
+
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (state) {
+            if (!state.recordFailure(now, throttleProperties.getAccountMaxFailures(),
+                    throttleProperties.getLockDuration())) {
+                return state.isLocked(now);
+            }
+        }
+        return persistLock(accountId, state);
+    }
+
+    /**
+     * Counts a failed login towards {@code failed_login_attempts} without applying the lockout rule
+     */
+    public void recordFailedAttempt(Long accountId) {
+        LoginState state = states.computeIfAbsent(accountId, id -> new LoginState(0));
+        synchronized (state) {
+            state.countFailure();
+        }
+        recordedEvents.increment();
+    }
+
+    /**
+     * Locks the account until the given time unless it is already locked; only the locking call writes
+     *
+     * @return whether this call locked the account
+     */
+    public boolean lock(Long accountId, LocalDateTime lockedUntil) {
+        LoginState state = states.computeIfAbsent(accountId, id -> new LoginState(0));
+        synchronized (state) {
+            if (!state.lockUntil(LocalDateTime.now(), lockedUntil)) {
+                return false;
+            }
+        }
+        return persistLock(accountId, state);
+    }
+
+    /**
+     * Lock state as known to this buffer, without a database round-trip
+     */
+    public boolean isLocked(Long accountId) {
+        LoginState state = states.get(accountId);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            return state.isLocked(LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.login.write-behind.flush-interval:5s}")
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<PendingWrite> pending = drain();
+            for (int from = 0; from < pending.size(); from += properties.getBatchSize()) {
+                List<PendingWrite> chunk = pending.subList(from, Math.min(from + properties.getBatchSize(), pending.size()));
+                try {
+                    writeBatch(chunk);
+                    flushedRows.increment(chunk.size());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to flush {} buffered login updates, keeping them for the next run", chunk.size(), e);
+                    chunk.forEach(this::restore);
+                    continue;
+                }
+                try {
+                    unlock(chunk);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to unlock accounts after {} logins, retrying on the next run", chunk.size(), e);
+                    chunk.stream()
+                            .filter(PendingWrite::reset)
+                            .forEach(write -> restore(new PendingWrite(write.accountId(), true, 0, null)));
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private List<PendingWrite> drain() {
+        long idleCutoff = System.nanoTime() - properties.getIdleTimeout().toNanos();
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingWrite> pending = new ArrayList<>();
+        for (Long accountId : states.keySet()) {
+            states.computeIfPresent(accountId, (id, state) -> {
+                synchronized (state) {
+                    PendingWrite write = state.drain(id);
+                    if (write != null) {
+                        pending.add(write);
+                        return state;
+                    }
+                    return state.lastTouchedNanos < idleCutoff && !state.isLocked(now) ? null : state;
+                }
+            });
+        }
+        return pending;
+    }
+
+    /**
+     * @return false when a successful login lifted the lock before it was written
+     */
+    private boolean persistLock(Long accountId, LoginState state) {
+        writeLock.lock();
+        try {
+            PendingWrite write;
+            LocalDateTime lockedUntil;
+            synchronized (state) {
+                lockedUntil = state.lockedUntil;
+                if (lockedUntil == null) {
+                    // The reset stays buffered, so the next flush writes it and the unlock path runs as usual
+                    return false;
+                }
+                write = state.drain(accountId);
+            }
+            jdbcTemplate.update(LOCK_SQL, ps -> {
+                ps.setBoolean(1, write != null && write.reset());
+                ps.setInt(2, write != null ? write.failedAttemptsDelta() : 0);
+                setTimestamp(ps, 3, write != null ? write.lastLoginAt() : null);
+                setTimestamp(ps, 4, lockedUntil);
+                ps.setLong(5, accountId);
+            });
+            lockTransitions.increment();
+            auditor.accountUpdated(accountId, LOCK_AUDIT_PROPERTIES, new Object[]{AccountStatus.LOCKED, lockedUntil});
+        } finally {
+            writeLock.unlock();
+        }
+        eventPublisher.publishEvent(new AccountChangedEvent(accountId, null, null, AccountChangeType.UPDATED));
+        return true;
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        jdbcTemplate.batchUpdate(FLUSH_SQL, batch, batch.size(), (ps, write) -> {
+            ps.setBoolean(1, write.reset());
+            ps.setInt(2, write.failedAttemptsDelta());
+            setTimestamp(ps, 3, write.lastLoginAt());
+            ps.setLong(4, write.accountId());
+        });
+    }
+
+    private void unlock(List<PendingWrite> batch) {
+        Long[] resetIds = batch.stream().filter(PendingWrite::reset).map(PendingWrite::accountId).toArray(Long[]::new);
+        if (resetIds.length == 0) {
+            return;
+        }
+        List<UnlockedAccount> unlocked = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(UNLOCK_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", resetIds));
+            return ps;
+        }, (rs, rowNum) -> new UnlockedAccount(rs.getLong(1), AccountStatus.valueOf(rs.getString(2))));
+        for (UnlockedAccount account : unlocked) {
+            auditor.accountUpdated(account.accountId(), LOCK_AUDIT_PROPERTIES, new Object[]{account.status(), null});
+            eventPublisher.publishEvent(
+                    new AccountChangedEvent(account.accountId(), null, null, AccountChangeType.UPDATED));
+        }
+    }
+
+    private void restore(PendingWrite write) {
+        LoginState state = states.computeIfAbsent(write.accountId(), id -> new LoginState(0));
+        synchronized (state) {
+            state.restore(write);
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+
+    record PendingWrite(Long accountId, boolean reset, int failedAttemptsDelta, LocalDateTime lastLoginAt) {
+    }
+
+    record UnlockedAccount(Long accountId, AccountStatus status) {
+    }
+
+    /**
+     * Per-account login state, always accessed while holding its monitor
+     */
+    static final class LoginState {
+        private int failedAttempts;
+        private int failedAttemptsDelta;
+        private boolean reset;
+        private LocalDateTime lastLoginAt;
+        private LocalDateTime lockedUntil;
+        private long lastTouchedNanos = System.nanoTime();
+
+        LoginState(Integer failedAttempts) {
+            this.failedAttempts = failedAttempts != null ? failedAttempts : 0;
+        }
+
+        void recordSuccess(LocalDateTime now) {
+            failedAttempts = 0;
+            failedAttemptsDelta = 0;
+            reset = true;
+            lastLoginAt = now;
+            lockedUntil = null;
+            lastTouchedNanos = System.nanoTime();
+        }
+
+        /**
+         * @return true when this failure is the one that locks the account
+         */
+        boolean recordFailure(LocalDateTime now, int maxFailures, Duration lockDuration) {
+            countFailure();
+            return failedAttempts >= maxFailures && lockUntil(now, now.plus(lockDuration));
+        }
+
+        void countFailure() {
+            failedAttempts++;
+            failedAttemptsDelta++;
+            lastTouchedNanos = System.nanoTime();
+        }
+
+        /**
+         * @return true when the account was not locked yet
+         */
+        boolean lockUntil(LocalDateTime now, LocalDateTime until) {
+            if (isLocked(now)) {
+                return false;
+            }
+            lockedUntil = until;
+            lastTouchedNanos = System.nanoTime();
+            return true;
+        }
+
+        boolean isLocked(LocalDateTime now) {
+            return lockedUntil != null && lockedUntil.isAfter(now);
+        }
+
+        PendingWrite drain(Long accountId) {
+            if (!reset && failedAttemptsDelta == 0 && lastLoginAt == null) {
+                return null;
+            }
+            PendingWrite write = new PendingWrite(accountId, reset, failedAttemptsDelta, lastLoginAt);
+            reset = false;
+            failedAttemptsDelta = 0;
+            lastLoginAt = null;
+            return write;
+        }
+
+        void restore(PendingWrite write) {
+            if (reset) {
+                // A newer successful login already supersedes everything in the failed write
+                return;
+            }
+            reset = write.reset();
+            failedAttemptsDelta += write.failedAttemptsDelta();
+            lastLoginAt = write.lastLoginAt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.lqviet.accountservices.buffers;
+
+import com.lqviet.accountservices.properties.SessionActivityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Debounces {@link com.lqviet.accountservices.entities.AccountSession#updateActivity()} style writes.
+ * <p>
+ * Every request touches the session, but {@code last_activity_at} is only written again once the newest
+ * timestamp has moved at least {@code granularity} past the last written one. Pending timestamps are flushed per
+ * interval as one {@code UPDATE ... FROM (VALUES ...)} statement per chunk, keyed by session token so the request
+ * path never has to load the session entity.
+ * <p>
+ * Sessions are spread over independent stripes so a flush only walks one stripe at a time while touches keep
+ * going. A touch and the removal of an idle session are both atomic on the session's map entry, so a touch
+ * never lands on a state a flush has just dropped. The before/after write rates are the rates of {@code account.session.activity.touches} and
+ * {@code account.session.activity.rows.written}.
+ */
+@Slf4j
+@Component
+public class SessionActivityTracker {
+    private static final int STRIPES = 16;
+
+    private final List<ConcurrentHashMap<String, ActivityState>> stripes = new ArrayList<>(STRIPES);
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionActivityProperties properties;
+    private final long granularityMillis;
+    private final Counter touches;
+    private final Counter rowsWritten;
+
+    public SessionActivityTracker(JdbcTemplate jdbcTemplate,
+                                  SessionActivityProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.granularityMillis = properties.getGranularity().toMillis();
+        this.touches = meterRegistry.counter("account.session.activity.touches");
+        this.rowsWritten = meterRegistry.counter("account.session.activity.rows.written");
+        for (int i = 0; i < STRIPES; i++) {
+            stripes.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Records activity on a session
+     *
+     * @return true when the activity moved far enough to be written, i.e. when other copies are worth refreshing
+     */
+    public boolean touch(String sessionToken, long nowMillis) {
+        touches.increment();
+        ActivityState state = stripe(sessionToken).compute(sessionToken, (token, current) -> {
+            ActivityState touched = current == null ? new ActivityState() : current;
+            touched.latest.accumulateAndGet(nowMillis, Math::max);
+            return touched;
+        });
+        return state.latest.get() - state.written >= granularityMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${account.session.activity.flush-interval:10s}")
+    public void flush() {
+        long idleCutoff = System.currentTimeMillis() - properties.getIdleTimeout().toMillis();
+        List<PendingActivity> pending = new ArrayList<>();
+        for (ConcurrentHashMap<String, ActivityState> stripe : stripes) {
+            for (Map.Entry<String, ActivityState> entry : stripe.entrySet()) {
+                ActivityState state = entry.getValue();
+                long latest = state.latest.get();
+                if (latest - state.written >= granularityMillis) {
+                    pending.add(new PendingActivity(entry.getKey(), latest));
+                    state.written = latest;
+                } else if (latest < idleCutoff) {
+                    // Checked again under the entry's lock, a touch may have just come in
+                    stripe.computeIfPresent(entry.getKey(), (token, idle) -> idle.latest.get() < idleCutoff
+                            && idle.latest.get() - idle.written < granularityMillis ? null : idle);
+                }
+            }
+        }
+        for (int from = 0; from < pending.size(); from += properties.getMaxRowsPerStatement()) {
+            List<PendingActivity> chunk = pending.subList(from,
+                    Math.min(from + properties.getMaxRowsPerStatement(), pending.size()));
+            try {
+                rowsWritten.increment(write(chunk));
+            } catch (RuntimeException e) {
+                log.warn("Failed to write last activity of {} sessions", chunk.size(), e);
+                chunk.forEach(this::restore);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private int write(List<PendingActivity> chunk) {
+        StringBuilder sql = new StringBuilder("""
+                UPDATE account_sessions AS s
+                SET last_activity_at = v.last_activity_at
+                FROM (VALUES\s""");
+        for (int i = 0; i < chunk.size(); i++) {
+            // pgjdbc sends timestamps untyped, and an untyped VALUES column would resolve to text
+            sql.append(i == 0 ? "(?, CAST(? AS timestamp))" : ", (?, CAST(? AS timestamp))");
+        }
+        sql.append("""
+                ) AS v(session_token, last_activity_at)
+                WHERE s.session_token = v.session_token
+                  AND s.last_activity_at < v.last_activity_at
+                """);
+        return jdbcTemplate.update(sql.toString(), ps -> {
+            int index = 1;
+            for (PendingActivity activity : chunk) {
+                ps.setString(index++, activity.sessionToken());
+                ps.setTimestamp(index++, new Timestamp(activity.lastActivityMillis()));
+            }
+        });
+    }
+
+    private void restore(PendingActivity activity) {
+        ActivityState state = stripe(activity.sessionToken()).get(activity.sessionToken());
+        if (state != null && state.written == activity.lastActivityMillis()) {
+            state.written = 0;
+        }
+    }
+
+    private ConcurrentHashMap<String, ActivityState> stripe(String sessionToken) {
+        return stripes.get((sessionToken.hashCode() & Integer.MAX_VALUE) % STRIPES);
+    }
+
+    private record PendingActivity(String sessionToken, long lastActivityMillis) {
+    }
+
+    private static final class ActivityState {
+        private final AtomicLong latest = new AtomicLong();
+        /**
+         * Only read and written by the flushing thread; touches merely compare against it
+         */
+        private volatile long written;
+    }
+}
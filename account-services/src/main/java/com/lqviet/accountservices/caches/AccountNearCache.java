@@ -0,0 +1,256 @@
+package com.lqviet.accountservices.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.events.AccountChangedEvent;
+import com.lqviet.accountservices.properties.AccountCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicted near cache of {@link AccountResponse} snapshots.
+ * <p>
+ * Accounts are stored once by id; username and email are secondary indexes pointing at the id.
+ * An index hit is only trusted when the cached account still carries the same username or email,
+ * so a rename never serves the old owner of a name. Usernames and emails that matched no account
+ * are remembered for a short while, here and in the shared tier.
+ * <p>
+ * Misses go through {@link SharedCacheTier}, which stores accounts by id and the username and email
+ * indexes in Redis when it is enabled. Entries are evicted as soon as Hibernate flushes a change and
+ * once more when the transaction completes, which closes the window where a concurrent reader could
+ * re-cache the pre-commit row; both evictions reach the other replicas through the shared tier.
+ */
+@Component
+public class AccountNearCache {
+    static final String ACCOUNTS = "account";
+    static final String USERNAMES = "account-username";
+    static final String EMAILS = "account-email";
+
+    private final Cache<Long, AccountResponse> byId;
+    private final Cache<String, Long> idByUsername;
+    private final Cache<String, Long> idByEmail;
+    private final Cache<String, Boolean> missingUsernames;
+    private final Cache<String, Boolean> missingEmails;
+    private final SharedCacheTier sharedTier;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AccountNearCache(AccountCacheProperties properties, SharedCacheTier sharedTier, MeterRegistry meterRegistry) {
+        this.byId = newCache(properties);
+        this.idByUsername = newCache(properties);
+        this.idByEmail = newCache(properties);
+        this.missingUsernames = newMissingCache(properties);
+        this.missingEmails = newMissingCache(properties);
+        this.sharedTier = sharedTier;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "account.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByUsername, "account.by-username");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "account.by-email");
+
+        sharedTier.onInvalidation(ACCOUNTS, id -> evictLocally(Long.valueOf(id)));
+        sharedTier.onInvalidation(USERNAMES, username -> {
+            idByUsername.invalidate(username);
+            missingUsernames.invalidate(username);
+        });
+        sharedTier.onInvalidation(EMAILS, email -> {
+            idByEmail.invalidate(email);
+            missingEmails.invalidate(email);
+        });
+    }
+
+    public AccountResponse getById(Long id, Function<Long, AccountResponse> loader) {
+        AccountResponse account = byId.get(id, key -> sharedTier.load(ACCOUNTS, key, () -> loader.apply(key), false));
+        if (account != null) {
+            index(account);
+        }
+        return account;
+    }
+
+    public AccountResponse getByUsername(String username, Supplier<AccountResponse> loader) {
+        Long id = idByUsername.getIfPresent(username);
+        if (id != null) {
+            AccountResponse account = byId.getIfPresent(id);
+            if (account != null && username.equals(account.getUsername())) {
+                return account;
+            }
+            idByUsername.invalidate(username);
+        }
+        if (missingUsernames.getIfPresent(username) != null) {
+            return null;
+        }
+        AccountResponse account = loadIndexed(USERNAMES, username, loader, AccountResponse::getUsername);
+        if (account == null) {
+            missingUsernames.put(username, Boolean.TRUE);
+        }
+        return account;
+    }
+
+    public AccountResponse getByEmail(String email, Supplier<AccountResponse> loader) {
+        Long id = idByEmail.getIfPresent(email);
+        if (id != null) {
+            AccountResponse account = byId.getIfPresent(id);
+            if (account != null && email.equals(account.getEmail())) {
+                return account;
+            }
+            idByEmail.invalidate(email);
+        }
+        if (missingEmails.getIfPresent(email) != null) {
+            return null;
+        }
+        AccountResponse account = loadIndexed(EMAILS, email, loader, AccountResponse::getEmail);
+        if (account == null) {
+            missingEmails.put(email, Boolean.TRUE);
+        }
+        return account;
+    }
+
+    public AccountResponse getIfPresent(Long id) {
+        return byId.getIfPresent(id);
+    }
+
+    /**
+     * The cached account with this username, without loading it
+     */
+    public AccountResponse getIfPresentByUsername(String username) {
+        Long id = idByUsername.getIfPresent(username);
+        AccountResponse account = id == null ? null : byId.getIfPresent(id);
+        return account != null && username.equals(account.getUsername()) ? account : null;
+    }
+
+    public void put(AccountResponse account) {
+        byId.put(account.getId(), account);
+        index(account);
+    }
+
+    /**
+     * Number of evictions so far; read it before querying accounts that are cached with {@link #putIfUnevicted}
+     */
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Caches an account read outside {@link #getById}, unless any account was evicted since {@code evictionCount}
+     * was read: the row may then predate a change whose eviction already ran
+     */
+    public void putIfUnevicted(AccountResponse account, long evictionCount) {
+        if (evictions.get() != evictionCount) {
+            return;
+        }
+        put(account);
+        if (evictions.get() != evictionCount) {
+            removeLocally(account.getId());
+        }
+    }
+
+    public void evict(Long id) {
+        AccountResponse removed = evictLocally(id);
+        sharedTier.evict(ACCOUNTS, id);
+        if (removed != null) {
+            sharedTier.evict(USERNAMES, removed.getUsername());
+            sharedTier.evict(EMAILS, removed.getEmail());
+        }
+    }
+
+    public void evictAll() {
+        evictions.incrementAndGet();
+        byId.invalidateAll();
+        idByUsername.invalidateAll();
+        idByEmail.invalidateAll();
+        missingUsernames.invalidateAll();
+        missingEmails.invalidateAll();
+    }
+
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        evict(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterAccountChangeCompleted(AccountChangedEvent event) {
+        evict(event);
+    }
+
+    private void evict(AccountChangedEvent event) {
+        if (event.accountId() != null) {
+            evict(event.accountId());
+        }
+        if (event.username() != null) {
+            evictions.incrementAndGet();
+            idByUsername.invalidate(event.username());
+            missingUsernames.invalidate(event.username());
+            sharedTier.evict(USERNAMES, event.username());
+        }
+        if (event.email() != null) {
+            idByEmail.invalidate(event.email());
+            missingEmails.invalidate(event.email());
+            sharedTier.evict(EMAILS, event.email());
+        }
+    }
+
+    private AccountResponse evictLocally(Long id) {
+        evictions.incrementAndGet();
+        return removeLocally(id);
+    }
+
+    private AccountResponse removeLocally(Long id) {
+        AccountResponse removed = byId.asMap().remove(id);
+        if (removed != null) {
+            idByUsername.invalidate(removed.getUsername());
+            idByEmail.invalidate(removed.getEmail());
+        }
+        return removed;
+    }
+
+    /**
+     * The shared tier only keeps the id of a username or email; the account itself is taken from its by-id entry
+     * and checked against the name like an L1 index hit
+     */
+    private AccountResponse loadIndexed(String namespace, String name, Supplier<AccountResponse> loader,
+                                        Function<AccountResponse, String> nameOf) {
+        AccountResponse[] loaded = new AccountResponse[1];
+        Long id = sharedTier.load(namespace, name, () -> {
+            loaded[0] = loader.get();
+            return loaded[0] == null ? null : loaded[0].getId();
+        }, true);
+        if (id == null) {
+            return null;
+        }
+        AccountResponse account = loaded[0] != null ? loaded[0] : sharedTier.peek(ACCOUNTS, id);
+        if (account == null || !name.equals(nameOf.apply(account))) {
+            account = loader.get();
+        }
+        if (account != null) {
+            put(account);
+        }
+        return account;
+    }
+
+    private void index(AccountResponse account) {
+        idByUsername.put(account.getUsername(), account.getId());
+        idByEmail.put(account.getEmail(), account.getId());
+    }
+
+    private static <K, V> Cache<K, V> newCache(AccountCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    private static Cache<String, Boolean> newMissingCache(AccountCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getMissingExpireAfterWrite())
+                .build();
+    }
+}
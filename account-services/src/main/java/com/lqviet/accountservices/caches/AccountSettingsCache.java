@@ -0,0 +1,94 @@
+package com.lqviet.accountservices.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lqviet.accountservices.events.AccountSettingsChangedEvent;
+import com.lqviet.accountservices.properties.AccountSettingsProperties;
+import com.lqviet.accountservices.settings.AccountSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+
+/**
+ * Per-account {@link AccountSettings} cache with versioned invalidation.
+ * <p>
+ * Every account hashes to a version slot that is bumped on each change. A map is loaded under the version read
+ * before the query and is only cached, and only served from the cache, while that version is still current, so
+ * a load racing with a write can never reinstall the settings the write replaced. Slots are shared between
+ * accounts, which at worst costs a neighbour one extra reload.
+ * <p>
+ * Loads go through {@link SharedCacheTier}, so with Redis enabled a view loaded by one replica is reused by the
+ * others under their own version, and an eviction bumps the version on every replica.
+ */
+@Component
+public class AccountSettingsCache {
+    static final String SETTINGS = "account-settings";
+    private static final int VERSION_SLOTS = 4096;
+
+    private final Cache<Long, AccountSettings> settings;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_SLOTS);
+    private final SharedCacheTier sharedTier;
+
+    public AccountSettingsCache(AccountSettingsProperties properties,
+                                SharedCacheTier sharedTier,
+                                MeterRegistry meterRegistry) {
+        this.sharedTier = sharedTier;
+        this.settings = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getExpireAfterAccess())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, settings, "account.settings");
+        sharedTier.onInvalidation(SETTINGS, accountId -> evictLocally(Long.valueOf(accountId)));
+    }
+
+    /**
+     * @param loader receives the account id and the version the loaded map has to carry
+     */
+    public AccountSettings get(Long accountId, BiFunction<Long, Long, AccountSettings> loader) {
+        int slot = slot(accountId);
+        long version = versions.get(slot);
+        AccountSettings cached = settings.getIfPresent(accountId);
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+        AccountSettings loaded = sharedTier.<AccountSettings>load(SETTINGS, accountId,
+                () -> loader.apply(accountId, version), false).withVersion(version);
+        if (versions.get(slot) == version) {
+            settings.asMap().merge(accountId, loaded,
+                    (current, candidate) -> current.getVersion() >= candidate.getVersion() ? current : candidate);
+        }
+        return loaded;
+    }
+
+    public void evict(Long accountId) {
+        evictLocally(accountId);
+        sharedTier.evict(SETTINGS, accountId);
+    }
+
+    @EventListener
+    public void onSettingsChanged(AccountSettingsChangedEvent event) {
+        evict(event.accountId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterSettingsChangeCompleted(AccountSettingsChangedEvent event) {
+        evict(event.accountId());
+    }
+
+    private void evictLocally(Long accountId) {
+        versions.incrementAndGet(slot(accountId));
+        settings.invalidate(accountId);
+    }
+
+    private static int slot(Long accountId) {
+        return (Long.hashCode(accountId) & Integer.MAX_VALUE) % VERSION_SLOTS;
+    }
+}
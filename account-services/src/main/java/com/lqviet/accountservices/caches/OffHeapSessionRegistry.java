@@ -0,0 +1,482 @@
+package com.lqviet.accountservices.caches;
+
+import com.lqviet.accountservices.entities.AccountSession;
+import com.lqviet.accountservices.enums.SessionStatus;
+import com.lqviet.accountservices.enums.SessionValidity;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Open-addressing hash table of session state living in a memory-mapped file.
+ * <p>
+ * Sessions are keyed by a seeded 128-bit hash of the session token; the token itself is never stored. Each slot
+ * only holds the account id, the {@link SessionStatus} ordinal, and the expiry and last-activity epoch millis,
+ * so millions of sessions cost no heap and are still there after a restart.
+ * <p>
+ * A reopened file may have missed revocations while the process was down, so {@link #recover()} clears the
+ * confirmed flag of every slot: a restored session can still be answered {@link SessionValidity#INVALID}, but is
+ * only answered {@link SessionValidity#VALID} again once it has been re-read from the database and {@link #put}.
+ * <p>
+ * The table is split into independent segments selected by the top bits of the hash. Writers take the
+ * segment lock; readers never lock and instead use a per-slot sequence counter (seqlock), retrying when they
+ * observe a concurrent write. {@link #validate(CharSequence, long)} therefore allocates nothing and never
+ * touches the database; it answers {@link SessionValidity#UNKNOWN} when the caller has to fall back to it.
+ * <p>
+ * Slot layout (48 bytes):
+ * <pre>
+ *  0 int  sequence (odd while being written)
+ *  4 byte slot state (empty, full, deleted)
+ *  5 byte session status ordinal
+ *  6 byte confirmed (written since this process opened the file)
+ *  8 long key high bits
+ * 16 long key low bits
+ * 24 long account id
+ * 32 long expires at (epoch millis)
+ * 40 long last activity at (epoch millis)
+ * </pre>
+ */
+@Slf4j
+public class OffHeapSessionRegistry implements Closeable {
+    private static final long MAGIC = 0x4143435345535331L;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 48;
+
+    private static final int SEQUENCE = 0;
+    private static final int STATE = 4;
+    private static final int STATUS = 5;
+    private static final int CONFIRMED = 6;
+    private static final int KEY_HI = 8;
+    private static final int KEY_LO = 16;
+    private static final int ACCOUNT_ID = 24;
+    private static final int EXPIRES_AT = 32;
+    private static final int LAST_ACTIVITY = 40;
+
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte DELETED = 2;
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int MAX_READ_ATTEMPTS = 8;
+    private static final byte ACTIVE = (byte) SessionStatus.ACTIVE.ordinal();
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotsPerSegment;
+    private final int maxUsedPerSegment;
+    private final long seedHi;
+    private final long seedLo;
+    private final ReentrantLock[] locks = new ReentrantLock[SEGMENTS];
+    private final int[] usedSlots = new int[SEGMENTS];
+    private final int[] liveSlots = new int[SEGMENTS];
+
+    public OffHeapSessionRegistry(Path path, int capacity) throws IOException {
+        int perSegment = Integer.highestOneBit(Math.max(capacity / SEGMENTS, 16) - 1) << 1;
+        long size = HEADER_SIZE + (long) perSegment * SEGMENTS * SLOT_SIZE;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Session registry capacity " + capacity + " exceeds a single mapping");
+        }
+        this.slotsPerSegment = perSegment;
+        this.maxUsedPerSegment = perSegment - perSegment / 4;
+        for (int i = 0; i < SEGMENTS; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean reuse = channel.size() == size;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.buffer.order(ByteOrder.nativeOrder());
+
+        if (reuse && buffer.getLong(0) == MAGIC && buffer.getInt(8) == FORMAT_VERSION && buffer.getInt(12) == perSegment) {
+            this.seedHi = buffer.getLong(16);
+            this.seedLo = buffer.getLong(24);
+            recover();
+            log.info("Reopened session registry {} with {} live sessions", path, size());
+        } else {
+            SecureRandom random = new SecureRandom();
+            this.seedHi = random.nextLong();
+            this.seedLo = random.nextLong();
+            initialize();
+            log.info("Created session registry {} with {} slots", path, (long) perSegment * SEGMENTS);
+        }
+    }
+
+    /**
+     * Lock-free, allocation-free check of a session token
+     */
+    public SessionValidity validate(CharSequence token, long nowMillis) {
+        long hi = hash(token, seedHi);
+        long lo = hash(token, seedLo);
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            int offset = find(hi, lo);
+            if (offset < 0) {
+                return SessionValidity.UNKNOWN;
+            }
+            int sequence = (int) INT.getAcquire(buffer, offset + SEQUENCE);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            byte state = buffer.get(offset + STATE);
+            long keyHi = buffer.getLong(offset + KEY_HI);
+            long keyLo = buffer.getLong(offset + KEY_LO);
+            byte status = buffer.get(offset + STATUS);
+            byte confirmed = buffer.get(offset + CONFIRMED);
+            long expiresAt = buffer.getLong(offset + EXPIRES_AT);
+            VarHandle.loadLoadFence();
+            if ((int) INT.getOpaque(buffer, offset + SEQUENCE) != sequence
+                    || state != FULL || keyHi != hi || keyLo != lo) {
+                continue;
+            }
+            if (status != ACTIVE || expiresAt <= nowMillis) {
+                return SessionValidity.INVALID;
+            }
+            return confirmed != 0 ? SessionValidity.VALID : SessionValidity.UNKNOWN;
+        }
+        return SessionValidity.UNKNOWN;
+    }
+
+    /**
+     * Account owning the session, or -1 when the token is not registered
+     */
+    public long accountId(CharSequence token) {
+        long hi = hash(token, seedHi);
+        long lo = hash(token, seedLo);
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            int offset = find(hi, lo);
+            if (offset < 0) {
+                return -1;
+            }
+            int sequence = (int) INT.getAcquire(buffer, offset + SEQUENCE);
+            long keyHi = buffer.getLong(offset + KEY_HI);
+            long keyLo = buffer.getLong(offset + KEY_LO);
+            long accountId = buffer.getLong(offset + ACCOUNT_ID);
+            VarHandle.loadLoadFence();
+            if ((sequence & 1) == 0 && (int) INT.getOpaque(buffer, offset + SEQUENCE) == sequence
+                    && keyHi == hi && keyLo == lo) {
+                return accountId;
+            }
+            Thread.onSpinWait();
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts or replaces a session
+     *
+     * @return false when the segment is full, in which case the session is only known to the database
+     */
+    public boolean put(CharSequence token, long accountId, SessionStatus status, long expiresAtMillis, long lastActivityMillis) {
+        long hi = hash(token, seedHi);
+        long lo = hash(token, seedLo);
+        int segment = segment(hi);
+        ReentrantLock lock = locks[segment];
+        lock.lock();
+        try {
+            int offset = find(hi, lo);
+            if (offset < 0) {
+                offset = claim(segment, lo);
+                if (offset < 0) {
+                    return false;
+                }
+            }
+            beginWrite(offset);
+            buffer.putLong(offset + KEY_HI, hi);
+            buffer.putLong(offset + KEY_LO, lo);
+            buffer.putLong(offset + ACCOUNT_ID, accountId);
+            buffer.put(offset + STATUS, (byte) status.ordinal());
+            buffer.put(offset + CONFIRMED, (byte) 1);
+            buffer.putLong(offset + EXPIRES_AT, expiresAtMillis);
+            buffer.putLong(offset + LAST_ACTIVITY, lastActivityMillis);
+            buffer.put(offset + STATE, FULL);
+            endWrite(offset);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean put(AccountSession session) {
+        SessionStatus status = session.isDeleted() ? SessionStatus.INVALID : session.getStatus();
+        return put(session.getSessionToken(), session.getAccountId(), status,
+                toEpochMillis(session.getExpiresAt()), toEpochMillis(session.getLastActivityAt()));
+    }
+
+    public void updateStatus(CharSequence token, SessionStatus status) {
+        update(token, offset -> buffer.put(offset + STATUS, (byte) status.ordinal()));
+    }
+
+    public void touch(CharSequence token, long lastActivityMillis) {
+        update(token, offset -> buffer.putLong(offset + LAST_ACTIVITY, lastActivityMillis));
+    }
+
+    public void remove(CharSequence token) {
+        long hi = hash(token, seedHi);
+        int segment = segment(hi);
+        update(token, offset -> {
+            buffer.put(offset + STATE, DELETED);
+            liveSlots[segment]--;
+        });
+    }
+
+    /**
+     * Marks expired sessions as deleted and rebuilds segments that are dominated by tombstones
+     *
+     * @return number of sessions purged
+     */
+    public int purgeExpired(long nowMillis) {
+        int purged = 0;
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            ReentrantLock lock = locks[segment];
+            lock.lock();
+            try {
+                for (int index = 0; index < slotsPerSegment; index++) {
+                    int offset = offset(segment, index);
+                    if (buffer.get(offset + STATE) == FULL && buffer.getLong(offset + EXPIRES_AT) <= nowMillis) {
+                        beginWrite(offset);
+                        buffer.put(offset + STATE, DELETED);
+                        endWrite(offset);
+                        liveSlots[segment]--;
+                        purged++;
+                    }
+                }
+                if (usedSlots[segment] - liveSlots[segment] > slotsPerSegment / 4) {
+                    compact(segment);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return purged;
+    }
+
+    public long size() {
+        long size = 0;
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            size += liveSlots[segment];
+        }
+        return size;
+    }
+
+    public long capacity() {
+        return (long) slotsPerSegment * SEGMENTS;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void update(CharSequence token, SlotWriter writer) {
+        long hi = hash(token, seedHi);
+        long lo = hash(token, seedLo);
+        ReentrantLock lock = locks[segment(hi)];
+        lock.lock();
+        try {
+            int offset = find(hi, lo);
+            if (offset >= 0) {
+                beginWrite(offset);
+                writer.write(offset);
+                endWrite(offset);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int find(long hi, long lo) {
+        int segment = segment(hi);
+        int mask = slotsPerSegment - 1;
+        int index = (int) lo & mask;
+        for (int probe = 0; probe < slotsPerSegment; probe++) {
+            int offset = offset(segment, index);
+            byte state = buffer.get(offset + STATE);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == FULL && buffer.getLong(offset + KEY_HI) == hi && buffer.getLong(offset + KEY_LO) == lo) {
+                return offset;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * First reusable slot on the probe path; must hold the segment lock
+     */
+    private int claim(int segment, long lo) {
+        int mask = slotsPerSegment - 1;
+        int index = (int) lo & mask;
+        for (int probe = 0; probe < slotsPerSegment; probe++) {
+            int offset = offset(segment, index);
+            byte state = buffer.get(offset + STATE);
+            if (state == DELETED) {
+                liveSlots[segment]++;
+                return offset;
+            }
+            if (state == EMPTY) {
+                if (usedSlots[segment] >= maxUsedPerSegment) {
+                    return -1;
+                }
+                usedSlots[segment]++;
+                liveSlots[segment]++;
+                return offset;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Re-inserts the live entries of a segment so probe chains no longer run through tombstones.
+     * Readers racing with the rebuild may get {@link SessionValidity#UNKNOWN} and fall back to the database.
+     */
+    private void compact(int segment) {
+        int full = 0;
+        for (int index = 0; index < slotsPerSegment; index++) {
+            if (buffer.get(offset(segment, index) + STATE) == FULL) {
+                full++;
+            }
+        }
+        long[] live = new long[full * 5];
+        byte[] statuses = new byte[full];
+        byte[] confirmed = new byte[full];
+        int count = 0;
+        for (int index = 0; index < slotsPerSegment; index++) {
+            int offset = offset(segment, index);
+            if (buffer.get(offset + STATE) == FULL) {
+                live[count * 5] = buffer.getLong(offset + KEY_HI);
+                live[count * 5 + 1] = buffer.getLong(offset + KEY_LO);
+                live[count * 5 + 2] = buffer.getLong(offset + ACCOUNT_ID);
+                live[count * 5 + 3] = buffer.getLong(offset + EXPIRES_AT);
+                live[count * 5 + 4] = buffer.getLong(offset + LAST_ACTIVITY);
+                statuses[count] = buffer.get(offset + STATUS);
+                confirmed[count] = buffer.get(offset + CONFIRMED);
+                count++;
+            }
+            if (buffer.get(offset + STATE) != EMPTY) {
+                beginWrite(offset);
+                buffer.put(offset + STATE, EMPTY);
+                endWrite(offset);
+            }
+        }
+        usedSlots[segment] = 0;
+        liveSlots[segment] = 0;
+        for (int i = 0; i < count; i++) {
+            int offset = claim(segment, live[i * 5 + 1]);
+            beginWrite(offset);
+            buffer.putLong(offset + KEY_HI, live[i * 5]);
+            buffer.putLong(offset + KEY_LO, live[i * 5 + 1]);
+            buffer.putLong(offset + ACCOUNT_ID, live[i * 5 + 2]);
+            buffer.putLong(offset + EXPIRES_AT, live[i * 5 + 3]);
+            buffer.putLong(offset + LAST_ACTIVITY, live[i * 5 + 4]);
+            buffer.put(offset + STATUS, statuses[i]);
+            buffer.put(offset + CONFIRMED, confirmed[i]);
+            buffer.put(offset + STATE, FULL);
+            endWrite(offset);
+        }
+    }
+
+    private void initialize() {
+        for (int offset = HEADER_SIZE; offset < buffer.capacity(); offset += SLOT_SIZE) {
+            buffer.putInt(offset + SEQUENCE, 0);
+            buffer.put(offset + STATE, EMPTY);
+        }
+        buffer.putLong(16, seedHi);
+        buffer.putLong(24, seedLo);
+        buffer.putInt(8, FORMAT_VERSION);
+        buffer.putInt(12, slotsPerSegment);
+        buffer.putLong(0, MAGIC);
+    }
+
+    /**
+     * Rebuilds the in-memory counters, discards slots a crash left half written and unconfirms every session
+     */
+    private void recover() {
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            for (int index = 0; index < slotsPerSegment; index++) {
+                int offset = offset(segment, index);
+                int sequence = buffer.getInt(offset + SEQUENCE);
+                if ((sequence & 1) != 0) {
+                    buffer.putInt(offset + SEQUENCE, sequence + 1);
+                    if (buffer.get(offset + STATE) == FULL) {
+                        buffer.put(offset + STATE, DELETED);
+                    }
+                }
+                buffer.put(offset + CONFIRMED, (byte) 0);
+                byte state = buffer.get(offset + STATE);
+                if (state != EMPTY) {
+                    usedSlots[segment]++;
+                }
+                if (state == FULL) {
+                    liveSlots[segment]++;
+                }
+            }
+        }
+    }
+
+    private void beginWrite(int offset) {
+        int sequence = (int) INT.get(buffer, offset + SEQUENCE);
+        INT.setOpaque(buffer, offset + SEQUENCE, sequence + 1);
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite(int offset) {
+        int sequence = (int) INT.get(buffer, offset + SEQUENCE);
+        INT.setRelease(buffer, offset + SEQUENCE, sequence + 1);
+    }
+
+    private int offset(int segment, int index) {
+        return HEADER_SIZE + (segment * slotsPerSegment + index) * SLOT_SIZE;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static int segment(long hi) {
+        return (int) (hi >>> (64 - SEGMENT_BITS));
+    }
+
+    static long hash(CharSequence token, long seed) {
+        long h = seed ^ (token.length() * 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < token.length(); i++) {
+            h ^= token.charAt(i);
+            h *= 0xBF58476D1CE4E5B9L;
+            h = Long.rotateLeft(h, 31);
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @FunctionalInterface
+    private interface SlotWriter {
+        void write(int offset);
+    }
+}
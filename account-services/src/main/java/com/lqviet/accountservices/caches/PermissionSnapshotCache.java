@@ -0,0 +1,80 @@
+package com.lqviet.accountservices.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.lqviet.accountservices.events.AccountAuthorizationChangedEvent;
+import com.lqviet.accountservices.permissions.PermissionSnapshot;
+import com.lqviet.accountservices.properties.PermissionSnapshotProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Per-account {@link PermissionSnapshot} cache.
+ * <p>
+ * Each entry expires at the earliest grant expiry of its snapshot (capped by the configured max TTL), so the next
+ * check after a role or permission lapses rebuilds the snapshot. Grants and revokes evict the account on flush and
+ * again once the transaction completes.
+ */
+@Component
+public class PermissionSnapshotCache {
+    private final Cache<Long, PermissionSnapshot> snapshots;
+
+    public PermissionSnapshotCache(PermissionSnapshotProperties properties, MeterRegistry meterRegistry) {
+        long maxTtlNanos = properties.getMaxTtl().toNanos();
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new Expiry<Long, PermissionSnapshot>() {
+                    @Override
+                    public long expireAfterCreate(Long accountId, PermissionSnapshot snapshot, long currentTime) {
+                        LocalDateTime validUntil = snapshot.getValidUntil();
+                        if (validUntil == null) {
+                            return maxTtlNanos;
+                        }
+                        long untilExpiry = Duration.between(LocalDateTime.now(), validUntil).toNanos();
+                        return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long accountId, PermissionSnapshot snapshot, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(accountId, snapshot, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long accountId, PermissionSnapshot snapshot, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "account.permissions");
+    }
+
+    public PermissionSnapshot get(Long accountId, Function<Long, PermissionSnapshot> loader) {
+        return snapshots.get(accountId, loader);
+    }
+
+    public void evict(Long accountId) {
+        snapshots.invalidate(accountId);
+    }
+
+    @EventListener
+    public void onAuthorizationChanged(AccountAuthorizationChangedEvent event) {
+        evict(event.accountId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterAuthorizationChangeCompleted(AccountAuthorizationChangedEvent event) {
+        evict(event.accountId());
+    }
+}
@@ -0,0 +1,62 @@
+package com.lqviet.accountservices.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lqviet.accountservices.events.AccountChangedEvent;
+import com.lqviet.accountservices.properties.BatchLookupProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Display name and avatar of accounts, by account id, for the batched lookup.
+ * <p>
+ * Nothing in this service writes profiles, so profile edits only show once an entry ages out. An account change
+ * evicts the card, as soon as it is published and once more when its transaction completes like
+ * {@link AccountNearCache}, which covers deletion. An account without a profile is cached as an empty card.
+ */
+@Component
+public class ProfileCardCache {
+    public static final ProfileCard EMPTY = new ProfileCard(null, null);
+
+    private final Cache<Long, ProfileCard> cards;
+
+    public ProfileCardCache(BatchLookupProperties properties, MeterRegistry meterRegistry) {
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(properties.getProfileMaximumSize())
+                .expireAfterWrite(properties.getProfileExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "account.profile-card");
+    }
+
+    public ProfileCard getIfPresent(Long accountId) {
+        return cards.getIfPresent(accountId);
+    }
+
+    public void put(Long accountId, String displayName, String avatarUrl) {
+        cards.put(accountId, displayName == null && avatarUrl == null ? EMPTY : new ProfileCard(displayName, avatarUrl));
+    }
+
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        evict(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterAccountChangeCompleted(AccountChangedEvent event) {
+        evict(event);
+    }
+
+    private void evict(AccountChangedEvent event) {
+        if (event.accountId() != null) {
+            cards.invalidate(event.accountId());
+        }
+    }
+
+    public record ProfileCard(String displayName, String avatarUrl) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.lqviet.accountservices.caches;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@link SharedCacheStore} on Redis. Keys are prefixed, lock leases are {@code SET NX PX} on
+ * {@code <key>:lock} and invalidations go out over pub/sub.
+ * <p>
+ * The generation of a key is a counter in {@code <key>:gen}, incremented together with the delete and kept for
+ * {@code generationTimeToLive}, which must outlast any load. Conditional writes compare it in a script, so the
+ * check and the write are atomic.
+ */
+@RequiredArgsConstructor
+public class RedisSharedCacheStore implements SharedCacheStore {
+    private static final RedisScript<Long> PUT_IF_GENERATION = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> DELETE = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    /**
+     * Publishes plain UTF-8 messages and handles the generation counters, the value template would serialize
+     * them as Java objects
+     */
+    private final StringRedisTemplate messageTemplate;
+    private final String keyPrefix;
+    private final String channel;
+    private final Duration generationTimeToLive;
+
+    @Override
+    public Object get(String key) {
+        return redisTemplate.opsForValue().get(keyPrefix + key);
+    }
+
+    @Override
+    public long generation(String key) {
+        String generation = messageTemplate.opsForValue().get(keyPrefix + key + ":gen");
+        return generation == null ? 0 : Long.parseLong(generation);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean putIfGeneration(String key, Object value, Duration timeToLive, long generation) {
+        byte[] serialized = ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+        Long stored = redisTemplate.execute(PUT_IF_GENERATION, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(keyPrefix + key, keyPrefix + key + ":gen"),
+                utf8(Long.toString(generation)), serialized, utf8(Long.toString(timeToLive.toMillis())));
+        return stored != null && stored == 1;
+    }
+
+    @Override
+    public void delete(String key) {
+        messageTemplate.execute(DELETE, List.of(keyPrefix + key, keyPrefix + key + ":gen"),
+                Long.toString(generationTimeToLive.toMillis()));
+    }
+
+    @Override
+    public boolean tryLock(String key, Duration lease) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(keyPrefix + key + ":lock", "", lease));
+    }
+
+    @Override
+    public void unlock(String key) {
+        redisTemplate.delete(keyPrefix + key + ":lock");
+    }
+
+    @Override
+    public void publish(String message) {
+        messageTemplate.convertAndSend(channel, message);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,45 @@
+package com.lqviet.accountservices.caches;
+
+import java.time.Duration;
+
+/**
+ * The remote tier behind {@link SharedCacheTier}: a key-value store every replica reads and writes, with a
+ * channel to tell the other replicas about invalidations.
+ * <p>
+ * Implementations may throw on any call while the store is unreachable; the tier then falls back to loading
+ * from the database.
+ */
+public interface SharedCacheStore {
+
+    /**
+     * @return the stored value, or null when there is none
+     */
+    Object get(String key);
+
+    /**
+     * @return how often the key was deleted so far; 0 when never, or so long ago the count has expired
+     */
+    long generation(String key);
+
+    /**
+     * Stores the value unless the key was deleted since {@code generation} was read
+     *
+     * @return whether the value was stored
+     */
+    boolean putIfGeneration(String key, Object value, Duration timeToLive, long generation);
+
+    /**
+     * Removes the value and bumps the generation of the key, which fences off the writes of every load that
+     * started before
+     */
+    void delete(String key);
+
+    /**
+     * Takes a lease on a key so only one replica loads it; the lease expires on its own if the holder dies
+     */
+    boolean tryLock(String key, Duration lease);
+
+    void unlock(String key);
+
+    void publish(String message);
+}
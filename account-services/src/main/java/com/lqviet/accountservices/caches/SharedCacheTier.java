@@ -0,0 +1,275 @@
+package com.lqviet.accountservices.caches;
+
+import com.lqviet.accountservices.properties.SharedCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Loading path shared by the in-process caches: single-flight loads, the Redis L2 and cross-replica invalidation.
+ * <p>
+ * A miss in an L1 cache comes here. Concurrent loads of one key on this replica share a single call unless the
+ * key was invalidated in between; across replicas the first one takes a short lease in Redis and the others poll
+ * Redis for its result for up to {@code loadWait} before loading themselves. Lookups that found nothing can be
+ * remembered for {@code negativeTimeToLive}.
+ * <p>
+ * {@link #evict} deletes the Redis entry and tells the other replicas, which drop their L1 copy through the
+ * handler registered with {@link #onInvalidation}. A load only writes back to Redis while the key has not been
+ * invalidated since the load started, which is checked twice: against a local generation slot the key hashes to,
+ * bumped by every invalidation this replica has applied, and against a per-key generation in Redis, bumped by every
+ * delete, with a compare-and-set write. The second check covers an invalidation from another replica whose
+ * message has not arrived yet, so a slow load never reinstalls the row a write replaced, on any replica.
+ * <p>
+ * Without {@code account.cache.redis.enabled} only the single-flight part is active. Redis failures are counted
+ * by {@code account.cache.shared.errors} and fall back to the loader; lookups are counted by
+ * {@code account.cache.shared} tagged with {@code result} (hit, negative, miss).
+ */
+@Slf4j
+@Component
+public class SharedCacheTier {
+    private static final int GENERATION_SLOTS = 4096;
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private final SharedCacheStore store;
+    private final SharedCacheProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, InFlightLoad> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<String>> invalidationHandlers = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final Counter errors;
+
+    public SharedCacheTier(@Nullable SharedCacheStore store,
+                           SharedCacheProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.hits = meterRegistry.counter("account.cache.shared", "result", "hit");
+        this.negativeHits = meterRegistry.counter("account.cache.shared", "result", "negative");
+        this.misses = meterRegistry.counter("account.cache.shared", "result", "miss");
+        this.errors = meterRegistry.counter("account.cache.shared.errors");
+    }
+
+    /**
+     * Registers how this replica drops its L1 copy of a key of {@code namespace} when another replica invalidates it
+     */
+    public void onInvalidation(String namespace, Consumer<String> handler) {
+        invalidationHandlers.put(namespace, handler);
+    }
+
+    /**
+     * @param cacheMissing whether a null result is remembered as well
+     * @return the value from Redis or the loader, null when there is none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String namespace, Object key, Supplier<T> loader, boolean cacheMissing) {
+        String id = namespace + ':' + key;
+        long generation = generations.get(slot(id));
+        InFlightLoad mine = new InFlightLoad(generation, new CompletableFuture<>());
+        InFlightLoad running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            if (running.generation() != generation) {
+                // Started before an invalidation, so its result may already be stale
+                return (T) loadShared(id, generation, loader, cacheMissing);
+            }
+            try {
+                return (T) running.result().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Object value = loadShared(id, generation, loader, cacheMissing);
+            mine.result().complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    /**
+     * @return the value Redis holds for the key, without loading it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T peek(String namespace, Object key) {
+        Object value = read(namespace + ':' + key);
+        return value instanceof Missing ? null : (T) value;
+    }
+
+    /**
+     * Drops the key from Redis and from the L1 caches of the other replicas
+     */
+    public void evict(String namespace, Object key) {
+        String id = namespace + ':' + key;
+        generations.incrementAndGet(slot(id));
+        if (store == null) {
+            return;
+        }
+        try {
+            store.delete(id);
+            store.publish(nodeId + '|' + namespace + '|' + key);
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.warn("Could not invalidate {} in the shared cache", id, e);
+        }
+    }
+
+    /**
+     * Applies an invalidation announced on the channel; announcements of this replica are ignored
+     */
+    public void applyInvalidation(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        generations.incrementAndGet(slot(parts[1] + ':' + parts[2]));
+        Consumer<String> handler = invalidationHandlers.get(parts[1]);
+        if (handler != null) {
+            handler.accept(parts[2]);
+        }
+    }
+
+    private Object loadShared(String id, long generation, Supplier<?> loader, boolean cacheMissing) {
+        if (store == null) {
+            return loader.get();
+        }
+        long remoteGeneration = remoteGeneration(id);
+        Object cached = read(id);
+        if (cached != null) {
+            return found(cached);
+        }
+        boolean locked = tryLock(id);
+        if (!locked) {
+            cached = awaitOtherLoad(id);
+            if (cached != null) {
+                return found(cached);
+            }
+        }
+        misses.increment();
+        try {
+            Object value = loader.get();
+            if (generations.get(slot(id)) == generation && remoteGeneration >= 0 && (value != null || cacheMissing)) {
+                write(id, value, remoteGeneration);
+            }
+            return value;
+        } finally {
+            if (locked) {
+                unlock(id);
+            }
+        }
+    }
+
+    private Object awaitOtherLoad(String id) {
+        long deadline = System.nanoTime() + properties.getLoadWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Object cached = read(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    private Object found(Object cached) {
+        if (cached instanceof Missing) {
+            negativeHits.increment();
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    private Object read(String id) {
+        if (store == null) {
+            return null;
+        }
+        try {
+            return store.get(id);
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.debug("Shared cache read of {} failed", id, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the Redis generation of the key, or -1 when it cannot be read and nothing may be written back
+     */
+    private long remoteGeneration(String id) {
+        try {
+            return store.generation(id);
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.debug("Shared cache generation read of {} failed", id, e);
+            return -1;
+        }
+    }
+
+    private void write(String id, Object value, long remoteGeneration) {
+        try {
+            if (value == null) {
+                store.putIfGeneration(id, Missing.INSTANCE, properties.getNegativeTimeToLive(), remoteGeneration);
+            } else {
+                store.putIfGeneration(id, value, properties.getTimeToLive(), remoteGeneration);
+            }
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.debug("Shared cache write of {} failed", id, e);
+        }
+    }
+
+    private boolean tryLock(String id) {
+        try {
+            return store.tryLock(id, properties.getLoadLockLease());
+        } catch (RuntimeException e) {
+            errors.increment();
+            // Redis is unreachable, nobody else can be waiting on this lease either
+            return true;
+        }
+    }
+
+    private void unlock(String id) {
+        try {
+            store.unlock(id);
+        } catch (RuntimeException e) {
+            errors.increment();
+        }
+    }
+
+    private static int slot(String id) {
+        return (id.hashCode() & Integer.MAX_VALUE) % GENERATION_SLOTS;
+    }
+
+    private record InFlightLoad(long generation, CompletableFuture<Object> result) {
+    }
+
+    /**
+     * Stored in place of a value a lookup did not find
+     */
+    enum Missing implements Serializable {
+        INSTANCE
+    }
+}
@@ -0,0 +1,146 @@
+package com.lqviet.accountservices.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lqviet.accountservices.events.AccountNotificationsChangedEvent;
+import com.lqviet.accountservices.events.LazyBroadcastPublishedEvent;
+import com.lqviet.accountservices.events.NotificationsDeliveredEvent;
+import com.lqviet.accountservices.properties.AccountNotificationProperties;
+import com.lqviet.accountservices.repositories.AccountNotificationFeedRepository;
+import com.lqviet.accountservices.repositories.AccountNotificationFeedRepository.UnreadCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Incrementally maintained unread notification count per account.
+ * <p>
+ * A count is loaded once with a single aggregate query and then moved by the deltas of committed
+ * {@link AccountNotificationsChangedEvent}s instead of being recounted on every page view. Expiry needs no
+ * event: each count remembers the earliest expiry among the notifications it includes and is recounted once
+ * that moment has passed. Deltas bump a version slot of the account, and a count loaded under an older version
+ * is not cached, so a delta committed while a count is being loaded is never lost.
+ * <p>
+ * Writes that bypass both the entity and the service (bulk soft deletes, manual fixes) are caught by a periodic
+ * reconciliation of every cached count; corrections are counted by {@code account.notifications.unread.drift}.
+ */
+@Slf4j
+@Component
+public class UnreadNotificationCounter {
+    private static final int VERSION_SLOTS = 4096;
+
+    private final Cache<Long, UnreadCount> counts;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_SLOTS);
+    private final AccountNotificationFeedRepository repository;
+    private final AccountNotificationProperties properties;
+    private final Counter drift;
+
+    public UnreadNotificationCounter(AccountNotificationFeedRepository repository,
+                                     AccountNotificationProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(properties.getCounterMaximumSize())
+                .expireAfterAccess(properties.getCounterExpireAfterAccess())
+                .recordStats()
+                .build();
+        this.drift = meterRegistry.counter("account.notifications.unread.drift");
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "account.notifications.unread");
+    }
+
+    public long get(Long accountId) {
+        LocalDateTime now = LocalDateTime.now();
+        UnreadCount cached = counts.getIfPresent(accountId);
+        if (cached != null && !cached.isStale(now)) {
+            return cached.count();
+        }
+        int slot = slot(accountId);
+        long version = versions.get(slot);
+        UnreadCount loaded = repository.countUnread(accountId, now);
+        counts.asMap().compute(accountId, (id, current) -> versions.get(slot) == version ? loaded : current);
+        return loaded.count();
+    }
+
+    /**
+     * Applied once the change is committed, or straight away when it was made outside a transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsChanged(AccountNotificationsChangedEvent event) {
+        versions.incrementAndGet(slot(event.accountId()));
+        counts.asMap().computeIfPresent(event.accountId(),
+                (id, current) -> current.plus(event.unreadDelta(), event.expiresAt()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsDelivered(NotificationsDeliveredEvent event) {
+        for (Long accountId : event.accountIds()) {
+            versions.incrementAndGet(slot(accountId));
+            counts.asMap().computeIfPresent(accountId, (id, current) -> current.plus(1, event.expiresAt()));
+        }
+    }
+
+    /**
+     * A lazy broadcast is unread for every existing account at once
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLazyBroadcastPublished(LazyBroadcastPublishedEvent event) {
+        for (int slot = 0; slot < VERSION_SLOTS; slot++) {
+            versions.incrementAndGet(slot);
+        }
+        counts.asMap().replaceAll((id, current) -> current.plus(1, event.expiresAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${account.notifications.reconcile-interval:5m}",
+            initialDelayString = "${account.notifications.reconcile-interval:5m}")
+    public void reconcile() {
+        List<Long> accountIds = new ArrayList<>(counts.asMap().keySet());
+        for (int from = 0; from < accountIds.size(); from += properties.getReconcileBatchSize()) {
+            List<Long> chunk = accountIds.subList(from,
+                    Math.min(from + properties.getReconcileBatchSize(), accountIds.size()));
+            try {
+                reconcile(chunk);
+            } catch (RuntimeException e) {
+                log.warn("Failed to reconcile unread counts of {} accounts", chunk.size(), e);
+            }
+        }
+    }
+
+    private void reconcile(List<Long> accountIds) {
+        long[] before = new long[accountIds.size()];
+        for (int i = 0; i < before.length; i++) {
+            before[i] = versions.get(slot(accountIds.get(i)));
+        }
+        Map<Long, UnreadCount> actual = repository.countUnread(accountIds, LocalDateTime.now());
+        for (int i = 0; i < before.length; i++) {
+            Long accountId = accountIds.get(i);
+            int slot = slot(accountId);
+            long version = before[i];
+            UnreadCount recounted = actual.getOrDefault(accountId, UnreadCount.NONE);
+            counts.asMap().computeIfPresent(accountId, (id, current) -> {
+                if (versions.get(slot) != version) {
+                    return current;
+                }
+                if (current.count() != recounted.count()) {
+                    drift.increment();
+                }
+                return recounted;
+            });
+        }
+    }
+
+    private static int slot(Long accountId) {
+        return (Long.hashCode(accountId) & Integer.MAX_VALUE) % VERSION_SLOTS;
+    }
+}
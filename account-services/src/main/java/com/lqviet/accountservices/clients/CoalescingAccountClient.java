@@ -0,0 +1,124 @@
+package com.lqviet.accountservices.clients;
+
+import com.lqviet.accountservices.dtos.responses.AccountSummaryResponse;
+import com.lqviet.accountservices.properties.BatchLookupProperties;
+import com.lqviet.accountservices.services.AccountBatchLookupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process client for {@link AccountBatchLookupService} that turns many concurrent single-account lookups into
+ * few batches.
+ * <p>
+ * A lookup joins the pending batch, or the pending lookup for the same id when there is one, so concurrent
+ * callers asking for the same author share one result. The batch is sent once it holds {@code maxKeys} ids or
+ * {@code coalesceWindow} after its first id arrived, whichever comes first, on one of {@code dispatchThreads}
+ * dispatcher threads. A failed batch fails every lookup in it.
+ * <p>
+ * Meters: {@code account.batch.client.batch.size} and {@code account.batch.client.coalesced} (lookups that joined
+ * a pending lookup for the same id).
+ */
+@Component
+public class CoalescingAccountClient {
+    private final AccountBatchLookupService accountBatchLookupService;
+    private final BatchLookupProperties properties;
+    private final ConcurrentHashMap<Long, CompletableFuture<Optional<AccountSummaryResponse>>> pending =
+            new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ScheduledThreadPoolExecutor dispatcher;
+    private final DistributionSummary batchSize;
+    private final Counter coalesced;
+
+    public CoalescingAccountClient(AccountBatchLookupService accountBatchLookupService,
+                                   BatchLookupProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.accountBatchLookupService = accountBatchLookupService;
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        this.dispatcher = new ScheduledThreadPoolExecutor(properties.getDispatchThreads(),
+                task -> Thread.ofPlatform().name("account-batch-" + threads.incrementAndGet()).daemon(true)
+                        .unstarted(task));
+        this.batchSize = DistributionSummary.builder("account.batch.client.batch.size").register(meterRegistry);
+        this.coalesced = meterRegistry.counter("account.batch.client.coalesced");
+    }
+
+    /**
+     * The live account with this id, completed when the batch it joined returns; cancelling it leaves the other
+     * callers of the same id alone
+     */
+    public CompletableFuture<Optional<AccountSummaryResponse>> findById(Long id) {
+        CompletableFuture<Optional<AccountSummaryResponse>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<AccountSummaryResponse>> existing = pending.putIfAbsent(id, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+        if (pending.size() >= properties.getMaxKeys()) {
+            dispatcher.execute(this::dispatch);
+        } else if (scheduled.compareAndSet(false, true)) {
+            dispatcher.schedule(this::dispatch, properties.getCoalesceWindow().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return mine.copy();
+    }
+
+    /**
+     * The live accounts among the ids, keyed by id; waits for every batch involved
+     */
+    public Map<Long, AccountSummaryResponse> findAllById(Collection<Long> ids) {
+        Map<Long, CompletableFuture<Optional<AccountSummaryResponse>>> lookups = new LinkedHashMap<>();
+        for (Long id : ids) {
+            lookups.computeIfAbsent(id, this::findById);
+        }
+        Map<Long, AccountSummaryResponse> found = new HashMap<>();
+        lookups.forEach((id, lookup) -> lookup.join().ifPresent(summary -> found.put(id, summary)));
+        return found;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    private void dispatch() {
+        // Cleared first: a lookup arriving while this batch is taken schedules the next one itself
+        scheduled.set(false);
+        Map<Long, CompletableFuture<Optional<AccountSummaryResponse>>> batch = new HashMap<>();
+        Iterator<Long> ids = pending.keySet().iterator();
+        while (ids.hasNext() && batch.size() < properties.getMaxKeys()) {
+            Long id = ids.next();
+            CompletableFuture<Optional<AccountSummaryResponse>> lookup = pending.remove(id);
+            if (lookup != null) {
+                batch.put(id, lookup);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+        batchSize.record(batch.size());
+        try {
+            Map<Long, AccountSummaryResponse> found = accountBatchLookupService.findAllById(batch.keySet());
+            batch.forEach((id, lookup) -> lookup.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException e) {
+            batch.values().forEach(lookup -> lookup.completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.lqviet.accountservices.codecs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongFunction;
+
+/**
+ * Compact binary form of JSON values.
+ * <p>
+ * Layout:
+ * <pre>
+ * header      1 byte: 0x01 plain, 0x02 LZ4 compressed body
+ * dictionary  varint id of the {@link FieldDictionary} used for object keys, 0 for none
+ * [length]    varint length of the uncompressed body, only when compressed
+ * body        one value
+ *
+ * value       tag byte, then
+ *             NULL, FALSE, TRUE            nothing
+ *             INTEGER                      zigzag varint
+ *             DECIMAL, STRING, TEXT        varint length + UTF-8 (DECIMAL keeps the number exactly as written)
+ *             ARRAY                        values, then an END tag
+ *             OBJECT                       (key, value) pairs, then key 0
+ * key         varint n: 0 ends the object, 1 is followed by an inline STRING body, n > 1 is dictionary position n - 2
+ * </pre>
+ * Input that is not a single JSON value is stored as one TEXT value and comes back unchanged; JSON comes back
+ * equivalent but without insignificant whitespace. Bodies at or above the compression threshold are LZ4
+ * compressed when that actually saves space. Input whose first byte is not a known header is decoded as UTF-8
+ * text, so plain text bytes can be read through the same path.
+ */
+public final class BinaryValueCodec {
+    static final byte PLAIN = 0x01;
+    static final byte COMPRESSED = 0x02;
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INTEGER = 3;
+    private static final byte DECIMAL = 4;
+    private static final byte STRING = 5;
+    private static final byte ARRAY = 6;
+    private static final byte OBJECT = 7;
+    private static final byte TEXT = 8;
+    private static final byte END = 9;
+
+    private static final int END_OF_OBJECT = 0;
+    private static final int INLINE_KEY = 1;
+    private static final int FIRST_POSITION = 2;
+
+    private final JsonFactory jsonFactory;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public BinaryValueCodec(JsonFactory jsonFactory, int compressionThreshold) {
+        this.jsonFactory = jsonFactory;
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.fastDecompressor();
+    }
+
+    public byte[] encode(String value, FieldDictionary dictionary) {
+        Buffer body = new Buffer(Math.max(32, value.length() / 2));
+        if (!encodeJson(value, dictionary, body)) {
+            body.reset();
+            body.write(TEXT);
+            body.writeString(value);
+        }
+        Buffer out = new Buffer(body.size() + 16);
+        if (body.size() >= compressionThreshold) {
+            byte[] compressed = new byte[compressor.maxCompressedLength(body.size())];
+            int length = compressor.compress(body.array(), 0, body.size(), compressed, 0, compressed.length);
+            if (length < body.size()) {
+                out.write(COMPRESSED);
+                out.writeVarLong(dictionary.id());
+                out.writeVarLong(body.size());
+                out.write(compressed, 0, length);
+                return out.toByteArray();
+            }
+        }
+        out.write(PLAIN);
+        out.writeVarLong(dictionary.id());
+        out.write(body.array(), 0, body.size());
+        return out.toByteArray();
+    }
+
+    public String decode(byte[] encoded, LongFunction<FieldDictionary> dictionaries) {
+        if (encoded.length == 0 || (encoded[0] != PLAIN && encoded[0] != COMPRESSED)) {
+            return new String(encoded, StandardCharsets.UTF_8);
+        }
+        Reader header = new Reader(encoded, 1, encoded.length);
+        long dictionaryId = header.readVarLong();
+        FieldDictionary dictionary = dictionaryId == 0 ? FieldDictionary.EMPTY : dictionaries.apply(dictionaryId);
+        if (dictionary == null) {
+            throw new IllegalStateException("Unknown field dictionary " + dictionaryId);
+        }
+        Reader body;
+        if (encoded[0] == COMPRESSED) {
+            int length = (int) header.readVarLong();
+            byte[] restored = new byte[length];
+            decompressor.decompress(encoded, header.position, restored, 0, length);
+            body = new Reader(restored, 0, length);
+        } else {
+            body = header;
+        }
+        if (body.peek() == TEXT) {
+            body.read();
+            return body.readString();
+        }
+        StringWriter json = new StringWriter(encoded.length * 2);
+        try (JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            decodeValue(body, dictionary, generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toString();
+    }
+
+    private boolean encodeJson(String value, FieldDictionary dictionary, Buffer out) {
+        try (JsonParser parser = jsonFactory.createParser(value)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            encodeValue(parser, dictionary, out);
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void encodeValue(JsonParser parser, FieldDictionary dictionary, Buffer out) throws IOException {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case VALUE_NULL -> out.write(NULL);
+            case VALUE_FALSE -> out.write(FALSE);
+            case VALUE_TRUE -> out.write(TRUE);
+            case VALUE_NUMBER_INT -> {
+                if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    out.write(DECIMAL);
+                    out.writeString(parser.getText());
+                } else {
+                    out.write(INTEGER);
+                    long number = parser.getLongValue();
+                    out.writeVarLong((number << 1) ^ (number >> 63));
+                }
+            }
+            case VALUE_NUMBER_FLOAT -> {
+                out.write(DECIMAL);
+                out.writeString(parser.getText());
+            }
+            case VALUE_STRING -> {
+                out.write(STRING);
+                out.writeString(parser.getText());
+            }
+            case START_ARRAY -> {
+                out.write(ARRAY);
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    encodeValue(parser, dictionary, out);
+                }
+                out.write(END);
+            }
+            case START_OBJECT -> {
+                out.write(OBJECT);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String key = parser.currentName();
+                    int position = dictionary.positionOf(key);
+                    if (position >= 0) {
+                        out.writeVarLong(position + (long) FIRST_POSITION);
+                    } else {
+                        out.writeVarLong(INLINE_KEY);
+                        out.writeString(key);
+                    }
+                    parser.nextToken();
+                    encodeValue(parser, dictionary, out);
+                }
+                out.writeVarLong(END_OF_OBJECT);
+            }
+            default -> throw new IOException("Unexpected token " + token);
+        }
+    }
+
+    private void decodeValue(Reader in, FieldDictionary dictionary, JsonGenerator generator) throws IOException {
+        byte tag = in.read();
+        switch (tag) {
+            case NULL -> generator.writeNull();
+            case FALSE -> generator.writeBoolean(false);
+            case TRUE -> generator.writeBoolean(true);
+            case INTEGER -> {
+                long zigzag = in.readVarLong();
+                generator.writeNumber((zigzag >>> 1) ^ -(zigzag & 1));
+            }
+            case DECIMAL -> generator.writeNumber(in.readString());
+            case STRING, TEXT -> generator.writeString(in.readString());
+            case ARRAY -> {
+                generator.writeStartArray();
+                while (in.peek() != END) {
+                    decodeValue(in, dictionary, generator);
+                }
+                in.read();
+                generator.writeEndArray();
+            }
+            case OBJECT -> {
+                generator.writeStartObject();
+                for (long key = in.readVarLong(); key != END_OF_OBJECT; key = in.readVarLong()) {
+                    generator.writeFieldName(key == INLINE_KEY
+                            ? in.readString()
+                            : dictionary.keyAt((int) (key - FIRST_POSITION)));
+                    decodeValue(in, dictionary, generator);
+                }
+                generator.writeEndObject();
+            }
+            default -> throw new IllegalStateException("Corrupt encoded value, unknown tag " + tag);
+        }
+    }
+
+    /**
+     * Growable byte buffer exposing its backing array, so bodies are compressed and copied without an extra copy
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+        private Buffer(int size) {
+            super(size);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private final int limit;
+        private int position;
+
+        private Reader(byte[] data, int position, int limit) {
+            this.data = data;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        private byte peek() {
+            if (position >= limit) {
+                throw new IllegalStateException("Corrupt encoded value, truncated");
+            }
+            return data[position];
+        }
+
+        private byte read() {
+            if (position >= limit) {
+                throw new IllegalStateException("Corrupt encoded value, truncated");
+            }
+            return data[position++];
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Corrupt encoded value, varint too long");
+        }
+
+        private String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > limit) {
+                throw new IllegalStateException("Corrupt encoded value, string overruns the value");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.lqviet.accountservices.codecs;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps encoded value columns to plain strings for entities read and written through JPA. Values written this
+ * way carry no field dictionary, since the converter does not know which entity a value belongs to; the batch
+ * writers encode with the right context.
+ */
+@Component
+@Converter
+@RequiredArgsConstructor
+public class EncodedValueConverter implements AttributeConverter<String, byte[]> {
+    private final ValueCodec valueCodec;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String attribute) {
+        return valueCodec.encode(null, attribute);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] dbData) {
+        return valueCodec.decode(dbData);
+    }
+}
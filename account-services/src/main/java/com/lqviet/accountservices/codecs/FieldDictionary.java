@@ -0,0 +1,58 @@
+package com.lqviet.accountservices.codecs;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, numbered list of field names that encoded values refer to by position instead of spelling out.
+ * <p>
+ * Dictionaries are append-only: a newer dictionary of a context starts with all keys of the previous one, and
+ * one that was used for encoding is never changed, so its id alone is enough to decode.
+ */
+public final class FieldDictionary {
+    public static final FieldDictionary EMPTY = new FieldDictionary(0, "", List.of());
+
+    private final long id;
+    private final String context;
+    private final String[] keys;
+    private final Map<String, Integer> positions;
+
+    public FieldDictionary(long id, String context, List<String> keys) {
+        this.id = id;
+        this.context = context;
+        this.keys = keys.toArray(String[]::new);
+        this.positions = new HashMap<>(keys.size() * 2);
+        for (int i = 0; i < this.keys.length; i++) {
+            positions.putIfAbsent(this.keys[i], i);
+        }
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String context() {
+        return context;
+    }
+
+    public List<String> keys() {
+        return List.of(keys);
+    }
+
+    /**
+     * @return the position of the key, or -1 when it has to be written inline
+     */
+    int positionOf(String key) {
+        Integer position = positions.get(key);
+        return position == null ? -1 : position;
+    }
+
+    String keyAt(int position) {
+        return keys[position];
+    }
+
+    boolean containsAll(List<String> candidates) {
+        return positions.keySet().containsAll(candidates);
+    }
+}
@@ -0,0 +1,39 @@
+package com.lqviet.accountservices.codecs;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Registers one field dictionary per entity on startup, keyed by table name like the audit log's
+ * {@code table_name}, so the audit values of every entity are written with their property names as positions
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FieldDictionarySeeder {
+    private final EntityManagerFactory entityManagerFactory;
+    private final ValueCodec valueCodec;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            String context = table != null && !table.name().isEmpty() ? table.name() : entity.getJavaType().getSimpleName();
+            List<String> fieldNames = entity.getAttributes().stream().map(Attribute::getName).sorted().toList();
+            try {
+                valueCodec.register(context, fieldNames);
+            } catch (RuntimeException e) {
+                log.warn("Could not register the field dictionary of {}, its values keep inline keys", context, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.lqviet.accountservices.codecs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lqviet.accountservices.enums.ValueEncoding;
+import com.lqviet.accountservices.properties.ValueCodecProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes and decodes the free-form values of audit logs and activities.
+ * <p>
+ * Values are written in the configured {@link ValueEncoding}; BINARY uses {@link BinaryValueCodec} with the
+ * newest field dictionary of the value's context (for audit values, the audited table). Decoding accepts both
+ * encodings whatever the current setting, so switching it never makes stored rows unreadable.
+ * <p>
+ * Dictionaries are read with plain JDBC rather than through JPA, because the JPA converter depends on this
+ * class while the entity manager is still being built.
+ */
+@Component
+public class ValueCodec {
+    private static final String CURRENT_SQL = """
+            SELECT id, context, field_names
+            FROM value_codec_dictionaries
+            WHERE context = ?
+            ORDER BY id DESC
+            LIMIT 1
+            """;
+
+    private static final String BY_ID_SQL = "SELECT id, context, field_names FROM value_codec_dictionaries WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ValueCodecProperties properties;
+    private final BinaryValueCodec binaryCodec;
+    private final Map<Long, FieldDictionary> dictionaries = new ConcurrentHashMap<>();
+    private final Map<String, FieldDictionary> current = new ConcurrentHashMap<>();
+
+    public ValueCodec(JdbcTemplate jdbcTemplate, ValueCodecProperties properties, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.binaryCodec = new BinaryValueCodec(objectMapper.getFactory(), properties.getCompressionThreshold());
+    }
+
+    public byte[] encode(String context, String value) {
+        if (value == null) {
+            return null;
+        }
+        if (properties.getEncoding() == ValueEncoding.TEXT) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+        return binaryCodec.encode(value, currentDictionary(context));
+    }
+
+    public String decode(byte[] encoded) {
+        return encoded == null ? null : binaryCodec.decode(encoded, this::dictionary);
+    }
+
+    /**
+     * Makes sure the newest dictionary of the context covers the given field names, appending a new dictionary
+     * when it does not. Replicas doing this at the same time may each append one; both stay valid.
+     */
+    public FieldDictionary register(String context, List<String> fieldNames) {
+        FieldDictionary stored = load(CURRENT_SQL, context);
+        FieldDictionary base = stored == null ? FieldDictionary.EMPTY : stored;
+        FieldDictionary latest = base;
+        if (!base.containsAll(fieldNames)) {
+            List<String> keys = new ArrayList<>(base.keys());
+            fieldNames.stream().filter(name -> base.positionOf(name) < 0).distinct().sorted().forEach(keys::add);
+            latest = insert(context, keys);
+        }
+        dictionaries.put(latest.id(), latest);
+        current.put(context, latest);
+        return latest;
+    }
+
+    private FieldDictionary currentDictionary(String context) {
+        if (context == null || context.isEmpty()) {
+            return FieldDictionary.EMPTY;
+        }
+        return current.computeIfAbsent(context, key -> {
+            FieldDictionary loaded = load(CURRENT_SQL, key);
+            if (loaded == null) {
+                return FieldDictionary.EMPTY;
+            }
+            dictionaries.putIfAbsent(loaded.id(), loaded);
+            return loaded;
+        });
+    }
+
+    private FieldDictionary dictionary(long id) {
+        return dictionaries.computeIfAbsent(id, key -> load(BY_ID_SQL, key));
+    }
+
+    private FieldDictionary load(String sql, Object argument) {
+        List<FieldDictionary> found = jdbcTemplate.query(sql, (rs, rowNum) -> new FieldDictionary(
+                rs.getLong(1), rs.getString(2), split(rs.getString(3))), argument);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private FieldDictionary insert(String context, List<String> keys) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    INSERT INTO value_codec_dictionaries (context, field_names, created_at, updated_at, is_deleted)
+                    VALUES (?, ?, ?, ?, false)
+                    """, new String[]{"id"});
+            statement.setString(1, context);
+            statement.setString(2, String.join("\n", keys));
+            statement.setTimestamp(3, now);
+            statement.setTimestamp(4, now);
+            return statement;
+        }, keyHolder);
+        return new FieldDictionary(keyHolder.getKeyAs(Number.class).longValue(), context, keys);
+    }
+
+    private static List<String> split(String fieldNames) {
+        return fieldNames.isEmpty() ? List.of() : Arrays.asList(fieldNames.split("\n"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.lqviet.accountservices.codecs;
+
+import com.lqviet.accountservices.properties.ValueCodecProperties;
+import com.lqviet.accountservices.repositories.AccountActivityBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Re-encodes rows that still hold their values in the pre-codec TEXT columns.
+ * <p>
+ * Each target is walked by id, one batch per short transaction; rows locked by someone else are skipped and
+ * picked up by the next pass. A batch moves the values into the encoded columns and empties the TEXT columns, so
+ * the space is reclaimed by vacuum. A target whose pass finds nothing left is not visited again until restart.
+ * <p>
+ * {@code account.codec.migrated.rows}, tagged with {@code table}, counts re-encoded rows.
+ */
+@Slf4j
+@Component
+public class ValueCodecMigration {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ValueCodec valueCodec;
+    private final ValueCodecProperties properties;
+    private final List<Target> targets;
+
+    public ValueCodecMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               ValueCodec valueCodec, ValueCodecProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.valueCodec = valueCodec;
+        this.properties = properties;
+        this.targets = List.of(
+                new Target("account_audit_logs", "action_date", "table_name",
+                        List.of("old_values", "new_values"), meterRegistry),
+                new Target("account_activities", "activity_date", null,
+                        List.of("additional_data"), meterRegistry));
+    }
+
+    @Scheduled(fixedDelayString = "${account.codec.migration-interval:30s}", initialDelayString = "${account.codec.migration-interval:30s}")
+    public void migrate() {
+        if (!properties.isMigrationEnabled()) {
+            return;
+        }
+        for (Target target : targets) {
+            if (target.done) {
+                continue;
+            }
+            try {
+                migrate(target);
+            } catch (RuntimeException e) {
+                log.warn("Re-encoding {} stopped at id {}", target.table, target.cursor, e);
+            }
+        }
+    }
+
+    private void migrate(Target target) {
+        for (int batch = 0; batch < properties.getMigrationMaxBatchesPerRun(); batch++) {
+            Integer migrated = transactionTemplate.execute(status -> migrateBatch(target));
+            if (migrated == null || migrated == 0) {
+                if (target.cursor == 0) {
+                    target.done = true;
+                    log.info("All rows of {} are encoded", target.table);
+                } else {
+                    // Start another pass for rows that were locked the first time round
+                    target.cursor = 0;
+                }
+                return;
+            }
+        }
+    }
+
+    private int migrateBatch(Target target) {
+        List<Row> rows = jdbcTemplate.query(target.selectSql, (rs, rowNum) -> {
+            String[] values = new String[target.columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getString(4 + i);
+            }
+            return new Row(rs.getLong("id"), rs.getTimestamp(target.partitionColumn),
+                    target.contextColumn == null ? AccountActivityBatchRepository.CODEC_CONTEXT
+                            : rs.getString(target.contextColumn), values);
+        }, target.cursor, properties.getMigrationBatchSize());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(target.updateSql, rows, rows.size(), (ps, row) -> {
+            int index = 1;
+            for (String value : row.values()) {
+                ps.setBytes(index++, valueCodec.encode(row.context(), value));
+            }
+            ps.setLong(index++, row.id());
+            ps.setTimestamp(index, row.partitionValue());
+        });
+        target.cursor = rows.get(rows.size() - 1).id();
+        target.migrated.increment(rows.size());
+        return rows.size();
+    }
+
+    private record Row(long id, Timestamp partitionValue, String context, String[] values) {
+    }
+
+    private static final class Target {
+        private final String table;
+        private final String partitionColumn;
+        private final String contextColumn;
+        private final List<String> columns;
+        private final String selectSql;
+        private final String updateSql;
+        private final Counter migrated;
+        private long cursor;
+        private boolean done;
+
+        private Target(String table, String partitionColumn, String contextColumn, List<String> columns,
+                       MeterRegistry meterRegistry) {
+            this.table = table;
+            this.partitionColumn = partitionColumn;
+            this.contextColumn = contextColumn;
+            this.columns = columns;
+            this.selectSql = "SELECT id, " + partitionColumn + (contextColumn == null ? ", NULL" : ", " + contextColumn)
+                    + ", " + String.join(", ", columns)
+                    + " FROM " + table
+                    + " WHERE id > ? AND (" + String.join(" IS NOT NULL OR ", columns) + " IS NOT NULL)"
+                    + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+            this.updateSql = "UPDATE " + table + " SET "
+                    + String.join(", ", columns.stream().map(column -> column + "_bin = ?").toList()) + ", "
+                    + String.join(", ", columns.stream().map(column -> column + " = NULL").toList())
+                    + " WHERE id = ? AND " + partitionColumn + " = ?";
+            this.migrated = meterRegistry.counter("account.codec.migrated.rows", "table", table);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.lqviet.accountservices.concurrency;
+
+import com.lqviet.accountservices.properties.ConcurrencyLimitProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the API requests in flight at a multiple of the connection pool size.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} every request gets its own virtual thread, so nothing bounds how many
+ * of them reach the pool at once: thousands of requests queue inside Hikari and the slowest ones fail with a
+ * connection timeout after holding their memory for the whole wait. Requests here wait on a fair semaphore instead
+ * and are rejected with 503 and {@code Retry-After} once {@code acquireTimeout} passes, which keeps the pool queue
+ * short and the latency of admitted requests close to the query time.
+ * <p>
+ * A request that goes async, such as a streamed response, keeps its permit until the async processing completes,
+ * fails or times out, as it keeps working with the pool until then.
+ * <p>
+ * Only {@code /api/} requests are limited. Meters: {@code account.concurrency.in.flight},
+ * {@code account.concurrency.wait} and {@code account.concurrency.rejected}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.concurrency", name = "enabled", havingValue = "true")
+public class RequestConcurrencyLimiter extends OncePerRequestFilter {
+    private static final int FALLBACK_POOL_SIZE = 10;
+
+    private final Semaphore permits;
+    private final int limit;
+    private final long acquireTimeoutNanos;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public RequestConcurrencyLimiter(DataSource dataSource,
+                                     ConcurrencyLimitProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.limit = properties.getMaxConcurrentRequests() > 0
+                ? properties.getMaxConcurrentRequests()
+                : (int) Math.max(1, Math.ceil(poolSize(dataSource) * properties.getRequestsPerConnection()));
+        this.permits = new Semaphore(limit, true);
+        this.acquireTimeoutNanos = properties.getAcquireTimeout().toNanos();
+        this.waitTimer = meterRegistry.timer("account.concurrency.wait");
+        this.rejected = meterRegistry.counter("account.concurrency.rejected");
+        Gauge.builder("account.concurrency.in.flight", this, limiter -> limiter.limit - limiter.permits.availablePermits())
+                .register(meterRegistry);
+        log.info("Limiting API requests in flight to {}", limit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many concurrent requests");
+            return;
+        }
+        Permit permit = new Permit();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Releases the permit of one request exactly once, on whichever way its async processing ends
+     */
+    private final class Permit implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Async restarted from an async dispatch; listeners are dropped then, so stay registered
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            // Also reaches the primary pool behind the replica routing proxy
+            int size = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            // Hikari only fills in its default size once the pool has started
+            return size > 0 ? size : FALLBACK_POOL_SIZE;
+        } catch (SQLException e) {
+            return FALLBACK_POOL_SIZE;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.lqviet.accountservices.configs;
+
+import com.lqviet.accountservices.entities.AccountActivity;
+import com.lqviet.accountservices.pipelines.BoundedBatchPipeline;
+import com.lqviet.accountservices.properties.ActivityPipelineProperties;
+import com.lqviet.accountservices.repositories.AccountActivityBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ActivityPipelineConfig {
+
+    @Bean
+    public BoundedBatchPipeline<AccountActivity> activityPipeline(ActivityPipelineProperties properties,
+                                                                  AccountActivityBatchRepository repository,
+                                                                  MeterRegistry meterRegistry) {
+        return new BoundedBatchPipeline<>("account-activity", properties.toSettings(), repository::insertAll, meterRegistry);
+    }
+}
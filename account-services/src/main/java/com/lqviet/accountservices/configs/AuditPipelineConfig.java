@@ -0,0 +1,20 @@
+package com.lqviet.accountservices.configs;
+
+import com.lqviet.accountservices.audit.AuditChange;
+import com.lqviet.accountservices.audit.AuditLogWriter;
+import com.lqviet.accountservices.pipelines.BoundedBatchPipeline;
+import com.lqviet.accountservices.properties.AuditProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AuditPipelineConfig {
+
+    @Bean
+    public BoundedBatchPipeline<AuditChange> auditPipeline(AuditProperties properties,
+                                                           AuditLogWriter writer,
+                                                           MeterRegistry meterRegistry) {
+        return new BoundedBatchPipeline<>("account-audit", properties.toSettings(), writer::write, meterRegistry);
+    }
+}
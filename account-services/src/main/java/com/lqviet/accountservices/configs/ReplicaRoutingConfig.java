@@ -0,0 +1,72 @@
+package com.lqviet.accountservices.configs;
+
+import com.lqviet.accountservices.properties.ReplicaRoutingProperties;
+import com.lqviet.accountservices.routing.ReadYourWrites;
+import com.lqviet.accountservices.routing.ReadYourWritesFilter;
+import com.lqviet.accountservices.routing.ReplicaHealthMonitor;
+import com.lqviet.accountservices.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the auto-configured data source with one that sends read-only transactions to the replicas.
+ * <p>
+ * The primary pool is built from {@code spring.datasource.*} exactly as Boot would build it. In front of it sits a
+ * lazy connection proxy: a transaction only takes a connection at its first statement, by which time the
+ * transaction manager has marked it read-only or not, and read-only ones are served by
+ * {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "account.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(DataSourceProperties dataSourceProperties,
+                                                     ReplicaRoutingProperties properties,
+                                                     MeterRegistry meterRegistry) {
+        for (ReplicaRoutingProperties.Replica replica : properties.getReplicas()) {
+            if (replica.getUsername() == null) {
+                replica.setUsername(dataSourceProperties.determineUsername());
+                replica.setPassword(dataSourceProperties.determinePassword());
+            }
+        }
+        return new ReplicaHealthMonitor(primaryDataSource(dataSourceProperties), properties, meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaRoutingProperties properties) {
+        return new ReadYourWrites(properties);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWrites readYourWrites) {
+        return new ReadYourWritesFilter(readYourWrites);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 ReplicaHealthMonitor monitor,
+                                 ReadYourWrites readYourWrites,
+                                 MeterRegistry meterRegistry) {
+        DataSource primary = primaryDataSource(dataSourceProperties);
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, monitor, readYourWrites, meterRegistry));
+        return proxy;
+    }
+}
@@ -0,0 +1,14 @@
+package com.lqviet.accountservices.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background jobs (buffer flushes, sweepers, reconciliation) of this service. They share the pool
+ * sized by {@code spring.task.scheduling.pool.size}, so a job must not block or sleep on it; the expiry sweeper,
+ * which pauses between chunks, runs on its own thread.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,25 @@
+package com.lqviet.accountservices.configs;
+
+import com.lqviet.accountservices.caches.OffHeapSessionRegistry;
+import com.lqviet.accountservices.properties.SessionRegistryProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+@Configuration
+public class SessionRegistryConfig {
+
+    @Bean(destroyMethod = "close")
+    public OffHeapSessionRegistry sessionRegistry(SessionRegistryProperties properties,
+                                                  MeterRegistry meterRegistry) throws IOException {
+        OffHeapSessionRegistry registry = new OffHeapSessionRegistry(properties.getPath(), properties.getCapacity());
+        Gauge.builder("account.session.registry.size", registry, OffHeapSessionRegistry::size)
+                .register(meterRegistry);
+        Gauge.builder("account.session.registry.capacity", registry, OffHeapSessionRegistry::capacity)
+                .register(meterRegistry);
+        return registry;
+    }
+}
@@ -0,0 +1,49 @@
+package com.lqviet.accountservices.configs;
+
+import com.lqviet.accountservices.caches.RedisSharedCacheStore;
+import com.lqviet.accountservices.caches.SharedCacheStore;
+import com.lqviet.accountservices.caches.SharedCacheTier;
+import com.lqviet.accountservices.properties.SharedCacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+@ConditionalOnProperty(prefix = "account.cache.redis", name = "enabled", havingValue = "true")
+public class SharedCacheConfig {
+
+    @Bean
+    public SharedCacheStore sharedCacheStore(RedisConnectionFactory connectionFactory,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             SharedCacheProperties properties) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        // Cached values are the service's own Serializable snapshots; the class loader matters under devtools
+        template.setValueSerializer(new JdkSerializationRedisSerializer(getClass().getClassLoader()));
+        template.afterPropertiesSet();
+        return new RedisSharedCacheStore(template, stringRedisTemplate,
+                properties.getKeyPrefix(), properties.getInvalidationChannel(), properties.getTimeToLive());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer sharedCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                         SharedCacheTier sharedTier,
+                                                                         SharedCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) ->
+                        sharedTier.applyInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+}
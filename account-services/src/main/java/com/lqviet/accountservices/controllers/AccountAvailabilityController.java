@@ -0,0 +1,32 @@
+package com.lqviet.accountservices.controllers;
+
+import com.lqviet.accountservices.dtos.responses.AvailabilityResponse;
+import com.lqviet.accountservices.services.AccountAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/v1/accounts/availability")
+@RequiredArgsConstructor
+public class AccountAvailabilityController {
+    private final AccountAvailabilityService accountAvailabilityService;
+
+    /**
+     * Checks exactly one of {@code username} or {@code email}
+     */
+    @GetMapping
+    public AvailabilityResponse check(@RequestParam(required = false) String username,
+                                      @RequestParam(required = false) String email) {
+        if ((username == null) == (email == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Pass either username or email");
+        }
+        return username != null
+                ? new AvailabilityResponse("username", username, accountAvailabilityService.isUsernameAvailable(username))
+                : new AvailabilityResponse("email", email, accountAvailabilityService.isEmailAvailable(email));
+    }
+}
@@ -0,0 +1,62 @@
+package com.lqviet.accountservices.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lqviet.accountservices.dtos.requests.AccountBatchRequest;
+import com.lqviet.accountservices.properties.BatchLookupProperties;
+import com.lqviet.accountservices.services.AccountBatchLookupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/accounts/batch")
+@RequiredArgsConstructor
+public class AccountBatchController {
+    private final AccountBatchLookupService accountBatchLookupService;
+    private final BatchLookupProperties properties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Streams a JSON array with one entry per account found, in no particular order
+     */
+    @PostMapping
+    public ResponseEntity<StreamingResponseBody> findAll(@RequestBody AccountBatchRequest request) {
+        List<Long> ids = request.getIds() == null ? List.of() : request.getIds();
+        List<String> usernames = request.getUsernames() == null ? List.of() : request.getUsernames();
+        if (ids.size() + usernames.size() > properties.getMaxKeys()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + properties.getMaxKeys() + " ids and usernames per request");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> {
+                    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                        generator.writeStartArray();
+                        try {
+                            accountBatchLookupService.findAll(ids, usernames, summary -> {
+                                try {
+                                    generator.writeObject(summary);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+                        } catch (UncheckedIOException e) {
+                            throw e.getCause();
+                        }
+                        generator.writeEndArray();
+                    }
+                });
+    }
+}
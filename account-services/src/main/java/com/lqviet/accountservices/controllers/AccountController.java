@@ -0,0 +1,56 @@
+package com.lqviet.accountservices.controllers;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.services.AccountLookupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/accounts")
+@RequiredArgsConstructor
+public class AccountController {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final AccountLookupService accountLookupService;
+
+    @GetMapping("/{id}")
+    public AccountResponse getById(@PathVariable Long id) {
+        return orNotFound(accountLookupService.findById(id));
+    }
+
+    @GetMapping("/by-username/{username}")
+    public AccountResponse getByUsername(@PathVariable String username) {
+        return orNotFound(accountLookupService.findByUsername(username));
+    }
+
+    @GetMapping("/by-email")
+    public AccountResponse getByEmail(@RequestParam String email) {
+        return orNotFound(accountLookupService.findByEmail(email));
+    }
+
+    /**
+     * Page through accounts with a status; pass the last id of a page as {@code after} to get the next one
+     */
+    @GetMapping
+    public List<AccountResponse> getByStatus(@RequestParam AccountStatus status,
+                                             @RequestParam(required = false) Long after,
+                                             @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        return accountLookupService.findByStatus(status, after, pageSize);
+    }
+
+    private static AccountResponse orNotFound(Optional<AccountResponse> account) {
+        return account.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.lqviet.accountservices.controllers;
+
+import com.lqviet.accountservices.enums.ExportFormat;
+import com.lqviet.accountservices.properties.AccountExportProperties;
+import com.lqviet.accountservices.services.AccountExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.LocalDate;
+
+/**
+ * Bulk export of every live account, personal data included. Only mapped when {@code account.export.enabled} is
+ * set, and meant to be reachable from internal networks only.
+ * <p>
+ * The export is written on the MVC async executor under its own {@code account.export.timeout}, so the other
+ * async handlers keep the default async timeout.
+ */
+@RestController
+@RequestMapping("/api/v1/accounts")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.export", name = "enabled", havingValue = "true")
+public class AccountExportController {
+    private final AccountExportService accountExportService;
+    private final AccountExportProperties properties;
+
+    @GetMapping("/export")
+    public WebAsyncTask<Void> export(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                     HttpServletResponse response) {
+        String fileName = "accounts-" + LocalDate.now() + "." + format.getExtension();
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        return new WebAsyncTask<>(properties.getTimeout().toMillis(), () -> {
+            accountExportService.export(format, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
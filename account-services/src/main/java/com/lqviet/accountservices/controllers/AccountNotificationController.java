@@ -0,0 +1,62 @@
+package com.lqviet.accountservices.controllers;
+
+import com.lqviet.accountservices.dtos.responses.NotificationFeedResponse;
+import com.lqviet.accountservices.enums.NotificationStatus;
+import com.lqviet.accountservices.services.AccountNotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/accounts/{accountId}/notifications")
+@RequiredArgsConstructor
+public class AccountNotificationController {
+    private final AccountNotificationService accountNotificationService;
+
+    @GetMapping
+    public NotificationFeedResponse getFeed(@PathVariable Long accountId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            return accountNotificationService.getFeed(accountId, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/unread-count")
+    public Map<String, Long> countUnread(@PathVariable Long accountId) {
+        return Map.of("unreadCount", accountNotificationService.countUnread(accountId));
+    }
+
+    @PostMapping("/{notificationId}/read")
+    public ResponseEntity<Void> markAsRead(@PathVariable Long accountId, @PathVariable Long notificationId) {
+        accountNotificationService.markAsRead(accountId, notificationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/broadcasts/{broadcastId}/status")
+    public ResponseEntity<Void> updateBroadcastStatus(@PathVariable Long accountId, @PathVariable Long broadcastId,
+                                                      @RequestParam NotificationStatus status) {
+        try {
+            accountNotificationService.updateBroadcastStatus(accountId, broadcastId, status);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/read")
+    public Map<String, Integer> markAllAsRead(@PathVariable Long accountId) {
+        return Map.of("marked", accountNotificationService.markAllAsRead(accountId));
+    }
+}
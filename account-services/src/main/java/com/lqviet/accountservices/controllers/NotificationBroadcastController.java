@@ -0,0 +1,31 @@
+package com.lqviet.accountservices.controllers;
+
+import com.lqviet.accountservices.dtos.requests.NotificationBroadcastRequest;
+import com.lqviet.accountservices.dtos.responses.NotificationBroadcastResponse;
+import com.lqviet.accountservices.services.NotificationBroadcastService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/notifications/broadcasts")
+@RequiredArgsConstructor
+public class NotificationBroadcastController {
+    private final NotificationBroadcastService notificationBroadcastService;
+
+    @PostMapping
+    public ResponseEntity<NotificationBroadcastResponse> broadcast(@Valid @RequestBody NotificationBroadcastRequest request) {
+        return ResponseEntity.accepted().body(notificationBroadcastService.broadcast(request));
+    }
+
+    @GetMapping("/{broadcastId}")
+    public ResponseEntity<NotificationBroadcastResponse> getBroadcast(@PathVariable Long broadcastId) {
+        return ResponseEntity.of(notificationBroadcastService.getBroadcast(broadcastId));
+    }
+}
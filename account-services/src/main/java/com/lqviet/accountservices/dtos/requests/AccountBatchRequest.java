@@ -0,0 +1,15 @@
+package com.lqviet.accountservices.dtos.requests;
+
+import lombok.Value;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Accounts to resolve in one batch, by id, by username or both; duplicates are ignored
+ */
+@Value
+public class AccountBatchRequest implements Serializable {
+    List<Long> ids;
+    List<String> usernames;
+}
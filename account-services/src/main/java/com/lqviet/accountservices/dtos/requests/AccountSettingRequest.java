@@ -0,0 +1,25 @@
+package com.lqviet.accountservices.dtos.requests;
+
+import com.lqviet.accountservices.enums.ValueType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Value;
+
+import java.io.Serializable;
+
+/**
+ * DTO for writing one {@link com.lqviet.accountservices.entities.AccountSetting}
+ */
+@Value
+public class AccountSettingRequest implements Serializable {
+    @NotBlank(message = "Setting key is required")
+    @Size(max = 100, message = "Setting key must not exceed 100 characters")
+    String settingKey;
+    @Size(max = 1000, message = "Setting value must not exceed 1000 characters")
+    String settingValue;
+    @NotNull(message = "Value type is required")
+    ValueType valueType;
+    @Size(max = 50, message = "Category must not exceed 50 characters")
+    String category;
+}
@@ -0,0 +1,32 @@
+package com.lqviet.accountservices.dtos.requests;
+
+import com.lqviet.accountservices.enums.BroadcastDeliveryMode;
+import com.lqviet.accountservices.enums.NotificationType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Value;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for creating a {@link com.lqviet.accountservices.entities.NotificationBroadcast}
+ */
+@Value
+public class NotificationBroadcastRequest implements Serializable {
+    @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must not exceed 200 characters")
+    String title;
+    @Size(max = 1000, message = "Message must not exceed 1000 characters")
+    String message;
+    @NotNull(message = "Notification type is required")
+    NotificationType notificationType;
+    @Size(max = 500, message = "Action URL must not exceed 500 characters")
+    String actionUrl;
+    LocalDateTime expiresAt;
+    /**
+     * Defaults to {@link BroadcastDeliveryMode#MATERIALIZED}
+     */
+    BroadcastDeliveryMode deliveryMode;
+}
@@ -0,0 +1,29 @@
+package com.lqviet.accountservices.dtos.responses;
+
+import com.lqviet.accountservices.enums.NotificationSource;
+import com.lqviet.accountservices.enums.NotificationStatus;
+import com.lqviet.accountservices.enums.NotificationType;
+import lombok.Value;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for {@link com.lqviet.accountservices.entities.AccountNotification}
+ */
+@Value
+public class AccountNotificationResponse implements Serializable {
+    /**
+     * Notification id for personal notifications, broadcast id for broadcasts
+     */
+    Long id;
+    NotificationSource source;
+    LocalDateTime createdAt;
+    String title;
+    String message;
+    NotificationType notificationType;
+    NotificationStatus status;
+    LocalDateTime readAt;
+    String actionUrl;
+    LocalDateTime expiresAt;
+}
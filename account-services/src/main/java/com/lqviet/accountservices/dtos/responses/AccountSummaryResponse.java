@@ -0,0 +1,16 @@
+package com.lqviet.accountservices.dtos.responses;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+/**
+ * An account with the public parts of its {@link com.lqviet.accountservices.entities.UserProfile}, as other
+ * services show authors and commenters
+ */
+@Value
+public class AccountSummaryResponse implements Serializable {
+    AccountResponse account;
+    String displayName;
+    String avatarUrl;
+}
@@ -0,0 +1,13 @@
+package com.lqviet.accountservices.dtos.responses;
+
+import lombok.Value;
+
+/**
+ * Whether a username or email can still be registered
+ */
+@Value
+public class AvailabilityResponse {
+    String field;
+    String value;
+    boolean available;
+}
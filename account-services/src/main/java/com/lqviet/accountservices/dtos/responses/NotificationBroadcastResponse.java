@@ -0,0 +1,27 @@
+package com.lqviet.accountservices.dtos.responses;
+
+import com.lqviet.accountservices.enums.BroadcastDeliveryMode;
+import com.lqviet.accountservices.enums.BroadcastStatus;
+import com.lqviet.accountservices.enums.NotificationType;
+import lombok.Value;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for {@link com.lqviet.accountservices.entities.NotificationBroadcast}
+ */
+@Value
+public class NotificationBroadcastResponse implements Serializable {
+    Long id;
+    String title;
+    NotificationType notificationType;
+    BroadcastDeliveryMode deliveryMode;
+    BroadcastStatus status;
+    /**
+     * Notifications written so far, summed over the partition checkpoints
+     */
+    long deliveredCount;
+    LocalDateTime startedAt;
+    LocalDateTime completedAt;
+}
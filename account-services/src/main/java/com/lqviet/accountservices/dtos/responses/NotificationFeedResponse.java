@@ -0,0 +1,19 @@
+package com.lqviet.accountservices.dtos.responses;
+
+import lombok.Value;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One page of the notification feed, newest first
+ */
+@Value
+public class NotificationFeedResponse implements Serializable {
+    List<AccountNotificationResponse> notifications;
+    /**
+     * Opaque cursor of the next page, null on the last page
+     */
+    String nextCursor;
+    long unreadCount;
+}
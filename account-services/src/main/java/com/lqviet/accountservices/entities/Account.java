@@ -2,6 +2,7 @@ package com.lqviet.accountservices.entities;
 
 import com.lqviet.accountservices.enums.AccountStatus;
 import com.lqviet.accountservices.enums.AccountType;
+import com.lqviet.accountservices.listeners.AccountEntityListener;
 import com.lqviet.baseentity.entities.BaseEntity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -10,6 +11,7 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 /**
@@ -25,6 +27,7 @@ import java.time.LocalDateTime;
                 @Index(name = "idx_account_username", columnList = "username"),
                 @Index(name = "idx_account_email", columnList = "email"),
                 @Index(name = "idx_account_status", columnList = "status"),
+                @Index(name = "idx_account_status_id", columnList = "status, id"),
                 @Index(name = "idx_account_type", columnList = "account_type")
         })
 @Getter
@@ -33,7 +36,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @ToString(callSuper = true, exclude = {"password"})
+@EntityListeners(AccountEntityListener.class)
 public class Account extends BaseEntity {
+    public static final int MAX_FAILED_LOGIN_ATTEMPTS = 5;
+    public static final Duration FAILED_LOGIN_LOCK_DURATION = Duration.ofHours(1);
+
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
     @Pattern(regexp = "^[a-zA-Z0-9_-]+$", message = "Username can only contain letters, numbers, underscores, and hyphens")
@@ -146,9 +153,9 @@ public class Account extends BaseEntity {
 
     public void incrementFailedLoginAttempts() {
         this.failedLoginAttempts++;
-        if (this.failedLoginAttempts >= 5) {
+        if (this.failedLoginAttempts >= MAX_FAILED_LOGIN_ATTEMPTS) {
             this.status = AccountStatus.LOCKED;
-            this.lockedUntil = LocalDateTime.now().plusHours(1);
+            this.lockedUntil = LocalDateTime.now().plus(FAILED_LOGIN_LOCK_DURATION);
         }
     }
 
@@ -1,5 +1,6 @@
 package com.lqviet.accountservices.entities;
 
+import com.lqviet.accountservices.codecs.EncodedValueConverter;
 import com.lqviet.accountservices.enums.ActivityType;
 import com.lqviet.baseentity.entities.BaseEntity;
 import jakarta.persistence.*;
@@ -11,6 +12,9 @@ import java.time.LocalDateTime;
 
 /**
  * Account Activity Log entity for tracking user activities
+ * <p>
+ * {@code additionalData} is stored through {@link com.lqviet.accountservices.codecs.ValueCodec}; older rows keep it
+ * in the TEXT column until the background migration has re-encoded them.
  */
 @Entity
 @Table(name = "account_activities",
@@ -62,6 +66,16 @@ public class AccountActivity extends BaseEntity {
     @Column(name = "error_message", length = 500)
     private String errorMessage;
 
-    @Column(name = "additional_data", columnDefinition = "TEXT")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "additional_data", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String legacyAdditionalData;
+
+    @Convert(converter = EncodedValueConverter.class)
+    @Column(name = "additional_data_bin", columnDefinition = "bytea")
     private String additionalData;
+
+    public String getAdditionalData() {
+        return additionalData != null ? additionalData : legacyAdditionalData;
+    }
 }
@@ -1,5 +1,6 @@
 package com.lqviet.accountservices.entities;
 
+import com.lqviet.accountservices.codecs.EncodedValueConverter;
 import com.lqviet.accountservices.enums.AuditAction;
 import com.lqviet.baseentity.entities.BaseEntity;
 import jakarta.persistence.*;
@@ -11,6 +12,11 @@ import java.time.LocalDateTime;
 
 /**
  * Account Audit Log entity for tracking changes
+ * <p>
+ * Committed changes of the other entities are recorded automatically by
+ * {@link com.lqviet.accountservices.audit.AuditEventListener}; the factory methods remain for manual entries.
+ * Old and new values are stored through {@link com.lqviet.accountservices.codecs.ValueCodec}; rows written before
+ * that keep their values in the TEXT columns until the background migration has re-encoded them.
  */
 @Entity
 @Table(name = "account_audit_logs",
@@ -42,10 +48,22 @@ public class AccountAuditLog extends BaseEntity {
     @Column(name = "action", nullable = false, length = 20)
     private AuditAction action;
 
-    @Column(name = "old_values", columnDefinition = "TEXT")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "old_values", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String legacyOldValues;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "new_values", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String legacyNewValues;
+
+    @Convert(converter = EncodedValueConverter.class)
+    @Column(name = "old_values_bin", columnDefinition = "bytea")
     private String oldValues;
 
-    @Column(name = "new_values", columnDefinition = "TEXT")
+    @Convert(converter = EncodedValueConverter.class)
+    @Column(name = "new_values_bin", columnDefinition = "bytea")
     private String newValues;
 
     @Column(name = "changed_fields", length = 500)
@@ -64,6 +82,14 @@ public class AccountAuditLog extends BaseEntity {
     @Column(name = "user_agent", length = 500)
     private String userAgent;
 
+    public String getOldValues() {
+        return oldValues != null ? oldValues : legacyOldValues;
+    }
+
+    public String getNewValues() {
+        return newValues != null ? newValues : legacyNewValues;
+    }
+
     public static AccountAuditLog forInsert(String tableName, Long recordId, String newValues, Long performedBy) {
         return AccountAuditLog.builder()
                 .tableName(tableName)
@@ -2,6 +2,7 @@ package com.lqviet.accountservices.entities;
 
 import com.lqviet.accountservices.enums.NotificationStatus;
 import com.lqviet.accountservices.enums.NotificationType;
+import com.lqviet.accountservices.listeners.AccountNotificationEntityListener;
 import com.lqviet.baseentity.entities.BaseEntity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -19,7 +20,9 @@ import java.time.LocalDateTime;
                 @Index(name = "idx_notification_account", columnList = "account_id"),
                 @Index(name = "idx_notification_type", columnList = "notification_type"),
                 @Index(name = "idx_notification_status", columnList = "status"),
-                @Index(name = "idx_notification_date", columnList = "created_at")
+                @Index(name = "idx_notification_date", columnList = "created_at"),
+                @Index(name = "idx_notification_unread", columnList = "account_id, status"),
+                @Index(name = "idx_notification_feed", columnList = "account_id, created_at DESC, id DESC")
         })
 @Getter
 @Setter
@@ -27,6 +30,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @ToString(callSuper = true)
+@EntityListeners(AccountNotificationEntityListener.class)
 public class AccountNotification extends BaseEntity {
 
     @Column(name = "account_id", nullable = false)
@@ -59,6 +63,15 @@ public class AccountNotification extends BaseEntity {
     @Column(name = "expires_at")
     private LocalDateTime expiresAt;
 
+    /**
+     * Whether the persisted state was counted as unread, so the entity listener can tell transitions apart
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean persistedAsUnread;
+
     public void markAsRead() {
         this.status = NotificationStatus.READ;
         this.readAt = LocalDateTime.now();
@@ -71,4 +84,19 @@ public class AccountNotification extends BaseEntity {
     public boolean isExpired() {
         return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
     }
+
+    /**
+     * Unread notifications that are neither expired nor deleted are the ones shown on the badge
+     */
+    public boolean isCountedAsUnread() {
+        return status == NotificationStatus.UNREAD && !isExpired() && !isDeleted();
+    }
+
+    public boolean wasPersistedAsUnread() {
+        return persistedAsUnread;
+    }
+
+    public void rememberPersistedAsUnread(boolean persistedAsUnread) {
+        this.persistedAsUnread = persistedAsUnread;
+    }
 }
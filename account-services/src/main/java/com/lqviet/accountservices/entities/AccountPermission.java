@@ -1,5 +1,6 @@
 package com.lqviet.accountservices.entities;
 
+import com.lqviet.accountservices.listeners.AccountAuthorizationEntityListener;
 import com.lqviet.baseentity.entities.BaseEntity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -27,6 +28,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @ToString(callSuper = true)
+@EntityListeners(AccountAuthorizationEntityListener.class)
 public class AccountPermission extends BaseEntity {
     @Column(name = "account_id", nullable = false)
     private Long accountId;
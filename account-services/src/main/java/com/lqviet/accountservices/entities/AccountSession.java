@@ -1,6 +1,7 @@
 package com.lqviet.accountservices.entities;
 
 import com.lqviet.accountservices.enums.SessionStatus;
+import com.lqviet.accountservices.listeners.AccountSessionEntityListener;
 import com.lqviet.baseentity.entities.BaseEntity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -17,7 +18,9 @@ import java.time.LocalDateTime;
                 @Index(name = "idx_session_account", columnList = "account_id"),
                 @Index(name = "idx_session_token", columnList = "session_token"),
                 @Index(name = "idx_session_status", columnList = "status"),
-                @Index(name = "idx_session_expires", columnList = "expires_at")
+                @Index(name = "idx_session_expires", columnList = "expires_at"),
+                @Index(name = "idx_session_ended", columnList = "ended_at"),
+                @Index(name = "idx_session_deleted", columnList = "deleted_at")
         })
 @Getter
 @Setter
@@ -25,6 +28,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @ToString(callSuper = true, exclude = {"sessionToken"})
+@EntityListeners(AccountSessionEntityListener.class)
 public class AccountSession extends BaseEntity {
     @Column(name = "account_id", nullable = false)
     private Long accountId;
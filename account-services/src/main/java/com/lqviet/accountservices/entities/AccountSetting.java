@@ -1,6 +1,7 @@
 package com.lqviet.accountservices.entities;
 
 import com.lqviet.accountservices.enums.ValueType;
+import com.lqviet.accountservices.listeners.AccountSettingEntityListener;
 import com.lqviet.baseentity.entities.BaseEntity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -23,6 +24,7 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @ToString(callSuper = true)
+@EntityListeners(AccountSettingEntityListener.class)
 public class AccountSetting extends BaseEntity {
     @Column(name = "account_id", nullable = false)
     private Long accountId;
@@ -3,20 +3,22 @@ package com.lqviet.accountservices.entities;
 import com.lqviet.accountservices.enums.TokenType;
 import com.lqviet.baseentity.entities.BaseEntity;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 /**
  * Account Token entity for managing various tokens (reset, verification, etc.)
+ * <p>
+ * Only the SHA-256 digest of a token is stored; the raw token is handed to its owner once, when issued.
+ * Lookups go through a hash index on {@code token_hash} created by
+ * {@link com.lqviet.accountservices.tokens.TokenHashMigration}.
  */
 @Entity
 @Table(name = "account_tokens",
         indexes = {
                 @Index(name = "idx_token_account", columnList = "account_id"),
                 @Index(name = "idx_token_type", columnList = "token_type"),
-                @Index(name = "idx_token_value", columnList = "token_value"),
                 @Index(name = "idx_token_expires", columnList = "expires_at")
         })
 @Getter
@@ -24,7 +26,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@ToString(callSuper = true, exclude = {"tokenValue"})
+@ToString(callSuper = true, exclude = {"tokenHash"})
 public class AccountToken extends BaseEntity {
     @Column(name = "account_id", nullable = false)
     private Long accountId;
@@ -33,9 +35,12 @@ public class AccountToken extends BaseEntity {
     @Column(name = "token_type", nullable = false, length = 30)
     private TokenType tokenType;
 
-    @NotBlank(message = "Token value is required")
-    @Column(name = "token_value", nullable = false, unique = true, length = 255)
-    private String tokenValue;
+    /**
+     * Nullable in the mapping only so the column can be added to populated tables; the migration backfills it
+     * and sets it NOT NULL
+     */
+    @Column(name = "token_hash", length = 32)
+    private byte[] tokenHash;
 
     @Column(name = "expires_at", nullable = false)
     private LocalDateTime expiresAt;
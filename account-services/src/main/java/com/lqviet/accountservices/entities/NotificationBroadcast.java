@@ -0,0 +1,70 @@
+package com.lqviet.accountservices.entities;
+
+import com.lqviet.accountservices.enums.BroadcastDeliveryMode;
+import com.lqviet.accountservices.enums.BroadcastStatus;
+import com.lqviet.accountservices.enums.NotificationType;
+import com.lqviet.baseentity.entities.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification Broadcast entity, one notification sent to every active account,
+ * either materialized per account or stored once and merged into feeds on read
+ */
+@Entity
+@Table(name = "notification_broadcasts",
+        indexes = {
+                @Index(name = "idx_broadcast_status", columnList = "status"),
+                @Index(name = "idx_broadcast_feed", columnList = "delivery_mode, created_at DESC, id DESC")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(callSuper = true)
+public class NotificationBroadcast extends BaseEntity {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must not exceed 200 characters")
+    @Column(name = "title", nullable = false, length = 200)
+    private String title;
+
+    @Column(name = "message", length = 1000)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_type", nullable = false, length = 30)
+    @Builder.Default
+    private NotificationType notificationType = NotificationType.SYSTEM;
+
+    @Column(name = "action_url", length = 500)
+    private String actionUrl;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "delivery_mode", nullable = false, length = 20)
+    @Builder.Default
+    private BroadcastDeliveryMode deliveryMode = BroadcastDeliveryMode.MATERIALIZED;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private BroadcastStatus status = BroadcastStatus.PENDING;
+
+    @Column(name = "delivered_count", nullable = false)
+    @Builder.Default
+    private Long deliveredCount = 0L;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
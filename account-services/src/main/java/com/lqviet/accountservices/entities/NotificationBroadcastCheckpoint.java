@@ -0,0 +1,49 @@
+package com.lqviet.accountservices.entities;
+
+import com.lqviet.baseentity.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Progress of one partition of the account id space through a {@link NotificationBroadcast}.
+ * Accounts in {@code (rangeStart, rangeEnd]} up to {@code lastAccountId} have been delivered.
+ */
+@Entity
+@Table(name = "notification_broadcast_checkpoints",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"broadcast_id", "partition_index"})
+        },
+        indexes = {
+                @Index(name = "idx_checkpoint_broadcast", columnList = "broadcast_id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(callSuper = true)
+public class NotificationBroadcastCheckpoint extends BaseEntity {
+
+    @Column(name = "broadcast_id", nullable = false)
+    private Long broadcastId;
+
+    @Column(name = "partition_index", nullable = false)
+    private Integer partitionIndex;
+
+    @Column(name = "range_start", nullable = false)
+    private Long rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private Long rangeEnd;
+
+    @Column(name = "last_account_id", nullable = false)
+    private Long lastAccountId;
+
+    @Column(name = "delivered", nullable = false)
+    @Builder.Default
+    private Long delivered = 0L;
+
+    @Column(name = "completed", nullable = false)
+    @Builder.Default
+    private Boolean completed = false;
+}
@@ -0,0 +1,42 @@
+package com.lqviet.accountservices.entities;
+
+import com.lqviet.accountservices.enums.NotificationStatus;
+import com.lqviet.baseentity.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of a lazily delivered {@link NotificationBroadcast} for one account.
+ * Only exists once the account read, archived or dismissed the broadcast; no row means unread.
+ */
+@Entity
+@Table(name = "notification_broadcast_states",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"broadcast_id", "account_id"})
+        },
+        indexes = {
+                @Index(name = "idx_broadcast_state_account", columnList = "account_id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(callSuper = true)
+public class NotificationBroadcastState extends BaseEntity {
+
+    @Column(name = "broadcast_id", nullable = false)
+    private Long broadcastId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private NotificationStatus status;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+}
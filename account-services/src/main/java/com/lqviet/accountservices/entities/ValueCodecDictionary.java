@@ -0,0 +1,30 @@
+package com.lqviet.accountservices.entities;
+
+import com.lqviet.baseentity.entities.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Persisted {@link com.lqviet.accountservices.codecs.FieldDictionary}; rows are only ever inserted, never updated
+ */
+@Entity
+@Table(name = "value_codec_dictionaries",
+        indexes = {
+                @Index(name = "idx_codec_dictionary_context", columnList = "context")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(callSuper = true)
+public class ValueCodecDictionary extends BaseEntity {
+    @Column(name = "context", nullable = false, length = 100)
+    private String context;
+
+    /**
+     * Field names in dictionary order, one per line
+     */
+    @Column(name = "field_names", nullable = false, columnDefinition = "TEXT")
+    private String fieldNames;
+}
@@ -0,0 +1,12 @@
+package com.lqviet.accountservices.enums;
+
+public enum BroadcastDeliveryMode {
+    /**
+     * One account_notifications row per account, written up front by the fan-out engine
+     */
+    MATERIALIZED,
+    /**
+     * Stored once and merged into every feed on read; per-account state is only written when a user acts on it
+     */
+    LAZY
+}
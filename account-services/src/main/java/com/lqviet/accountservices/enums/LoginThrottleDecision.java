@@ -0,0 +1,16 @@
+package com.lqviet.accountservices.enums;
+
+/**
+ * Outcome of {@link com.lqviet.accountservices.throttling.LoginThrottle#check}
+ */
+public enum LoginThrottleDecision {
+    ALLOWED,
+    /**
+     * Too many recent failures from the client's IP address
+     */
+    IP_THROTTLED,
+    /**
+     * The account is locked after too many recent failures
+     */
+    ACCOUNT_LOCKED
+}
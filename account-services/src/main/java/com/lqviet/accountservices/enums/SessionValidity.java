@@ -0,0 +1,5 @@
+package com.lqviet.accountservices.enums;
+
+public enum SessionValidity {
+    VALID, INVALID, UNKNOWN
+}
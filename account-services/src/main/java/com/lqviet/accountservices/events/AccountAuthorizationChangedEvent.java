@@ -0,0 +1,8 @@
+package com.lqviet.accountservices.events;
+
+/**
+ * Published when an {@link com.lqviet.accountservices.entities.AccountRole} or
+ * {@link com.lqviet.accountservices.entities.AccountPermission} of an account is granted, changed or revoked
+ */
+public record AccountAuthorizationChangedEvent(Long accountId) {
+}
@@ -0,0 +1,10 @@
+package com.lqviet.accountservices.events;
+
+import com.lqviet.accountservices.enums.AccountChangeType;
+
+/**
+ * Published whenever an {@link com.lqviet.accountservices.entities.Account} row is inserted, updated or removed
+ * through JPA. Caches and indexes keyed on account data listen to it to stay consistent with the database.
+ */
+public record AccountChangedEvent(Long accountId, String username, String email, AccountChangeType changeType) {
+}
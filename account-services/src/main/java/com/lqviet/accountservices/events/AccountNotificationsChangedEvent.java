@@ -0,0 +1,12 @@
+package com.lqviet.accountservices.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when the number of unread notifications of an account changes
+ *
+ * @param unreadDelta change of the unread count
+ * @param expiresAt   expiry of the notification that became unread, if any, so the counter knows when to recount
+ */
+public record AccountNotificationsChangedEvent(Long accountId, int unreadDelta, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,7 @@
+package com.lqviet.accountservices.events;
+
+/**
+ * Published when any {@link com.lqviet.accountservices.entities.AccountSetting} of an account is written
+ */
+public record AccountSettingsChangedEvent(Long accountId) {
+}
@@ -0,0 +1,10 @@
+package com.lqviet.accountservices.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a {@link com.lqviet.accountservices.enums.BroadcastDeliveryMode#LAZY} broadcast becomes
+ * visible to every account at once
+ */
+public record LazyBroadcastPublishedEvent(Long broadcastId, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,10 @@
+package com.lqviet.accountservices.events;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when one unread notification was written in bulk to each of the given accounts
+ */
+public record NotificationsDeliveredEvent(List<Long> accountIds, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,29 @@
+package com.lqviet.accountservices.exports;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes exported accounts one record at a time to an already open stream
+ */
+public interface AccountRecordWriter {
+
+    void writeHeader() throws IOException;
+
+    void write(AccountResponse account) throws IOException;
+
+    void flush() throws IOException;
+
+    /**
+     * {@link #write(AccountResponse)} for use from callbacks that cannot throw checked exceptions
+     */
+    default void writeUnchecked(AccountResponse account) {
+        try {
+            write(account);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.lqviet.accountservices.exports;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV with a header row; fields containing a separator, quote or line break are quoted
+ */
+public class CsvAccountRecordWriter implements AccountRecordWriter {
+    private static final String[] HEADER = {
+            "id", "createdAt", "updatedAt", "createdBy", "lastModifiedBy", "username", "email", "firstName",
+            "lastName", "phoneNumber", "status", "accountType", "emailVerified", "lockedUntil"
+    };
+
+    private final Writer out;
+
+    public CsvAccountRecordWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        writeRow((Object[]) HEADER);
+    }
+
+    @Override
+    public void write(AccountResponse account) throws IOException {
+        writeRow(account.getId(), account.getCreatedAt(), account.getUpdatedAt(), account.getCreatedBy(),
+                account.getLastModifiedBy(), account.getUsername(), account.getEmail(), account.getFirstName(),
+                account.getLastName(), account.getPhoneNumber(), account.getStatus(), account.getAccountType(),
+                account.getEmailVerified(), account.getLockedUntil());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeField(values[i].toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,40 @@
+package com.lqviet.accountservices.exports;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One JSON object per line, serialized with the application's {@link ObjectMapper} so dates and enums look
+ * the same as in every other response
+ */
+public class NdjsonAccountRecordWriter implements AccountRecordWriter {
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+
+    public NdjsonAccountRecordWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.writer = objectMapper.writerFor(AccountResponse.class);
+    }
+
+    @Override
+    public void writeHeader() {
+        // NDJSON has no header
+    }
+
+    @Override
+    public void write(AccountResponse account) throws IOException {
+        writer.writeValue(generator, account);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
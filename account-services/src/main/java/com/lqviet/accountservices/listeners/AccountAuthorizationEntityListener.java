@@ -0,0 +1,35 @@
+package com.lqviet.accountservices.listeners;
+
+import com.lqviet.accountservices.entities.AccountPermission;
+import com.lqviet.accountservices.entities.AccountRole;
+import com.lqviet.accountservices.events.AccountAuthorizationChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener for {@link AccountRole} and {@link AccountPermission}, turning grants and revokes into
+ * {@link AccountAuthorizationChangedEvent}s
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountAuthorizationEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterChange(Object entity) {
+        Long accountId = switch (entity) {
+            case AccountRole role -> role.getAccountId();
+            case AccountPermission permission -> permission.getAccountId();
+            default -> null;
+        };
+        if (accountId != null) {
+            eventPublisher.publishEvent(new AccountAuthorizationChangedEvent(accountId));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.lqviet.accountservices.listeners;
+
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.enums.AccountChangeType;
+import com.lqviet.accountservices.events.AccountChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener for {@link Account}.
+ * <p>
+ * Every state transition such as {@code activate()}, {@code lock()}, {@code suspend()} or
+ * {@code updateLastLoginAt()} ends up as a flushed update, so hooking the JPA lifecycle here
+ * covers all of them without each caller having to remember to invalidate caches.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void afterInsert(Account account) {
+        publish(account, AccountChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void afterUpdate(Account account) {
+        publish(account, AccountChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void afterDelete(Account account) {
+        publish(account, AccountChangeType.DELETED);
+    }
+
+    private void publish(Account account, AccountChangeType changeType) {
+        eventPublisher.publishEvent(new AccountChangedEvent(
+                account.getId(), account.getUsername(), account.getEmail(), changeType));
+    }
+}
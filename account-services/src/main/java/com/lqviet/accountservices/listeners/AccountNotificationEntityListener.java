@@ -0,0 +1,46 @@
+package com.lqviet.accountservices.listeners;
+
+import com.lqviet.accountservices.entities.AccountNotification;
+import com.lqviet.accountservices.events.AccountNotificationsChangedEvent;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener for {@link AccountNotification}, turning inserts, {@code markAsRead()}, archiving and
+ * deletes into unread count deltas
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountNotificationEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void afterLoad(AccountNotification notification) {
+        notification.rememberPersistedAsUnread(notification.isCountedAsUnread());
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void afterWrite(AccountNotification notification) {
+        publishTransition(notification, notification.isCountedAsUnread());
+    }
+
+    @PostRemove
+    public void afterRemove(AccountNotification notification) {
+        publishTransition(notification, false);
+    }
+
+    private void publishTransition(AccountNotification notification, boolean counted) {
+        boolean wasCounted = notification.wasPersistedAsUnread();
+        notification.rememberPersistedAsUnread(counted);
+        if (counted != wasCounted) {
+            eventPublisher.publishEvent(new AccountNotificationsChangedEvent(notification.getAccountId(),
+                    counted ? 1 : -1, counted ? notification.getExpiresAt() : null));
+        }
+    }
+}
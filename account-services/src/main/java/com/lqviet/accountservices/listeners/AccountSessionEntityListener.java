@@ -0,0 +1,57 @@
+package com.lqviet.accountservices.listeners;
+
+import com.lqviet.accountservices.caches.OffHeapSessionRegistry;
+import com.lqviet.accountservices.entities.AccountSession;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mirrors {@link AccountSession} writes into the {@link OffHeapSessionRegistry}.
+ * <p>
+ * The registry is only updated once the transaction commits, so a rolled back login never validates.
+ * Anything that ends a session ({@code terminate()}, {@code expire()}, removal) is applied right away as well,
+ * because denying a session early is always safe.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountSessionEntityListener {
+    private final OffHeapSessionRegistry sessionRegistry;
+
+    @PostPersist
+    @PostUpdate
+    public void afterSave(AccountSession session) {
+        if (!session.isActive()) {
+            register(session);
+        }
+        afterCommit(() -> register(session));
+    }
+
+    @PostRemove
+    public void afterDelete(AccountSession session) {
+        String token = session.getSessionToken();
+        sessionRegistry.remove(token);
+        afterCommit(() -> sessionRegistry.remove(token));
+    }
+
+    private void register(AccountSession session) {
+        sessionRegistry.put(session);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
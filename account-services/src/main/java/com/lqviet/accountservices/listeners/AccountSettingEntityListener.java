@@ -0,0 +1,27 @@
+package com.lqviet.accountservices.listeners;
+
+import com.lqviet.accountservices.entities.AccountSetting;
+import com.lqviet.accountservices.events.AccountSettingsChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener for {@link AccountSetting}, so settings written through the entity still invalidate the
+ * cached {@link com.lqviet.accountservices.settings.AccountSettings}
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountSettingEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterChange(AccountSetting setting) {
+        eventPublisher.publishEvent(new AccountSettingsChangedEvent(setting.getAccountId()));
+    }
+}
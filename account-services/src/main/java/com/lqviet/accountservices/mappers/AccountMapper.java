@@ -0,0 +1,35 @@
+package com.lqviet.accountservices.mappers;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.entities.Account;
+
+/**
+ * Maps {@link Account} entities to their response DTOs
+ */
+public final class AccountMapper {
+
+    private AccountMapper() {
+    }
+
+    public static AccountResponse toResponse(Account account) {
+        if (account == null) {
+            return null;
+        }
+        return new AccountResponse(
+                account.getId(),
+                account.getCreatedAt(),
+                account.getUpdatedAt(),
+                account.getCreatedBy(),
+                account.getLastModifiedBy(),
+                account.getUsername(),
+                account.getEmail(),
+                account.getFirstName(),
+                account.getLastName(),
+                account.getPhoneNumber(),
+                account.getStatus(),
+                account.getAccountType(),
+                account.getEmailVerified(),
+                account.getLockedUntil()
+        );
+    }
+}
@@ -0,0 +1,49 @@
+package com.lqviet.accountservices.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page ordered by {@code (created_at, source, id)} descending, passed to
+ * clients as an opaque URL-safe string. {@code source} tells apart rows merged from different tables whose
+ * ids may collide.
+ */
+public record KeysetCursor(LocalDateTime createdAt, int source, long id) {
+    /**
+     * Sorts after every real row, used as the cursor of the first page
+     */
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    public String encode() {
+        String plain = createdAt + "|" + source + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    /**
+     * Id bound for a source whose rows all share one {@code source} value: rows of that source come after the
+     * cursor exactly when {@code (created_at, id) < (createdAt, idBoundFor(source))}
+     */
+    public long idBoundFor(int rowSource) {
+        if (rowSource < source) {
+            return Long.MAX_VALUE;
+        }
+        return rowSource == source ? id : Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,309 @@
+package com.lqviet.accountservices.partitioning;
+
+import com.lqviet.accountservices.enums.RetentionMode;
+import com.lqviet.accountservices.properties.PartitioningProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps {@code account_activities} and {@code account_audit_logs} as monthly range-partitioned tables.
+ * <p>
+ * On the first run each plain table is converted in place: it is renamed to {@code <table>_legacy} and attached
+ * as the partition for everything up to the month of its newest row, so no rows are copied. After that every run:
+ * <pre>
+ * - creates the partitions for the current month and the next premake-months months
+ * - keeps a default partition so out-of-range rows are never rejected
+ * - detaches or drops every monthly partition that lies entirely before the retention cutoff
+ * </pre>
+ * Retention is applied by dropping whole partitions instead of the row-by-row
+ * {@code permanentlyDeleteOldRecords()} purge from {@code BaseRepository}, which must not be used on these tables.
+ * The legacy partition is the only exception: its expired rows are deleted until its upper bound falls behind the
+ * cutoff, and then it is dropped as a whole like the others. The default partition is never dropped, its expired rows
+ * are deleted on every run. Both deletes run in batches of purge-batch-size rows, one transaction each.
+ * <p>
+ * Rows that landed in the default partition because their month had no partition yet, e.g. after downtime longer
+ * than the premake window, would make creating that month fail. Such a month is created as a standalone table, the
+ * rows are moved into it and it is then attached, all in one transaction.
+ * <p>
+ * Structural changes and deletes run under a transaction-scoped advisory lock, so only one replica does the work;
+ * a replica that does not get the lock skips the step and logs nothing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.partitioning", name = "enabled", havingValue = "true")
+public class PartitionManager {
+    public static final PartitionedTable ACTIVITIES = new PartitionedTable("account_activities", "activity_date", Map.of(
+            "idx_activity_account", "account_id",
+            "idx_activity_type", "activity_type",
+            "idx_activity_date", "activity_date",
+            "idx_activity_ip", "ip_address"));
+
+    public static final PartitionedTable AUDIT_LOGS = new PartitionedTable("account_audit_logs", "action_date", Map.of(
+            "idx_audit_account", "account_id",
+            "idx_audit_action", "action",
+            "idx_audit_table", "table_name",
+            "idx_audit_date", "action_date"));
+
+    private static final long ADVISORY_LOCK_KEY = 7_340_021_001L;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(".*_p(\\d{4})_(\\d{2})");
+    private static final Pattern LEGACY_UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitioningProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${account.partitioning.cron:0 30 3 * * *}")
+    public void maintain() {
+        maintain(LocalDate.now());
+    }
+
+    public void maintain(LocalDate today) {
+        maintain(ACTIVITIES, properties.getActivityRetentionMonths(), today);
+        maintain(AUDIT_LOGS, properties.getAuditRetentionMonths(), today);
+    }
+
+    private void maintain(PartitionedTable table, int retentionMonths, LocalDate today) {
+        YearMonth currentMonth = YearMonth.from(today);
+        Boolean done = transactionTemplate.execute(status -> {
+            if (!tryAdvisoryLock() || !tableExists(table.tableName())) {
+                return false;
+            }
+            if (!isPartitioned(table.tableName())) {
+                convertToPartitioned(table, currentMonth);
+            }
+            createPartitions(table, currentMonth, properties.getPremakeMonths());
+            return true;
+        });
+        if (Boolean.TRUE.equals(done)) {
+            applyRetention(table, currentMonth.minusMonths(retentionMonths));
+        }
+    }
+
+    private void convertToPartitioned(PartitionedTable table, YearMonth currentMonth) {
+        String parent = table.tableName();
+        String legacy = table.legacyTableName();
+        boolean identity = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT attidentity <> '' FROM pg_attribute WHERE attrelid = to_regclass(?) AND attname = 'id'",
+                Boolean.class, parent));
+
+        // The rename takes an exclusive lock, so nothing is written while the bounds are computed
+        jdbcTemplate.execute("ALTER TABLE " + parent + " RENAME TO " + legacy);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + legacy, Long.class);
+        Timestamp newest = jdbcTemplate.queryForObject(
+                "SELECT MAX(" + table.partitionColumn() + ") FROM " + legacy, Timestamp.class);
+        YearMonth legacyEnd = newest == null ? currentMonth
+                : max(currentMonth, YearMonth.from(newest.toLocalDateTime()).plusMonths(1));
+
+        jdbcTemplate.execute("ALTER TABLE " + legacy + " RENAME CONSTRAINT " + parent + "_pkey TO " + legacy + "_pkey");
+        table.indexes().keySet().forEach(index ->
+                jdbcTemplate.execute("ALTER INDEX IF EXISTS " + index + " RENAME TO " + index + "_legacy"));
+
+        jdbcTemplate.execute("CREATE TABLE " + parent + " (LIKE " + legacy + " INCLUDING DEFAULTS INCLUDING IDENTITY"
+                + " INCLUDING CONSTRAINTS) PARTITION BY RANGE (" + table.partitionColumn() + ")");
+        jdbcTemplate.execute("ALTER TABLE " + parent + " ADD PRIMARY KEY (id, " + table.partitionColumn() + ")");
+        table.indexes().forEach((index, columns) ->
+                jdbcTemplate.execute("CREATE INDEX " + index + " ON " + parent + " (" + columns + ")"));
+
+        if (identity) {
+            // A partition may not carry its own identity column; ids continue from the parent's
+            jdbcTemplate.execute("ALTER TABLE " + legacy + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+            jdbcTemplate.execute("ALTER TABLE " + parent + " ALTER COLUMN id RESTART WITH " + (maxId + 1));
+        }
+        jdbcTemplate.execute("ALTER TABLE " + parent + " ATTACH PARTITION " + legacy
+                + " FOR VALUES FROM (MINVALUE) TO ('" + legacyEnd.atDay(1) + "')");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table.defaultPartitionName()
+                + " PARTITION OF " + parent + " DEFAULT");
+        log.info("Converted {} to a partitioned table, existing rows kept in {}", parent, legacy);
+    }
+
+    private void createPartitions(PartitionedTable table, YearMonth currentMonth, int premakeMonths) {
+        YearMonth from = max(currentMonth, legacyUpperBound(table));
+        boolean defaultExists = tableExists(table.defaultPartitionName());
+        for (YearMonth month = from; !month.isAfter(currentMonth.plusMonths(premakeMonths)); month = month.plusMonths(1)) {
+            String partition = partitionName(table, month);
+            if (tableExists(partition)) {
+                continue;
+            }
+            String bounds = "FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+            int moved = defaultExists ? moveOutOfDefault(table, partition, month) : -1;
+            if (moved < 0) {
+                jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF " + table.tableName()
+                        + " FOR VALUES " + bounds);
+                log.info("Created partition {}", partition);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE " + table.tableName() + " ATTACH PARTITION " + partition
+                        + " FOR VALUES " + bounds);
+                log.info("Created partition {} with {} rows moved out of {}", partition, moved,
+                        table.defaultPartitionName());
+            }
+        }
+    }
+
+    /**
+     * Moves the rows of the month out of the default partition into a new standalone table, unless there are none
+     *
+     * @return the number of rows moved, or -1 when the default partition holds none and nothing was created
+     */
+    private int moveOutOfDefault(PartitionedTable table, String partition, YearMonth month) {
+        String defaultPartition = table.defaultPartitionName();
+        String inMonth = table.partitionColumn() + " >= ? AND " + table.partitionColumn() + " < ?";
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        Boolean stranded = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + defaultPartition
+                + " WHERE " + inMonth + ")", Boolean.class, from, to);
+        if (!Boolean.TRUE.equals(stranded)) {
+            return -1;
+        }
+        jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + table.tableName()
+                + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        return jdbcTemplate.update("WITH moved AS (DELETE FROM " + defaultPartition + " WHERE " + inMonth
+                + " RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved", from, to);
+    }
+
+    private void applyRetention(PartitionedTable table, YearMonth cutoff) {
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff.atDay(1).atStartOfDay());
+        for (String partition : listPartitions(table.tableName())) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (matcher.matches()) {
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                if (month.isBefore(cutoff)) {
+                    expire(table, partition);
+                }
+            } else if (partition.equals(table.legacyTableName())) {
+                expireLegacy(table, cutoff, cutoffTimestamp);
+            } else if (partition.equals(table.defaultPartitionName())) {
+                deleteExpiredRows(table, partition, cutoffTimestamp);
+            }
+        }
+    }
+
+    private void expireLegacy(PartitionedTable table, YearMonth cutoff, Timestamp cutoffTimestamp) {
+        String legacy = table.legacyTableName();
+        YearMonth upperBound = legacyUpperBound(table);
+        if (upperBound == null || upperBound.isAfter(cutoff)) {
+            deleteExpiredRows(table, legacy, cutoffTimestamp);
+        } else if (underLock(() -> detachExpired(table, legacy))) {
+            logExpired(legacy);
+        }
+    }
+
+    /**
+     * Deletes in batches, each in its own transaction, so no single transaction holds its row locks for long
+     */
+    private void deleteExpiredRows(PartitionedTable table, String partition, Timestamp cutoff) {
+        int batchSize = properties.getPurgeBatchSize();
+        String sql = "DELETE FROM " + partition + " WHERE ctid = ANY (ARRAY(SELECT ctid FROM " + partition
+                + " WHERE " + table.partitionColumn() + " < ? LIMIT ?))";
+        long total = 0;
+        int[] deleted = {0};
+        do {
+            if (!underLock(() -> deleted[0] = jdbcTemplate.update(sql, cutoff, batchSize))) {
+                break;
+            }
+            total += deleted[0];
+        } while (deleted[0] >= batchSize);
+        if (total > 0) {
+            log.info("Deleted {} expired rows from {}", total, partition);
+        }
+    }
+
+    private void expire(PartitionedTable table, String partition) {
+        if (underLock(() -> detachExpired(table, partition))) {
+            logExpired(partition);
+        }
+    }
+
+    private void detachExpired(PartitionedTable table, String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + table.tableName() + " DETACH PARTITION " + partition);
+        if (properties.getRetentionMode() == RetentionMode.DROP) {
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        }
+    }
+
+    private void logExpired(String partition) {
+        log.info("{} expired partition {}", properties.getRetentionMode() == RetentionMode.DROP ? "Dropped" : "Detached",
+                partition);
+    }
+
+    /**
+     * Runs the work in its own transaction once the advisory lock is taken
+     *
+     * @return whether the lock was taken and the work committed
+     */
+    private boolean underLock(Runnable work) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!tryAdvisoryLock()) {
+                return false;
+            }
+            work.run();
+            return true;
+        }));
+    }
+
+    /**
+     * First month not covered by the legacy partition, or null once it has been dropped
+     */
+    private YearMonth legacyUpperBound(PartitionedTable table) {
+        List<String> bounds = jdbcTemplate.queryForList(
+                "SELECT pg_get_expr(relpartbound, oid) FROM pg_class WHERE oid = to_regclass(?)",
+                String.class, table.legacyTableName());
+        if (bounds.isEmpty() || bounds.get(0) == null) {
+            return null;
+        }
+        Matcher matcher = LEGACY_UPPER_BOUND.matcher(bounds.get(0));
+        return matcher.find() ? YearMonth.parse(matcher.group(1)) : null;
+    }
+
+    private List<String> listPartitions(String parent) {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?)
+                ORDER BY c.relname
+                """, String.class, parent);
+    }
+
+    private boolean tryAdvisoryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY));
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private boolean isPartitioned(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+                Boolean.class, table));
+    }
+
+    private static YearMonth max(YearMonth a, YearMonth b) {
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    static String partitionName(PartitionedTable table, YearMonth month) {
+        return table.tableName() + month.format(PARTITION_SUFFIX);
+    }
+}
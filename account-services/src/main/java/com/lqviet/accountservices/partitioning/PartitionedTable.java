@@ -0,0 +1,21 @@
+package com.lqviet.accountservices.partitioning;
+
+import java.util.Map;
+
+/**
+ * A table that is range partitioned by month on a timestamp column
+ *
+ * @param tableName       name of the partitioned parent table
+ * @param partitionColumn timestamp column used as the range key
+ * @param indexes         secondary indexes re-created on the parent, by name, mirroring the entity mapping
+ */
+public record PartitionedTable(String tableName, String partitionColumn, Map<String, String> indexes) {
+
+    public String legacyTableName() {
+        return tableName + "_legacy";
+    }
+
+    public String defaultPartitionName() {
+        return tableName + "_default";
+    }
+}
@@ -0,0 +1,173 @@
+package com.lqviet.accountservices.passwords;
+
+import com.lqviet.accountservices.properties.PasswordHashProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Verifies BCrypt password hashes on a dedicated pool, so a login spike cannot take the request threads.
+ * <p>
+ * The pool has one platform thread per processor and a bounded queue. A verification is shed with a
+ * {@link RejectedExecutionException} when the queue is full, or when the work already queued is expected to take
+ * longer than {@code maxQueueWait}: queue depth times the moving average of recent verifications, divided by the
+ * pool size. The shed threshold thus follows the actual cost of a hash on this machine. The caller waits for
+ * its result, which costs a request thread nothing but memory, and is best done on a virtual thread.
+ * <p>
+ * A matching hash with a lower cost than {@code bcryptStrength} is rehashed on the pool, and the new hash replaces
+ * the old one only if the stored hash has not changed in the meantime.
+ * <p>
+ * Meters: {@code account.password.verify} (time spent hashing), {@code account.password.queue.wait},
+ * {@code account.password.queue.depth}, {@code account.password.shed} tagged with {@code reason} (full, wait,
+ * timeout) and {@code account.password.rehashed}.
+ */
+@Slf4j
+@Component
+public class PasswordVerificationPool {
+    private static final String REHASH_SQL = "UPDATE accounts SET password = ? WHERE id = ? AND password = ?";
+    /**
+     * Weight of the newest sample in the moving average of verification times
+     */
+    private static final double SMOOTHING = 0.1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordHashProperties properties;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final AtomicLong averageVerifyNanos = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(50));
+    private final Timer verifyTimer;
+    private final Timer queueWaitTimer;
+    private final Counter shedFull;
+    private final Counter shedWait;
+    private final Counter shedTimeout;
+    private final Counter rehashed;
+
+    public PasswordVerificationPool(JdbcTemplate jdbcTemplate,
+                                    PasswordHashProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.encoder = new BCryptPasswordEncoder(properties.getBcryptStrength());
+        this.poolSize = properties.getPoolSize() > 0
+                ? properties.getPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+        int queueCapacity = properties.getQueueCapacity() > 0 ? properties.getQueueCapacity() : poolSize * 16;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> Thread.ofPlatform().name("password-verify-" + threads.incrementAndGet()).daemon(true)
+                        .unstarted(task));
+        this.verifyTimer = meterRegistry.timer("account.password.verify");
+        this.queueWaitTimer = meterRegistry.timer("account.password.queue.wait");
+        this.shedFull = meterRegistry.counter("account.password.shed", "reason", "full");
+        this.shedWait = meterRegistry.counter("account.password.shed", "reason", "wait");
+        this.shedTimeout = meterRegistry.counter("account.password.shed", "reason", "timeout");
+        this.rehashed = meterRegistry.counter("account.password.rehashed");
+        Gauge.builder("account.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a new password with the configured cost, on the pool
+     */
+    public String encode(String rawPassword) {
+        return await(submit(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * Checks a password against the stored hash of an account, upgrading the hash when its cost is outdated
+     *
+     * @throws RejectedExecutionException when the verification was shed or timed out
+     */
+    public boolean matches(Long accountId, String rawPassword, String storedHash) {
+        PasswordCheck check = await(submit(() -> check(rawPassword, storedHash)));
+        if (check.upgradedHash() != null
+                && jdbcTemplate.update(REHASH_SQL, check.upgradedHash(), accountId, storedHash) == 1) {
+            rehashed.increment();
+        }
+        return check.matched();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private PasswordCheck check(String rawPassword, String storedHash) {
+        if (!encoder.matches(rawPassword, storedHash)) {
+            return new PasswordCheck(false, null);
+        }
+        return new PasswordCheck(true, encoder.upgradeEncoding(storedHash) ? encoder.encode(rawPassword) : null);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        int queued = executor.getQueue().size();
+        long expectedWaitNanos = queued * averageVerifyNanos.get() / poolSize;
+        if (expectedWaitNanos > properties.getMaxQueueWait().toNanos()) {
+            shedWait.increment();
+            throw new RejectedExecutionException("Password verification queue is " + queued + " deep");
+        }
+        long submitted = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                queueWaitTimer.record(start - submitted, TimeUnit.NANOSECONDS);
+                if (result.isDone()) {
+                    // The caller gave up while this was queued
+                    return;
+                }
+                try {
+                    result.complete(work.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    verifyTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                    averageVerifyNanos.updateAndGet(average -> (long) (average + SMOOTHING * (elapsed - average)));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            shedFull.increment();
+            throw e;
+        }
+        return result;
+    }
+
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get(properties.getVerifyTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(false);
+            shedTimeout.increment();
+            throw new RejectedExecutionException("Password verification timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(false);
+            throw new RejectedExecutionException("Interrupted while waiting for password verification", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record PasswordCheck(boolean matched, String upgradedHash) {
+    }
+}
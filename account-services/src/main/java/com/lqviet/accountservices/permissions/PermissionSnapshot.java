@@ -0,0 +1,106 @@
+package com.lqviet.accountservices.permissions;
+
+import com.lqviet.accountservices.entities.AccountPermission;
+import com.lqviet.accountservices.entities.AccountRole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of every effective role and permission of one account.
+ * <p>
+ * Roles are a bitset over {@link RoleIndex} positions and permissions are grouped by
+ * {@link AccountPermission#getResourceIdentifier()}, so both checks are constant-time lookups that allocate nothing.
+ * {@link #getValidUntil()} is the earliest {@code expiresAt} among the grants, after which the snapshot must be rebuilt.
+ */
+public final class PermissionSnapshot {
+    private final Long accountId;
+    private final long[] roleBits;
+    private final Map<String, Set<String>> permissionsByResource;
+    private final LocalDateTime validUntil;
+
+    private PermissionSnapshot(Long accountId, long[] roleBits, Map<String, Set<String>> permissionsByResource,
+                               LocalDateTime validUntil) {
+        this.accountId = accountId;
+        this.roleBits = roleBits;
+        this.permissionsByResource = permissionsByResource;
+        this.validUntil = validUntil;
+    }
+
+    public static PermissionSnapshot build(Long accountId, Collection<AccountRole> roles,
+                                           Collection<AccountPermission> permissions, RoleIndex roleIndex) {
+        LocalDateTime validUntil = null;
+
+        List<Integer> positions = new ArrayList<>();
+        int highest = -1;
+        for (AccountRole role : roles) {
+            if (!role.isEffective()) {
+                continue;
+            }
+            int position = roleIndex.intern(role.getRoleName());
+            positions.add(position);
+            highest = Math.max(highest, position);
+            validUntil = earliest(validUntil, role.getExpiresAt());
+        }
+        long[] roleBits = new long[(highest >> 6) + 1];
+        for (int position : positions) {
+            roleBits[position >> 6] |= 1L << position;
+        }
+
+        Map<String, Set<String>> grouped = new HashMap<>();
+        for (AccountPermission permission : permissions) {
+            if (!permission.isEffective()) {
+                continue;
+            }
+            grouped.computeIfAbsent(permission.getResourceIdentifier(), resource -> new HashSet<>())
+                    .add(permission.getPermissionName());
+            validUntil = earliest(validUntil, permission.getExpiresAt());
+        }
+        Map<String, Set<String>> permissionsByResource = new HashMap<>();
+        grouped.forEach((resource, names) -> permissionsByResource.put(resource, Set.copyOf(names)));
+
+        return new PermissionSnapshot(accountId, roleBits, Map.copyOf(permissionsByResource), validUntil);
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    /**
+     * @return the earliest grant expiry, or null when no grant in the snapshot expires
+     */
+    public LocalDateTime getValidUntil() {
+        return validUntil;
+    }
+
+    public boolean hasRole(int position) {
+        int word = position >> 6;
+        return position >= 0 && word < roleBits.length && (roleBits[word] & (1L << position)) != 0;
+    }
+
+    /**
+     * @param resourceIdentifier {@code global}, {@code type:*} or {@code type:id}, as built by
+     *                           {@link AccountPermission#getResourceIdentifier()}
+     */
+    public boolean hasPermission(String permissionName, String resourceIdentifier) {
+        Set<String> names = permissionsByResource.get(resourceIdentifier);
+        return names != null && names.contains(permissionName);
+    }
+
+    public Map<String, Set<String>> getPermissionsByResource() {
+        return permissionsByResource;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+}
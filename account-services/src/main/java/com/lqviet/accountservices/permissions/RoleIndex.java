@@ -0,0 +1,29 @@
+package com.lqviet.accountservices.permissions;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns role names into dense bit positions shared by every {@link PermissionSnapshot}.
+ * <p>
+ * Positions are assigned on first sight and never reused, so a snapshot built earlier stays valid.
+ */
+@Component
+public class RoleIndex {
+    private final ConcurrentHashMap<String, Integer> positions = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public int intern(String roleName) {
+        return positions.computeIfAbsent(roleName, name -> next.getAndIncrement());
+    }
+
+    /**
+     * @return the bit position of the role, or -1 when no account was ever granted it
+     */
+    public int indexOf(String roleName) {
+        Integer position = positions.get(roleName);
+        return position != null ? position : -1;
+    }
+}
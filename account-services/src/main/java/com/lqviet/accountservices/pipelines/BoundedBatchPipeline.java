@@ -0,0 +1,325 @@
+package com.lqviet.accountservices.pipelines;
+
+import com.lqviet.accountservices.enums.BackpressurePolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Bounded in-memory queue drained by a dedicated thread into batches.
+ * <p>
+ * Producers never wait longer than the configured block timeout: when the queue is saturated the
+ * {@link BackpressurePolicy} decides whether to wait, drop the oldest item or only keep a sample.
+ * The drainer hands out a batch once it is full or the linger time has passed, and drains everything
+ * that is still queued when the application context stops; items submitted after that final drain are
+ * written through on the submitting thread, so shutdown work that still produces items loses nothing.
+ * Submissions hold a read lock and the final drain the write lock, so no item can be queued behind it.
+ * <p>
+ * A batch the sink fails on is retried {@code retryAttempts} times with a growing pause, then put back at the
+ * end of the queue as far as there is room. An item goes back at most {@code maxRequeues} times; after that it is
+ * written on its own once, so one row the sink always rejects cannot hold back the rows batched with it, and
+ * given up if that fails too. What does not fit in the queue, or fails during shutdown, is given up as well.
+ * <p>
+ * Published meters, all tagged with {@code pipeline}:
+ * <pre>
+ * - account.pipeline.events      items accepted (its rate is the events/sec figure)
+ * - account.pipeline.dropped     items rejected by backpressure
+ * - account.pipeline.failed      items given up after the sink kept failing on them, logged without their content
+ * - account.pipeline.flush       latency of each batch handed to the sink
+ * - account.pipeline.queue.size  current queue depth
+ * </pre>
+ */
+@Slf4j
+public class BoundedBatchPipeline<T> implements SmartLifecycle {
+    private final String name;
+    private final BlockingQueue<Queued<T>> queue;
+    private final int batchSize;
+    private final Duration maxLinger;
+    private final BackpressurePolicy policy;
+    private final Duration blockTimeout;
+    private final double sampleRate;
+    private final int retryAttempts;
+    private final Duration retryBackoff;
+    private final int maxRequeues;
+    private final Consumer<List<T>> sink;
+    private final Counter accepted;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+    /**
+     * Read-held by submissions, write-held by the final drain of {@link #stop()}
+     */
+    private final ReadWriteLock gate = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private volatile boolean closed;
+    private Thread drainer;
+
+    public BoundedBatchPipeline(String name, PipelineSettings settings, Consumer<List<T>> sink, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(settings.capacity());
+        this.batchSize = settings.batchSize();
+        this.maxLinger = settings.maxLinger();
+        this.policy = settings.backpressure();
+        this.blockTimeout = settings.blockTimeout();
+        this.sampleRate = settings.sampleRate();
+        this.retryAttempts = settings.retryAttempts();
+        this.retryBackoff = settings.retryBackoff();
+        this.maxRequeues = settings.maxRequeues();
+        this.sink = sink;
+        this.accepted = Counter.builder("account.pipeline.events").tag("pipeline", name).register(meterRegistry);
+        this.dropped = Counter.builder("account.pipeline.dropped").tag("pipeline", name).register(meterRegistry);
+        this.failed = Counter.builder("account.pipeline.failed").tag("pipeline", name).register(meterRegistry);
+        this.flushTimer = Timer.builder("account.pipeline.flush").tag("pipeline", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("account.pipeline.queue.size", queue, BlockingQueue::size)
+                .tag("pipeline", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return whether the item was queued; false means backpressure discarded it
+     */
+    public boolean submit(T item) {
+        boolean queued;
+        gate.readLock().lock();
+        try {
+            if (closed) {
+                accepted.increment();
+                flush(List.of(new Queued<>(item, 0)));
+                return true;
+            }
+            Queued<T> fresh = new Queued<>(item, 0);
+            queued = switch (policy) {
+                case BLOCK -> offerWithTimeout(fresh);
+                case DROP_OLDEST -> offerDroppingOldest(fresh);
+                case SAMPLE -> offerSampled(fresh);
+            };
+        } finally {
+            gate.readLock().unlock();
+        }
+        if (queued) {
+            accepted.increment();
+        } else {
+            dropped.increment();
+        }
+        return queued;
+    }
+
+    private boolean offerWithTimeout(Queued<T> item) {
+        try {
+            return queue.offer(item, blockTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean offerDroppingOldest(Queued<T> item) {
+        while (!queue.offer(item)) {
+            if (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerSampled(Queued<T> item) {
+        // Keep everything while there is headroom; past half capacity only a sample gets in
+        if (queue.remainingCapacity() < queue.size() && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return false;
+        }
+        return queue.offer(item);
+    }
+
+    private void drainLoop() {
+        List<Queued<T>> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Queued<T> first = queue.poll(maxLinger.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxLinger.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Queued<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Queued<T>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<T> items = batch.stream().map(Queued::item).toList();
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                sink.accept(items);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt > retryAttempts || !pause(retryBackoff.multipliedBy(attempt))) {
+                    spill(batch, e);
+                    return;
+                }
+                log.warn("Pipeline {} failed to write a batch of {} items, retrying", name, batch.size(), e);
+            } finally {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Puts a batch the sink gave up on back into the queue while the pipeline runs. Items that already went back
+     * {@code maxRequeues} times are written one by one instead; the rest is lost
+     */
+    private void spill(List<Queued<T>> batch, RuntimeException cause) {
+        int requeued = 0;
+        int lost = 0;
+        List<Queued<T>> exhausted = new ArrayList<>();
+        for (Queued<T> queued : batch) {
+            if (!running) {
+                lost++;
+            } else if (queued.requeues() >= maxRequeues) {
+                exhausted.add(queued);
+            } else if (queue.offer(new Queued<>(queued.item(), queued.requeues() + 1))) {
+                requeued++;
+            } else {
+                lost++;
+            }
+        }
+        if (batch.size() == 1) {
+            // Already written on its own, every attempt
+            lost += exhausted.size();
+        } else {
+            lost += writeAlone(exhausted);
+        }
+        if (lost > 0) {
+            failed.increment(lost);
+            log.error("Pipeline {} gave up on {} items after {} attempts", name, lost, retryAttempts + 1, cause);
+        }
+        if (requeued > 0) {
+            log.warn("Pipeline {} requeued {} items it failed to write", name, requeued, cause);
+        }
+    }
+
+    /**
+     * @return the number of items the sink rejected even on their own
+     */
+    private int writeAlone(List<Queued<T>> items) {
+        int rejected = 0;
+        for (Queued<T> queued : items) {
+            long start = System.nanoTime();
+            try {
+                sink.accept(List.of(queued.item()));
+            } catch (RuntimeException e) {
+                rejected++;
+                log.debug("Pipeline {} could not write an item on its own either", name, e);
+            } finally {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        return rejected;
+    }
+
+    private static boolean pause(Duration duration) {
+        try {
+            Thread.sleep(duration);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        closed = false;
+        running = true;
+        drainer = Thread.ofPlatform()
+                .name(name + "-drainer")
+                .daemon(true)
+                .start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (drainer == null) {
+            return;
+        }
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Items that slipped in between the drainer's last poll and its exit; later ones are written through
+        gate.writeLock().lock();
+        try {
+            closed = true;
+            List<Queued<T>> rest = new ArrayList<>(batchSize);
+            while (queue.drainTo(rest, batchSize) > 0) {
+                flush(rest);
+                rest.clear();
+            }
+        } finally {
+            gate.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server has finished in-flight requests, and before beans are destroyed
+     * so the data source is still open for the final drain
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    public record PipelineSettings(int capacity, int batchSize, Duration maxLinger,
+                                   BackpressurePolicy backpressure, Duration blockTimeout, double sampleRate,
+                                   int retryAttempts, Duration retryBackoff, int maxRequeues) {
+    }
+
+    /**
+     * An item with the number of times it was put back after a failed batch
+     */
+    private record Queued<T>(T item, int requeues) {
+    }
+}
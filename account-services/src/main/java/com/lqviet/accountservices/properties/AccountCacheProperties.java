@@ -0,0 +1,30 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-process account near cache
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.cache")
+public class AccountCacheProperties {
+    /**
+     * Maximum number of accounts kept in memory, the username and email indexes are bounded the same way
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * Upper bound on how long an entry may be served without going back to the database
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+    /**
+     * How long a username or email that matched no account is answered as missing without a query
+     */
+    private Duration missingExpireAfterWrite = Duration.ofSeconds(30);
+}
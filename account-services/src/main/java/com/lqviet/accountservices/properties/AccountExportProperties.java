@@ -0,0 +1,35 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the streaming account export
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.export")
+public class AccountExportProperties {
+    /**
+     * Whether the export endpoint is mapped at all; it hands out personal data of every account
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long one export may run before the request is timed out
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Rows per keyset page; each page is read in its own short read-only transaction
+     */
+    private int pageSize = 10_000;
+
+    /**
+     * Rows fetched per round trip from the server-side cursor of a page
+     */
+    private int fetchSize = 1_000;
+}
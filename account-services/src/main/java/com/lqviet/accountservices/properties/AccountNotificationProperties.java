@@ -0,0 +1,45 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the unread notification counter and the notification feed
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.notifications")
+public class AccountNotificationProperties {
+    /**
+     * Maximum number of accounts whose unread count is kept in memory
+     */
+    private long counterMaximumSize = 200_000;
+
+    /**
+     * Counts of accounts not read for this long are dropped and recounted on the next read
+     */
+    private Duration counterExpireAfterAccess = Duration.ofMinutes(30);
+
+    /**
+     * Delay between two reconciliations of the cached counts with the table
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+
+    /**
+     * Accounts recounted per reconciliation query
+     */
+    private int reconcileBatchSize = 500;
+
+    /**
+     * Feed page size when the request does not ask for one
+     */
+    private int feedDefaultPageSize = 20;
+
+    /**
+     * Largest feed page a request may ask for
+     */
+    private int feedMaxPageSize = 100;
+}
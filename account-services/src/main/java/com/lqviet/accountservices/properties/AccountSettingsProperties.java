@@ -0,0 +1,30 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the cached per-account settings maps
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.settings.cache")
+public class AccountSettingsProperties {
+    /**
+     * Maximum number of accounts whose settings are kept in memory
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * Settings of accounts not read for this long are dropped
+     */
+    private Duration expireAfterAccess = Duration.ofMinutes(30);
+
+    /**
+     * Hard upper bound on the age of a cached map, bounding staleness for writes made through another replica
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
@@ -0,0 +1,68 @@
+package com.lqviet.accountservices.properties;
+
+import com.lqviet.accountservices.enums.BackpressurePolicy;
+import com.lqviet.accountservices.pipelines.BoundedBatchPipeline.PipelineSettings;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the asynchronous account activity ingestion pipeline
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.activity.pipeline")
+public class ActivityPipelineProperties {
+    /**
+     * Maximum number of activities waiting to be written
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Maximum number of rows per multi-row insert
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long the drainer waits to fill a batch before writing a partial one
+     */
+    private Duration maxLinger = Duration.ofMillis(200);
+
+    /**
+     * What producers do when the queue is saturated
+     */
+    private BackpressurePolicy backpressure = BackpressurePolicy.BLOCK;
+
+    /**
+     * Longest time a request thread may wait for queue space under {@link BackpressurePolicy#BLOCK}
+     */
+    private Duration blockTimeout = Duration.ofMillis(50);
+
+    /**
+     * Fraction of activities kept once the queue is more than half full under {@link BackpressurePolicy#SAMPLE}
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * Retries of a batch the database rejected before it is put back into the queue
+     */
+    private int retryAttempts = 3;
+
+    /**
+     * Pause before the first retry, growing linearly with each further attempt
+     */
+    private Duration retryBackoff = Duration.ofMillis(200);
+
+    /**
+     * Times an item is put back into the queue after its batch failed, before it is tried on its own and then
+     * given up
+     */
+    private int maxRequeues = 3;
+
+    public PipelineSettings toSettings() {
+        return new PipelineSettings(capacity, batchSize, maxLinger, backpressure, blockTimeout, sampleRate,
+                retryAttempts, retryBackoff, maxRequeues);
+    }
+}
@@ -0,0 +1,91 @@
+package com.lqviet.accountservices.properties;
+
+import com.lqviet.accountservices.enums.BackpressurePolicy;
+import com.lqviet.accountservices.pipelines.BoundedBatchPipeline.PipelineSettings;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Settings for the automatic entity audit trail
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.audit")
+public class AuditProperties {
+    /**
+     * Whether committed entity changes are written to account_audit_logs
+     */
+    private boolean enabled = true;
+
+    /**
+     * Entities (simple class names) that are never audited
+     */
+    private Set<String> excludedEntities = Set.of("AccountAuditLog", "AccountActivity");
+
+    /**
+     * Properties whose values are replaced by a mask; their changes are still listed in changed_fields
+     */
+    private Set<String> maskedProperties = Set.of("password", "passwordResetToken", "emailVerificationToken",
+            "tokenHash", "sessionToken");
+
+    /**
+     * Properties whose names end with one of these are masked as well, so a token column added later is not
+     * audited in the clear before someone remembers to list it
+     */
+    private Set<String> maskedSuffixes = Set.of("Token", "Secret");
+
+    /**
+     * Maximum number of changes waiting to be written
+     */
+    private int capacity = 20_000;
+
+    /**
+     * Maximum number of rows per multi-row insert
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long the drainer waits to fill a batch before writing a partial one
+     */
+    private Duration maxLinger = Duration.ofMillis(500);
+
+    /**
+     * What committing threads do when the queue is saturated
+     */
+    private BackpressurePolicy backpressure = BackpressurePolicy.BLOCK;
+
+    /**
+     * Longest time a committing thread may wait for queue space under {@link BackpressurePolicy#BLOCK}
+     */
+    private Duration blockTimeout = Duration.ofMillis(100);
+
+    /**
+     * Fraction of changes kept once the queue is more than half full under {@link BackpressurePolicy#SAMPLE}
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Retries of a batch the database rejected before it is put back into the queue
+     */
+    private int retryAttempts = 3;
+
+    /**
+     * Pause before the first retry, growing linearly with each further attempt
+     */
+    private Duration retryBackoff = Duration.ofMillis(200);
+
+    /**
+     * Times an item is put back into the queue after its batch failed, before it is tried on its own and then
+     * given up
+     */
+    private int maxRequeues = 3;
+
+    public PipelineSettings toSettings() {
+        return new PipelineSettings(capacity, batchSize, maxLinger, backpressure, blockTimeout, sampleRate,
+                retryAttempts, retryBackoff, maxRequeues);
+    }
+}
@@ -0,0 +1,40 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory filter in front of username and email availability checks
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.availability")
+public class AvailabilityProperties {
+    /**
+     * Number of accounts the filter is sized for; it is sized for more when the table holds more
+     */
+    private long expectedAccounts = 1_000_000;
+
+    /**
+     * Share of free usernames and emails that still cost a database check
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * How often accounts created by other replicas are added to the filter
+     */
+    private Duration refreshInterval = Duration.ofSeconds(2);
+
+    /**
+     * How often the filter is rebuilt from the table, which also picks up renames made on other replicas
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(30);
+
+    /**
+     * Number of ids below the highest one seen that every refresh scans again
+     */
+    private long refreshOverlap = 1_000;
+}
@@ -0,0 +1,41 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the batched account lookup used by other services and its coalescing client
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.batch")
+public class BatchLookupProperties {
+    /**
+     * Maximum number of ids and usernames, together, in one batch request
+     */
+    private int maxKeys = 200;
+
+    /**
+     * Maximum number of profile cards (display name and avatar) kept in memory
+     */
+    private long profileMaximumSize = 100_000;
+
+    /**
+     * How long a profile card is served from memory; account changes evict it, profile edits only show once it
+     * runs out
+     */
+    private Duration profileExpireAfterWrite = Duration.ofMinutes(1);
+
+    /**
+     * How long the coalescing client waits for more ids before sending a batch that is not full
+     */
+    private Duration coalesceWindow = Duration.ofMillis(2);
+
+    /**
+     * Number of batches the coalescing client runs at the same time
+     */
+    private int dispatchThreads = 2;
+}
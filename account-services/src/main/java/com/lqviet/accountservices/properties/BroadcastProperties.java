@@ -0,0 +1,36 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the notification broadcast fan-out
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.broadcast")
+public class BroadcastProperties {
+    /**
+     * Partitions written concurrently by this replica
+     */
+    private int parallelism = 4;
+
+    /**
+     * The account id space is cut into parallelism * partitions-per-worker ranges, so a slow range
+     * does not leave the other workers idle
+     */
+    private int partitionsPerWorker = 4;
+
+    /**
+     * Accounts delivered per chunk; a chunk and its checkpoint are committed together
+     */
+    private int chunkSize = 5_000;
+
+    /**
+     * Delay between two scans for broadcasts left pending or running by a stopped replica
+     */
+    private Duration resumeInterval = Duration.ofMinutes(1);
+}
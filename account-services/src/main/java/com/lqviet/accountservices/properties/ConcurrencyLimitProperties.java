@@ -0,0 +1,35 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for capping the API requests in flight relative to the connection pool
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.concurrency")
+public class ConcurrencyLimitProperties {
+    /**
+     * Whether API requests must take a permit before they are handled
+     */
+    private boolean enabled = false;
+
+    /**
+     * Requests allowed in flight per pooled connection, used when max-concurrent-requests is not set
+     */
+    private double requestsPerConnection = 2.0;
+
+    /**
+     * Fixed number of requests allowed in flight; 0 derives it from the connection pool size
+     */
+    private int maxConcurrentRequests = 0;
+
+    /**
+     * How long a request may wait for a permit before it is rejected with 503
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(1);
+}
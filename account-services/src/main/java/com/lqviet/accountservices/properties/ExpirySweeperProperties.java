@@ -0,0 +1,35 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the background sweeper of expired sessions and tokens
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.sweeper")
+public class ExpirySweeperProperties {
+    /**
+     * Delay between two sweeps
+     */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /**
+     * Rows updated per statement, each statement being its own short transaction
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Pause between two chunks so the sweeper never monopolizes the table
+     */
+    private Duration pauseBetweenChunks = Duration.ofMillis(50);
+
+    /**
+     * Upper bound on chunks per table and run; the rest is picked up by the next run
+     */
+    private int maxChunksPerRun = 200;
+}
@@ -0,0 +1,55 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Thresholds of the login throttle and of the account lockout it triggers
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.login.throttle")
+public class LoginThrottleProperties {
+    /**
+     * Failed logins of one account within account-window that lock it
+     */
+    private int accountMaxFailures = 5;
+
+    /**
+     * Sliding window over which failures of one account are counted
+     */
+    private Duration accountWindow = Duration.ofMinutes(15);
+
+    /**
+     * How long a locked account stays locked
+     */
+    private Duration lockDuration = Duration.ofHours(1);
+
+    /**
+     * Failed logins from one IP address within ip-window after which its attempts are rejected
+     */
+    private int ipMaxFailures = 50;
+
+    /**
+     * Sliding window over which failures from one IP address are counted
+     */
+    private Duration ipWindow = Duration.ofMinutes(5);
+
+    /**
+     * Number of buckets each window is divided into; more buckets slide more smoothly
+     */
+    private int windowBuckets = 10;
+
+    /**
+     * Number of locks the counters are striped over
+     */
+    private int lockStripes = 64;
+
+    /**
+     * How often counters whose window has fully elapsed are dropped
+     */
+    private Duration purgeInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,30 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for coalescing last-login and failed-login updates before they reach the accounts table
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.login.write-behind")
+public class LoginWriteBehindProperties {
+    /**
+     * How often pending login state is written to the database
+     */
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of rows sent in a single JDBC batch
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long a flushed entry is kept in memory to keep counting failures without a reload
+     */
+    private Duration idleTimeout = Duration.ofMinutes(15);
+}
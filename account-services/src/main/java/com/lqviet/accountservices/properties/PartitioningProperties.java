@@ -0,0 +1,44 @@
+package com.lqviet.accountservices.properties;
+
+import com.lqviet.accountservices.enums.RetentionMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for monthly partitioning of the activity and audit tables
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.partitioning")
+public class PartitioningProperties {
+    /**
+     * Converts the tables to partitioned tables on first run, so it is opt-in
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of future monthly partitions kept ready ahead of the current month
+     */
+    private int premakeMonths = 3;
+
+    /**
+     * Whole months of account_activities kept before a partition expires
+     */
+    private int activityRetentionMonths = 12;
+
+    /**
+     * Whole months of account_audit_logs kept before a partition expires
+     */
+    private int auditRetentionMonths = 24;
+
+    /**
+     * Maximum number of expired rows deleted per transaction from the legacy and default partitions
+     */
+    private int purgeBatchSize = 10_000;
+
+    /**
+     * Whether expired partitions are only detached (kept as standalone tables for archiving) or dropped
+     */
+    private RetentionMode retentionMode = RetentionMode.DROP;
+}
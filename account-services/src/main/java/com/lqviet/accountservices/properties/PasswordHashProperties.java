@@ -0,0 +1,40 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for BCrypt password hashing and the pool that verifies hashes off the request threads
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.password")
+public class PasswordHashProperties {
+    /**
+     * BCrypt cost factor of new hashes; hashes with a lower cost are rehashed on the next successful login
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * Number of verification threads; 0 uses one per available processor
+     */
+    private int poolSize = 0;
+
+    /**
+     * Maximum number of verifications waiting for a thread; 0 allows 16 per thread
+     */
+    private int queueCapacity = 0;
+
+    /**
+     * Verifications are shed when the queue ahead of them is expected to take longer than this
+     */
+    private Duration maxQueueWait = Duration.ofMillis(500);
+
+    /**
+     * How long a caller waits for its verification before giving up
+     */
+    private Duration verifyTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,26 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the cached per-account permission snapshots
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.permissions.cache")
+public class PermissionSnapshotProperties {
+    /**
+     * Maximum number of account snapshots kept in memory
+     */
+    private long maximumSize = 50_000;
+
+    /**
+     * Longest lifetime of a snapshot even when none of its grants expire,
+     * bounding staleness for grants changed through another replica
+     */
+    private Duration maxTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,65 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for sending read-only transactions to Postgres replicas
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.datasource.routing")
+public class ReplicaRoutingProperties {
+    /**
+     * Whether read-only transactions may use the replicas; without it everything goes to spring.datasource
+     */
+    private boolean enabled = false;
+
+    /**
+     * Streaming replicas of the primary; credentials default to the primary's
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Replicas lagging further behind the primary than this are not read from
+     */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /**
+     * How long reads stay on the primary after a session committed a write
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * How often replica health and lag are measured
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(2);
+
+    /**
+     * A replica that does not answer the health check within this time is taken out of rotation
+     */
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Maximum pool size of each replica
+     */
+    private int replicaPoolSize = 10;
+
+    /**
+     * Maximum number of sessions whose recent writes are remembered
+     */
+    private long maximumPinnedSessions = 100_000;
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
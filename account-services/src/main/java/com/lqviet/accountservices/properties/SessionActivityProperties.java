@@ -0,0 +1,35 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for debouncing {@code account_sessions.last_activity_at} writes
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.session.activity")
+public class SessionActivityProperties {
+    /**
+     * Minimum movement of last activity before a session is written again
+     */
+    private Duration granularity = Duration.ofMinutes(1);
+
+    /**
+     * How often pending activity timestamps are flushed
+     */
+    private Duration flushInterval = Duration.ofSeconds(10);
+
+    /**
+     * Maximum number of sessions updated by a single statement
+     */
+    private int maxRowsPerStatement = 1000;
+
+    /**
+     * Sessions without activity for this long are dropped from the tracker
+     */
+    private Duration idleTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,42 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the memory-mapped session registry
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.session.registry")
+public class SessionRegistryProperties {
+    /**
+     * Backing file; it is reused across restarts as long as the capacity does not change
+     */
+    private Path path = Path.of("data", "session-registry.bin");
+
+    /**
+     * Number of session slots, rounded up to a power of two (48 bytes each)
+     */
+    private int capacity = 1 << 21;
+
+    /**
+     * How often expired sessions are purged from the registry
+     */
+    private Duration purgeInterval = Duration.ofMinutes(10);
+
+    /**
+     * How often sessions ended on any instance are read back from the database and marked in the registry
+     */
+    private Duration reconcileInterval = Duration.ofSeconds(5);
+
+    /**
+     * A registry hit only vouches for a session while the last successful reconciliation is at most this old;
+     * past it every check goes to the database
+     */
+    private Duration maxReconcileAge = Duration.ofSeconds(15);
+}
@@ -0,0 +1,50 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the Redis tier shared by all replicas behind the in-process caches
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.cache.redis")
+public class SharedCacheProperties {
+    /**
+     * Whether the in-process caches are backed by Redis; without it each replica only has its own L1
+     */
+    private boolean enabled = false;
+
+    /**
+     * Prefix of every key this service writes to Redis
+     */
+    private String keyPrefix = "account-services:";
+
+    /**
+     * Channel on which replicas announce the entries they invalidated
+     */
+    private String invalidationChannel = "account-services:cache-invalidation";
+
+    /**
+     * How long an entry lives in Redis
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+    /**
+     * How long a lookup that found nothing (unknown username or email) is remembered
+     */
+    private Duration negativeTimeToLive = Duration.ofSeconds(30);
+
+    /**
+     * Lease of the lock that lets one replica load an entry while the others wait for it
+     */
+    private Duration loadLockLease = Duration.ofSeconds(2);
+
+    /**
+     * How long a replica waits for another one's load before loading the entry itself
+     */
+    private Duration loadWait = Duration.ofMillis(200);
+}
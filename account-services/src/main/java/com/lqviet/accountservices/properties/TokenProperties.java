@@ -0,0 +1,47 @@
+package com.lqviet.accountservices.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory filter in front of account token lookups
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.tokens")
+public class TokenProperties {
+    /**
+     * Number of live tokens the filter is sized for; it is sized for more when the table holds more
+     */
+    private long expectedTokens = 1_000_000;
+
+    /**
+     * Share of unknown tokens that still get past the filter and cost a database lookup
+     */
+    private double falsePositiveRate = 0.001;
+
+    /**
+     * How often tokens inserted by other replicas are added to the filter
+     */
+    private Duration refreshInterval = Duration.ofSeconds(2);
+
+    /**
+     * How often the filter is rebuilt from the live tokens, dropping used, expired and deleted ones
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+
+    /**
+     * Number of ids below the highest one seen that every refresh scans again, catching transactions that
+     * committed after a later id
+     */
+    private long refreshOverlap = 1_000;
+
+    /**
+     * Filter misses per refresh interval that still go to the database, so a token just issued on another
+     * replica verifies before the next refresh; the other misses are rejected by the filter alone
+     */
+    private int missLookupsPerInterval = 20;
+}
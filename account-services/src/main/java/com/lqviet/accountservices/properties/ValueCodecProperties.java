@@ -0,0 +1,46 @@
+package com.lqviet.accountservices.properties;
+
+import com.lqviet.accountservices.enums.ValueEncoding;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the encoding of audit values and activity data
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.codec")
+public class ValueCodecProperties {
+    /**
+     * Encoding of newly written values; TEXT stores plain UTF-8 and exists for comparison and rollback
+     */
+    private ValueEncoding encoding = ValueEncoding.BINARY;
+
+    /**
+     * Encoded bodies of at least this many bytes are LZ4 compressed
+     */
+    private int compressionThreshold = 256;
+
+    /**
+     * Whether rows still holding values in the old TEXT columns are re-encoded in the background
+     */
+    private boolean migrationEnabled = true;
+
+    /**
+     * Pause between background migration runs
+     */
+    private Duration migrationInterval = Duration.ofSeconds(30);
+
+    /**
+     * Rows re-encoded per transaction
+     */
+    private int migrationBatchSize = 500;
+
+    /**
+     * Upper bound on transactions per run, so one run never holds the scheduler for long
+     */
+    private int migrationMaxBatchesPerRun = 20;
+}
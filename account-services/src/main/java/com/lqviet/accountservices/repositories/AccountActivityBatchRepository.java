@@ -0,0 +1,53 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.codecs.ValueCodec;
+import com.lqviet.accountservices.entities.AccountActivity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC writer for {@link AccountActivity} batches.
+ * <p>
+ * Ids come from the identity column, which stops Hibernate from batching inserts, so batches are sent
+ * through JDBC and rewritten by the driver into multi-row inserts ({@code reWriteBatchedInserts}).
+ * Additional data is encoded here, on the pipeline's drainer thread.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountActivityBatchRepository {
+    private static final String INSERT_SQL = """
+            INSERT INTO account_activities (account_id, activity_type, description, activity_date, ip_address,
+                                            user_agent, device_info, location, success, error_message,
+                                            additional_data_bin, created_at, updated_at, is_deleted)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)
+            """;
+
+    public static final String CODEC_CONTEXT = "account_activities";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ValueCodec valueCodec;
+
+    public void insertAll(List<AccountActivity> activities) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, activities, activities.size(), (ps, activity) -> {
+            ps.setLong(1, activity.getAccountId());
+            ps.setString(2, activity.getActivityType().name());
+            ps.setString(3, activity.getDescription());
+            ps.setTimestamp(4, Timestamp.valueOf(activity.getActivityDate()));
+            ps.setString(5, activity.getIpAddress());
+            ps.setString(6, activity.getUserAgent());
+            ps.setString(7, activity.getDeviceInfo());
+            ps.setString(8, activity.getLocation());
+            ps.setBoolean(9, Boolean.TRUE.equals(activity.getSuccess()));
+            ps.setString(10, activity.getErrorMessage());
+            ps.setBytes(11, valueCodec.encode(CODEC_CONTEXT, activity.getAdditionalData()));
+            ps.setTimestamp(12, now);
+            ps.setTimestamp(13, now);
+        });
+    }
+}
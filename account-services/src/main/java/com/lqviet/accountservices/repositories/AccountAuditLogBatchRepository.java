@@ -0,0 +1,49 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.codecs.ValueCodec;
+import com.lqviet.accountservices.entities.AccountAuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC writer for {@link AccountAuditLog} batches; like activities, audit rows use an identity id and would
+ * not be batched by Hibernate. Values are encoded with the audited table as dictionary context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountAuditLogBatchRepository {
+    private static final String INSERT_SQL = """
+            INSERT INTO account_audit_logs (account_id, table_name, record_id, action, old_values_bin, new_values_bin,
+                                            changed_fields, action_date, performed_by, ip_address, user_agent,
+                                            created_at, updated_at, is_deleted)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ValueCodec valueCodec;
+
+    public void insertAll(List<AccountAuditLog> logs) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), (ps, auditLog) -> {
+            ps.setObject(1, auditLog.getAccountId(), Types.BIGINT);
+            ps.setString(2, auditLog.getTableName());
+            ps.setObject(3, auditLog.getRecordId(), Types.BIGINT);
+            ps.setString(4, auditLog.getAction().name());
+            ps.setBytes(5, valueCodec.encode(auditLog.getTableName(), auditLog.getOldValues()));
+            ps.setBytes(6, valueCodec.encode(auditLog.getTableName(), auditLog.getNewValues()));
+            ps.setString(7, auditLog.getChangedFields());
+            ps.setTimestamp(8, Timestamp.valueOf(auditLog.getActionDate()));
+            ps.setObject(9, auditLog.getPerformedBy(), Types.BIGINT);
+            ps.setString(10, auditLog.getIpAddress());
+            ps.setString(11, auditLog.getUserAgent());
+            ps.setTimestamp(12, now);
+            ps.setTimestamp(13, now);
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.enums.AccountType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Keyset reader over {@code accounts} that projects rows straight into {@link AccountResponse}.
+ * <p>
+ * Pages are addressed by the last id seen instead of an offset, so every page is an index range scan on the
+ * primary key however deep the walk is. Within a page rows come from a server-side cursor (the Postgres driver
+ * only uses one inside a transaction with a fetch size), so no page is ever fully materialized.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountExportRepository {
+    private static final String PAGE_SQL = """
+            SELECT id, created_at, updated_at, created_by, last_modified_by, username, email, first_name,
+                   last_name, phone_number, status, account_type, email_verified, locked_until
+            FROM accounts
+            WHERE is_deleted = false
+              AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Hands the next page of live accounts to the consumer, in id order
+     *
+     * @return the id of the last row of the page, or {@code afterId} when there are no more rows
+     */
+    @Transactional(readOnly = true)
+    public long forEachAfter(long afterId, int limit, int fetchSize, Consumer<AccountResponse> consumer) {
+        long[] lastId = {afterId};
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(PAGE_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+            return ps;
+        }, rs -> {
+            AccountResponse account = map(rs);
+            lastId[0] = account.getId();
+            consumer.accept(account);
+        });
+        return lastId[0];
+    }
+
+    static AccountResponse map(ResultSet rs) throws SQLException {
+        String status = rs.getString("status");
+        String accountType = rs.getString("account_type");
+        return new AccountResponse(
+                rs.getLong("id"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                rs.getString("created_by"),
+                rs.getString("last_modified_by"),
+                rs.getString("username"),
+                rs.getString("email"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("phone_number"),
+                status == null ? null : AccountStatus.valueOf(status),
+                accountType == null ? null : AccountType.valueOf(accountType),
+                rs.getObject("email_verified", Boolean.class),
+                toLocalDateTime(rs.getTimestamp("locked_until"))
+        );
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,313 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.dtos.responses.AccountNotificationResponse;
+import com.lqviet.accountservices.enums.NotificationSource;
+import com.lqviet.accountservices.enums.NotificationStatus;
+import com.lqviet.accountservices.enums.NotificationType;
+import com.lqviet.accountservices.pagination.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access to {@code account_notifications} and lazily delivered broadcasts for the unread counter
+ * and the feed.
+ * <p>
+ * The feed merges both sources newest first on a {@code (created_at, source, id)} keyset: each branch walks
+ * its own index ({@code idx_notification_feed}, {@code idx_broadcast_feed}) for at most one page and only the
+ * two pages are merged, so a page costs the same however deep it is. A lazy broadcast is visible to the
+ * accounts a materialized one is delivered to, every live account that existed when it was sent; it reads as
+ * unread until the account has a state row for it, and disappears once dismissed.
+ * <p>
+ * Read marks are conditional writes that report which rows actually stopped being unread, which is what the
+ * counter needs to move by the right amount.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountNotificationFeedRepository {
+    private static final int PERSONAL = NotificationSource.PERSONAL.ordinal();
+    private static final int BROADCAST = NotificationSource.BROADCAST.ordinal();
+
+    private static final String COUNT_UNREAD_SQL = """
+            SELECT SUM(unread), MIN(next_expiry)
+            FROM (
+                SELECT COUNT(*) AS unread, MIN(expires_at) AS next_expiry
+                FROM account_notifications
+                WHERE account_id = ?
+                  AND status = 'UNREAD'
+                  AND is_deleted = false
+                  AND (expires_at IS NULL OR expires_at > ?)
+                UNION ALL
+                SELECT COUNT(*), MIN(b.expires_at)
+                FROM notification_broadcasts b
+                JOIN accounts a ON a.id = ? AND a.is_deleted = false AND b.created_at >= a.created_at
+                WHERE b.delivery_mode = 'LAZY'
+                  AND b.is_deleted = false
+                  AND (b.expires_at IS NULL OR b.expires_at > ?)
+                  AND NOT EXISTS (SELECT 1
+                                  FROM notification_broadcast_states s
+                                  WHERE s.broadcast_id = b.id
+                                    AND s.account_id = a.id
+                                    AND s.status <> 'UNREAD')
+            ) unread
+            """;
+
+    private static final String COUNT_UNREAD_BATCH_SQL = """
+            SELECT account_id, SUM(unread), MIN(next_expiry)
+            FROM (
+                SELECT account_id, COUNT(*) AS unread, MIN(expires_at) AS next_expiry
+                FROM account_notifications
+                WHERE account_id = ANY (?)
+                  AND status = 'UNREAD'
+                  AND is_deleted = false
+                  AND (expires_at IS NULL OR expires_at > ?)
+                GROUP BY account_id
+                UNION ALL
+                SELECT a.id, COUNT(*), MIN(b.expires_at)
+                FROM accounts a
+                JOIN notification_broadcasts b ON b.created_at >= a.created_at
+                WHERE a.id = ANY (?)
+                  AND a.is_deleted = false
+                  AND b.delivery_mode = 'LAZY'
+                  AND b.is_deleted = false
+                  AND (b.expires_at IS NULL OR b.expires_at > ?)
+                  AND NOT EXISTS (SELECT 1
+                                  FROM notification_broadcast_states s
+                                  WHERE s.broadcast_id = b.id
+                                    AND s.account_id = a.id
+                                    AND s.status <> 'UNREAD')
+                GROUP BY a.id
+            ) unread
+            GROUP BY account_id
+            """;
+
+    private static final String PAGE_SQL = """
+            SELECT *
+            FROM (
+                (SELECT id, %1$d AS source, created_at, title, message, notification_type, status, read_at,
+                        action_url, expires_at
+                 FROM account_notifications
+                 WHERE account_id = ?
+                   AND is_deleted = false
+                   AND (created_at, id) < (?, ?)
+                 ORDER BY created_at DESC, id DESC
+                 LIMIT ?)
+                UNION ALL
+                (SELECT b.id, %2$d, b.created_at, b.title, b.message, b.notification_type,
+                        COALESCE(s.status, 'UNREAD'), s.read_at, b.action_url, b.expires_at
+                 FROM notification_broadcasts b
+                 JOIN accounts a ON a.id = ? AND a.is_deleted = false AND b.created_at >= a.created_at
+                 LEFT JOIN notification_broadcast_states s ON s.broadcast_id = b.id AND s.account_id = a.id
+                 WHERE b.delivery_mode = 'LAZY'
+                   AND b.is_deleted = false
+                   AND (s.status IS NULL OR s.status <> 'DISMISSED')
+                   AND (b.created_at, b.id) < (?, ?)
+                 ORDER BY b.created_at DESC, b.id DESC
+                 LIMIT ?)
+            ) feed
+            ORDER BY created_at DESC, source DESC, id DESC
+            LIMIT ?
+            """.formatted(PERSONAL, BROADCAST);
+
+    private static final String MARK_AS_READ_SQL = """
+            UPDATE account_notifications
+            SET status = 'READ', read_at = ?, updated_at = ?
+            WHERE account_id = ?
+              AND id = ?
+              AND status = 'UNREAD'
+              AND is_deleted = false
+            RETURNING expires_at
+            """;
+
+    private static final String MARK_ALL_AS_READ_SQL = """
+            UPDATE account_notifications
+            SET status = 'READ', read_at = ?, updated_at = ?
+            WHERE account_id = ?
+              AND status = 'UNREAD'
+              AND is_deleted = false
+            RETURNING expires_at
+            """;
+
+    /**
+     * Upserts the state of one lazy broadcast; returns the broadcast expiry when the broadcast went from
+     * unread to the new status, and nothing when it is unknown, not lazy, not visible or already in that status
+     */
+    private static final String SET_BROADCAST_STATUS_SQL = """
+            WITH previous AS (
+                SELECT status
+                FROM notification_broadcast_states
+                WHERE broadcast_id = ?
+                  AND account_id = ?
+            ),
+            changed AS (
+                INSERT INTO notification_broadcast_states (broadcast_id, account_id, status, read_at,
+                                                           created_at, updated_at, is_deleted)
+                SELECT b.id, a.id, ?, ?, ?, ?, false
+                FROM notification_broadcasts b
+                JOIN accounts a ON a.id = ? AND a.is_deleted = false AND b.created_at >= a.created_at
+                WHERE b.id = ?
+                  AND b.delivery_mode = 'LAZY'
+                  AND b.is_deleted = false
+                ON CONFLICT (broadcast_id, account_id) DO UPDATE
+                SET status = EXCLUDED.status,
+                    read_at = COALESCE(notification_broadcast_states.read_at, EXCLUDED.read_at),
+                    updated_at = EXCLUDED.updated_at
+                WHERE notification_broadcast_states.status <> EXCLUDED.status
+                RETURNING broadcast_id
+            )
+            SELECT b.expires_at
+            FROM changed
+            JOIN notification_broadcasts b ON b.id = changed.broadcast_id
+            WHERE COALESCE((SELECT status FROM previous), 'UNREAD') = 'UNREAD'
+            """;
+
+    /**
+     * Marks every visible unread lazy broadcast as read, returning the expiry of each one that changed. Expired
+     * broadcasts are left alone, as they no longer count as unread and would otherwise get a state row per
+     * account each time.
+     */
+    private static final String MARK_ALL_BROADCASTS_AS_READ_SQL = """
+            WITH changed AS (
+                INSERT INTO notification_broadcast_states (broadcast_id, account_id, status, read_at,
+                                                           created_at, updated_at, is_deleted)
+                SELECT b.id, a.id, 'READ', ?, ?, ?, false
+                FROM notification_broadcasts b
+                JOIN accounts a ON a.id = ? AND a.is_deleted = false AND b.created_at >= a.created_at
+                WHERE b.delivery_mode = 'LAZY'
+                  AND b.is_deleted = false
+                  AND (b.expires_at IS NULL OR b.expires_at > ?)
+                ON CONFLICT (broadcast_id, account_id) DO UPDATE
+                SET status = 'READ',
+                    read_at = EXCLUDED.read_at,
+                    updated_at = EXCLUDED.updated_at
+                WHERE notification_broadcast_states.status = 'UNREAD'
+                RETURNING broadcast_id
+            )
+            SELECT b.expires_at
+            FROM changed
+            JOIN notification_broadcasts b ON b.id = changed.broadcast_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UnreadCount countUnread(Long accountId, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.queryForObject(COUNT_UNREAD_SQL,
+                (rs, rowNum) -> new UnreadCount(rs.getLong(1), toLocalDateTime(rs.getTimestamp(2))),
+                accountId, timestamp, accountId, timestamp);
+    }
+
+    public Map<Long, UnreadCount> countUnread(List<Long> accountIds, LocalDateTime now) {
+        Map<Long, UnreadCount> counts = new HashMap<>();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.query(COUNT_UNREAD_BATCH_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", accountIds.toArray()));
+            ps.setTimestamp(2, timestamp);
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", accountIds.toArray()));
+            ps.setTimestamp(4, timestamp);
+        }, rs -> {
+            counts.put(rs.getLong(1), new UnreadCount(rs.getLong(2), toLocalDateTime(rs.getTimestamp(3))));
+        });
+        return counts;
+    }
+
+    /**
+     * @param cursor position after the last row of the previous page, {@link KeysetCursor#START} for the first
+     */
+    public List<AccountNotificationResponse> findPage(Long accountId, KeysetCursor cursor, int limit) {
+        Timestamp createdAt = Timestamp.valueOf(cursor.createdAt());
+        return jdbcTemplate.query(PAGE_SQL, (rs, rowNum) -> map(rs),
+                accountId, createdAt, cursor.idBoundFor(PERSONAL), limit,
+                accountId, createdAt, cursor.idBoundFor(BROADCAST), limit,
+                limit);
+    }
+
+    /**
+     * @return how many of the notifications marked as read were still counted as unread
+     */
+    public int markAsRead(Long accountId, Long notificationId, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return countStillUnread(jdbcTemplate.queryForList(MARK_AS_READ_SQL, Timestamp.class,
+                timestamp, timestamp, accountId, notificationId), now);
+    }
+
+    /**
+     * Marks personal notifications and lazy broadcasts alike
+     *
+     * @return how many of the notifications marked as read were still counted as unread
+     */
+    public int markAllAsRead(Long accountId, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return countStillUnread(jdbcTemplate.queryForList(MARK_ALL_AS_READ_SQL, Timestamp.class,
+                timestamp, timestamp, accountId), now)
+                + countStillUnread(jdbcTemplate.queryForList(MARK_ALL_BROADCASTS_AS_READ_SQL, Timestamp.class,
+                timestamp, timestamp, timestamp, accountId, timestamp), now);
+    }
+
+    /**
+     * Records what the account did with a lazy broadcast; the state row is created on first use
+     *
+     * @param status {@code READ}, {@code ARCHIVED} or {@code DISMISSED}
+     * @return 1 when the broadcast was still counted as unread, 0 otherwise
+     */
+    public int setBroadcastStatus(Long accountId, Long broadcastId, NotificationStatus status, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return countStillUnread(jdbcTemplate.queryForList(SET_BROADCAST_STATUS_SQL, Timestamp.class,
+                broadcastId, accountId, status.name(), timestamp, timestamp, timestamp, accountId, broadcastId), now);
+    }
+
+    private static int countStillUnread(List<Timestamp> expiries, LocalDateTime now) {
+        int unread = 0;
+        for (Timestamp expiresAt : expiries) {
+            if (expiresAt == null || expiresAt.toLocalDateTime().isAfter(now)) {
+                unread++;
+            }
+        }
+        return unread;
+    }
+
+    private static AccountNotificationResponse map(ResultSet rs) throws SQLException {
+        return new AccountNotificationResponse(
+                rs.getLong("id"),
+                NotificationSource.values()[rs.getInt("source")],
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                rs.getString("title"),
+                rs.getString("message"),
+                NotificationType.valueOf(rs.getString("notification_type")),
+                NotificationStatus.valueOf(rs.getString("status")),
+                toLocalDateTime(rs.getTimestamp("read_at")),
+                rs.getString("action_url"),
+                toLocalDateTime(rs.getTimestamp("expires_at"))
+        );
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * Unread count of one account and the earliest expiry among the counted notifications, after which the
+     * count is stale
+     */
+    public record UnreadCount(long count, LocalDateTime nextExpiry) {
+        public static final UnreadCount NONE = new UnreadCount(0, null);
+
+        public boolean isStale(LocalDateTime now) {
+            return nextExpiry != null && !nextExpiry.isAfter(now);
+        }
+
+        public UnreadCount plus(int delta, LocalDateTime expiresAt) {
+            LocalDateTime earliest = expiresAt == null || (nextExpiry != null && nextExpiry.isBefore(expiresAt))
+                    ? nextExpiry : expiresAt;
+            return new UnreadCount(Math.max(0, count + delta), earliest);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.entities.AccountPermission;
+import com.lqviet.baseentity.repository.BaseRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountPermissionRepository extends BaseRepository<AccountPermission> {
+
+    List<AccountPermission> findByAccountId(Long accountId);
+}
@@ -1,9 +1,17 @@
 package com.lqviet.accountservices.repositories;
 
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
 import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.enums.AccountStatus;
 import com.lqviet.baseentity.repository.BaseRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Account Repository extending BaseRepository from your custom library
  * Inherits 20+ methods from BaseRepository including:
@@ -14,7 +22,47 @@ import org.springframework.stereotype.Repository;
  * - countActive(), countDeleted(), existsByIdNotDeleted()
  * - And many more...
  * </pre>
+ * The {@code find*Response*} methods select {@link AccountResponse} directly with a constructor expression: no
+ * managed entity, no dirty-checking snapshot, and the password hash is never read. Soft-deleted accounts are
+ * excluded in the query.
  */
 @Repository
 public interface AccountRepository extends BaseRepository<Account> {
+    String RESPONSE_SELECT = """
+            select new com.lqviet.accountservices.dtos.responses.AccountResponse(
+                a.id, a.createdAt, a.updatedAt, a.createdBy, a.lastModifiedBy, a.username, a.email, a.firstName,
+                a.lastName, a.phoneNumber, a.status, a.accountType, a.emailVerified, a.lockedUntil)
+            from Account a
+            """;
+
+    Optional<Account> findByUsername(String username);
+
+    Optional<Account> findByEmail(String email);
+
+    /**
+     * Includes soft-deleted accounts, which still hold their username under the unique constraint
+     */
+    boolean existsByUsername(String username);
+
+    /**
+     * Includes soft-deleted accounts, which still hold their email under the unique constraint
+     */
+    boolean existsByEmail(String email);
+
+    @Query(RESPONSE_SELECT + "where a.id = :id and a.isDeleted = false")
+    Optional<AccountResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_SELECT + "where a.username = :username and a.isDeleted = false")
+    Optional<AccountResponse> findResponseByUsername(@Param("username") String username);
+
+    @Query(RESPONSE_SELECT + "where a.email = :email and a.isDeleted = false")
+    Optional<AccountResponse> findResponseByEmail(@Param("email") String email);
+
+    /**
+     * Keyset page of live accounts with the given status, in id order
+     */
+    @Query(RESPONSE_SELECT + "where a.status = :status and a.id > :afterId and a.isDeleted = false order by a.id")
+    List<AccountResponse> findResponsesByStatus(@Param("status") AccountStatus status,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.entities.AccountRole;
+import com.lqviet.baseentity.repository.BaseRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountRoleRepository extends BaseRepository<AccountRole> {
+
+    List<AccountRole> findByAccountId(Long accountId);
+}
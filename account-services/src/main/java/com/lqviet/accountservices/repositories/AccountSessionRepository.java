@@ -0,0 +1,28 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.entities.AccountSession;
+import com.lqviet.baseentity.repository.BaseRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountSessionRepository extends BaseRepository<AccountSession> {
+
+    Optional<AccountSession> findBySessionToken(String sessionToken);
+
+    /**
+     * Tokens of sessions ended or soft-deleted at or after {@code since}, on any instance
+     */
+    @Query(value = """
+            SELECT session_token
+            FROM account_sessions
+            WHERE ended_at >= :since
+               OR (is_deleted = true AND deleted_at >= :since)
+            """, nativeQuery = true)
+    List<String> findTokensRevokedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,49 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.dtos.requests.AccountSettingRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC upsert of {@link com.lqviet.accountservices.entities.AccountSetting} rows.
+ * <p>
+ * A batch of changes is one statement per setting sent as a single JDBC batch, resolved by the
+ * {@code (account_id, setting_key)} unique constraint instead of a read-then-write per key. Soft-deleted settings
+ * are revived; the category and encryption flag of an existing setting are kept unless a category is given.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountSettingBatchRepository {
+    private static final String UPSERT_SQL = """
+            INSERT INTO account_settings (account_id, setting_key, setting_value, value_type, category,
+                                          is_encrypted, created_at, updated_at, is_deleted)
+            VALUES (?, ?, ?, ?, ?, false, ?, ?, false)
+            ON CONFLICT (account_id, setting_key) DO UPDATE
+            SET setting_value = EXCLUDED.setting_value,
+                value_type = EXCLUDED.value_type,
+                category = COALESCE(EXCLUDED.category, account_settings.category),
+                updated_at = EXCLUDED.updated_at,
+                is_deleted = false,
+                deleted_at = NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsertAll(Long accountId, List<AccountSettingRequest> settings) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, settings, settings.size(), (ps, setting) -> {
+            ps.setLong(1, accountId);
+            ps.setString(2, setting.getSettingKey());
+            ps.setString(3, setting.getSettingValue());
+            ps.setString(4, setting.getValueType().name());
+            ps.setString(5, setting.getCategory());
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.entities.AccountSetting;
+import com.lqviet.baseentity.repository.BaseRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountSettingRepository extends BaseRepository<AccountSetting> {
+
+    List<AccountSetting> findByAccountId(Long accountId);
+}
@@ -0,0 +1,44 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.dtos.responses.AccountSummaryResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Resolves a batch of accounts and their profile cards in one statement, binding the ids and usernames as two
+ * arrays so the statement text, and with it the prepared statement, is the same whatever the batch size
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountSummaryRepository {
+    private static final String BATCH_SQL = """
+            SELECT a.id, a.created_at, a.updated_at, a.created_by, a.last_modified_by, a.username, a.email,
+                   a.first_name, a.last_name, a.phone_number, a.status, a.account_type, a.email_verified,
+                   a.locked_until, p.display_name, p.avatar_url
+            FROM accounts a
+            LEFT JOIN user_profiles p ON p.account_id = a.id AND p.is_deleted = false
+            WHERE a.is_deleted = false
+              AND (a.id = ANY (?) OR a.username = ANY (?))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Hands every live account matching one of the ids or usernames to the consumer as its row is read
+     */
+    public void forEach(Collection<Long> ids, Collection<String> usernames, Consumer<AccountSummaryResponse> consumer) {
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(BATCH_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            ps.setArray(2, con.createArrayOf("varchar", usernames.toArray()));
+            return ps;
+        }, rs -> {
+            consumer.accept(new AccountSummaryResponse(AccountExportRepository.map(rs),
+                    rs.getString("display_name"), rs.getString("avatar_url")));
+        });
+    }
+}
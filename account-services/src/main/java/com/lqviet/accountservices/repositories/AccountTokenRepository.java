@@ -0,0 +1,27 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.entities.AccountToken;
+import com.lqviet.baseentity.repository.BaseRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AccountTokenRepository extends BaseRepository<AccountToken> {
+
+    Optional<AccountToken> findByTokenHash(byte[] tokenHash);
+
+    /**
+     * Marks the token as used unless another request got there first. Clears the persistence context, so a token
+     * read earlier in the transaction has to be loaded again to see the update.
+     *
+     * @return 1 when this call consumed the token
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AccountToken t set t.isUsed = true, t.usedAt = :now where t.id = :id and t.isUsed = false")
+    int markAsUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
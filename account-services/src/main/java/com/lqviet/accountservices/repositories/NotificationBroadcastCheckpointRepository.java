@@ -0,0 +1,13 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.entities.NotificationBroadcastCheckpoint;
+import com.lqviet.baseentity.repository.BaseRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationBroadcastCheckpointRepository extends BaseRepository<NotificationBroadcastCheckpoint> {
+
+    List<NotificationBroadcastCheckpoint> findByBroadcastId(Long broadcastId);
+}
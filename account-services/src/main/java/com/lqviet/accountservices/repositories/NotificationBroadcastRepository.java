@@ -0,0 +1,15 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.entities.NotificationBroadcast;
+import com.lqviet.accountservices.enums.BroadcastStatus;
+import com.lqviet.baseentity.repository.BaseRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationBroadcastRepository extends BaseRepository<NotificationBroadcast> {
+
+    List<NotificationBroadcast> findByStatusIn(Collection<BroadcastStatus> statuses);
+}
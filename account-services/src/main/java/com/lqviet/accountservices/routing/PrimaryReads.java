@@ -0,0 +1,39 @@
+package com.lqviet.accountservices.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads that fill a cache, so they go to the primary even inside a read-only transaction.
+ * <p>
+ * Caches are evicted once a change commits on the primary. A fill read from a replica that has not replayed the
+ * change yet would put the old row straight back, and it would then be served until the entry expires; for
+ * permission snapshots that means a revoked grant stays in effect. The marker only takes effect when the read
+ * opens the transaction's connection, so cache loaders must be the first statement of their transaction.
+ */
+public final class PrimaryReads {
+    private static final ThreadLocal<Integer> DEPTH = ThreadLocal.withInitial(() -> 0);
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        DEPTH.set(DEPTH.get() + 1);
+        try {
+            return read.get();
+        } finally {
+            int depth = DEPTH.get() - 1;
+            if (depth == 0) {
+                DEPTH.remove();
+            } else {
+                DEPTH.set(depth);
+            }
+        }
+    }
+
+    /**
+     * @return whether reads of the current thread must go to the primary
+     */
+    public static boolean isRequired() {
+        return DEPTH.get() > 0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.lqviet.accountservices.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lqviet.accountservices.properties.ReplicaRoutingProperties;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Keeps a session's reads on the primary for a while after it committed a write, so it never reads a replica
+ * that has not replayed that write yet.
+ * <p>
+ * A session is identified by the key {@link ReadYourWritesFilter} derives from the request. Every committed
+ * read-write transaction pins the current thread and that session until {@code readYourWritesWindow} from now;
+ * work outside a request (jobs, listeners) only pins its own thread. Registered as a transaction execution
+ * listener, so it sees every transaction without the services knowing about it.
+ * <p>
+ * Pins live in this process only. A session whose next request lands on another instance of the service reads
+ * from a replica again, so read-your-writes across instances needs session affinity at the load balancer.
+ */
+public class ReadYourWrites implements TransactionExecutionListener {
+    private static final ThreadLocal<String> SESSION = new ThreadLocal<>();
+    private static final ThreadLocal<Long> THREAD_PINNED_UNTIL = new ThreadLocal<>();
+
+    private final Cache<String, Long> sessionsPinnedUntil;
+    private final long windowNanos;
+
+    public ReadYourWrites(ReplicaRoutingProperties properties) {
+        this.windowNanos = properties.getReadYourWritesWindow().toNanos();
+        this.sessionsPinnedUntil = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumPinnedSessions())
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+            pin();
+        }
+    }
+
+    void pin() {
+        long until = System.nanoTime() + windowNanos;
+        THREAD_PINNED_UNTIL.set(until);
+        String session = SESSION.get();
+        if (session != null) {
+            sessionsPinnedUntil.put(session, until);
+        }
+    }
+
+    /**
+     * @return whether reads of the current thread must go to the primary
+     */
+    public boolean isPinned() {
+        long now = System.nanoTime();
+        Long threadUntil = THREAD_PINNED_UNTIL.get();
+        if (threadUntil != null && now - threadUntil < 0) {
+            return true;
+        }
+        String session = SESSION.get();
+        Long sessionUntil = session == null ? null : sessionsPinnedUntil.getIfPresent(session);
+        return sessionUntil != null && now - sessionUntil < 0;
+    }
+
+    void enter(String session) {
+        SESSION.set(session);
+    }
+
+    void exit() {
+        SESSION.remove();
+        THREAD_PINNED_UNTIL.remove();
+    }
+}
@@ -0,0 +1,43 @@
+package com.lqviet.accountservices.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Tells {@link ReadYourWrites} which session a request belongs to: the {@value #SESSION_HEADER} header set by
+ * the gateway, or the servlet session when there is one. Requests without either are only pinned for their own
+ * duration.
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String SESSION_HEADER = "X-Session-Token";
+
+    private final ReadYourWrites readYourWrites;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        readYourWrites.enter(sessionKey(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            readYourWrites.exit();
+        }
+    }
+
+    private static String sessionKey(HttpServletRequest request) {
+        String token = request.getHeader(SESSION_HEADER);
+        if (token != null && !token.isBlank()) {
+            return token;
+        }
+        HttpSession session = request.getSession(false);
+        return session == null ? null : session.getId();
+    }
+}
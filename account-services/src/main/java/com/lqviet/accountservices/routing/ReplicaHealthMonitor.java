@@ -0,0 +1,159 @@
+package com.lqviet.accountservices.routing;
+
+import com.lqviet.accountservices.properties.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the replica pools and decides which of them may serve reads.
+ * <p>
+ * Every check reads the primary's current WAL position and asks each replica how far it has replayed. A replica
+ * that has replayed up to that position is current; otherwise its lag is the age of the last transaction it
+ * replayed. Replicas that fail the check or lag more than {@code maxStaleness} are out of rotation until a later
+ * check finds them healthy again.
+ * <p>
+ * Per replica, tagged with {@code replica}: {@code account.datasource.replica.lag} (seconds, -1 while
+ * unreachable) and {@code account.datasource.replica.healthy} (1 or 0).
+ */
+@Slf4j
+public class ReplicaHealthMonitor implements AutoCloseable {
+    private static final String REPLAY_SQL = """
+            SELECT CASE
+                       WHEN pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()) <= 0 THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final double maxStalenessSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaHealthMonitor(DataSource primary,
+                                ReplicaRoutingProperties properties,
+                                MeterRegistry meterRegistry) {
+        int timeoutSeconds = (int) Math.max(1, properties.getHealthCheckTimeout().toSeconds());
+        this.primary = new JdbcTemplate(primary);
+        this.primary.setQueryTimeout(timeoutSeconds);
+        this.maxStalenessSeconds = properties.getMaxStaleness().toMillis() / 1000.0;
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            Replica replica = new Replica("replica-" + i,
+                    createPool(i, properties.getReplicas().get(i), properties), timeoutSeconds);
+            Gauge.builder("account.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("account.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.datasource.routing.health-check-interval:2s}")
+    public void check() {
+        String primaryLsn;
+        try {
+            primaryLsn = primary.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+        } catch (RuntimeException e) {
+            // Without the primary's position staleness cannot be judged; keep the last verdicts
+            log.warn("Could not read the primary WAL position", e);
+            return;
+        }
+        replicas.forEach(replica -> check(replica, primaryLsn));
+    }
+
+    private void check(Replica replica, String primaryLsn) {
+        boolean wasHealthy = replica.healthy;
+        try {
+            Double lag = replica.jdbcTemplate.queryForObject(REPLAY_SQL, Double.class, primaryLsn);
+            replica.lagSeconds = lag == null ? 0 : lag;
+            replica.healthy = replica.lagSeconds <= maxStalenessSeconds;
+        } catch (RuntimeException e) {
+            replica.lagSeconds = -1;
+            replica.healthy = false;
+            if (wasHealthy) {
+                log.warn("Replica {} failed its health check", replica.name, e);
+            }
+        }
+        if (wasHealthy != replica.healthy) {
+            log.info("Replica {} is {} (lag {}s)", replica.name, replica.healthy ? "back in rotation" : "out of rotation",
+                    replica.lagSeconds);
+        }
+    }
+
+    /**
+     * @return the next healthy replica in turn, or null when reads must go to the primary
+     */
+    public DataSource pick() {
+        int size = replicas.size();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, size));
+            if (replica.healthy) {
+                return replica.dataSource;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes a replica out of rotation after a connection to it failed, until the next check says otherwise
+     */
+    public void markDown(DataSource dataSource) {
+        for (Replica replica : replicas) {
+            if (replica.dataSource == dataSource && replica.healthy) {
+                replica.healthy = false;
+                log.warn("Replica {} refused a connection, taken out of rotation", replica.name);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static HikariDataSource createPool(int index,
+                                               ReplicaRoutingProperties.Replica replica,
+                                               ReplicaRoutingProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("account-replica-" + index);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername());
+        dataSource.setPassword(replica.getPassword());
+        dataSource.setMaximumPoolSize(properties.getReplicaPoolSize());
+        dataSource.setConnectionTimeout(Math.max(250, properties.getHealthCheckTimeout().toMillis()));
+        dataSource.setReadOnly(true);
+        // Do not fail startup when a replica is down; it simply stays out of rotation
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        /**
+         * Starts out of rotation until the first check has measured it
+         */
+        private volatile boolean healthy;
+        private volatile double lagSeconds = -1;
+
+        private Replica(String name, HikariDataSource dataSource, int timeoutSeconds) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.jdbcTemplate.setQueryTimeout(timeoutSeconds);
+        }
+    }
+}
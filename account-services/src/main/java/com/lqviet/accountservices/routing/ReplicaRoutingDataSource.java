@@ -0,0 +1,70 @@
+package com.lqviet.accountservices.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The read-only side of the routing: hands out a replica connection unless the session is pinned by
+ * {@link ReadYourWrites}, the read fills a cache ({@link PrimaryReads}) or no replica is healthy, in which case
+ * the read goes to the primary.
+ * <p>
+ * A replica that refuses a connection is marked down and the read falls back to the primary, so a failing
+ * replica costs one connection attempt rather than a failed request. Routed reads are counted by
+ * {@code account.datasource.reads}, tagged with {@code target} (replica, pinned, cache.fill, failover).
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private final DataSource primary;
+    private final ReplicaHealthMonitor monitor;
+    private final ReadYourWrites readYourWrites;
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    private final Counter cacheFillReads;
+    private final Counter failoverReads;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    ReplicaHealthMonitor monitor,
+                                    ReadYourWrites readYourWrites,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.monitor = monitor;
+        this.readYourWrites = readYourWrites;
+        this.replicaReads = meterRegistry.counter("account.datasource.reads", "target", "replica");
+        this.pinnedReads = meterRegistry.counter("account.datasource.reads", "target", "pinned");
+        this.cacheFillReads = meterRegistry.counter("account.datasource.reads", "target", "cache.fill");
+        this.failoverReads = meterRegistry.counter("account.datasource.reads", "target", "failover");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readYourWrites.isPinned()) {
+            pinnedReads.increment();
+            return primary.getConnection();
+        }
+        if (PrimaryReads.isRequired()) {
+            cacheFillReads.increment();
+            return primary.getConnection();
+        }
+        DataSource replica = monitor.pick();
+        if (replica != null) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                monitor.markDown(replica);
+            }
+        }
+        failoverReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,19 @@
+package com.lqviet.accountservices.services;
+
+import com.lqviet.accountservices.entities.AccountActivity;
+import com.lqviet.accountservices.enums.ActivityType;
+
+/**
+ * Records account activities off the request path
+ */
+public interface AccountActivityService {
+
+    /**
+     * Queues an activity for a batched insert
+     *
+     * @return false when backpressure dropped the activity
+     */
+    boolean record(AccountActivity activity);
+
+    boolean record(Long accountId, ActivityType activityType, String description, String ipAddress, boolean success);
+}
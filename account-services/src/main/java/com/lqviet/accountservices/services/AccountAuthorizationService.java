@@ -0,0 +1,15 @@
+package com.lqviet.accountservices.services;
+
+import com.lqviet.accountservices.permissions.PermissionSnapshot;
+
+/**
+ * Authorization checks against the effective roles and permissions of an account
+ */
+public interface AccountAuthorizationService {
+
+    PermissionSnapshot getSnapshot(Long accountId);
+
+    boolean hasRole(Long accountId, String roleName);
+
+    boolean hasPermission(Long accountId, String permissionName, String resourceIdentifier);
+}
@@ -0,0 +1,11 @@
+package com.lqviet.accountservices.services;
+
+/**
+ * Answers whether a username or email can still be registered
+ */
+public interface AccountAvailabilityService {
+
+    boolean isUsernameAvailable(String username);
+
+    boolean isEmailAvailable(String email);
+}
@@ -0,0 +1,25 @@
+package com.lqviet.accountservices.services;
+
+import com.lqviet.accountservices.dtos.responses.AccountSummaryResponse;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Resolves many accounts, with their profile cards, in one call for services that show lists of authors and
+ * commenters
+ */
+public interface AccountBatchLookupService {
+
+    /**
+     * Hands each live account matching one of the ids or usernames to the consumer once, in no particular order;
+     * keys that match nothing are left out
+     */
+    void findAll(Collection<Long> ids, Collection<String> usernames, Consumer<AccountSummaryResponse> consumer);
+
+    /**
+     * The live accounts among the ids, keyed by id
+     */
+    Map<Long, AccountSummaryResponse> findAllById(Collection<Long> ids);
+}
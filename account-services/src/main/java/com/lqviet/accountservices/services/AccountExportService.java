@@ -0,0 +1,17 @@
+package com.lqviet.accountservices.services;
+
+import com.lqviet.accountservices.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams every live account to an output stream
+ */
+public interface AccountExportService {
+
+    /**
+     * @return the number of exported accounts
+     */
+    long export(ExportFormat format, OutputStream out) throws IOException;
+}
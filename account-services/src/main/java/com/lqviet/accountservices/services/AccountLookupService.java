@@ -0,0 +1,24 @@
+package com.lqviet.accountservices.services;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.enums.AccountStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read path used to resolve accounts on authenticated requests
+ */
+public interface AccountLookupService {
+
+    Optional<AccountResponse> findById(Long id);
+
+    Optional<AccountResponse> findByUsername(String username);
+
+    Optional<AccountResponse> findByEmail(String email);
+
+    /**
+     * Accounts with the given status and an id above {@code afterId}, in id order
+     */
+    List<AccountResponse> findByStatus(AccountStatus status, Long afterId, int limit);
+}
@@ -0,0 +1,35 @@
+package com.lqviet.accountservices.services;
+
+import com.lqviet.accountservices.dtos.responses.NotificationFeedResponse;
+import com.lqviet.accountservices.enums.NotificationStatus;
+
+/**
+ * Notification badge, feed and read marks of an account
+ */
+public interface AccountNotificationService {
+
+    long countUnread(Long accountId);
+
+    /**
+     * @param cursor {@link NotificationFeedResponse#getNextCursor()} of the previous page, or null for the first page
+     * @param limit  page size, or null for the default
+     */
+    NotificationFeedResponse getFeed(Long accountId, String cursor, Integer limit);
+
+    /**
+     * @return false when the notification does not exist or was already read
+     */
+    boolean markAsRead(Long accountId, Long notificationId);
+
+    /**
+     * @return the number of notifications marked as read
+     */
+    int markAllAsRead(Long accountId);
+
+    /**
+     * Reads, archives or dismisses a lazily delivered broadcast for one account
+     *
+     * @return false when the broadcast was not unread, or is not a lazy broadcast visible to the account
+     */
+    boolean updateBroadcastStatus(Long accountId, Long broadcastId, NotificationStatus status);
+}
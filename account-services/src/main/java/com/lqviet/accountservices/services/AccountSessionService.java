@@ -0,0 +1,18 @@
+package com.lqviet.accountservices.services;
+
+/**
+ * Session validation used on every authenticated request
+ */
+public interface AccountSessionService {
+
+    /**
+     * Equivalent of {@link com.lqviet.accountservices.entities.AccountSession#isActive()} for the session
+     * identified by the token, answered from the session registry whenever possible
+     */
+    boolean isActive(String sessionToken);
+
+    /**
+     * Debounced equivalent of {@link com.lqviet.accountservices.entities.AccountSession#updateActivity()}
+     */
+    void touch(String sessionToken);
+}
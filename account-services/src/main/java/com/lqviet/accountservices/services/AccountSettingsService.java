@@ -0,0 +1,19 @@
+package com.lqviet.accountservices.services;
+
+import com.lqviet.accountservices.dtos.requests.AccountSettingRequest;
+import com.lqviet.accountservices.settings.AccountSettings;
+
+import java.util.List;
+
+/**
+ * Reads and writes the settings of an account as a whole
+ */
+public interface AccountSettingsService {
+
+    AccountSettings getSettings(Long accountId);
+
+    /**
+     * Creates or replaces the given settings in one batched upsert; settings not listed are left untouched
+     */
+    void updateSettings(Long accountId, List<AccountSettingRequest> settings);
+}
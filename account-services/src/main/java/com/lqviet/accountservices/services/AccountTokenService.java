@@ -0,0 +1,28 @@
+package com.lqviet.accountservices.services;
+
+import com.lqviet.accountservices.entities.AccountToken;
+import com.lqviet.accountservices.enums.TokenType;
+import com.lqviet.accountservices.tokens.IssuedToken;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Issues and verifies single-use account tokens (email verification, password reset, ...)
+ */
+public interface AccountTokenService {
+
+    IssuedToken issue(Long accountId, TokenType tokenType, Duration timeToLive, String additionalData);
+
+    /**
+     * @return the stored token when the raw token is known, of the given type and still valid
+     */
+    Optional<AccountToken> verify(String token, TokenType tokenType);
+
+    /**
+     * Verifies the token and marks it as used; of two concurrent calls only one succeeds
+     *
+     * @return the token as stored after it was marked as used
+     */
+    Optional<AccountToken> consume(String token, TokenType tokenType);
+}
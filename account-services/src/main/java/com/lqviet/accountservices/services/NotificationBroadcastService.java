@@ -0,0 +1,19 @@
+package com.lqviet.accountservices.services;
+
+import com.lqviet.accountservices.dtos.requests.NotificationBroadcastRequest;
+import com.lqviet.accountservices.dtos.responses.NotificationBroadcastResponse;
+
+import java.util.Optional;
+
+/**
+ * Sends one notification to every active account
+ */
+public interface NotificationBroadcastService {
+
+    /**
+     * Stores the broadcast and starts delivering it in the background
+     */
+    NotificationBroadcastResponse broadcast(NotificationBroadcastRequest request);
+
+    Optional<NotificationBroadcastResponse> getBroadcast(Long broadcastId);
+}
@@ -0,0 +1,30 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.entities.AccountActivity;
+import com.lqviet.accountservices.enums.ActivityType;
+import com.lqviet.accountservices.pipelines.BoundedBatchPipeline;
+import com.lqviet.accountservices.services.AccountActivityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class AccountActivityServiceImpl implements AccountActivityService {
+    private final BoundedBatchPipeline<AccountActivity> activityPipeline;
+
+    @Override
+    public boolean record(AccountActivity activity) {
+        return activityPipeline.submit(activity);
+    }
+
+    @Override
+    public boolean record(Long accountId, ActivityType activityType, String description, String ipAddress, boolean success) {
+        return record(AccountActivity.builder()
+                .accountId(accountId)
+                .activityType(activityType)
+                .description(description)
+                .ipAddress(ipAddress)
+                .success(success)
+                .build());
+    }
+}
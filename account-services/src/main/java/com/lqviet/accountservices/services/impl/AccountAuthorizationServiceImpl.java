@@ -0,0 +1,43 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.caches.PermissionSnapshotCache;
+import com.lqviet.accountservices.permissions.PermissionSnapshot;
+import com.lqviet.accountservices.permissions.RoleIndex;
+import com.lqviet.accountservices.repositories.AccountPermissionRepository;
+import com.lqviet.accountservices.repositories.AccountRoleRepository;
+import com.lqviet.accountservices.routing.PrimaryReads;
+import com.lqviet.accountservices.services.AccountAuthorizationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AccountAuthorizationServiceImpl implements AccountAuthorizationService {
+    private final AccountRoleRepository accountRoleRepository;
+    private final AccountPermissionRepository accountPermissionRepository;
+    private final PermissionSnapshotCache permissionSnapshotCache;
+    private final RoleIndex roleIndex;
+
+    @Override
+    public PermissionSnapshot getSnapshot(Long accountId) {
+        return permissionSnapshotCache.get(accountId, id -> PrimaryReads.call(() -> PermissionSnapshot.build(id,
+                accountRoleRepository.findByAccountId(id),
+                accountPermissionRepository.findByAccountId(id),
+                roleIndex)));
+    }
+
+    @Override
+    public boolean hasRole(Long accountId, String roleName) {
+        // Building the snapshot interns the account's roles, so it has to come before the lookup
+        PermissionSnapshot snapshot = getSnapshot(accountId);
+        int position = roleIndex.indexOf(roleName);
+        return position >= 0 && snapshot.hasRole(position);
+    }
+
+    @Override
+    public boolean hasPermission(Long accountId, String permissionName, String resourceIdentifier) {
+        return getSnapshot(accountId).hasPermission(permissionName, resourceIdentifier);
+    }
+}
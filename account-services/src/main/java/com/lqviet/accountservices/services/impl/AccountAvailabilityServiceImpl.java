@@ -0,0 +1,62 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.availability.AccountIdentifierFilter;
+import com.lqviet.accountservices.repositories.AccountRepository;
+import com.lqviet.accountservices.services.AccountAvailabilityService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Predicate;
+
+/**
+ * A value the {@link AccountIdentifierFilter} has never seen is free without a query; everything else is checked
+ * against the table.
+ * <p>
+ * {@code account.availability.checks} is tagged with {@code result}: {@code filtered} (answered by the filter),
+ * {@code taken} (confirmed by the database) and {@code false.positive} (the filter said maybe, the database said
+ * free). The observed false positive rate is false.positive / (false.positive + filtered).
+ */
+@Service
+public class AccountAvailabilityServiceImpl implements AccountAvailabilityService {
+    private final AccountIdentifierFilter identifierFilter;
+    private final AccountRepository accountRepository;
+    private final Counter filtered;
+    private final Counter taken;
+    private final Counter falsePositives;
+
+    public AccountAvailabilityServiceImpl(AccountIdentifierFilter identifierFilter,
+                                          AccountRepository accountRepository,
+                                          MeterRegistry meterRegistry) {
+        this.identifierFilter = identifierFilter;
+        this.accountRepository = accountRepository;
+        this.filtered = meterRegistry.counter("account.availability.checks", "result", "filtered");
+        this.taken = meterRegistry.counter("account.availability.checks", "result", "taken");
+        this.falsePositives = meterRegistry.counter("account.availability.checks", "result", "false.positive");
+    }
+
+    @Override
+    public boolean isUsernameAvailable(String username) {
+        return isAvailable(username, identifierFilter::mightHoldUsername, accountRepository::existsByUsername);
+    }
+
+    @Override
+    public boolean isEmailAvailable(String email) {
+        return isAvailable(email, identifierFilter::mightHoldEmail, accountRepository::existsByEmail);
+    }
+
+    private boolean isAvailable(String value, Predicate<String> mightBeTaken, Predicate<String> exists) {
+        if (!mightBeTaken.test(value)) {
+            filtered.increment();
+            return true;
+        }
+        if (exists.test(value)) {
+            taken.increment();
+            return false;
+        }
+        if (identifierFilter.isReady()) {
+            falsePositives.increment();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,110 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.caches.AccountNearCache;
+import com.lqviet.accountservices.caches.ProfileCardCache;
+import com.lqviet.accountservices.caches.ProfileCardCache.ProfileCard;
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.dtos.responses.AccountSummaryResponse;
+import com.lqviet.accountservices.repositories.AccountSummaryRepository;
+import com.lqviet.accountservices.routing.PrimaryReads;
+import com.lqviet.accountservices.services.AccountBatchLookupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keys are deduplicated, and every account whose snapshot and profile card are both in memory is handed out
+ * before anything is queried. The rest is read with one {@code = ANY (?)} statement and cached on the way out.
+ * An account asked for by id and by username is handed out once.
+ * <p>
+ * {@code account.batch.lookup.keys} is tagged with {@code result}: {@code cached} (answered from memory) and
+ * {@code queried} (sent to the database, found or not).
+ */
+@Service
+@Transactional(readOnly = true)
+public class AccountBatchLookupServiceImpl implements AccountBatchLookupService {
+    private final AccountSummaryRepository accountSummaryRepository;
+    private final AccountNearCache accountNearCache;
+    private final ProfileCardCache profileCardCache;
+    private final Counter cachedKeys;
+    private final Counter queriedKeys;
+
+    public AccountBatchLookupServiceImpl(AccountSummaryRepository accountSummaryRepository,
+                                         AccountNearCache accountNearCache,
+                                         ProfileCardCache profileCardCache,
+                                         MeterRegistry meterRegistry) {
+        this.accountSummaryRepository = accountSummaryRepository;
+        this.accountNearCache = accountNearCache;
+        this.profileCardCache = profileCardCache;
+        this.cachedKeys = meterRegistry.counter("account.batch.lookup.keys", "result", "cached");
+        this.queriedKeys = meterRegistry.counter("account.batch.lookup.keys", "result", "queried");
+    }
+
+    @Override
+    public void findAll(Collection<Long> ids, Collection<String> usernames, Consumer<AccountSummaryResponse> consumer) {
+        Set<Long> handedOut = new HashSet<>();
+        Consumer<AccountSummaryResponse> once = summary -> {
+            if (handedOut.add(summary.getAccount().getId())) {
+                consumer.accept(summary);
+            }
+        };
+
+        List<Long> missingIds = distinct(ids).stream()
+                .filter(id -> !fromCache(accountNearCache.getIfPresent(id), once))
+                .toList();
+        List<String> missingUsernames = distinct(usernames).stream()
+                .filter(username -> !fromCache(accountNearCache.getIfPresentByUsername(username), once))
+                .toList();
+        if (missingIds.isEmpty() && missingUsernames.isEmpty()) {
+            return;
+        }
+        queriedKeys.increment(missingIds.size() + missingUsernames.size());
+
+        long evictionCount = accountNearCache.evictionCount();
+        PrimaryReads.call(() -> {
+            accountSummaryRepository.forEach(missingIds, missingUsernames, summary -> {
+                AccountResponse account = summary.getAccount();
+                accountNearCache.putIfUnevicted(account, evictionCount);
+                profileCardCache.put(account.getId(), summary.getDisplayName(), summary.getAvatarUrl());
+                once.accept(summary);
+            });
+            return null;
+        });
+    }
+
+    @Override
+    public Map<Long, AccountSummaryResponse> findAllById(Collection<Long> ids) {
+        Map<Long, AccountSummaryResponse> found = new HashMap<>();
+        findAll(ids, List.of(), summary -> found.put(summary.getAccount().getId(), summary));
+        return found;
+    }
+
+    private boolean fromCache(AccountResponse account, Consumer<AccountSummaryResponse> consumer) {
+        ProfileCard card = account == null ? null : profileCardCache.getIfPresent(account.getId());
+        if (card == null) {
+            return false;
+        }
+        cachedKeys.increment();
+        consumer.accept(new AccountSummaryResponse(account, card.displayName(), card.avatarUrl()));
+        return true;
+    }
+
+    private static <T> Set<T> distinct(Collection<T> keys) {
+        Set<T> distinct = new LinkedHashSet<>();
+        if (keys != null) {
+            keys.stream().filter(Objects::nonNull).forEach(distinct::add);
+        }
+        return distinct;
+    }
+}
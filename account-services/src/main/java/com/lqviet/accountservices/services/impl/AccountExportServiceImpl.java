@@ -0,0 +1,73 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lqviet.accountservices.enums.ExportFormat;
+import com.lqviet.accountservices.exports.AccountRecordWriter;
+import com.lqviet.accountservices.exports.CsvAccountRecordWriter;
+import com.lqviet.accountservices.exports.NdjsonAccountRecordWriter;
+import com.lqviet.accountservices.properties.AccountExportProperties;
+import com.lqviet.accountservices.repositories.AccountExportRepository;
+import com.lqviet.accountservices.services.AccountExportService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Walks {@code accounts} page by page and writes each row as soon as it is read, so memory use depends on the
+ * page fetch size only, never on the number of accounts. The output is flushed after every page.
+ */
+@Slf4j
+@Service
+public class AccountExportServiceImpl implements AccountExportService {
+    private final AccountExportRepository accountExportRepository;
+    private final AccountExportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Counter exportedRows;
+
+    public AccountExportServiceImpl(AccountExportRepository accountExportRepository,
+                                    AccountExportProperties properties,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
+        this.accountExportRepository = accountExportRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.exportedRows = meterRegistry.counter("account.export.rows");
+    }
+
+    @Override
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        AccountRecordWriter writer = switch (format) {
+            case NDJSON -> new NdjsonAccountRecordWriter(objectMapper, out);
+            case CSV -> new CsvAccountRecordWriter(out);
+        };
+        writer.writeHeader();
+        AtomicLong exported = new AtomicLong();
+        long cursor = 0;
+        try {
+            while (true) {
+                long pageStart = exported.get();
+                cursor = accountExportRepository.forEachAfter(cursor, properties.getPageSize(),
+                        properties.getFetchSize(), account -> {
+                            writer.writeUnchecked(account);
+                            exported.incrementAndGet();
+                        });
+                writer.flush();
+                long pageRows = exported.get() - pageStart;
+                exportedRows.increment(pageRows);
+                if (pageRows < properties.getPageSize()) {
+                    break;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            log.info("Account export aborted after {} rows: {}", exported.get(), e.getCause().getMessage());
+            throw e.getCause();
+        }
+        return exported.get();
+    }
+}
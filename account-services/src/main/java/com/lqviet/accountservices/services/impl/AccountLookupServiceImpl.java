@@ -0,0 +1,46 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.caches.AccountNearCache;
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.repositories.AccountRepository;
+import com.lqviet.accountservices.routing.PrimaryReads;
+import com.lqviet.accountservices.services.AccountLookupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AccountLookupServiceImpl implements AccountLookupService {
+    private final AccountRepository accountRepository;
+    private final AccountNearCache accountNearCache;
+
+    @Override
+    public Optional<AccountResponse> findById(Long id) {
+        return Optional.ofNullable(accountNearCache.getById(id,
+                key -> PrimaryReads.call(() -> accountRepository.findResponseById(key).orElse(null))));
+    }
+
+    @Override
+    public Optional<AccountResponse> findByUsername(String username) {
+        return Optional.ofNullable(accountNearCache.getByUsername(username,
+                () -> PrimaryReads.call(() -> accountRepository.findResponseByUsername(username).orElse(null))));
+    }
+
+    @Override
+    public Optional<AccountResponse> findByEmail(String email) {
+        return Optional.ofNullable(accountNearCache.getByEmail(email,
+                () -> PrimaryReads.call(() -> accountRepository.findResponseByEmail(email).orElse(null))));
+    }
+
+    @Override
+    public List<AccountResponse> findByStatus(AccountStatus status, Long afterId, int limit) {
+        return accountRepository.findResponsesByStatus(status, afterId == null ? 0L : afterId, PageRequest.of(0, limit));
+    }
+}
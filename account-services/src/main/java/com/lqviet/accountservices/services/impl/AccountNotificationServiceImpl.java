@@ -0,0 +1,83 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.caches.UnreadNotificationCounter;
+import com.lqviet.accountservices.dtos.responses.AccountNotificationResponse;
+import com.lqviet.accountservices.dtos.responses.NotificationFeedResponse;
+import com.lqviet.accountservices.enums.NotificationStatus;
+import com.lqviet.accountservices.events.AccountNotificationsChangedEvent;
+import com.lqviet.accountservices.pagination.KeysetCursor;
+import com.lqviet.accountservices.properties.AccountNotificationProperties;
+import com.lqviet.accountservices.repositories.AccountNotificationFeedRepository;
+import com.lqviet.accountservices.services.AccountNotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class AccountNotificationServiceImpl implements AccountNotificationService {
+    private final AccountNotificationFeedRepository accountNotificationFeedRepository;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final AccountNotificationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public long countUnread(Long accountId) {
+        return unreadNotificationCounter.get(accountId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationFeedResponse getFeed(Long accountId, String cursor, Integer limit) {
+        int pageSize = limit == null
+                ? properties.getFeedDefaultPageSize()
+                : Math.clamp(limit, 1, properties.getFeedMaxPageSize());
+        KeysetCursor position = cursor == null || cursor.isBlank() ? KeysetCursor.START : KeysetCursor.decode(cursor);
+        List<AccountNotificationResponse> page =
+                accountNotificationFeedRepository.findPage(accountId, position, pageSize);
+        String nextCursor = null;
+        if (page.size() == pageSize) {
+            AccountNotificationResponse last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getSource().ordinal(), last.getId()).encode();
+        }
+        return new NotificationFeedResponse(page, nextCursor, unreadNotificationCounter.get(accountId));
+    }
+
+    @Override
+    @Transactional
+    public boolean markAsRead(Long accountId, Long notificationId) {
+        int unread = accountNotificationFeedRepository.markAsRead(accountId, notificationId, LocalDateTime.now());
+        publishRead(accountId, unread);
+        return unread > 0;
+    }
+
+    @Override
+    @Transactional
+    public int markAllAsRead(Long accountId) {
+        int unread = accountNotificationFeedRepository.markAllAsRead(accountId, LocalDateTime.now());
+        publishRead(accountId, unread);
+        return unread;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateBroadcastStatus(Long accountId, Long broadcastId, NotificationStatus status) {
+        if (status == NotificationStatus.UNREAD) {
+            throw new IllegalArgumentException("A broadcast cannot be marked as unread");
+        }
+        int unread = accountNotificationFeedRepository.setBroadcastStatus(accountId, broadcastId, status,
+                LocalDateTime.now());
+        publishRead(accountId, unread);
+        return unread > 0;
+    }
+
+    private void publishRead(Long accountId, int unread) {
+        if (unread > 0) {
+            eventPublisher.publishEvent(new AccountNotificationsChangedEvent(accountId, -unread, null));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.buffers.SessionActivityTracker;
+import com.lqviet.accountservices.caches.OffHeapSessionRegistry;
+import com.lqviet.accountservices.entities.AccountSession;
+import com.lqviet.accountservices.enums.SessionStatus;
+import com.lqviet.accountservices.enums.SessionValidity;
+import com.lqviet.accountservices.properties.SessionRegistryProperties;
+import com.lqviet.accountservices.repositories.AccountSessionRepository;
+import com.lqviet.accountservices.routing.PrimaryReads;
+import com.lqviet.accountservices.services.AccountSessionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Session checks answered by the {@link OffHeapSessionRegistry} where it can vouch for them.
+ * <p>
+ * The registry only hears about sessions ended through this instance. Sessions ended anywhere else are read back
+ * from the database every {@code reconcileInterval} and marked in the registry, and a registry hit is only taken
+ * as {@link SessionValidity#VALID} while the last successful reconciliation is younger than
+ * {@code maxReconcileAge}. A session revoked on another instance is thus honored here within that age; past it,
+ * or before the first reconciliation, every check goes to the database. An {@link SessionValidity#INVALID}
+ * answer is always taken, denying a session early being safe.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class AccountSessionServiceImpl implements AccountSessionService {
+    private final AccountSessionRepository accountSessionRepository;
+    private final OffHeapSessionRegistry sessionRegistry;
+    private final SessionActivityTracker sessionActivityTracker;
+    private final SessionRegistryProperties properties;
+    private final Counter registryHits;
+    private final Counter registryMisses;
+    private final Counter reconciledRevocations;
+    /**
+     * Start of the last successful reconciliation, read from and written to by the reconciling thread only
+     */
+    private long reconciledFromMillis;
+    private volatile long lastReconciledMillis;
+
+    public AccountSessionServiceImpl(AccountSessionRepository accountSessionRepository,
+                                     OffHeapSessionRegistry sessionRegistry,
+                                     SessionActivityTracker sessionActivityTracker,
+                                     SessionRegistryProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.accountSessionRepository = accountSessionRepository;
+        this.sessionRegistry = sessionRegistry;
+        this.sessionActivityTracker = sessionActivityTracker;
+        this.properties = properties;
+        this.registryHits = meterRegistry.counter("account.session.registry.lookups", "result", "hit");
+        this.registryMisses = meterRegistry.counter("account.session.registry.lookups", "result", "miss");
+        this.reconciledRevocations = meterRegistry.counter("account.session.registry.reconciled");
+        // Nothing in the registry was confirmed before this instance started, see OffHeapSessionRegistry
+        this.reconciledFromMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public boolean isActive(String sessionToken) {
+        long now = System.currentTimeMillis();
+        SessionValidity validity = sessionRegistry.validate(sessionToken, now);
+        if (validity == SessionValidity.INVALID
+                || validity == SessionValidity.VALID
+                && now - lastReconciledMillis <= properties.getMaxReconcileAge().toMillis()) {
+            registryHits.increment();
+            return validity == SessionValidity.VALID;
+        }
+        registryMisses.increment();
+        Optional<AccountSession> session = PrimaryReads.call(() ->
+                accountSessionRepository.findBySessionToken(sessionToken));
+        session.ifPresent(sessionRegistry::put);
+        return session.map(s -> s.isActive() && !s.isDeleted()).orElse(false);
+    }
+
+    @Override
+    public void touch(String sessionToken) {
+        long now = System.currentTimeMillis();
+        if (sessionActivityTracker.touch(sessionToken, now)) {
+            sessionRegistry.touch(sessionToken, now);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.session.registry.purge-interval:10m}")
+    public void purgeExpiredSessions() {
+        int purged = sessionRegistry.purgeExpired(System.currentTimeMillis());
+        if (purged > 0) {
+            log.debug("Purged {} expired sessions from the session registry", purged);
+        }
+    }
+
+    /**
+     * Marks sessions ended since the last run as invalid; each run reaches back one {@code maxReconcileAge} more
+     * to absorb clock skew between instances
+     */
+    @Scheduled(fixedDelayString = "${account.session.registry.reconcile-interval:5s}")
+    public void reconcileRevocations() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(reconciledFromMillis - properties.getMaxReconcileAge().toMillis()),
+                ZoneId.systemDefault());
+        try {
+            List<String> tokens = PrimaryReads.call(() ->
+                    accountSessionRepository.findTokensRevokedSince(since));
+            tokens.forEach(token -> sessionRegistry.updateStatus(token, SessionStatus.INVALID));
+            reconciledRevocations.increment(tokens.size());
+            reconciledFromMillis = start;
+            lastReconciledMillis = start;
+        } catch (RuntimeException e) {
+            log.warn("Reconciling ended sessions failed, registry hits go to the database meanwhile", e);
+        }
+    }
+}
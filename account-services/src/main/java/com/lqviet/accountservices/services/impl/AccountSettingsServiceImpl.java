@@ -0,0 +1,51 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lqviet.accountservices.caches.AccountSettingsCache;
+import com.lqviet.accountservices.dtos.requests.AccountSettingRequest;
+import com.lqviet.accountservices.events.AccountSettingsChangedEvent;
+import com.lqviet.accountservices.repositories.AccountSettingBatchRepository;
+import com.lqviet.accountservices.repositories.AccountSettingRepository;
+import com.lqviet.accountservices.routing.PrimaryReads;
+import com.lqviet.accountservices.services.AccountSettingsService;
+import com.lqviet.accountservices.settings.AccountSettings;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class AccountSettingsServiceImpl implements AccountSettingsService {
+    private final AccountSettingRepository accountSettingRepository;
+    private final AccountSettingBatchRepository accountSettingBatchRepository;
+    private final AccountSettingsCache accountSettingsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccountSettings getSettings(Long accountId) {
+        return accountSettingsCache.get(accountId, (id, version) -> AccountSettings.build(id, version,
+                PrimaryReads.call(() -> accountSettingRepository.findByAccountId(id)), objectMapper));
+    }
+
+    @Override
+    @Transactional
+    public void updateSettings(Long accountId, List<AccountSettingRequest> settings) {
+        if (settings.isEmpty()) {
+            return;
+        }
+        // A key listed twice would hit the same row twice within one statement batch; the last write wins
+        Map<String, AccountSettingRequest> byKey = new LinkedHashMap<>();
+        settings.forEach(setting -> byKey.put(setting.getSettingKey(), setting));
+        Collection<AccountSettingRequest> distinct = byKey.values();
+        accountSettingBatchRepository.upsertAll(accountId, List.copyOf(distinct));
+        eventPublisher.publishEvent(new AccountSettingsChangedEvent(accountId));
+    }
+}
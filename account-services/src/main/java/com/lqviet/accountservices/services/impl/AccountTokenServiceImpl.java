@@ -0,0 +1,77 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.entities.AccountToken;
+import com.lqviet.accountservices.enums.TokenType;
+import com.lqviet.accountservices.repositories.AccountTokenRepository;
+import com.lqviet.accountservices.services.AccountTokenService;
+import com.lqviet.accountservices.tokens.IssuedToken;
+import com.lqviet.accountservices.tokens.TokenBloomFilter;
+import com.lqviet.accountservices.tokens.TokenDigests;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class AccountTokenServiceImpl implements AccountTokenService {
+    private final AccountTokenRepository accountTokenRepository;
+    private final TokenBloomFilter tokenBloomFilter;
+
+    @Override
+    @Transactional
+    public IssuedToken issue(Long accountId, TokenType tokenType, Duration timeToLive, String additionalData) {
+        String token = TokenDigests.generate();
+        byte[] digest = TokenDigests.digest(token);
+        AccountToken saved = accountTokenRepository.save(AccountToken.builder()
+                .accountId(accountId)
+                .tokenType(tokenType)
+                .tokenHash(digest)
+                .expiresAt(LocalDateTime.now().plus(timeToLive))
+                .additionalData(additionalData)
+                .build());
+        // Added only once the row is visible, so a concurrent filter rebuild cannot miss it
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenBloomFilter.add(digest);
+            }
+        });
+        return new IssuedToken(saved.getId(), token, saved.getExpiresAt());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AccountToken> verify(String token, TokenType tokenType) {
+        return find(token, tokenType);
+    }
+
+    @Override
+    @Transactional
+    public Optional<AccountToken> consume(String token, TokenType tokenType) {
+        return find(token, tokenType)
+                .filter(found -> accountTokenRepository.markAsUsed(found.getId(), LocalDateTime.now()) == 1)
+                .flatMap(consumed -> accountTokenRepository.findById(consumed.getId()));
+    }
+
+    private Optional<AccountToken> find(String token, TokenType tokenType) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] digest = TokenDigests.digest(token);
+        if (!tokenBloomFilter.mightContain(digest)) {
+            return Optional.empty();
+        }
+        // Lookups are keyed by the digest, so timing reveals nothing about the raw token; the final comparison
+        // is constant time as well, whatever the database did to find the row
+        return accountTokenRepository.findByTokenHash(digest)
+                .filter(found -> TokenDigests.matches(found.getTokenHash(), digest))
+                .filter(found -> found.getTokenType() == tokenType)
+                .filter(AccountToken::isValid);
+    }
+}
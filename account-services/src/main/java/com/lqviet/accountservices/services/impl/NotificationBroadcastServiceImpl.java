@@ -0,0 +1,71 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.broadcasts.BroadcastFanOutEngine;
+import com.lqviet.accountservices.dtos.requests.NotificationBroadcastRequest;
+import com.lqviet.accountservices.dtos.responses.NotificationBroadcastResponse;
+import com.lqviet.accountservices.entities.NotificationBroadcast;
+import com.lqviet.accountservices.entities.NotificationBroadcastCheckpoint;
+import com.lqviet.accountservices.enums.BroadcastDeliveryMode;
+import com.lqviet.accountservices.enums.BroadcastStatus;
+import com.lqviet.accountservices.events.LazyBroadcastPublishedEvent;
+import com.lqviet.accountservices.repositories.NotificationBroadcastCheckpointRepository;
+import com.lqviet.accountservices.repositories.NotificationBroadcastRepository;
+import com.lqviet.accountservices.services.NotificationBroadcastService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationBroadcastServiceImpl implements NotificationBroadcastService {
+    private final NotificationBroadcastRepository broadcastRepository;
+    private final NotificationBroadcastCheckpointRepository checkpointRepository;
+    private final BroadcastFanOutEngine broadcastFanOutEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public NotificationBroadcastResponse broadcast(NotificationBroadcastRequest request) {
+        BroadcastDeliveryMode deliveryMode = request.getDeliveryMode() == null
+                ? BroadcastDeliveryMode.MATERIALIZED
+                : request.getDeliveryMode();
+        NotificationBroadcast.NotificationBroadcastBuilder builder = NotificationBroadcast.builder()
+                .title(request.getTitle())
+                .message(request.getMessage())
+                .notificationType(request.getNotificationType())
+                .actionUrl(request.getActionUrl())
+                .expiresAt(request.getExpiresAt())
+                .deliveryMode(deliveryMode);
+        if (deliveryMode == BroadcastDeliveryMode.LAZY) {
+            // Nothing to fan out: the single row is visible to every feed as soon as it is committed
+            LocalDateTime now = LocalDateTime.now();
+            NotificationBroadcast broadcast = broadcastRepository.save(builder
+                    .status(BroadcastStatus.COMPLETED)
+                    .startedAt(now)
+                    .completedAt(now)
+                    .build());
+            eventPublisher.publishEvent(new LazyBroadcastPublishedEvent(broadcast.getId(), broadcast.getExpiresAt()));
+            return getBroadcast(broadcast.getId()).orElseThrow();
+        }
+        NotificationBroadcast broadcast = broadcastRepository.save(builder.build());
+        broadcastFanOutEngine.start(broadcast.getId());
+        return getBroadcast(broadcast.getId()).orElseThrow();
+    }
+
+    @Override
+    public Optional<NotificationBroadcastResponse> getBroadcast(Long broadcastId) {
+        return broadcastRepository.findById(broadcastId).map(broadcast -> new NotificationBroadcastResponse(
+                broadcast.getId(),
+                broadcast.getTitle(),
+                broadcast.getNotificationType(),
+                broadcast.getDeliveryMode(),
+                broadcast.getStatus(),
+                checkpointRepository.findByBroadcastId(broadcastId).stream()
+                        .mapToLong(NotificationBroadcastCheckpoint::getDelivered)
+                        .sum(),
+                broadcast.getStartedAt(),
+                broadcast.getCompletedAt()));
+    }
+}
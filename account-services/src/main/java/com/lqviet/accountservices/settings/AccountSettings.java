@@ -0,0 +1,178 @@
+package com.lqviet.accountservices.settings;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lqviet.accountservices.entities.AccountSetting;
+import com.lqviet.accountservices.enums.ValueType;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, typed view of every setting of one account.
+ * <p>
+ * Keys are kept sorted in a flat array with the values in parallel arrays: integers and booleans are parsed once
+ * into {@code long} slots and {@link ValueType#JSON} values are decoded once into a {@link JsonNode}, so reads
+ * are a binary search without parsing or boxing. Encrypted values are kept as stored.
+ * {@link #getVersion()} is the invalidation version the view was loaded under.
+ */
+public final class AccountSettings implements Serializable {
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    private final Long accountId;
+    private final long version;
+    private final String[] keys;
+    private final ValueType[] types;
+    private final String[] raw;
+    private final long[] primitives;
+    private final JsonNode[] json;
+
+    private AccountSettings(Long accountId, long version, String[] keys, ValueType[] types, String[] raw,
+                            long[] primitives, JsonNode[] json) {
+        this.accountId = accountId;
+        this.version = version;
+        this.keys = keys;
+        this.types = types;
+        this.raw = raw;
+        this.primitives = primitives;
+        this.json = json;
+    }
+
+    public static AccountSettings build(Long accountId, long version, Collection<AccountSetting> settings,
+                                        ObjectMapper objectMapper) {
+        List<AccountSetting> live = settings.stream()
+                .filter(setting -> !setting.isDeleted())
+                .sorted(Comparator.comparing(AccountSetting::getSettingKey))
+                .toList();
+        int size = live.size();
+        String[] keys = new String[size];
+        ValueType[] types = new ValueType[size];
+        String[] raw = new String[size];
+        long[] primitives = new long[size];
+        JsonNode[] json = new JsonNode[size];
+        for (int i = 0; i < size; i++) {
+            AccountSetting setting = live.get(i);
+            keys[i] = setting.getSettingKey();
+            types[i] = setting.getValueType();
+            raw[i] = setting.getSettingValue();
+            primitives[i] = parsePrimitive(setting.getValueType(), setting.getSettingValue());
+            if (setting.getValueType() == ValueType.JSON && setting.getSettingValue() != null) {
+                json[i] = parseJson(objectMapper, setting.getSettingValue());
+            }
+        }
+        return new AccountSettings(accountId, version, keys, types, raw, primitives, json);
+    }
+
+    /**
+     * The same settings under another invalidation version, used when a view comes from another replica
+     */
+    public AccountSettings withVersion(long version) {
+        return version == this.version ? this
+                : new AccountSettings(accountId, version, keys, types, raw, primitives, json);
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean contains(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    public List<String> keys() {
+        return List.of(keys);
+    }
+
+    public ValueType getType(String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : types[index];
+    }
+
+    /**
+     * @return the value as stored, whatever its type
+     */
+    public String getString(String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : raw[index];
+    }
+
+    /**
+     * Same contract as {@link AccountSetting#getIntegerValue()}: null unless the setting is a well-formed integer
+     */
+    public Integer getInteger(String key) {
+        int index = typedIndex(key, ValueType.INTEGER);
+        return index < 0 ? null : (int) primitives[index];
+    }
+
+    public int getInt(String key, int defaultValue) {
+        int index = typedIndex(key, ValueType.INTEGER);
+        return index < 0 ? defaultValue : (int) primitives[index];
+    }
+
+    /**
+     * Same contract as {@link AccountSetting#getBooleanValue()}: null unless the setting is a boolean
+     */
+    public Boolean getBoolean(String key) {
+        int index = typedIndex(key, ValueType.BOOLEAN);
+        return index < 0 ? null : primitives[index] != 0;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        int index = typedIndex(key, ValueType.BOOLEAN);
+        return index < 0 ? defaultValue : primitives[index] != 0;
+    }
+
+    /**
+     * @return the decoded document, or null when the setting is missing, not JSON or malformed
+     */
+    public JsonNode getJson(String key) {
+        int index = indexOf(key);
+        return index < 0 ? null : json[index];
+    }
+
+    private int indexOf(String key) {
+        return key == null ? -1 : Arrays.binarySearch(keys, key);
+    }
+
+    private int typedIndex(String key, ValueType type) {
+        int index = indexOf(key);
+        return index >= 0 && types[index] == type && primitives[index] != ABSENT ? index : -1;
+    }
+
+    private static long parsePrimitive(ValueType type, String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+        return switch (type) {
+            case INTEGER -> {
+                try {
+                    yield Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    yield ABSENT;
+                }
+            }
+            case BOOLEAN -> Boolean.parseBoolean(value) ? 1 : 0;
+            default -> ABSENT;
+        };
+    }
+
+    private static JsonNode parseJson(ObjectMapper objectMapper, String value) {
+        try {
+            return objectMapper.readTree(value);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
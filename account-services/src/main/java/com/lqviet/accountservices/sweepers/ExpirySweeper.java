@@ -0,0 +1,185 @@
+package com.lqviet.accountservices.sweepers;
+
+import com.lqviet.accountservices.properties.ExpirySweeperProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds expired {@code account_sessions} and {@code account_tokens} rows and retires them in bulk.
+ * <p>
+ * Expiry used to be noticed only when a row was loaded ({@code AccountSession.expire()},
+ * {@code AccountToken.isExpired()}). The sweeper walks the {@code expires_at} indexes with a keyset cursor and
+ * retires each chunk with one set-based update in its own short transaction; rows locked by a request are skipped
+ * instead of waited for, and the cursor moves past them. Sessions are flipped to {@code EXPIRED}, tokens are
+ * soft-deleted.
+ * <p>
+ * Runs happen on a thread of the sweeper, not on the shared scheduler, since a run that sleeps between chunks
+ * can take minutes and would hold back every other scheduled job meanwhile.
+ * <p>
+ * Per-run meters, tagged with {@code table}: {@code account.sweeper.run} (duration),
+ * {@code account.sweeper.rows} (total rows swept), {@code account.sweeper.last.rows} (rows swept by the last run).
+ */
+@Slf4j
+@Component
+public class ExpirySweeper {
+    private static final Timestamp CURSOR_START = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+    private static final String EXPIRE_SESSIONS_SQL = """
+            WITH chunk AS (
+                SELECT id, expires_at
+                FROM account_sessions
+                WHERE status = 'ACTIVE'
+                  AND expires_at <= ?
+                  AND (expires_at, id) > (?, ?)
+                ORDER BY expires_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE account_sessions AS s
+            SET status = 'EXPIRED', ended_at = ?
+            FROM chunk
+            WHERE s.id = chunk.id
+            RETURNING chunk.id, chunk.expires_at
+            """;
+
+    private static final String SOFT_DELETE_TOKENS_SQL = """
+            WITH chunk AS (
+                SELECT id, expires_at
+                FROM account_tokens
+                WHERE is_deleted = false
+                  AND expires_at <= ?
+                  AND (expires_at, id) > (?, ?)
+                ORDER BY expires_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE account_tokens AS t
+            SET is_deleted = true, deleted_at = ?
+            FROM chunk
+            WHERE t.id = chunk.id
+            RETURNING chunk.id, chunk.expires_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpirySweeperProperties properties;
+    private final SweepTarget sessions;
+    private final SweepTarget tokens;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            task -> Thread.ofPlatform().name("expiry-sweeper").daemon(true).unstarted(task));
+
+    public ExpirySweeper(JdbcTemplate jdbcTemplate, ExpirySweeperProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.sessions = new SweepTarget("account_sessions", EXPIRE_SESSIONS_SQL, meterRegistry);
+        this.tokens = new SweepTarget("account_tokens", SOFT_DELETE_TOKENS_SQL, meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void sweep() {
+        sweep(sessions);
+        sweep(tokens);
+    }
+
+    private void sweep(SweepTarget target) {
+        long start = System.nanoTime();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp cursorExpiresAt = CURSOR_START;
+        long cursorId = 0;
+        long swept = 0;
+        try {
+            for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+                List<SweptRow> rows = jdbcTemplate.query(target.sql(),
+                        (rs, rowNum) -> new SweptRow(rs.getLong(1), rs.getTimestamp(2)),
+                        now, cursorExpiresAt, cursorId, properties.getChunkSize(), now);
+                swept += rows.size();
+                if (rows.size() < properties.getChunkSize()) {
+                    break;
+                }
+                SweptRow last = rows.stream()
+                        .max((a, b) -> a.expiresAt().equals(b.expiresAt())
+                                ? Long.compare(a.id(), b.id())
+                                : a.expiresAt().compareTo(b.expiresAt()))
+                        .orElseThrow();
+                cursorExpiresAt = last.expiresAt();
+                cursorId = last.id();
+                pause();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Sweeping {} stopped after {} rows", target.table(), swept, e);
+        } finally {
+            target.record(swept, System.nanoTime() - start);
+        }
+        if (swept > 0) {
+            log.info("Swept {} expired rows from {}", swept, target.table());
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenChunks());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record SweptRow(long id, Timestamp expiresAt) {
+    }
+
+    private static final class SweepTarget {
+        private final String table;
+        private final String sql;
+        private final Timer runTimer;
+        private final Counter rows;
+        private final AtomicLong lastRows = new AtomicLong();
+
+        private SweepTarget(String table, String sql, MeterRegistry meterRegistry) {
+            this.table = table;
+            this.sql = sql;
+            this.runTimer = meterRegistry.timer("account.sweeper.run", "table", table);
+            this.rows = meterRegistry.counter("account.sweeper.rows", "table", table);
+            Gauge.builder("account.sweeper.last.rows", lastRows, AtomicLong::get)
+                    .tag("table", table)
+                    .register(meterRegistry);
+        }
+
+        private String table() {
+            return table;
+        }
+
+        private String sql() {
+            return sql;
+        }
+
+        private void record(long swept, long durationNanos) {
+            runTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+            rows.increment(swept);
+            lastRows.set(swept);
+        }
+    }
+}
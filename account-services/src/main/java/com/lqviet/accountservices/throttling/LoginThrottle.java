@@ -0,0 +1,122 @@
+package com.lqviet.accountservices.throttling;
+
+import com.lqviet.accountservices.buffers.LoginStateWriteBehindBuffer;
+import com.lqviet.accountservices.enums.LoginThrottleDecision;
+import com.lqviet.accountservices.properties.LoginThrottleProperties;
+import com.lqviet.accountservices.services.AccountLookupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * In-memory brute-force protection for logins, consulted before any account is loaded.
+ * <p>
+ * Failures are counted in sliding windows per account id and per IP address (the address recorded on
+ * {@code AccountActivity} and {@code AccountSession}). An IP address over its limit is rejected until its older
+ * failures slide out of the window. An account over its limit is locked once: the transition goes through
+ * {@link LoginStateWriteBehindBuffer#lock}, which writes {@code status} and {@code locked_until} only for the
+ * failure that crossed the threshold. Every other failure only adds to the buffered {@code failed_login_attempts}
+ * delta.
+ * <p>
+ * Counters live on this replica only, so with several replicas each enforces its own share of the limit. A lock
+ * is answered from the buffer when this replica knows it, and otherwise from {@code locked_until} of the account
+ * as served by {@link AccountLookupService}, cached and evicted together with the account, so a lock set by
+ * another replica, or one the buffer has forgotten, still holds. Meters: {@code account.login.throttle.rejected} tagged
+ * with {@code reason}, {@code account.login.throttle.keys} tagged with {@code key} (account, ip).
+ */
+@Component
+public class LoginThrottle {
+    private final SlidingWindowCounter<Long> accountFailures;
+    private final SlidingWindowCounter<String> ipFailures;
+    private final LoginStateWriteBehindBuffer loginStateBuffer;
+    private final AccountLookupService accountLookupService;
+    private final LoginThrottleProperties properties;
+    private final Counter ipRejections;
+    private final Counter lockRejections;
+
+    public LoginThrottle(LoginStateWriteBehindBuffer loginStateBuffer,
+                         AccountLookupService accountLookupService,
+                         LoginThrottleProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.loginStateBuffer = loginStateBuffer;
+        this.accountLookupService = accountLookupService;
+        this.properties = properties;
+        this.accountFailures = new SlidingWindowCounter<>(properties.getAccountWindow(),
+                properties.getWindowBuckets(), properties.getLockStripes());
+        this.ipFailures = new SlidingWindowCounter<>(properties.getIpWindow(),
+                properties.getWindowBuckets(), properties.getLockStripes());
+        this.ipRejections = meterRegistry.counter("account.login.throttle.rejected", "reason", "ip");
+        this.lockRejections = meterRegistry.counter("account.login.throttle.rejected", "reason", "locked");
+        Gauge.builder("account.login.throttle.keys", accountFailures, SlidingWindowCounter::size)
+                .tag("key", "account")
+                .register(meterRegistry);
+        Gauge.builder("account.login.throttle.keys", ipFailures, SlidingWindowCounter::size)
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether a login attempt may proceed to the credential check
+     *
+     * @param accountId the account the attempt targets, null when the username is unknown
+     * @param ipAddress the client address, null when not known
+     */
+    public LoginThrottleDecision check(Long accountId, String ipAddress) {
+        if (ipAddress != null && ipFailures.count(ipAddress, System.nanoTime()) >= properties.getIpMaxFailures()) {
+            ipRejections.increment();
+            return LoginThrottleDecision.IP_THROTTLED;
+        }
+        if (accountId != null && (loginStateBuffer.isLocked(accountId) || isLockedInDatabase(accountId))) {
+            lockRejections.increment();
+            return LoginThrottleDecision.ACCOUNT_LOCKED;
+        }
+        return LoginThrottleDecision.ALLOWED;
+    }
+
+    /**
+     * Records a failed credential check
+     *
+     * @return whether the account is locked after this failure
+     */
+    public boolean recordFailure(Long accountId, String ipAddress) {
+        long now = System.nanoTime();
+        if (ipAddress != null) {
+            ipFailures.increment(ipAddress, now);
+        }
+        if (accountId == null) {
+            return false;
+        }
+        loginStateBuffer.recordFailedAttempt(accountId);
+        if (accountFailures.increment(accountId, now) < properties.getAccountMaxFailures()) {
+            return loginStateBuffer.isLocked(accountId);
+        }
+        loginStateBuffer.lock(accountId, LocalDateTime.now().plus(properties.getLockDuration()));
+        return true;
+    }
+
+    /**
+     * Records a successful login; the account's failures are forgotten, those of the IP address are not
+     */
+    public void recordSuccess(Long accountId) {
+        accountFailures.reset(accountId);
+        loginStateBuffer.recordSuccessfulLogin(accountId);
+    }
+
+    private boolean isLockedInDatabase(Long accountId) {
+        LocalDateTime now = LocalDateTime.now();
+        return accountLookupService.findById(accountId)
+                .map(account -> account.getLockedUntil() != null && account.getLockedUntil().isAfter(now))
+                .orElse(false);
+    }
+
+    @Scheduled(fixedDelayString = "${account.login.throttle.purge-interval:1m}")
+    public void purge() {
+        long now = System.nanoTime();
+        accountFailures.purge(now);
+        ipFailures.purge(now);
+    }
+}
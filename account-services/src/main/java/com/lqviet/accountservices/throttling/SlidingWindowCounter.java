@@ -0,0 +1,138 @@
+package com.lqviet.accountservices.throttling;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-key event counts over a sliding window, kept in memory.
+ * <p>
+ * The window is divided into buckets; each key holds a small ring of bucket counts and the count of a key is the
+ * sum of the buckets that still lie within the window, so old events fall out one bucket at a time. Keys are
+ * guarded by a fixed set of striped locks rather than one lock each, which keeps the memory per key to the ring
+ * itself and lets unrelated keys proceed in parallel. Times are {@link System#nanoTime()} readings.
+ */
+public final class SlidingWindowCounter<K> {
+    private final ConcurrentHashMap<K, Window> windows = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final int buckets;
+    private final long bucketNanos;
+
+    public SlidingWindowCounter(Duration window, int buckets, int stripes) {
+        this.buckets = Math.max(1, buckets);
+        this.bucketNanos = Math.max(1, window.toNanos() / this.buckets);
+        this.stripes = new ReentrantLock[Math.max(1, stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Records one event
+     *
+     * @return the count within the window including this event
+     */
+    public int increment(K key, long nowNanos) {
+        long bucket = Math.floorDiv(nowNanos, bucketNanos);
+        ReentrantLock lock = stripe(key);
+        lock.lock();
+        try {
+            return windows.computeIfAbsent(key, k -> new Window(buckets)).add(bucket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int count(K key, long nowNanos) {
+        Window window = windows.get(key);
+        if (window == null) {
+            return 0;
+        }
+        ReentrantLock lock = stripe(key);
+        lock.lock();
+        try {
+            return window.sum(Math.floorDiv(nowNanos, bucketNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void reset(K key) {
+        ReentrantLock lock = stripe(key);
+        lock.lock();
+        try {
+            windows.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the keys without any event left in the window
+     *
+     * @return the number of keys dropped
+     */
+    public int purge(long nowNanos) {
+        long bucket = Math.floorDiv(nowNanos, bucketNanos);
+        int purged = 0;
+        for (K key : windows.keySet()) {
+            ReentrantLock lock = stripe(key);
+            lock.lock();
+            try {
+                Window window = windows.get(key);
+                if (window != null && window.newest <= bucket - buckets) {
+                    windows.remove(key);
+                    purged++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return purged;
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private ReentrantLock stripe(K key) {
+        return stripes[(key.hashCode() & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    /**
+     * Ring of bucket counts, only touched while holding the key's stripe
+     */
+    private static final class Window {
+        private final long[] bucketIds;
+        private final int[] counts;
+        private long newest = Long.MIN_VALUE;
+
+        private Window(int buckets) {
+            this.bucketIds = new long[buckets];
+            this.counts = new int[buckets];
+            Arrays.fill(bucketIds, Long.MIN_VALUE);
+        }
+
+        private int add(long bucket) {
+            int slot = (int) Math.floorMod(bucket, (long) counts.length);
+            if (bucketIds[slot] != bucket) {
+                bucketIds[slot] = bucket;
+                counts[slot] = 0;
+            }
+            counts[slot]++;
+            newest = Math.max(newest, bucket);
+            return sum(bucket);
+        }
+
+        private int sum(long bucket) {
+            int sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (bucketIds[i] > bucket - counts.length && bucketIds[i] <= bucket) {
+                    sum += counts[i];
+                }
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.lqviet.accountservices.tokens;
+
+import java.time.LocalDateTime;
+
+/**
+ * A newly issued token; {@code token} is the only copy of the raw value and is meant to be sent to the account
+ * owner, never stored
+ */
+public record IssuedToken(Long tokenId, String token, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,209 @@
+package com.lqviet.accountservices.tokens;
+
+import com.lqviet.accountservices.filters.BloomFilter;
+import com.lqviet.accountservices.properties.TokenProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Negative-lookup filter over the digests of all live account tokens.
+ * <p>
+ * A digest the filter has never seen cannot belong to a stored token, so guessed or garbage tokens are rejected
+ * without a database round trip; only the configured false positive share still reaches the hash index.
+ * Until the first build has finished the filter is not ready and every lookup goes to the database.
+ * <p>
+ * Tokens issued through this replica are added once their insert has committed. Tokens issued by other replicas
+ * are picked up by an incremental scan by id every refresh interval. So that such a token verifies before the next
+ * refresh, up to {@code missLookupsPerInterval} misses per refresh interval still go to the hash index; every other
+ * miss is answered by the filter alone, however many arrive. Bloom filters cannot forget, so the whole filter is
+ * periodically rebuilt from the live tokens and swapped in; tokens issued while a rebuild runs are added to both
+ * filters. Rebuilds run on a thread of the filter, starting once the application is ready, and stream the table
+ * inside a read-only transaction, without which Postgres would buffer the whole result.
+ * <p>
+ * {@code account.tokens.filter.rejected} counts lookups answered by the filter alone,
+ * {@code account.tokens.filter.miss.lookups} misses sent to the database anyway.
+ */
+@Slf4j
+@Component
+public class TokenBloomFilter {
+    private static final String LIVE_TOKENS_SQL = """
+            SELECT id, token_hash
+            FROM account_tokens
+            WHERE id > ?
+              AND is_deleted = false
+              AND is_used = false
+              AND expires_at > ?
+              AND token_hash IS NOT NULL
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenProperties properties;
+    private final TransactionTemplate readOnly;
+    private final ScheduledExecutorService rebuilds = Executors.newSingleThreadScheduledExecutor(
+            task -> Thread.ofPlatform().name("token-filter-rebuild").daemon(true).unstarted(task));
+    private final Counter rejected;
+    private final Counter missLookups;
+    /**
+     * Refresh interval the miss lookups are currently counted in, and their count within it
+     */
+    private final AtomicLong missWindow = new AtomicLong(-1);
+    private final AtomicInteger missesLookedUp = new AtomicInteger();
+
+    private volatile BloomFilter current;
+    private BloomFilter next;
+    private long highestId;
+
+    public TokenBloomFilter(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            TokenProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnly.setReadOnly(true);
+        this.rejected = meterRegistry.counter("account.tokens.filter.rejected");
+        this.missLookups = meterRegistry.counter("account.tokens.filter.miss.lookups");
+    }
+
+    /**
+     * @return false only when no stored token can have this digest
+     */
+    public boolean mightContain(byte[] digest) {
+        BloomFilter filter = current;
+        if (filter == null) {
+            return true;
+        }
+        long[] hash = TokenDigests.split(digest);
+        if (filter.mightContain(hash[0], hash[1])) {
+            return true;
+        }
+        if (tryMissLookup()) {
+            missLookups.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public synchronized void add(byte[] digest) {
+        long[] hash = TokenDigests.split(digest);
+        if (current != null) {
+            current.put(hash[0], hash[1]);
+        }
+        if (next != null) {
+            next.put(hash[0], hash[1]);
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = properties.getRebuildInterval().toMillis();
+        rebuilds.scheduleWithFixedDelay(this::rebuild, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilds.shutdownNow();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Long live = jdbcTemplate.queryForObject("""
+                    SELECT count(*) FROM account_tokens
+                    WHERE is_deleted = false AND is_used = false AND expires_at > ?
+                    """, Long.class, now);
+            // Leave room for the tokens issued until the next rebuild
+            BloomFilter filter = new BloomFilter(
+                    Math.max(properties.getExpectedTokens(), live == null ? 0 : live * 2),
+                    properties.getFalsePositiveRate());
+            synchronized (this) {
+                next = filter;
+            }
+            // Postgres only streams with a cursor inside a transaction; otherwise the whole table is buffered
+            Long scannedUpTo = readOnly.execute(status -> scan(0, now, digest -> {
+                long[] hash = TokenDigests.split(digest);
+                filter.put(hash[0], hash[1]);
+            }));
+            synchronized (this) {
+                current = filter;
+                next = null;
+                highestId = Math.max(highestId, scannedUpTo == null ? 0 : scannedUpTo);
+            }
+            log.info("Rebuilt the token filter from {} live tokens in {} ms ({} bits, {} hashes)", live,
+                    (System.nanoTime() - start) / 1_000_000, filter.bitSize(), filter.hashCount());
+        } catch (RuntimeException e) {
+            log.warn("Rebuilding the token filter failed, keeping the previous one", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.tokens.refresh-interval:2s}")
+    public void refresh() {
+        if (current == null) {
+            return;
+        }
+        long from;
+        synchronized (this) {
+            from = Math.max(0, highestId - properties.getRefreshOverlap());
+        }
+        try {
+            // Goes through add() so a rebuild running at the same time gets these tokens as well
+            long scannedUpTo = scan(from, Timestamp.valueOf(LocalDateTime.now()), this::add);
+            synchronized (this) {
+                highestId = Math.max(highestId, scannedUpTo);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refreshing the token filter failed", e);
+        }
+    }
+
+    /**
+     * Takes one of the miss lookups of the current refresh interval, if any is left
+     */
+    private boolean tryMissLookup() {
+        long window = System.nanoTime() / Math.max(1, properties.getRefreshInterval().toNanos());
+        long counted = missWindow.get();
+        if (counted != window && missWindow.compareAndSet(counted, window)) {
+            missesLookedUp.set(0);
+        }
+        return missesLookedUp.incrementAndGet() <= properties.getMissLookupsPerInterval();
+    }
+
+    private long scan(long afterId, Timestamp now, Consumer<byte[]> sink) {
+        long[] highest = {afterId};
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(LIVE_TOKENS_SQL);
+            statement.setFetchSize(10_000);
+            statement.setLong(1, afterId);
+            statement.setTimestamp(2, now);
+            return statement;
+        }, rs -> {
+            highest[0] = rs.getLong(1);
+            sink.accept(rs.getBytes(2));
+        });
+        return highest[0];
+    }
+}
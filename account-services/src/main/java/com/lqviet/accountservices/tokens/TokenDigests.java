@@ -0,0 +1,55 @@
+package com.lqviet.accountservices.tokens;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Generation and hashing of account tokens.
+ * <p>
+ * Tokens are 256 random bits, encoded as unpadded base64url so they can be put into links as is. Only their
+ * SHA-256 digest is ever stored, which is fixed-width, so lookups compare 32 bytes instead of a 255-char string.
+ */
+public final class TokenDigests {
+    public static final int DIGEST_LENGTH = 32;
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private TokenDigests() {
+    }
+
+    public static String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    public static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Compares two digests in time independent of where they differ
+     */
+    public static boolean matches(byte[] expected, byte[] actual) {
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * The first 128 bits of a digest as two longs; SHA-256 output is uniformly distributed, so they can be used
+     * as Bloom filter hashes directly
+     */
+    static long[] split(byte[] digest) {
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        return new long[]{buffer.getLong(), buffer.getLong()};
+    }
+}
@@ -0,0 +1,110 @@
+package com.lqviet.accountservices.tokens;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves {@code account_tokens} from raw token values to SHA-256 digests.
+ * <p>
+ * On Postgres, while the old {@code token_value} column still exists, every row gets
+ * {@code token_hash = sha256(token_value)} (so links already sent out keep working) and the column, its unique
+ * constraint and {@code idx_token_value} are dropped. {@code token_hash} is then made NOT NULL and indexed with a
+ * hash index, which suits pure equality lookups on a fixed-width key. Other databases get a plain index.
+ * <p>
+ * Runs before the web server starts, because inserts from the new mapping fail while the NOT NULL
+ * {@code token_value} column is still there; replicas still running the old mapping must be stopped first.
+ * The work is done in one transaction under an advisory lock, so only one replica performs it. Once the table is
+ * in its final shape a boot only reads the catalog: no lock is taken and no DDL is issued, as
+ * {@code SET NOT NULL} alone scans the whole table under an exclusive lock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class TokenHashMigration {
+    private static final long ADVISORY_LOCK_KEY = 7_340_021_015L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        if (!tableExists()) {
+            return;
+        }
+        if (!isPostgres()) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_token_hash ON account_tokens (token_hash)");
+            return;
+        }
+        if (isMigrated()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT 1 FROM (SELECT pg_advisory_xact_lock(?)) AS locked",
+                    Integer.class, ADVISORY_LOCK_KEY);
+            boolean hashed = columnExists("token_value");
+            if (hashed) {
+                jdbcTemplate.execute("ALTER TABLE account_tokens ADD COLUMN IF NOT EXISTS token_hash bytea");
+                int backfilled = jdbcTemplate.update("""
+                        UPDATE account_tokens
+                        SET token_hash = sha256(convert_to(token_value, 'UTF8'))
+                        WHERE token_hash IS NULL
+                        """);
+                jdbcTemplate.execute("ALTER TABLE account_tokens DROP COLUMN token_value");
+                log.info("Replaced {} raw token values by their digests", backfilled);
+            }
+            if (hashed || columnNullable("token_hash")) {
+                jdbcTemplate.execute("ALTER TABLE account_tokens ALTER COLUMN token_hash SET NOT NULL");
+            }
+            if (hashed || !indexExists("idx_token_hash")) {
+                jdbcTemplate.execute(
+                        "CREATE INDEX IF NOT EXISTS idx_token_hash ON account_tokens USING hash (token_hash)");
+            }
+        });
+    }
+
+    /**
+     * Checked without the advisory lock; a replica that sees unfinished work rechecks each step under it
+     */
+    private boolean isMigrated() {
+        return !columnExists("token_value") && !columnNullable("token_hash") && indexExists("idx_token_hash");
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    private boolean tableExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'account_tokens')
+                """, Boolean.class));
+    }
+
+    private boolean columnNullable(String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM information_schema.columns
+                               WHERE table_name = 'account_tokens' AND column_name = ? AND is_nullable = 'YES')
+                """, Boolean.class, column));
+    }
+
+    private boolean indexExists(String index) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_indexes WHERE tablename = 'account_tokens' AND indexname = ?)
+                """, Boolean.class, index));
+    }
+
+    private boolean columnExists(String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM information_schema.columns
+                               WHERE table_name = 'account_tokens' AND column_name = ?)
+                """, Boolean.class, column));
+    }
+}
@@ -0,0 +1,109 @@
+package com.lqviet.accountservices.audit;
+
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.enums.AuditAction;
+import com.lqviet.accountservices.pipelines.BoundedBatchPipeline;
+import com.lqviet.accountservices.properties.AuditProperties;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditEventListenerTest {
+    private static final String[] PROPERTY_NAMES = {"email", "isDeleted", "lastModifiedBy", "password"};
+
+    private BoundedBatchPipeline<AuditChange> pipeline;
+    private AuditProperties properties;
+    private AuditEventListener listener;
+    private EntityPersister persister;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        pipeline = mock(BoundedBatchPipeline.class);
+        when(pipeline.submit(any())).thenReturn(true);
+        properties = new AuditProperties();
+        listener = new AuditEventListener(mock(EntityManagerFactory.class), pipeline, properties);
+        persister = mock(EntityPersister.class);
+        when(persister.getEntityName()).thenReturn(Account.class.getName());
+        when(persister.getPropertyNames()).thenReturn(PROPERTY_NAMES);
+    }
+
+    @Test
+    void capturesOnlyDirtyPropertiesAndMasksSecrets() {
+        listener.onPostUpdate(update(new int[]{0, 3},
+                new Object[]{"old@example.com", false, "3", "old-hash"},
+                new Object[]{"new@example.com", false, "3", "new-hash"}));
+
+        AuditChange change = captured();
+        assertEquals("accounts", change.tableName());
+        assertEquals(7L, change.recordId());
+        assertEquals(7L, change.accountId());
+        assertEquals(AuditAction.UPDATE, change.action());
+        assertArrayEquals(new String[]{"email", "password"}, change.propertyNames());
+        assertArrayEquals(new Object[]{"old@example.com", AuditLogWriter.MASK}, change.oldValues());
+        assertArrayEquals(new Object[]{"new@example.com", AuditLogWriter.MASK}, change.newValues());
+        assertEquals(3L, change.performedBy());
+    }
+
+    @Test
+    void masksTokensByNameSuffix() {
+        when(persister.getPropertyNames()).thenReturn(new String[]{"emailVerificationToken", "refreshToken", "email"});
+
+        listener.onPostUpdate(update(new int[]{0, 1, 2},
+                new Object[]{"old-verification", "old-refresh", "old@example.com"},
+                new Object[]{"new-verification", "new-refresh", "new@example.com"}));
+
+        assertArrayEquals(new Object[]{AuditLogWriter.MASK, AuditLogWriter.MASK, "new@example.com"},
+                captured().newValues());
+    }
+
+    @Test
+    void recordsFlipOfDeletedFlagAsSoftDelete() {
+        listener.onPostUpdate(update(new int[]{1},
+                new Object[]{"reader@example.com", false, null, "hash"},
+                new Object[]{"reader@example.com", true, null, "hash"}));
+
+        assertEquals(AuditAction.SOFT_DELETE, captured().action());
+    }
+
+    @Test
+    void skipsExcludedEntities() {
+        properties.setExcludedEntities(Set.of("Account"));
+
+        listener.onPostUpdate(update(new int[]{0},
+                new Object[]{"old@example.com", false, null, "hash"},
+                new Object[]{"new@example.com", false, null, "hash"}));
+
+        verify(pipeline, never()).submit(any());
+    }
+
+    private PostUpdateEvent update(int[] dirty, Object[] oldState, Object[] state) {
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getEntity()).thenReturn(new Account());
+        when(event.getId()).thenReturn(7L);
+        when(event.getDirtyProperties()).thenReturn(dirty);
+        when(event.getOldState()).thenReturn(oldState);
+        when(event.getState()).thenReturn(state);
+        return event;
+    }
+
+    private AuditChange captured() {
+        ArgumentCaptor<AuditChange> change = ArgumentCaptor.forClass(AuditChange.class);
+        verify(pipeline).submit(change.capture());
+        return change.getValue();
+    }
+}
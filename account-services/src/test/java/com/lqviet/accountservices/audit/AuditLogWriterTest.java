@@ -0,0 +1,59 @@
+package com.lqviet.accountservices.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lqviet.accountservices.entities.AccountAuditLog;
+import com.lqviet.accountservices.enums.AuditAction;
+import com.lqviet.accountservices.repositories.AccountAuditLogBatchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AuditLogWriterTest {
+    private final AccountAuditLogBatchRepository repository = mock(AccountAuditLogBatchRepository.class);
+    private final AuditLogWriter writer = new AuditLogWriter(repository, new ObjectMapper());
+
+    @Test
+    void writesUpdatesAsJsonDiffs() {
+        AccountAuditLog entry = writer.toLog(change(AuditAction.SOFT_DELETE, new String[]{"isDeleted", "password"},
+                new Object[]{false, AuditLogWriter.MASK}, new Object[]{true, AuditLogWriter.MASK}));
+
+        assertEquals(AuditAction.SOFT_DELETE, entry.getAction());
+        assertEquals(7L, entry.getAccountId());
+        assertEquals("{\"isDeleted\":false,\"password\":\"***\"}", entry.getOldValues());
+        assertEquals("{\"isDeleted\":true,\"password\":\"***\"}", entry.getNewValues());
+        assertEquals("isDeleted,password", entry.getChangedFields());
+    }
+
+    @Test
+    void fallsBackToStringsForValuesJacksonCannotWrite() {
+        Object opaque = new Object();
+
+        AccountAuditLog entry = writer.toLog(change(AuditAction.INSERT, new String[]{"value"}, null,
+                new Object[]{opaque}));
+
+        assertNull(entry.getOldValues());
+        assertEquals("{\"value\":\"" + opaque + "\"}", entry.getNewValues());
+    }
+
+    @Test
+    void insertsOneRowPerChangeInOneBatch() {
+        writer.write(List.of(
+                change(AuditAction.INSERT, new String[]{"email"}, null, new Object[]{"a@example.com"}),
+                change(AuditAction.DELETE, new String[]{"email"}, new Object[]{"a@example.com"}, null)));
+
+        verify(repository).insertAll(argThat(logs -> logs.size() == 2
+                && logs.get(0).getAction() == AuditAction.INSERT
+                && logs.get(1).getAction() == AuditAction.DELETE));
+    }
+
+    private static AuditChange change(AuditAction action, String[] names, Object[] oldValues, Object[] newValues) {
+        return new AuditChange("accounts", 7L, 7L, action, names, oldValues, newValues, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,97 @@
+package com.lqviet.accountservices.availability;
+
+import com.lqviet.accountservices.properties.AvailabilityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Backed by a list of username/email pairs standing in for {@code accounts}
+ */
+class AccountIdentifierFilterTest {
+    private final List<String[]> stored = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Runnable> duringScan = new AtomicReference<>(() -> {
+    });
+    private AccountIdentifierFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> (long) stored.size());
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < stored.size(); i++) {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.getLong(1)).thenReturn(i + 1L);
+                when(resultSet.getString(2)).thenReturn(stored.get(i)[0]);
+                when(resultSet.getString(3)).thenReturn(stored.get(i)[1]);
+                handler.processRow(resultSet);
+            }
+            duringScan.get().run();
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        AvailabilityProperties properties = new AvailabilityProperties();
+        properties.setExpectedAccounts(1_000);
+        properties.setFalsePositiveRate(0.0001);
+        filter = new AccountIdentifierFilter(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void defersToDatabaseUntilBuilt() {
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightHoldUsername("anyone"));
+        assertTrue(filter.mightHoldEmail("anyone@example.com"));
+    }
+
+    @Test
+    void holdsOnlyTheStoredValuesOnceBuilt() {
+        stored.add(new String[]{"alice", "alice@example.com"});
+
+        filter.rebuild();
+
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightHoldUsername("alice"));
+        assertTrue(filter.mightHoldEmail("alice@example.com"));
+        assertFalse(filter.mightHoldUsername("bob"));
+        // Usernames and emails are kept apart
+        assertFalse(filter.mightHoldEmail("alice"));
+    }
+
+    @Test
+    void keepsAnAccountAddedWhileRebuilding() {
+        stored.add(new String[]{"alice", "alice@example.com"});
+        filter.rebuild();
+        AtomicReference<Boolean> visibleDuringRebuild = new AtomicReference<>();
+        duringScan.set(() -> {
+            filter.add("bob", "bob@example.com");
+            visibleDuringRebuild.set(filter.mightHoldUsername("bob"));
+        });
+
+        filter.rebuild();
+
+        // Went into the filter in use and into the one being built, which replaced it
+        assertTrue(visibleDuringRebuild.get());
+        assertTrue(filter.mightHoldUsername("bob"));
+        assertTrue(filter.mightHoldEmail("bob@example.com"));
+    }
+}
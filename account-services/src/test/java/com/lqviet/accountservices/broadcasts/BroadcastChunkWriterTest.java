@@ -0,0 +1,93 @@
+package com.lqviet.accountservices.broadcasts;
+
+import com.lqviet.accountservices.entities.NotificationBroadcast;
+import com.lqviet.accountservices.enums.NotificationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs against a local Postgres, like {@code PartitionManagerTest}:
+ * <pre>
+ * ACCOUNT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/noveldb?user=admin&amp;password=secret ./mvnw test
+ * </pre>
+ */
+@EnabledIfEnvironmentVariable(named = "ACCOUNT_TEST_POSTGRES_URL", matches = ".+")
+class BroadcastChunkWriterTest {
+    private static final String SCHEMA = "broadcast_writer_test";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private BroadcastChunkWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("currentSchema", SCHEMA);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getenv("ACCOUNT_TEST_POSTGRES_URL"));
+        dataSource.setConnectionProperties(connectionProperties);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("""
+                CREATE TABLE account_notifications (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    account_id BIGINT NOT NULL,
+                    title VARCHAR(200) NOT NULL,
+                    message VARCHAR(1000),
+                    notification_type VARCHAR(30) NOT NULL,
+                    status VARCHAR(20) NOT NULL,
+                    action_url VARCHAR(500),
+                    expires_at TIMESTAMP,
+                    created_at TIMESTAMP,
+                    updated_at TIMESTAMP,
+                    is_deleted BOOLEAN NOT NULL
+                )
+                """);
+        writer = new BroadcastChunkWriter(dataSource, jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void copiesOneRowPerAccountKeepingQuotedText() {
+        NotificationBroadcast broadcast = NotificationBroadcast.builder()
+                .title("Maintenance, \"tonight\"")
+                .message("Line one\nline two")
+                .notificationType(NotificationType.SYSTEM)
+                .build();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                writer.write(broadcast, List.of(1L, 2L, 3L));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT account_id, title, message, status, action_url FROM account_notifications ORDER BY account_id");
+        assertEquals(3, rows.size());
+        assertEquals(3L, ((Number) rows.get(2).get("account_id")).longValue());
+        assertEquals("Maintenance, \"tonight\"", rows.get(0).get("title"));
+        assertEquals("Line one\nline two", rows.get(0).get("message"));
+        assertEquals("UNREAD", rows.get(0).get("status"));
+        assertNull(rows.get(0).get("action_url"));
+    }
+}
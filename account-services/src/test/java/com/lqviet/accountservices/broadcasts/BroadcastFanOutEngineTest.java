@@ -0,0 +1,95 @@
+package com.lqviet.accountservices.broadcasts;
+
+import com.lqviet.accountservices.entities.NotificationBroadcast;
+import com.lqviet.accountservices.enums.BroadcastStatus;
+import com.lqviet.accountservices.properties.BroadcastProperties;
+import com.lqviet.accountservices.repositories.NotificationBroadcastCheckpointRepository;
+import com.lqviet.accountservices.repositories.NotificationBroadcastRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Planning and resuming against mocked repositories; {@link BroadcastChunkWriterTest} covers the writes
+ */
+class BroadcastFanOutEngineTest {
+    private NotificationBroadcastRepository broadcastRepository;
+    private NotificationBroadcastCheckpointRepository checkpointRepository;
+    private JdbcTemplate jdbcTemplate;
+    private BroadcastFanOutEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        broadcastRepository = mock(NotificationBroadcastRepository.class);
+        checkpointRepository = mock(NotificationBroadcastCheckpointRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        when(jdbcTemplate.queryForMap(anyString())).thenReturn(Map.of("low", 1L, "high", 10L));
+        engine = new BroadcastFanOutEngine(broadcastRepository, checkpointRepository, mock(BroadcastChunkWriter.class),
+                jdbcTemplate, transactionTemplate, mock(ApplicationEventPublisher.class), new BroadcastProperties(),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void resumesBroadcastLeftPending() {
+        NotificationBroadcast pending = broadcast(1L, BroadcastStatus.PENDING);
+        NotificationBroadcast planned = broadcast(1L, BroadcastStatus.RUNNING);
+        when(broadcastRepository.findByStatusIn(List.of(BroadcastStatus.PENDING, BroadcastStatus.RUNNING)))
+                .thenReturn(List.of(pending));
+        when(broadcastRepository.findById(1L)).thenReturn(Optional.of(pending));
+        when(broadcastRepository.save(pending)).thenReturn(planned);
+
+        engine.resume();
+
+        var order = inOrder(jdbcTemplate, checkpointRepository);
+        order.verify(jdbcTemplate).queryForList(contains("FOR UPDATE"), eq(String.class), eq(1L));
+        order.verify(checkpointRepository).saveAll(anyList());
+    }
+
+    @Test
+    void doesNotPlanBroadcastAnotherPlannerStarted() {
+        // Read after the row lock, once the other planner has committed
+        NotificationBroadcast running = broadcast(2L, BroadcastStatus.RUNNING);
+        when(broadcastRepository.findById(2L)).thenReturn(Optional.of(running));
+
+        engine.start(2L);
+
+        verify(jdbcTemplate).queryForList(contains("FOR UPDATE"), eq(String.class), eq(2L));
+        verify(checkpointRepository, never()).saveAll(anyList());
+    }
+
+    private static NotificationBroadcast broadcast(Long id, BroadcastStatus status) {
+        NotificationBroadcast broadcast = mock(NotificationBroadcast.class);
+        when(broadcast.getId()).thenReturn(id);
+        when(broadcast.getStatus()).thenReturn(status);
+        return broadcast;
+    }
+}
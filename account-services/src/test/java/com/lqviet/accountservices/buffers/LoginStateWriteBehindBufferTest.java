@@ -0,0 +1,176 @@
+package com.lqviet.accountservices.buffers;
+
+import com.lqviet.accountservices.audit.JdbcWriteAuditor;
+import com.lqviet.accountservices.entities.Account;
+import com.lqviet.accountservices.enums.AccountChangeType;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.events.AccountChangedEvent;
+import com.lqviet.accountservices.properties.LoginThrottleProperties;
+import com.lqviet.accountservices.properties.LoginWriteBehindProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginStateWriteBehindBufferTest {
+    private JdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private JdbcWriteAuditor auditor;
+    private LoginStateWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        LoginWriteBehindProperties properties = new LoginWriteBehindProperties();
+        properties.setIdleTimeout(Duration.ZERO);
+        auditor = mock(JdbcWriteAuditor.class);
+        buffer = new LoginStateWriteBehindBuffer(jdbcTemplate, eventPublisher, auditor,
+                properties, new LoginThrottleProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void locksExactlyOnceUnderConcurrentFailures() throws InterruptedException {
+        Account account = account(1L, 0);
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger lockedResults = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    if (buffer.recordFailedLogin(account)) {
+                        lockedResults.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        verify(jdbcTemplate, times(1)).update(anyString(), any(PreparedStatementSetter.class));
+        assertEquals(threads - Account.MAX_FAILED_LOGIN_ATTEMPTS + 1, lockedResults.get());
+        assertTrue(buffer.isLocked(1L));
+    }
+
+    @Test
+    void seedsCounterFromLoadedAccount() {
+        Account account = account(2L, Account.MAX_FAILED_LOGIN_ATTEMPTS - 1);
+
+        assertTrue(buffer.recordFailedLogin(account));
+    }
+
+    @Test
+    void successfulLoginClearsLock() {
+        Account account = account(3L, Account.MAX_FAILED_LOGIN_ATTEMPTS - 1);
+        buffer.recordFailedLogin(account);
+
+        buffer.recordSuccessfulLogin(3L);
+
+        assertFalse(buffer.isLocked(3L));
+    }
+
+    @Test
+    void announcesAndAuditsOnlyTheAccountsAFlushUnlocked() {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class),
+                ArgumentMatchers.<RowMapper<LoginStateWriteBehindBuffer.UnlockedAccount>>any()))
+                .thenReturn(List.of(new LoginStateWriteBehindBuffer.UnlockedAccount(4L, AccountStatus.ACTIVE)));
+        buffer.recordSuccessfulLogin(4L);
+        buffer.recordSuccessfulLogin(5L);
+
+        buffer.flush();
+
+        verify(eventPublisher).publishEvent(new AccountChangedEvent(4L, null, null, AccountChangeType.UPDATED));
+        verify(eventPublisher, never())
+                .publishEvent(new AccountChangedEvent(5L, null, null, AccountChangeType.UPDATED));
+        verify(auditor).accountUpdated(eq(4L), any(), any());
+        verify(auditor, never()).accountUpdated(eq(5L), any(), any());
+    }
+
+    @Test
+    void keepsAnIdleLockUntilItRunsOut() {
+        buffer.lock(6L, LocalDateTime.now().plusHours(1));
+
+        buffer.flush();
+        buffer.flush();
+
+        assertTrue(buffer.isLocked(6L));
+        verify(auditor).accountUpdated(eq(6L), any(), any());
+    }
+
+    @Test
+    void leavesALockLiftedBeforeItWasWrittenToTheUnlockPath() throws InterruptedException {
+        // Account 8 gives the flush something to write while it holds the write lock
+        buffer.recordFailedAttempt(8L);
+        AtomicReference<Thread> locker = new AtomicReference<>();
+        AtomicBoolean locked = new AtomicBoolean(true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any())).thenAnswer(invocation -> {
+            if (locker.get() == null) {
+                locker.set(Thread.ofPlatform().start(
+                        () -> locked.set(buffer.lock(7L, LocalDateTime.now().plusHours(1)))));
+                // Parked on the write lock, between deciding to lock and writing it
+                while (locker.get().getState() != Thread.State.WAITING) {
+                    Thread.onSpinWait();
+                }
+                buffer.recordSuccessfulLogin(7L);
+            }
+            return new int[0][];
+        });
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class),
+                ArgumentMatchers.<RowMapper<LoginStateWriteBehindBuffer.UnlockedAccount>>any()))
+                .thenReturn(List.of());
+
+        buffer.flush();
+        locker.get().join();
+        buffer.flush();
+
+        assertFalse(locked.get());
+        assertFalse(buffer.isLocked(7L));
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+        verify(jdbcTemplate).query(any(PreparedStatementCreator.class),
+                ArgumentMatchers.<RowMapper<LoginStateWriteBehindBuffer.UnlockedAccount>>any());
+    }
+
+    private static Account account(Long id, int failedAttempts) {
+        Account account = mock(Account.class);
+        when(account.getId()).thenReturn(id);
+        when(account.getFailedLoginAttempts()).thenReturn(failedAttempts);
+        return account;
+    }
+}
@@ -0,0 +1,91 @@
+package com.lqviet.accountservices.buffers;
+
+import com.lqviet.accountservices.properties.SessionActivityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the flush statement against a local Postgres, like {@code PartitionManagerTest}:
+ * <pre>
+ * ACCOUNT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/noveldb?user=admin&amp;password=secret ./mvnw test
+ * </pre>
+ * Everything happens in a throwaway schema that is dropped afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "ACCOUNT_TEST_POSTGRES_URL", matches = ".+")
+class SessionActivityTrackerPostgresTest {
+    private static final String SCHEMA = "session_activity_test";
+    private static final LocalDateTime STARTED = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private SessionActivityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("currentSchema", SCHEMA);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getenv("ACCOUNT_TEST_POSTGRES_URL"));
+        dataSource.setConnectionProperties(connectionProperties);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("""
+                CREATE TABLE account_sessions (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    session_token VARCHAR(255) NOT NULL UNIQUE,
+                    last_activity_at TIMESTAMP NOT NULL
+                )
+                """);
+        jdbcTemplate.update("INSERT INTO account_sessions (session_token, last_activity_at) VALUES (?, ?), (?, ?)",
+                "session-1", Timestamp.valueOf(STARTED), "session-2", Timestamp.valueOf(STARTED));
+        tracker = new SessionActivityTracker(jdbcTemplate, new SessionActivityProperties(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void writesTheLatestActivityOfEverySession() {
+        tracker.touch("session-1", millis(STARTED.plusMinutes(5)));
+        tracker.touch("session-1", millis(STARTED.plusMinutes(7)));
+        tracker.touch("session-2", millis(STARTED.plusMinutes(3)));
+
+        tracker.flush();
+
+        assertEquals(STARTED.plusMinutes(7), lastActivity("session-1"));
+        assertEquals(STARTED.plusMinutes(3), lastActivity("session-2"));
+    }
+
+    @Test
+    void neverMovesActivityBackwards() {
+        jdbcTemplate.update("UPDATE account_sessions SET last_activity_at = ? WHERE session_token = 'session-1'",
+                Timestamp.valueOf(STARTED.plusHours(1)));
+        tracker.touch("session-1", millis(STARTED.plusMinutes(5)));
+
+        tracker.flush();
+
+        assertEquals(STARTED.plusHours(1), lastActivity("session-1"));
+    }
+
+    private LocalDateTime lastActivity(String sessionToken) {
+        return jdbcTemplate.queryForObject("SELECT last_activity_at FROM account_sessions WHERE session_token = ?",
+                Timestamp.class, sessionToken).toLocalDateTime();
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,171 @@
+package com.lqviet.accountservices.buffers;
+
+import com.lqviet.accountservices.properties.SessionActivityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Backed by a map of written activity standing in for {@code account_sessions.last_activity_at}
+ */
+class SessionActivityTrackerTest {
+    private static final long GRANULARITY = Duration.ofMinutes(1).toMillis();
+
+    private final Map<String, Long> written = new ConcurrentHashMap<>();
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicReference<Runnable> duringWrite = new AtomicReference<>(() -> {
+    });
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate jdbcTemplate;
+    private SessionActivityTracker tracker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            statements.incrementAndGet();
+            duringWrite.get().run();
+            Map<Integer, String> tokens = new ConcurrentHashMap<>();
+            PreparedStatement statement = mock(PreparedStatement.class);
+            doAnswer(set -> tokens.put(set.getArgument(0), set.getArgument(1)))
+                    .when(statement).setString(anyInt(), anyString());
+            doAnswer(set -> written.merge(tokens.get(set.<Integer>getArgument(0) - 1),
+                    set.<Timestamp>getArgument(1).getTime(), Long::max))
+                    .when(statement).setTimestamp(anyInt(), any(Timestamp.class));
+            invocation.<PreparedStatementSetter>getArgument(1).setValues(statement);
+            return tokens.size();
+        });
+        SessionActivityProperties properties = new SessionActivityProperties();
+        properties.setGranularity(Duration.ofMillis(GRANULARITY));
+        properties.setMaxRowsPerStatement(100);
+        tracker = new SessionActivityTracker(jdbcTemplate, properties, meterRegistry);
+    }
+
+    @Test
+    void coalescesTouchesIntoOneRow() {
+        long now = System.currentTimeMillis();
+        tracker.touch("session-1", now);
+        tracker.touch("session-1", now + 1_000);
+        tracker.touch("session-1", now + 500);
+
+        tracker.flush();
+
+        assertEquals(Map.of("session-1", now + 1_000), written);
+        assertEquals(1, statements.get());
+        assertEquals(3.0, meterRegistry.counter("account.session.activity.touches").count());
+        assertEquals(1.0, meterRegistry.counter("account.session.activity.rows.written").count());
+    }
+
+    @Test
+    void writesAgainOnlyOnceGranularityHasPassed() {
+        long now = System.currentTimeMillis();
+        tracker.touch("session-1", now);
+        tracker.flush();
+
+        assertFalse(tracker.touch("session-1", now + GRANULARITY - 1));
+        tracker.flush();
+        assertEquals(1, statements.get());
+
+        assertTrue(tracker.touch("session-1", now + GRANULARITY));
+        tracker.flush();
+        assertEquals(now + GRANULARITY, written.get("session-1"));
+    }
+
+    @Test
+    void batchesSessionsIntoChunks() {
+        long now = System.currentTimeMillis();
+        IntStream.range(0, 250).forEach(i -> tracker.touch("session-" + i, now));
+
+        tracker.flush();
+
+        assertEquals(3, statements.get());
+        assertEquals(250, written.size());
+    }
+
+    @Test
+    void writesAgainAfterFailedFlush() {
+        long now = System.currentTimeMillis();
+        tracker.touch("session-1", now);
+        duringWrite.set(() -> {
+            throw new IllegalStateException("database unavailable");
+        });
+        tracker.flush();
+
+        duringWrite.set(() -> {
+        });
+        tracker.flush();
+
+        assertEquals(now, written.get("session-1"));
+    }
+
+    @Test
+    void keepsTouchThatArrivesWhileFlushWrites() {
+        long now = System.currentTimeMillis();
+        tracker.touch("session-1", now);
+        duringWrite.set(() -> tracker.touch("session-1", now + GRANULARITY));
+        tracker.flush();
+
+        duringWrite.set(() -> {
+        });
+        tracker.flush();
+
+        assertEquals(now + GRANULARITY, written.get("session-1"));
+    }
+
+    @Test
+    void keepsTouchThatRacesIdleRemoval() throws InterruptedException {
+        // Written long ago, so the next flush finds every session idle and drops it
+        long idle = System.currentTimeMillis() - Duration.ofDays(1).toMillis();
+        List<String> sessions = IntStream.range(0, 20_000).mapToObj(i -> "session-" + i).toList();
+        sessions.forEach(session -> tracker.touch(session, idle));
+        tracker.flush();
+        long now = System.currentTimeMillis();
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread toucher = Thread.ofPlatform().start(() -> {
+            awaitQuietly(start);
+            sessions.forEach(session -> tracker.touch(session, now));
+        });
+        Thread flusher = Thread.ofPlatform().start(() -> {
+            awaitQuietly(start);
+            tracker.flush();
+        });
+        start.countDown();
+        toucher.join();
+        flusher.join();
+        tracker.flush();
+
+        assertTrue(sessions.stream().allMatch(session -> written.get(session) == now));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.lqviet.accountservices.caches;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.enums.AccountChangeType;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.enums.AccountType;
+import com.lqviet.accountservices.events.AccountChangedEvent;
+import com.lqviet.accountservices.properties.AccountCacheProperties;
+import com.lqviet.accountservices.properties.SharedCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AccountNearCacheTest {
+    private AccountNearCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cache = new AccountNearCache(new AccountCacheProperties(),
+                new SharedCacheTier(null, new SharedCacheProperties(), meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void servesAllKeysFromOneLoad() {
+        cache.getById(1L, id -> load(account(1L, "reader", "reader@example.com")));
+
+        assertEquals("reader", cache.getByUsername("reader", () -> load(null)).getUsername());
+        assertEquals(1L, cache.getByEmail("reader@example.com", () -> load(null)).getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictsEveryKeyOnAccountChange() {
+        cache.put(account(1L, "reader", "reader@example.com"));
+
+        cache.onAccountChanged(new AccountChangedEvent(1L, "reader", "reader@example.com", AccountChangeType.UPDATED));
+
+        assertNull(cache.getIfPresent(1L));
+        assertNull(cache.getByUsername("reader", () -> load(null)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void ignoresStaleUsernameIndexAfterRename() {
+        cache.put(account(1L, "reader", "reader@example.com"));
+        cache.put(account(1L, "renamed", "reader@example.com"));
+
+        AccountResponse result = cache.getByUsername("reader", () -> load(null));
+
+        assertNull(result);
+        assertEquals(1, loads.get());
+    }
+
+    private AccountResponse load(AccountResponse account) {
+        loads.incrementAndGet();
+        return account;
+    }
+
+    private static AccountResponse account(Long id, String username, String email) {
+        return new AccountResponse(id, null, null, null, null, username, email, null, null, null,
+                AccountStatus.ACTIVE, AccountType.USER, true, null);
+    }
+}
@@ -0,0 +1,65 @@
+package com.lqviet.accountservices.caches;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lqviet.accountservices.events.AccountSettingsChangedEvent;
+import com.lqviet.accountservices.properties.AccountSettingsProperties;
+import com.lqviet.accountservices.properties.SharedCacheProperties;
+import com.lqviet.accountservices.settings.AccountSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AccountSettingsCacheTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger loads = new AtomicInteger();
+    private AccountSettingsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cache = new AccountSettingsCache(new AccountSettingsProperties(),
+                new SharedCacheTier(null, new SharedCacheProperties(), meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void servesRepeatedReadsFromOneLoad() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void reloadsAfterChange() {
+        cache.get(1L, this::load);
+
+        cache.onSettingsChanged(new AccountSettingsChangedEvent(1L));
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void neverCachesALoadThatRacedWithAChange() {
+        cache.get(1L, (id, version) -> {
+            AccountSettings stale = load(id, version);
+            cache.evict(id);
+            return stale;
+        });
+        AccountSettings fresh = cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(fresh, cache.get(1L, this::load));
+        assertEquals(2, loads.get());
+    }
+
+    private AccountSettings load(Long accountId, Long version) {
+        loads.incrementAndGet();
+        return AccountSettings.build(accountId, version, List.of(), objectMapper);
+    }
+}
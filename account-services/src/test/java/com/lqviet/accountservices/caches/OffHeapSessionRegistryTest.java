@@ -0,0 +1,69 @@
+package com.lqviet.accountservices.caches;
+
+import com.lqviet.accountservices.enums.SessionStatus;
+import com.lqviet.accountservices.enums.SessionValidity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OffHeapSessionRegistryTest {
+    private static final long NOW = 1_760_000_000_000L;
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void validatesStatusAndExpiry() throws IOException {
+        try (OffHeapSessionRegistry registry = new OffHeapSessionRegistry(directory.resolve("sessions.bin"), 1024)) {
+            registry.put("active", 1L, SessionStatus.ACTIVE, NOW + HOUR, NOW);
+            registry.put("expired", 2L, SessionStatus.ACTIVE, NOW - 1, NOW - HOUR);
+            registry.put("terminated", 3L, SessionStatus.ACTIVE, NOW + HOUR, NOW);
+            registry.updateStatus("terminated", SessionStatus.TERMINATED);
+
+            assertEquals(SessionValidity.VALID, registry.validate("active", NOW));
+            assertEquals(SessionValidity.INVALID, registry.validate("expired", NOW));
+            assertEquals(SessionValidity.INVALID, registry.validate("terminated", NOW));
+            assertEquals(SessionValidity.UNKNOWN, registry.validate("unknown", NOW));
+            assertEquals(1L, registry.accountId("active"));
+        }
+    }
+
+    @Test
+    void survivesReopenButOnlyVouchesForReconfirmedSessions() throws IOException {
+        Path file = directory.resolve("sessions.bin");
+        try (OffHeapSessionRegistry registry = new OffHeapSessionRegistry(file, 1024)) {
+            registry.put("token", 42L, SessionStatus.ACTIVE, NOW + HOUR, NOW);
+            registry.put("terminated", 43L, SessionStatus.TERMINATED, NOW + HOUR, NOW);
+        }
+        try (OffHeapSessionRegistry registry = new OffHeapSessionRegistry(file, 1024)) {
+            assertEquals(SessionValidity.UNKNOWN, registry.validate("token", NOW));
+            assertEquals(SessionValidity.INVALID, registry.validate("terminated", NOW));
+            assertEquals(42L, registry.accountId("token"));
+            assertEquals(2, registry.size());
+
+            registry.put("token", 42L, SessionStatus.ACTIVE, NOW + HOUR, NOW);
+            assertEquals(SessionValidity.VALID, registry.validate("token", NOW));
+        }
+    }
+
+    @Test
+    void purgeAndCompactionKeepLiveSessions() throws IOException {
+        try (OffHeapSessionRegistry registry = new OffHeapSessionRegistry(directory.resolve("sessions.bin"), 4096)) {
+            for (int i = 0; i < 1000; i++) {
+                registry.put("expired-" + i, i, SessionStatus.ACTIVE, NOW - 1, NOW);
+            }
+            registry.put("live", 7L, SessionStatus.ACTIVE, NOW + HOUR, NOW);
+
+            assertEquals(1000, registry.purgeExpired(NOW));
+
+            assertEquals(1, registry.size());
+            assertEquals(SessionValidity.VALID, registry.validate("live", NOW));
+            assertEquals(SessionValidity.UNKNOWN, registry.validate("expired-1", NOW));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.lqviet.accountservices.caches;
+
+import com.lqviet.accountservices.properties.SharedCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two replicas sharing an in-memory stand-in for Redis
+ */
+class SharedCacheTierTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private InMemoryStore store;
+    private SharedCacheTier first;
+    private SharedCacheTier second;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryStore();
+        first = replica();
+        second = replica();
+    }
+
+    @Test
+    void secondReplicaIsServedFromSharedTier() {
+        assertEquals("reader", first.load("account", 1L, () -> load("reader"), false));
+        assertEquals("reader", second.load("account", 1L, () -> load("other"), false));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidationReachesOtherReplicas() {
+        List<String> evicted = new CopyOnWriteArrayList<>();
+        second.onInvalidation("account", evicted::add);
+        first.load("account", 1L, () -> load("reader"), false);
+
+        first.evict("account", 1L);
+
+        assertEquals(List.of("1"), evicted);
+        assertEquals("renamed", second.load("account", 1L, () -> load("renamed"), false));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void remembersMissingKeysUntilInvalidated() {
+        assertNull(first.load("account-username", "ghost", () -> load(null), true));
+        assertNull(second.load("account-username", "ghost", () -> load("unexpected"), true));
+        assertEquals(1, loads.get());
+
+        first.evict("account-username", "ghost");
+
+        assertEquals("ghost", second.load("account-username", "ghost", () -> load("ghost"), true));
+    }
+
+    @Test
+    void slowLoadDoesNotReinstallRowDeletedByAnotherReplica() {
+        // the delete lands in the store while its invalidation message is still on the way to the first replica
+        assertEquals("reader", first.load("account", 1L, () -> {
+            store.delete("account:1");
+            return load("reader");
+        }, false));
+
+        assertEquals("renamed", second.load("account", 1L, () -> load("renamed"), false));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws InterruptedException {
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    first.load("account", 1L, () -> {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return load("reader");
+                    }, false);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        Thread.sleep(100);
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, loads.get());
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private SharedCacheTier replica() {
+        SharedCacheProperties properties = new SharedCacheProperties();
+        properties.setLoadWait(Duration.ofMillis(50));
+        SharedCacheTier tier = new SharedCacheTier(store, properties, new SimpleMeterRegistry());
+        store.subscribers.add(tier);
+        return tier;
+    }
+
+    private static final class InMemoryStore implements SharedCacheStore {
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+        private final Map<String, Long> generations = new ConcurrentHashMap<>();
+        private final List<SharedCacheTier> subscribers = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object get(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public long generation(String key) {
+            return generations.getOrDefault(key, 0L);
+        }
+
+        @Override
+        public synchronized boolean putIfGeneration(String key, Object value, Duration timeToLive, long generation) {
+            if (generation(key) != generation) {
+                return false;
+            }
+            values.put(key, value);
+            return true;
+        }
+
+        @Override
+        public synchronized void delete(String key) {
+            values.remove(key);
+            generations.merge(key, 1L, Long::sum);
+        }
+
+        @Override
+        public boolean tryLock(String key, Duration lease) {
+            return values.putIfAbsent(key + ":lock", Boolean.TRUE) == null;
+        }
+
+        @Override
+        public void unlock(String key) {
+            values.remove(key + ":lock");
+        }
+
+        @Override
+        public void publish(String message) {
+            subscribers.forEach(subscriber -> subscriber.applyInvalidation(message));
+        }
+    }
+}
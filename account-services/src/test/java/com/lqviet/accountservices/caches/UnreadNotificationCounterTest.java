@@ -0,0 +1,65 @@
+package com.lqviet.accountservices.caches;
+
+import com.lqviet.accountservices.events.AccountNotificationsChangedEvent;
+import com.lqviet.accountservices.properties.AccountNotificationProperties;
+import com.lqviet.accountservices.repositories.AccountNotificationFeedRepository;
+import com.lqviet.accountservices.repositories.AccountNotificationFeedRepository.UnreadCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadNotificationCounterTest {
+    private AccountNotificationFeedRepository repository;
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AccountNotificationFeedRepository.class);
+        counter = new UnreadNotificationCounter(repository, new AccountNotificationProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void appliesDeltasWithoutRecounting() {
+        when(repository.countUnread(eq(1L), any(LocalDateTime.class))).thenReturn(new UnreadCount(3, null));
+        counter.get(1L);
+
+        counter.onNotificationsChanged(new AccountNotificationsChangedEvent(1L, 1, null));
+        counter.onNotificationsChanged(new AccountNotificationsChangedEvent(1L, -2, null));
+
+        assertEquals(2, counter.get(1L));
+        verify(repository, times(1)).countUnread(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void recountsOnceANotificationExpired() {
+        when(repository.countUnread(eq(1L), any(LocalDateTime.class)))
+                .thenReturn(new UnreadCount(1, LocalDateTime.now().minusSeconds(1)))
+                .thenReturn(new UnreadCount(0, null));
+        counter.get(1L);
+
+        assertEquals(0, counter.get(1L));
+        verify(repository, times(2)).countUnread(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void doesNotCacheACountThatRacedWithADelta() {
+        when(repository.countUnread(eq(1L), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            counter.onNotificationsChanged(new AccountNotificationsChangedEvent(1L, 1, null));
+            return new UnreadCount(5, null);
+        }).thenReturn(new UnreadCount(6, null));
+
+        counter.get(1L);
+
+        assertEquals(6, counter.get(1L));
+    }
+}
@@ -0,0 +1,90 @@
+package com.lqviet.accountservices.clients;
+
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.dtos.responses.AccountSummaryResponse;
+import com.lqviet.accountservices.properties.BatchLookupProperties;
+import com.lqviet.accountservices.services.AccountBatchLookupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoalescingAccountClientTest {
+    private final List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+    private CoalescingAccountClient client;
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+    }
+
+    @Test
+    void concurrentLookupsShareOneBatch() {
+        client = newClient(10, Duration.ofMillis(100));
+
+        CompletableFuture<Optional<AccountSummaryResponse>> first = client.findById(1L);
+        CompletableFuture<Optional<AccountSummaryResponse>> second = client.findById(2L);
+        CompletableFuture<Optional<AccountSummaryResponse>> again = client.findById(1L);
+
+        assertEquals(1L, first.join().orElseThrow().getAccount().getId());
+        assertEquals(2L, second.join().orElseThrow().getAccount().getId());
+        assertEquals(1L, again.join().orElseThrow().getAccount().getId());
+        assertEquals(List.of(Set.of(1L, 2L)), batches);
+    }
+
+    @Test
+    void sendsAFullBatchWithoutWaitingForTheWindow() throws Exception {
+        client = newClient(2, Duration.ofMinutes(1));
+
+        CompletableFuture<Optional<AccountSummaryResponse>> first = client.findById(1L);
+        CompletableFuture<Optional<AccountSummaryResponse>> missing = client.findById(-1L);
+
+        assertTrue(first.get(5, TimeUnit.SECONDS).isPresent());
+        assertTrue(missing.get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    private CoalescingAccountClient newClient(int maxKeys, Duration window) {
+        BatchLookupProperties properties = new BatchLookupProperties();
+        properties.setMaxKeys(maxKeys);
+        properties.setCoalesceWindow(window);
+        return new CoalescingAccountClient(new RecordingLookupService(), properties, new SimpleMeterRegistry());
+    }
+
+    private static AccountSummaryResponse summary(Long id) {
+        AccountResponse account = new AccountResponse(id, null, null, null, null, "user_" + id,
+                "user_" + id + "@example.com", null, null, null, null, null, null, null);
+        return new AccountSummaryResponse(account, "User " + id, null);
+    }
+
+    /**
+     * Knows every positive id
+     */
+    private class RecordingLookupService implements AccountBatchLookupService {
+        @Override
+        public void findAll(Collection<Long> ids, Collection<String> usernames,
+                            Consumer<AccountSummaryResponse> consumer) {
+            ids.stream().filter(id -> id > 0).map(CoalescingAccountClientTest::summary).forEach(consumer);
+        }
+
+        @Override
+        public Map<Long, AccountSummaryResponse> findAllById(Collection<Long> ids) {
+            batches.add(Set.copyOf(ids));
+            return ids.stream().filter(id -> id > 0)
+                    .collect(Collectors.toMap(id -> id, CoalescingAccountClientTest::summary));
+        }
+    }
+}
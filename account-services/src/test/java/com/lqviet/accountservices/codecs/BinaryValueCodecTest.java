@@ -0,0 +1,55 @@
+package com.lqviet.accountservices.codecs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryValueCodecTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BinaryValueCodec codec = new BinaryValueCodec(objectMapper.getFactory(), 256);
+    private final FieldDictionary dictionary = new FieldDictionary(7, "accounts",
+            List.of("email", "status", "loginCount", "balance"));
+
+    @Test
+    void roundTripsJsonUsingTheDictionary() throws Exception {
+        String json = """
+                {"email": "reader@example.com", "status": "ACTIVE", "loginCount": -42, "balance": 10.50,
+                 "tags": ["a", null, true, false], "nested": {"big": 123456789012345678901234567890}}
+                """;
+
+        byte[] encoded = codec.encode(json, dictionary);
+        String decoded = codec.decode(encoded, id -> dictionary);
+
+        assertEquals(objectMapper.readTree(json), objectMapper.readTree(decoded));
+        assertTrue(decoded.contains("10.50"));
+        assertTrue(encoded.length < json.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void keepsTextThatIsNotJsonUnchanged() {
+        String text = "device=android; build 12 {beta";
+
+        assertEquals(text, codec.decode(codec.encode(text, dictionary), id -> dictionary));
+    }
+
+    @Test
+    void compressesLargeValues() throws Exception {
+        String json = objectMapper.writeValueAsString(Collections.nCopies(200, "chapter-unlocked"));
+
+        byte[] encoded = codec.encode(json, FieldDictionary.EMPTY);
+
+        assertEquals(BinaryValueCodec.COMPRESSED, encoded[0]);
+        assertEquals(json, codec.decode(encoded, id -> null));
+    }
+
+    @Test
+    void decodesPlainUtf8AsText() {
+        assertEquals("{\"a\":1}", codec.decode("{\"a\":1}".getBytes(StandardCharsets.UTF_8), id -> null));
+    }
+}
@@ -0,0 +1,80 @@
+package com.lqviet.accountservices.concurrency;
+
+import com.lqviet.accountservices.properties.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class RequestConcurrencyLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RequestConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setMaxConcurrentRequests(1);
+        properties.setAcquireTimeout(Duration.ofMillis(10));
+        limiter = new RequestConcurrencyLimiter(mock(DataSource.class), properties, meterRegistry);
+    }
+
+    @Test
+    void releasesWhenSynchronousRequestReturns() throws Exception {
+        assertEquals(200, filter(request("/api/v1/accounts/1"), (request, response) -> {
+        }).getStatus());
+
+        assertEquals(0.0, inFlight());
+        assertEquals(200, filter(request("/api/v1/accounts/1"), (request, response) -> {
+        }).getStatus());
+    }
+
+    @Test
+    void holdsPermitUntilAsyncProcessingCompletes() throws Exception {
+        MockHttpServletRequest streaming = request("/api/v1/accounts/export");
+        filter(streaming, (request, response) -> request.startAsync());
+
+        assertEquals(1.0, inFlight());
+        assertEquals(503, filter(request("/api/v1/accounts/1"), (request, response) -> {
+        }).getStatus());
+
+        ((MockAsyncContext) streaming.getAsyncContext()).complete();
+
+        assertEquals(0.0, inFlight());
+        assertEquals(200, filter(request("/api/v1/accounts/1"), (request, response) -> {
+        }).getStatus());
+    }
+
+    @Test
+    void leavesNonApiRequestsAlone() throws Exception {
+        MockHttpServletRequest streaming = request("/api/v1/accounts/export");
+        filter(streaming, (request, response) -> request.startAsync());
+
+        assertEquals(200, filter(request("/actuator/health"), (request, response) -> {
+        }).getStatus());
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        limiter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("account.concurrency.in.flight").gauge().value();
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
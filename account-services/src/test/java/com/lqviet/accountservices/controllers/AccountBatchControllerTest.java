@@ -0,0 +1,88 @@
+package com.lqviet.accountservices.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lqviet.accountservices.dtos.requests.AccountBatchRequest;
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.dtos.responses.AccountSummaryResponse;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.enums.AccountType;
+import com.lqviet.accountservices.properties.BatchLookupProperties;
+import com.lqviet.accountservices.services.AccountBatchLookupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class AccountBatchControllerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private AccountBatchLookupService lookupService;
+    private AccountBatchController controller;
+
+    @BeforeEach
+    void setUp() {
+        lookupService = mock(AccountBatchLookupService.class);
+        BatchLookupProperties properties = new BatchLookupProperties();
+        properties.setMaxKeys(3);
+        controller = new AccountBatchController(lookupService, properties, objectMapper);
+    }
+
+    @Test
+    void rejectsMoreKeysThanAllowed() {
+        AccountBatchRequest request = new AccountBatchRequest(List.of(1L, 2L), List.of("reader", "writer"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> controller.findAll(request));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        verifyNoInteractions(lookupService);
+    }
+
+    @Test
+    void streamsEveryAccountHandedOut() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<AccountSummaryResponse> consumer = invocation.getArgument(2);
+            consumer.accept(summary(1L, "reader"));
+            consumer.accept(summary(2L, "writer"));
+            return null;
+        }).when(lookupService).findAll(eq(List.of(1L)), eq(List.of("writer")), any());
+
+        JsonNode body = write(controller.findAll(new AccountBatchRequest(List.of(1L), List.of("writer"))));
+
+        assertEquals(2, body.size());
+        assertEquals("writer", body.get(1).path("account").path("username").asText());
+    }
+
+    @Test
+    void streamsEmptyArrayForMissingKeys() throws Exception {
+        JsonNode body = write(controller.findAll(new AccountBatchRequest(null, Collections.emptyList())));
+
+        assertEquals(0, body.size());
+    }
+
+    private JsonNode write(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    private static AccountSummaryResponse summary(Long id, String username) {
+        return new AccountSummaryResponse(new AccountResponse(id, null, null, null, null, username,
+                username + "@example.com", null, null, null, AccountStatus.ACTIVE, AccountType.USER, true, null),
+                "Reader", null);
+    }
+}
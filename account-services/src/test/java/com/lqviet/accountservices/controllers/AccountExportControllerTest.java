@@ -0,0 +1,56 @@
+package com.lqviet.accountservices.controllers;
+
+import com.lqviet.accountservices.enums.ExportFormat;
+import com.lqviet.accountservices.properties.AccountExportProperties;
+import com.lqviet.accountservices.services.AccountExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountExportControllerTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(AccountExportService.class, () -> mock(AccountExportService.class))
+            .withBean(AccountExportProperties.class)
+            .withUserConfiguration(AccountExportController.class);
+
+    @Test
+    void isNotMappedUnlessEnabled() {
+        contextRunner.run(context -> assertTrue(context.getBeansOfType(AccountExportController.class).isEmpty()));
+        contextRunner.withPropertyValues("account.export.enabled=true")
+                .run(context -> assertEquals(1, context.getBeansOfType(AccountExportController.class).size()));
+    }
+
+    @Test
+    void streamsUnderItsOwnTimeout() throws Exception {
+        AccountExportService exportService = mock(AccountExportService.class);
+        when(exportService.export(eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+        AccountExportProperties properties = new AccountExportProperties();
+        properties.setTimeout(Duration.ofMinutes(5));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        WebAsyncTask<Void> task = new AccountExportController(exportService, properties)
+                .export(ExportFormat.CSV, response);
+        task.getCallable().call();
+
+        assertEquals(Duration.ofMinutes(5).toMillis(), task.getTimeout());
+        assertEquals("text/csv", response.getContentType());
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).contains(".csv"));
+        assertEquals("id\n1\n", response.getContentAsString());
+    }
+}
@@ -0,0 +1,51 @@
+package com.lqviet.accountservices.filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverRejectsAnAddedKey() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String key = UUID.randomUUID().toString();
+            keys.add(key);
+            filter.put(key);
+        }
+        keys.forEach(key -> assertTrue(filter.mightContain(key)));
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("stranger-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void reportsTheRateOfItsCurrentFill() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        assertEquals(0.0, filter.currentFalsePositiveRate());
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("member-" + i);
+        }
+        double rate = filter.currentFalsePositiveRate();
+        assertTrue(rate > 0.005 && rate < 0.02, "rate: " + rate);
+    }
+}
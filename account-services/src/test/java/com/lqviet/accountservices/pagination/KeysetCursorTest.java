@@ -0,0 +1,43 @@
+package com.lqviet.accountservices.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 17, 12, 30, 15, 123_000_000);
+
+    @Test
+    void roundTripsThroughItsEncoding() {
+        KeysetCursor cursor = new KeysetCursor(CREATED_AT, 1, 42);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void rejectsForeignCursors() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(
+                new KeysetCursor(CREATED_AT, 1, 42).encode().substring(4)));
+    }
+
+    @Test
+    void boundsEachSourceByItsPlaceInTheOrder() {
+        KeysetCursor cursor = new KeysetCursor(CREATED_AT, 1, 42);
+
+        // Same created_at: lower sources sort after the cursor, the cursor's own source from the next id on,
+        // higher sources already came before it
+        assertEquals(Long.MAX_VALUE, cursor.idBoundFor(0));
+        assertEquals(42, cursor.idBoundFor(1));
+        assertEquals(Long.MIN_VALUE, cursor.idBoundFor(2));
+    }
+
+    @Test
+    void startBoundsNothing() {
+        assertEquals(Long.MAX_VALUE, KeysetCursor.START.idBoundFor(0));
+        assertEquals(Long.MAX_VALUE, KeysetCursor.START.idBoundFor(1));
+    }
+}
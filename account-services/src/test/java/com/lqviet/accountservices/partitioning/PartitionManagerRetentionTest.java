@@ -0,0 +1,113 @@
+package com.lqviet.accountservices.partitioning;
+
+import com.lqviet.accountservices.properties.PartitioningProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Retention decisions against a mocked database; {@link PartitionManagerTest} covers the SQL itself on Postgres
+ */
+class PartitionManagerRetentionTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+    private static final Timestamp CUTOFF = Timestamp.valueOf("2025-10-01 00:00:00");
+    private static final String DELETE_DEFAULT = "DELETE FROM account_activities_default WHERE ctid = ANY"
+            + " (ARRAY(SELECT ctid FROM account_activities_default WHERE activity_date < ? LIMIT ?))";
+    private static final String DELETE_LEGACY = "DELETE FROM account_activities_legacy WHERE ctid = ANY"
+            + " (ARRAY(SELECT ctid FROM account_activities_legacy WHERE activity_date < ? LIMIT ?))";
+
+    private JdbcTemplate jdbcTemplate;
+    private PartitionManager partitionManager;
+    private final AtomicInteger locksGranted = new AtomicInteger(Integer.MAX_VALUE);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), any()))
+                .thenAnswer(invocation -> locksGranted.getAndDecrement() > 0);
+        when(jdbcTemplate.queryForObject(contains("IS NOT NULL"), eq(Boolean.class), any())).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Boolean.class), any())).thenReturn(true);
+        legacyBound("2026-01-01");
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class), eq("account_activities")))
+                .thenReturn(List.of("account_activities_default", "account_activities_legacy",
+                        "account_activities_p2024_01", "account_activities_p2026_10"));
+        when(jdbcTemplate.update(anyString(), any(), any())).thenReturn(3);
+
+        PartitioningProperties properties = new PartitioningProperties();
+        properties.setActivityRetentionMonths(12);
+        properties.setPurgeBatchSize(100);
+        partitionManager = new PartitionManager(jdbcTemplate, transactionTemplate, properties);
+    }
+
+    @Test
+    void expiresEveryPartitionKindUnderTheLock() {
+        partitionManager.maintain(TODAY);
+
+        verify(jdbcTemplate).update(DELETE_DEFAULT, CUTOFF, 100);
+        verify(jdbcTemplate).update(DELETE_LEGACY, CUTOFF, 100);
+        verify(jdbcTemplate).execute("ALTER TABLE account_activities DETACH PARTITION account_activities_p2024_01");
+        verify(jdbcTemplate).execute("DROP TABLE account_activities_p2024_01");
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION account_activities_p2026_10"));
+        // One lock per table for the structure and one per expiring partition
+        verify(jdbcTemplate, times(5)).queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), any());
+    }
+
+    @Test
+    void leavesRetentionToTheReplicaHoldingTheLock() {
+        // Only the structural step of the first table gets the lock
+        locksGranted.set(1);
+
+        partitionManager.maintain(TODAY);
+
+        verify(jdbcTemplate, never()).update(contains("DELETE FROM"), any(), any());
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION"));
+        verify(jdbcTemplate, never()).execute(contains("DROP TABLE"));
+    }
+
+    @Test
+    void deletesInBatchesUntilABatchComesBackShort() {
+        when(jdbcTemplate.update(DELETE_LEGACY, CUTOFF, 100)).thenReturn(100, 100, 40);
+
+        partitionManager.maintain(TODAY);
+
+        verify(jdbcTemplate, times(3)).update(DELETE_LEGACY, CUTOFF, 100);
+        verify(jdbcTemplate, never()).execute(contains("DETACH PARTITION account_activities_legacy"));
+    }
+
+    @Test
+    void dropsTheLegacyPartitionOnceItsBoundHasExpired() {
+        legacyBound("2025-10-01");
+
+        partitionManager.maintain(TODAY);
+
+        verify(jdbcTemplate).execute("ALTER TABLE account_activities DETACH PARTITION account_activities_legacy");
+        verify(jdbcTemplate).execute("DROP TABLE account_activities_legacy");
+        verify(jdbcTemplate, never()).update(contains("DELETE FROM account_activities_legacy"), any(), any());
+    }
+
+    private void legacyBound(String upperBound) {
+        when(jdbcTemplate.queryForList(contains("pg_get_expr"), eq(String.class), eq("account_activities_legacy")))
+                .thenReturn(List.of("FOR VALUES FROM (MINVALUE) TO ('" + upperBound + "')"));
+    }
+}
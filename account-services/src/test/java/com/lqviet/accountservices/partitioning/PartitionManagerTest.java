@@ -0,0 +1,152 @@
+package com.lqviet.accountservices.partitioning;
+
+import com.lqviet.accountservices.properties.PartitioningProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a local Postgres, e.g. the one from compose.yaml:
+ * <pre>
+ * ACCOUNT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/noveldb?user=admin&amp;password=secret ./mvnw test
+ * </pre>
+ * Everything happens in a throwaway schema that is dropped afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "ACCOUNT_TEST_POSTGRES_URL", matches = ".+")
+class PartitionManagerTest {
+    private static final String SCHEMA = "partition_manager_test";
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    private JdbcTemplate jdbcTemplate;
+    private PartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("currentSchema", SCHEMA);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getenv("ACCOUNT_TEST_POSTGRES_URL"));
+        dataSource.setConnectionProperties(connectionProperties);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("""
+                CREATE TABLE account_activities (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    account_id BIGINT NOT NULL,
+                    activity_type VARCHAR(50) NOT NULL,
+                    activity_date TIMESTAMP NOT NULL,
+                    ip_address VARCHAR(45)
+                )
+                """);
+        jdbcTemplate.execute("CREATE INDEX idx_activity_account ON account_activities (account_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_activity_date ON account_activities (activity_date)");
+
+        PartitioningProperties properties = new PartitioningProperties();
+        properties.setActivityRetentionMonths(12);
+        partitionManager = new PartitionManager(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void convertsInPlaceAndPremakesMonths() {
+        insertActivity(TODAY.minusYears(2));
+        insertActivity(TODAY);
+
+        partitionManager.maintain(TODAY);
+
+        assertEquals(List.of(
+                "account_activities_default",
+                "account_activities_legacy",
+                "account_activities_p2026_11",
+                "account_activities_p2026_12",
+                "account_activities_p2027_01"), partitions());
+        assertEquals(1, count(), "expired legacy rows are purged, live ones kept");
+
+        insertActivity(TODAY.plusMonths(1));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_activities_p2026_11", Integer.class));
+    }
+
+    @Test
+    void dropsWholeExpiredPartitions() {
+        insertActivity(TODAY);
+        partitionManager.maintain(TODAY);
+
+        partitionManager.maintain(TODAY.plusMonths(14));
+
+        List<String> partitions = partitions();
+        assertFalse(partitions.contains("account_activities_legacy"));
+        assertFalse(partitions.contains("account_activities_p2026_11"));
+        assertTrue(partitions.contains(PartitionManager.partitionName(PartitionManager.ACTIVITIES,
+                YearMonth.from(TODAY.plusMonths(17)))));
+    }
+
+    @Test
+    void movesRowsStrandedInTheDefaultPartitionIntoTheirMonth() {
+        insertActivity(TODAY);
+        partitionManager.maintain(TODAY);
+        // Beyond the premake window, as after a long outage
+        insertActivity(TODAY.plusMonths(6));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_activities_default", Integer.class));
+
+        partitionManager.maintain(TODAY.plusMonths(4));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_activities_default", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_activities_p2027_04", Integer.class));
+        assertEquals(2, count());
+    }
+
+    @Test
+    void purgesExpiredLegacyRowsInBatches() {
+        for (int i = 0; i < 25; i++) {
+            insertActivity(TODAY.minusYears(2));
+        }
+        insertActivity(TODAY);
+        PartitioningProperties properties = new PartitioningProperties();
+        properties.setActivityRetentionMonths(12);
+        properties.setPurgeBatchSize(10);
+        new PartitionManager(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(
+                jdbcTemplate.getDataSource())), properties).maintain(TODAY);
+
+        assertEquals(1, count());
+    }
+
+    private void insertActivity(LocalDate date) {
+        jdbcTemplate.update("INSERT INTO account_activities (account_id, activity_type, activity_date) VALUES (1, 'LOGIN', ?)",
+                Timestamp.valueOf(date.atStartOfDay()));
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_activities", Integer.class);
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass('account_activities') ORDER BY c.relname
+                """, String.class);
+    }
+}
@@ -0,0 +1,54 @@
+package com.lqviet.accountservices.passwords;
+
+import com.lqviet.accountservices.properties.PasswordHashProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PasswordVerificationPoolTest {
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PasswordVerificationPool pool = new PasswordVerificationPool(jdbcTemplate, properties(5),
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void rehashesAMatchingPasswordWithAnOutdatedCost() {
+        String oldHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(pool.matches(7L, "secret", oldHash));
+
+        verify(jdbcTemplate).update(anyString(), anyString(), eq(7L), eq(oldHash));
+    }
+
+    @Test
+    void leavesCurrentAndMismatchedHashesAlone() {
+        String currentHash = pool.encode("secret");
+
+        assertTrue(pool.matches(7L, "secret", currentHash));
+        assertFalse(pool.matches(7L, "wrong", new BCryptPasswordEncoder(4).encode("secret")));
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private static PasswordHashProperties properties(int strength) {
+        PasswordHashProperties properties = new PasswordHashProperties();
+        properties.setBcryptStrength(strength);
+        properties.setPoolSize(2);
+        return properties;
+    }
+}
@@ -0,0 +1,187 @@
+package com.lqviet.accountservices.pipelines;
+
+import com.lqviet.accountservices.enums.BackpressurePolicy;
+import com.lqviet.accountservices.pipelines.BoundedBatchPipeline.PipelineSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedBatchPipelineTest {
+
+    @Test
+    void drainsEverythingQueuedOnStop() {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        BoundedBatchPipeline<Integer> pipeline = pipeline(1_000, BackpressurePolicy.BLOCK, written);
+        pipeline.start();
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(pipeline.submit(i));
+        }
+        pipeline.stop();
+
+        assertEquals(500, written.size());
+    }
+
+    @Test
+    void writesThroughAfterStop() {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        BoundedBatchPipeline<Integer> pipeline = pipeline(1_000, BackpressurePolicy.BLOCK, written);
+        pipeline.start();
+        pipeline.stop();
+
+        assertTrue(pipeline.submit(7));
+
+        assertEquals(List.of(7), written);
+    }
+
+    @Test
+    void dropOldestKeepsNewestItems() {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        BoundedBatchPipeline<Integer> pipeline = pipeline(10, BackpressurePolicy.DROP_OLDEST, written);
+
+        for (int i = 0; i < 25; i++) {
+            assertTrue(pipeline.submit(i));
+        }
+        pipeline.start();
+        pipeline.stop();
+
+        assertEquals(List.of(15, 16, 17, 18, 19, 20, 21, 22, 23, 24), written);
+    }
+
+    @Test
+    void blockGivesUpAfterTimeout() {
+        BoundedBatchPipeline<Integer> pipeline = pipeline(1, BackpressurePolicy.BLOCK, new CopyOnWriteArrayList<>());
+
+        assertTrue(pipeline.submit(1));
+        assertFalse(pipeline.submit(2));
+    }
+
+    @Test
+    void retriesAFailedBatch() {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        AtomicInteger failures = new AtomicInteger(2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoundedBatchPipeline<Integer> pipeline = pipeline(1_000, 3, failingSink(failures, written), meterRegistry);
+        pipeline.start();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(pipeline.submit(i));
+        }
+        pipeline.stop();
+
+        assertEquals(10, written.size());
+        assertEquals(0.0, meterRegistry.counter("account.pipeline.failed", "pipeline", "test").count());
+    }
+
+    @Test
+    void requeuesABatchItKeepsFailingOn() throws InterruptedException {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        AtomicInteger failures = new AtomicInteger(5);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoundedBatchPipeline<Integer> pipeline = pipeline(1_000, 1, failingSink(failures, written), meterRegistry);
+        pipeline.start();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(pipeline.submit(i));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (written.size() < 10 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        pipeline.stop();
+
+        assertEquals(10, written.size());
+        assertEquals(0.0, meterRegistry.counter("account.pipeline.failed", "pipeline", "test").count());
+    }
+
+    @Test
+    void givesUpOnlyTheItemTheSinkAlwaysRejects() throws InterruptedException {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BoundedBatchPipeline<Integer> pipeline = pipeline(1_000, 1, batch -> {
+            if (batch.contains(13)) {
+                throw new IllegalArgumentException("value too long");
+            }
+            written.addAll(batch);
+        }, meterRegistry);
+        pipeline.start();
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(pipeline.submit(i));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (written.size() < 19 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        pipeline.stop();
+
+        assertEquals(19, written.size());
+        assertFalse(written.contains(13));
+        assertEquals(1.0, meterRegistry.counter("account.pipeline.failed", "pipeline", "test").count());
+    }
+
+    @Test
+    void losesNothingSubmittedWhileStopping() throws InterruptedException {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        BoundedBatchPipeline<Integer> pipeline = pipeline(100_000, BackpressurePolicy.BLOCK, written);
+        pipeline.start();
+        int threads = 8;
+        int perThread = 2_000;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                started.countDown();
+                for (int i = 0; i < perThread; i++) {
+                    if (pipeline.submit(i)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        started.await();
+        pipeline.stop();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, accepted.get());
+        assertEquals(accepted.get(), written.size());
+    }
+
+    private static Consumer<List<Integer>> failingSink(AtomicInteger failures, List<Integer> written) {
+        return batch -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+            written.addAll(batch);
+        };
+    }
+
+    private static BoundedBatchPipeline<Integer> pipeline(int capacity, BackpressurePolicy policy, List<Integer> sink) {
+        PipelineSettings settings = new PipelineSettings(capacity, 100, Duration.ofMillis(20), policy,
+                Duration.ofMillis(10), 0.5, 0, Duration.ZERO, 0);
+        return new BoundedBatchPipeline<>("test", settings, sink::addAll, new SimpleMeterRegistry());
+    }
+
+    private static BoundedBatchPipeline<Integer> pipeline(int capacity, int retryAttempts,
+                                                          Consumer<List<Integer>> sink,
+                                                          SimpleMeterRegistry meterRegistry) {
+        PipelineSettings settings = new PipelineSettings(capacity, 100, Duration.ofMillis(20),
+                BackpressurePolicy.BLOCK, Duration.ofMillis(10), 0.5, retryAttempts, Duration.ofMillis(1), 3);
+        return new BoundedBatchPipeline<>("test", settings, sink, meterRegistry);
+    }
+}
@@ -0,0 +1,205 @@
+package com.lqviet.accountservices.repositories;
+
+import com.lqviet.accountservices.dtos.responses.AccountNotificationResponse;
+import com.lqviet.accountservices.enums.NotificationSource;
+import com.lqviet.accountservices.enums.NotificationStatus;
+import com.lqviet.accountservices.pagination.KeysetCursor;
+import com.lqviet.accountservices.repositories.AccountNotificationFeedRepository.UnreadCount;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a local Postgres, e.g. the one from compose.yaml:
+ * <pre>
+ * ACCOUNT_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/noveldb?user=admin&amp;password=secret ./mvnw test
+ * </pre>
+ * Everything happens in a throwaway schema that is dropped afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "ACCOUNT_TEST_POSTGRES_URL", matches = ".+")
+class AccountNotificationFeedRepositoryTest {
+    private static final String SCHEMA = "notification_feed_test";
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 17, 12, 0);
+    private static final long ACCOUNT = 1;
+
+    private JdbcTemplate jdbcTemplate;
+    private AccountNotificationFeedRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("currentSchema", SCHEMA);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getenv("ACCOUNT_TEST_POSTGRES_URL"));
+        dataSource.setConnectionProperties(connectionProperties);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("""
+                CREATE TABLE accounts (
+                    id BIGINT PRIMARY KEY,
+                    created_at TIMESTAMP NOT NULL,
+                    is_deleted BOOLEAN NOT NULL DEFAULT false
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE account_notifications (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    account_id BIGINT NOT NULL,
+                    title VARCHAR(200) NOT NULL,
+                    message TEXT,
+                    notification_type VARCHAR(20) NOT NULL,
+                    status VARCHAR(20) NOT NULL,
+                    read_at TIMESTAMP,
+                    action_url VARCHAR(500),
+                    expires_at TIMESTAMP,
+                    created_at TIMESTAMP NOT NULL,
+                    updated_at TIMESTAMP,
+                    is_deleted BOOLEAN NOT NULL DEFAULT false
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE notification_broadcasts (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    title VARCHAR(200) NOT NULL,
+                    message TEXT,
+                    notification_type VARCHAR(20) NOT NULL,
+                    action_url VARCHAR(500),
+                    expires_at TIMESTAMP,
+                    delivery_mode VARCHAR(20) NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                    is_deleted BOOLEAN NOT NULL DEFAULT false
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE notification_broadcast_states (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    broadcast_id BIGINT NOT NULL,
+                    account_id BIGINT NOT NULL,
+                    status VARCHAR(20) NOT NULL,
+                    read_at TIMESTAMP,
+                    created_at TIMESTAMP,
+                    updated_at TIMESTAMP,
+                    is_deleted BOOLEAN NOT NULL DEFAULT false,
+                    UNIQUE (broadcast_id, account_id)
+                )
+                """);
+        jdbcTemplate.update("INSERT INTO accounts (id, created_at) VALUES (?, ?)", ACCOUNT, at(NOW.minusDays(30)));
+        repository = new AccountNotificationFeedRepository(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void pagesThroughBothSourcesNewestFirst() {
+        long olderPersonal = personal(NOW.minusDays(3), null);
+        long olderBroadcast = broadcast(NOW.minusDays(2), null);
+        long newerPersonal = personal(NOW.minusDays(1), null);
+        long newerBroadcast = broadcast(NOW.minusDays(1), null);
+        broadcast(NOW.minusDays(40), null);
+
+        List<AccountNotificationResponse> first = repository.findPage(ACCOUNT, KeysetCursor.START, 2);
+        AccountNotificationResponse last = first.get(first.size() - 1);
+        List<AccountNotificationResponse> second = repository.findPage(ACCOUNT,
+                new KeysetCursor(last.getCreatedAt(), last.getSource().ordinal(), last.getId()), 2);
+        AccountNotificationResponse end = second.get(second.size() - 1);
+        List<AccountNotificationResponse> third = repository.findPage(ACCOUNT,
+                new KeysetCursor(end.getCreatedAt(), end.getSource().ordinal(), end.getId()), 2);
+
+        // At equal created_at broadcasts sort first; the broadcast sent before the account existed never shows
+        assertEquals(List.of(key(NotificationSource.BROADCAST, newerBroadcast),
+                key(NotificationSource.PERSONAL, newerPersonal)), keys(first));
+        assertEquals(List.of(key(NotificationSource.BROADCAST, olderBroadcast),
+                key(NotificationSource.PERSONAL, olderPersonal)), keys(second));
+        assertTrue(third.isEmpty());
+    }
+
+    @Test
+    void countsUnreadUntilExpiry() {
+        personal(NOW.minusDays(1), NOW.plusHours(2));
+        broadcast(NOW.minusDays(1), NOW.plusHours(1));
+        broadcast(NOW.minusDays(1), NOW.minusHours(1));
+        personal(NOW.minusDays(1), NOW.minusHours(1));
+
+        UnreadCount count = repository.countUnread(ACCOUNT, NOW);
+
+        assertEquals(2, count.count());
+        assertEquals(NOW.plusHours(1), count.nextExpiry());
+        assertEquals(count, repository.countUnread(List.of(ACCOUNT), NOW).get(ACCOUNT));
+    }
+
+    @Test
+    void marksAllAsReadWithoutTouchingExpiredBroadcasts() {
+        personal(NOW.minusDays(1), null);
+        long live = broadcast(NOW.minusDays(1), null);
+        broadcast(NOW.minusDays(1), NOW.minusHours(1));
+
+        assertEquals(2, repository.markAllAsRead(ACCOUNT, NOW));
+
+        assertEquals(0, repository.countUnread(ACCOUNT, NOW).count());
+        assertEquals(List.of(live), jdbcTemplate.queryForList(
+                "SELECT broadcast_id FROM notification_broadcast_states WHERE account_id = ?", Long.class, ACCOUNT));
+    }
+
+    @Test
+    void setsBroadcastStatusOncePerTransition() {
+        long broadcastId = broadcast(NOW.minusDays(1), null);
+
+        assertEquals(1, repository.setBroadcastStatus(ACCOUNT, broadcastId, NotificationStatus.READ, NOW));
+        assertEquals(0, repository.setBroadcastStatus(ACCOUNT, broadcastId, NotificationStatus.READ, NOW));
+        assertEquals(0, repository.setBroadcastStatus(ACCOUNT, broadcastId, NotificationStatus.DISMISSED, NOW));
+        assertEquals(0, repository.setBroadcastStatus(ACCOUNT, broadcastId + 1, NotificationStatus.READ, NOW));
+
+        assertTrue(repository.findPage(ACCOUNT, KeysetCursor.START, 10).isEmpty());
+    }
+
+    @Test
+    void hidesBroadcastsFromDeletedAccounts() {
+        broadcast(NOW.minusDays(1), null);
+        jdbcTemplate.update("UPDATE accounts SET is_deleted = true WHERE id = ?", ACCOUNT);
+
+        assertEquals(0, repository.countUnread(ACCOUNT, NOW).count());
+        assertTrue(repository.findPage(ACCOUNT, KeysetCursor.START, 10).isEmpty());
+    }
+
+    private long personal(LocalDateTime createdAt, LocalDateTime expiresAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO account_notifications (account_id, title, notification_type, status, expires_at, created_at)
+                VALUES (?, 'Personal', 'INFO', 'UNREAD', ?, ?)
+                RETURNING id
+                """, Long.class, ACCOUNT, at(expiresAt), at(createdAt));
+    }
+
+    private long broadcast(LocalDateTime createdAt, LocalDateTime expiresAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO notification_broadcasts (title, notification_type, expires_at, delivery_mode, created_at)
+                VALUES ('Broadcast', 'SYSTEM', ?, 'LAZY', ?)
+                RETURNING id
+                """, Long.class, at(expiresAt), at(createdAt));
+    }
+
+    private static Timestamp at(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+
+    private static String key(NotificationSource source, long id) {
+        return source + "#" + id;
+    }
+
+    private static List<String> keys(List<AccountNotificationResponse> page) {
+        return page.stream().map(row -> key(row.getSource(), row.getId())).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.lqviet.accountservices.routing;
+
+import com.lqviet.accountservices.properties.ReplicaRoutingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaHealthMonitor monitor;
+    private ReadYourWrites readYourWrites;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        monitor = mock(ReplicaHealthMonitor.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        readYourWrites = new ReadYourWrites(new ReplicaRoutingProperties());
+        routing = new ReplicaRoutingDataSource(primary, monitor, readYourWrites, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        readYourWrites.exit();
+    }
+
+    @Test
+    void readsFromHealthyReplica() throws SQLException {
+        when(monitor.pick()).thenReturn(replica);
+
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void fallsBackToPrimaryWithoutHealthyReplica() throws SQLException {
+        when(monitor.pick()).thenReturn(null);
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void marksReplicaDownWhenItRefusesConnections() throws SQLException {
+        when(monitor.pick()).thenReturn(replica);
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertSame(primaryConnection, routing.getConnection());
+        verify(monitor).markDown(replica);
+    }
+
+    @Test
+    void sessionReadsItsOwnWritesFromPrimary() throws SQLException {
+        when(monitor.pick()).thenReturn(replica);
+        readYourWrites.enter("session-a");
+        readYourWrites.pin();
+        readYourWrites.exit();
+
+        readYourWrites.enter("session-a");
+        assertSame(primaryConnection, routing.getConnection());
+        readYourWrites.exit();
+
+        readYourWrites.enter("session-b");
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void fillsCachesFromPrimary() throws SQLException {
+        when(monitor.pick()).thenReturn(replica);
+
+        assertSame(primaryConnection, PrimaryReads.call(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void passesExplicitCredentialsToPrimary() throws SQLException {
+        when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routing.getConnection("reporting", "secret"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.caches.PermissionSnapshotCache;
+import com.lqviet.accountservices.entities.AccountRole;
+import com.lqviet.accountservices.permissions.RoleIndex;
+import com.lqviet.accountservices.properties.PermissionSnapshotProperties;
+import com.lqviet.accountservices.repositories.AccountPermissionRepository;
+import com.lqviet.accountservices.repositories.AccountRoleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountAuthorizationServiceImplTest {
+    private final AccountRoleRepository accountRoleRepository = mock(AccountRoleRepository.class);
+    private final AccountPermissionRepository accountPermissionRepository = mock(AccountPermissionRepository.class);
+    private final AccountAuthorizationServiceImpl service = new AccountAuthorizationServiceImpl(
+            accountRoleRepository,
+            accountPermissionRepository,
+            new PermissionSnapshotCache(new PermissionSnapshotProperties(), new SimpleMeterRegistry()),
+            new RoleIndex());
+
+    @Test
+    void findsARoleNoSnapshotHasInternedYet() {
+        AccountRole editor = mock(AccountRole.class);
+        when(editor.isEffective()).thenReturn(true);
+        when(editor.getRoleName()).thenReturn("EDITOR");
+        when(accountRoleRepository.findByAccountId(1L)).thenReturn(List.of(editor));
+        when(accountPermissionRepository.findByAccountId(1L)).thenReturn(List.of());
+
+        assertTrue(service.hasRole(1L, "EDITOR"));
+        assertFalse(service.hasRole(1L, "ADMIN"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.availability.AccountIdentifierFilter;
+import com.lqviet.accountservices.repositories.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountAvailabilityServiceImplTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccountIdentifierFilter identifierFilter;
+    private AccountRepository accountRepository;
+    private AccountAvailabilityServiceImpl availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        identifierFilter = mock(AccountIdentifierFilter.class);
+        accountRepository = mock(AccountRepository.class);
+        when(identifierFilter.isReady()).thenReturn(true);
+        availabilityService = new AccountAvailabilityServiceImpl(identifierFilter, accountRepository, meterRegistry);
+    }
+
+    @Test
+    void answersUnseenValueWithoutQuery() {
+        when(identifierFilter.mightHoldUsername("alice")).thenReturn(false);
+
+        assertTrue(availabilityService.isUsernameAvailable("alice"));
+
+        verify(accountRepository, never()).existsByUsername(anyString());
+        assertEquals(1.0, count("filtered"));
+    }
+
+    @Test
+    void confirmsTakenValueAgainstTable() {
+        when(identifierFilter.mightHoldEmail("alice@example.com")).thenReturn(true);
+        when(accountRepository.existsByEmail("alice@example.com")).thenReturn(true);
+
+        assertFalse(availabilityService.isEmailAvailable("alice@example.com"));
+
+        assertEquals(1.0, count("taken"));
+        assertEquals(0.0, count("false.positive"));
+    }
+
+    @Test
+    void countsFalsePositive() {
+        when(identifierFilter.mightHoldUsername("bob")).thenReturn(true);
+        when(accountRepository.existsByUsername("bob")).thenReturn(false);
+
+        assertTrue(availabilityService.isUsernameAvailable("bob"));
+
+        assertEquals(1.0, count("false.positive"));
+    }
+
+    @Test
+    void doesNotCountFalsePositiveBeforeFilterIsBuilt() {
+        when(identifierFilter.isReady()).thenReturn(false);
+        when(identifierFilter.mightHoldUsername("bob")).thenReturn(true);
+
+        assertTrue(availabilityService.isUsernameAvailable("bob"));
+
+        assertEquals(0.0, count("false.positive"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("account.availability.checks", "result", result).count();
+    }
+}
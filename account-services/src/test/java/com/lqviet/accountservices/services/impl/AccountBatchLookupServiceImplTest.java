@@ -0,0 +1,136 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.caches.AccountNearCache;
+import com.lqviet.accountservices.caches.ProfileCardCache;
+import com.lqviet.accountservices.caches.SharedCacheTier;
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.dtos.responses.AccountSummaryResponse;
+import com.lqviet.accountservices.enums.AccountChangeType;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.enums.AccountType;
+import com.lqviet.accountservices.events.AccountChangedEvent;
+import com.lqviet.accountservices.properties.AccountCacheProperties;
+import com.lqviet.accountservices.properties.BatchLookupProperties;
+import com.lqviet.accountservices.properties.SharedCacheProperties;
+import com.lqviet.accountservices.repositories.AccountSummaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AccountBatchLookupServiceImplTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccountSummaryRepository accountSummaryRepository;
+    private AccountNearCache accountNearCache;
+    private ProfileCardCache profileCardCache;
+    private AccountBatchLookupServiceImpl lookupService;
+
+    @BeforeEach
+    void setUp() {
+        accountSummaryRepository = mock(AccountSummaryRepository.class);
+        accountNearCache = new AccountNearCache(new AccountCacheProperties(),
+                new SharedCacheTier(null, new SharedCacheProperties(), meterRegistry), meterRegistry);
+        profileCardCache = new ProfileCardCache(new BatchLookupProperties(), meterRegistry);
+        lookupService = new AccountBatchLookupServiceImpl(accountSummaryRepository, accountNearCache,
+                profileCardCache, meterRegistry);
+    }
+
+    @Test
+    void handsOutAccountMatchedByIdAndUsernameOnce() {
+        AccountSummaryResponse reader = summary(1L, "reader");
+        // The statement matches the row once through the id and once through the username
+        rows(reader, reader);
+        List<AccountSummaryResponse> found = new ArrayList<>();
+
+        lookupService.findAll(List.of(1L, 1L), List.of("reader", "reader"), found::add);
+
+        assertEquals(List.of(reader), found);
+        verify(accountSummaryRepository).forEach(eq(List.of(1L)), eq(List.of("reader")), any());
+    }
+
+    @Test
+    void queriesOnlyWhatIsNotInMemory() {
+        accountNearCache.put(account(1L, "reader"));
+        profileCardCache.put(1L, "Reader", null);
+        rows(summary(2L, "writer"));
+        List<Long> found = new ArrayList<>();
+
+        lookupService.findAll(List.of(1L, 2L), List.of("reader"), summary -> found.add(summary.getAccount().getId()));
+
+        assertEquals(List.of(1L, 2L), found);
+        verify(accountSummaryRepository).forEach(eq(List.of(2L)), eq(List.of()), any());
+        assertEquals(2.0, meterRegistry.counter("account.batch.lookup.keys", "result", "cached").count());
+        assertEquals(1.0, meterRegistry.counter("account.batch.lookup.keys", "result", "queried").count());
+    }
+
+    @Test
+    void skipsQueryWhenEverythingIsInMemory() {
+        accountNearCache.put(account(1L, "reader"));
+        profileCardCache.put(1L, "Reader", null);
+
+        lookupService.findAll(List.of(1L), List.of(), summary -> {
+        });
+
+        verify(accountSummaryRepository, never()).forEach(anyCollection(), anyCollection(), any());
+    }
+
+    @Test
+    void doesNotCacheRowReadBeforeAConcurrentChange() {
+        doAnswer(invocation -> {
+            // Another request commits a change while the batch is being read
+            accountNearCache.onAccountChanged(new AccountChangedEvent(1L, "reader", null, AccountChangeType.UPDATED));
+            invocation.<Consumer<AccountSummaryResponse>>getArgument(2).accept(summary(1L, "reader"));
+            return null;
+        }).when(accountSummaryRepository).forEach(anyCollection(), anyCollection(), any());
+        List<AccountSummaryResponse> found = new ArrayList<>();
+
+        lookupService.findAll(List.of(1L), List.of(), found::add);
+
+        assertEquals(1, found.size());
+        assertNull(accountNearCache.getIfPresent(1L));
+    }
+
+    @Test
+    void cachesRowsWhenNothingChanged() {
+        rows(summary(1L, "reader"));
+
+        lookupService.findAll(List.of(1L), List.of(), summary -> {
+        });
+
+        assertNotNull(accountNearCache.getIfPresent(1L));
+        assertEquals("Reader", profileCardCache.getIfPresent(1L).displayName());
+    }
+
+    private void rows(AccountSummaryResponse... summaries) {
+        doAnswer(invocation -> {
+            Consumer<AccountSummaryResponse> consumer = invocation.getArgument(2);
+            for (AccountSummaryResponse summary : summaries) {
+                consumer.accept(summary);
+            }
+            return null;
+        }).when(accountSummaryRepository).forEach(anyCollection(), anyCollection(), any());
+    }
+
+    private static AccountSummaryResponse summary(Long id, String username) {
+        return new AccountSummaryResponse(account(id, username), "Reader", null);
+    }
+
+    private static AccountResponse account(Long id, String username) {
+        return new AccountResponse(id, null, null, null, null, username, username + "@example.com", null, null, null,
+                AccountStatus.ACTIVE, AccountType.USER, true, null);
+    }
+}
@@ -0,0 +1,77 @@
+package com.lqviet.accountservices.services.impl;
+
+import com.lqviet.accountservices.entities.AccountToken;
+import com.lqviet.accountservices.enums.TokenType;
+import com.lqviet.accountservices.repositories.AccountTokenRepository;
+import com.lqviet.accountservices.tokens.TokenBloomFilter;
+import com.lqviet.accountservices.tokens.TokenDigests;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountTokenServiceImplTest {
+    private static final String TOKEN = TokenDigests.generate();
+
+    private AccountTokenRepository repository;
+    private TokenBloomFilter filter;
+    private AccountTokenServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AccountTokenRepository.class);
+        filter = mock(TokenBloomFilter.class);
+        when(filter.mightContain(any())).thenReturn(true);
+        service = new AccountTokenServiceImpl(repository, filter);
+        AccountToken stored = token(TokenDigests.digest(TOKEN), TokenType.PASSWORD_RESET);
+        when(repository.findByTokenHash(any())).thenReturn(Optional.of(stored));
+    }
+
+    @Test
+    void consumeReturnsTheTokenAsMarkedUsed() {
+        AccountToken used = mock(AccountToken.class);
+        when(repository.markAsUsed(eq(5L), any())).thenReturn(1);
+        when(repository.findById(5L)).thenReturn(Optional.of(used));
+
+        assertSame(used, service.consume(TOKEN, TokenType.PASSWORD_RESET).orElseThrow());
+    }
+
+    @Test
+    void consumeFailsWhenAnotherRequestUsedTheTokenFirst() {
+        when(repository.markAsUsed(eq(5L), any())).thenReturn(0);
+
+        assertTrue(service.consume(TOKEN, TokenType.PASSWORD_RESET).isEmpty());
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void rejectsTokenOfAnotherType() {
+        assertTrue(service.verify(TOKEN, TokenType.EMAIL_VERIFICATION).isEmpty());
+    }
+
+    @Test
+    void skipsTheDatabaseWhenTheFilterRulesTheTokenOut() {
+        when(filter.mightContain(any())).thenReturn(false);
+
+        assertTrue(service.verify(TOKEN, TokenType.PASSWORD_RESET).isEmpty());
+        verify(repository, never()).findByTokenHash(any());
+    }
+
+    private static AccountToken token(byte[] digest, TokenType tokenType) {
+        AccountToken token = mock(AccountToken.class);
+        when(token.getId()).thenReturn(5L);
+        when(token.getTokenHash()).thenReturn(digest);
+        when(token.getTokenType()).thenReturn(tokenType);
+        when(token.isValid()).thenReturn(true);
+        return token;
+    }
+}
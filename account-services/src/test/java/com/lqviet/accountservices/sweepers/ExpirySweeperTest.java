@@ -0,0 +1,91 @@
+package com.lqviet.accountservices.sweepers;
+
+import com.lqviet.accountservices.properties.ExpirySweeperProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExpirySweeperTest {
+    private static final Timestamp EARLIER = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0));
+    private static final Timestamp LATER = Timestamp.valueOf(LocalDateTime.of(2024, 1, 2, 0, 0));
+
+    private final Deque<List<Object[]>> sessionChunks = new ArrayDeque<>();
+    private final List<Object[]> sessionCalls = new ArrayList<>();
+    private final ExpirySweeperProperties properties = new ExpirySweeperProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExpirySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            if (!invocation.<String>getArgument(0).contains("account_sessions")) {
+                return List.of();
+            }
+            sessionCalls.add(Arrays.copyOfRange(arguments, 2, arguments.length));
+            RowMapper<?> rowMapper = invocation.getArgument(1);
+            List<Object> rows = new ArrayList<>();
+            for (Object[] row : sessionChunks.isEmpty() ? List.<Object[]>of() : sessionChunks.poll()) {
+                rows.add(rowMapper.mapRow(resultSet((Long) row[0], (Timestamp) row[1]), rows.size()));
+            }
+            return rows;
+        });
+        properties.setChunkSize(2);
+        properties.setPauseBetweenChunks(Duration.ZERO);
+        sweeper = new ExpirySweeper(jdbcTemplate, properties, meterRegistry);
+    }
+
+    @Test
+    void walksChunksFromTheLastSweptRowUntilAShortChunk() {
+        sessionChunks.add(List.of(new Object[]{2L, EARLIER}, new Object[]{1L, EARLIER}));
+        sessionChunks.add(List.of(new Object[]{3L, EARLIER}, new Object[]{4L, LATER}));
+        sessionChunks.add(List.<Object[]>of(new Object[]{5L, LATER}));
+
+        sweeper.sweep();
+
+        assertEquals(3, sessionCalls.size());
+        assertEquals(List.of(EARLIER, 2L), List.of(sessionCalls.get(1)[1], sessionCalls.get(1)[2]));
+        assertEquals(List.of(LATER, 4L), List.of(sessionCalls.get(2)[1], sessionCalls.get(2)[2]));
+        assertEquals(5.0, meterRegistry.counter("account.sweeper.rows", "table", "account_sessions").count());
+    }
+
+    @Test
+    void leavesTheRestToTheNextRunAfterMaxChunks() {
+        properties.setMaxChunksPerRun(2);
+        sessionChunks.add(List.of(new Object[]{1L, EARLIER}, new Object[]{2L, EARLIER}));
+        sessionChunks.add(List.of(new Object[]{3L, EARLIER}, new Object[]{4L, EARLIER}));
+        sessionChunks.add(List.of(new Object[]{5L, EARLIER}, new Object[]{6L, EARLIER}));
+
+        sweeper.sweep();
+
+        assertEquals(2, sessionCalls.size());
+        assertEquals(4.0, meterRegistry.counter("account.sweeper.rows", "table", "account_sessions").count());
+    }
+
+    private static ResultSet resultSet(long id, Timestamp expiresAt) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(id);
+        when(resultSet.getTimestamp(2)).thenReturn(expiresAt);
+        return resultSet;
+    }
+}
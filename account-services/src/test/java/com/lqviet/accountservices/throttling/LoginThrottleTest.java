@@ -0,0 +1,73 @@
+package com.lqviet.accountservices.throttling;
+
+import com.lqviet.accountservices.audit.JdbcWriteAuditor;
+import com.lqviet.accountservices.buffers.LoginStateWriteBehindBuffer;
+import com.lqviet.accountservices.dtos.responses.AccountResponse;
+import com.lqviet.accountservices.enums.AccountStatus;
+import com.lqviet.accountservices.enums.LoginThrottleDecision;
+import com.lqviet.accountservices.properties.LoginThrottleProperties;
+import com.lqviet.accountservices.properties.LoginWriteBehindProperties;
+import com.lqviet.accountservices.services.AccountLookupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoginThrottleTest {
+    private final LoginThrottleProperties properties = new LoginThrottleProperties();
+    private final AccountLookupService accountLookupService = mock(AccountLookupService.class);
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoginStateWriteBehindBuffer buffer = new LoginStateWriteBehindBuffer(mock(JdbcTemplate.class),
+                mock(ApplicationEventPublisher.class), mock(JdbcWriteAuditor.class), new LoginWriteBehindProperties(), properties, meterRegistry);
+        throttle = new LoginThrottle(buffer, accountLookupService, properties, meterRegistry);
+        when(accountLookupService.findById(1L)).thenReturn(Optional.of(account(1L, null)));
+    }
+
+    @Test
+    void locksAnAccountAtItsFailureLimit() {
+        for (int i = 1; i < properties.getAccountMaxFailures(); i++) {
+            throttle.recordFailure(1L, "10.0.0.1");
+        }
+        assertEquals(LoginThrottleDecision.ALLOWED, throttle.check(1L, "10.0.0.1"));
+
+        assertTrue(throttle.recordFailure(1L, "10.0.0.1"));
+        assertEquals(LoginThrottleDecision.ACCOUNT_LOCKED, throttle.check(1L, "10.0.0.1"));
+    }
+
+    @Test
+    void honorsALockThisReplicaDoesNotKnow() {
+        when(accountLookupService.findById(2L))
+                .thenReturn(Optional.of(account(2L, LocalDateTime.now().plusMinutes(45))));
+
+        assertEquals(LoginThrottleDecision.ACCOUNT_LOCKED, throttle.check(2L, null));
+    }
+
+    @Test
+    void throttlesAnAddressAtItsFailureLimit() {
+        for (int i = 0; i < properties.getIpMaxFailures(); i++) {
+            throttle.recordFailure(null, "10.0.0.2");
+        }
+
+        assertEquals(LoginThrottleDecision.IP_THROTTLED, throttle.check(1L, "10.0.0.2"));
+        assertEquals(LoginThrottleDecision.ALLOWED, throttle.check(1L, "10.0.0.3"));
+    }
+
+    private static AccountResponse account(Long id, LocalDateTime lockedUntil) {
+        return new AccountResponse(id, null, null, null, null, "user_" + id, "user_" + id + "@example.com",
+                null, null, null, lockedUntil == null ? AccountStatus.ACTIVE : AccountStatus.LOCKED, null, true,
+                lockedUntil);
+    }
+}
@@ -0,0 +1,63 @@
+package com.lqviet.accountservices.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowCounterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SlidingWindowCounter<String> counter = new SlidingWindowCounter<>(Duration.ofSeconds(10), 10, 4);
+
+    @Test
+    void forgetsEventsOneBucketAtATime() {
+        counter.increment("10.0.0.1", 0);
+        counter.increment("10.0.0.1", 5 * SECOND);
+        assertEquals(3, counter.increment("10.0.0.1", 9 * SECOND));
+
+        assertEquals(2, counter.count("10.0.0.1", 10 * SECOND));
+        assertEquals(1, counter.count("10.0.0.1", 15 * SECOND));
+        assertEquals(0, counter.count("10.0.0.1", 19 * SECOND));
+    }
+
+    @Test
+    void purgesKeysWithNothingLeftInTheWindow() {
+        counter.increment("10.0.0.1", 0);
+        counter.increment("10.0.0.2", 8 * SECOND);
+
+        assertEquals(1, counter.purge(12 * SECOND));
+        assertEquals(1, counter.size());
+    }
+
+    @Test
+    void countsEveryConcurrentEvent() throws InterruptedException {
+        int threads = 16;
+        int perThread = 1_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < perThread; j++) {
+                        counter.increment("10.0.0.1", SECOND);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, counter.count("10.0.0.1", SECOND));
+    }
+}
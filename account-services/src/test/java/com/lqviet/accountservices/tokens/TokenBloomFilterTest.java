@@ -0,0 +1,120 @@
+package com.lqviet.accountservices.tokens;
+
+import com.lqviet.accountservices.properties.TokenProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Backed by a list of stored digests standing in for {@code account_tokens}
+ */
+class TokenBloomFilterTest {
+    private final List<byte[]> stored = new CopyOnWriteArrayList<>();
+    private final AtomicInteger scans = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenProperties properties = new TokenProperties();
+    private PlatformTransactionManager transactionManager;
+    private TokenBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any())).thenAnswer(invocation -> (long) stored.size());
+        doAnswer(invocation -> {
+            scans.incrementAndGet();
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < stored.size(); i++) {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.getLong(1)).thenReturn(i + 1L);
+                when(resultSet.getBytes(2)).thenReturn(stored.get(i));
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        transactionManager = mock(PlatformTransactionManager.class);
+        properties.setExpectedTokens(1_000);
+        // One window for the whole test
+        properties.setRefreshInterval(Duration.ofHours(1));
+        filter = new TokenBloomFilter(jdbcTemplate, new TransactionTemplate(transactionManager), properties,
+                meterRegistry);
+    }
+
+    @Test
+    void letsEverythingThroughUntilBuilt() {
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain(TokenDigests.digest(TokenDigests.generate())));
+    }
+
+    @Test
+    void rebuildsInsideReadOnlyTransaction() {
+        filter.rebuild();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void rejectsMissesWithoutTouchingDatabase() {
+        properties.setMissLookupsPerInterval(0);
+        stored.add(TokenDigests.digest(TokenDigests.generate()));
+        filter.rebuild();
+        int scansAfterBuild = scans.get();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(filter.mightContain(TokenDigests.digest(TokenDigests.generate())));
+        }
+
+        assertEquals(scansAfterBuild, scans.get());
+        assertEquals(100.0, meterRegistry.counter("account.tokens.filter.rejected").count());
+    }
+
+    @Test
+    void sendsOnlyTheBudgetOfMissesToDatabase() {
+        properties.setMissLookupsPerInterval(2);
+        filter.rebuild();
+
+        assertTrue(filter.mightContain(TokenDigests.digest(TokenDigests.generate())));
+        assertTrue(filter.mightContain(TokenDigests.digest(TokenDigests.generate())));
+        assertFalse(filter.mightContain(TokenDigests.digest(TokenDigests.generate())));
+
+        assertEquals(2.0, meterRegistry.counter("account.tokens.filter.miss.lookups").count());
+        assertEquals(1.0, meterRegistry.counter("account.tokens.filter.rejected").count());
+    }
+
+    @Test
+    void acceptsTokenIssuedElsewhereAfterRefresh() {
+        properties.setMissLookupsPerInterval(0);
+        filter.rebuild();
+        byte[] issuedElsewhere = TokenDigests.digest(TokenDigests.generate());
+        stored.add(issuedElsewhere);
+
+        filter.refresh();
+
+        assertTrue(filter.mightContain(issuedElsewhere));
+    }
+}
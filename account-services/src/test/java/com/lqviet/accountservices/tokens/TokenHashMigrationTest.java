@@ -0,0 +1,77 @@
+package com.lqviet.accountservices.tokens;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenHashMigrationTest {
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private TokenHashMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(contains("information_schema.tables"), eq(Boolean.class))).thenReturn(true);
+        migration = new TokenHashMigration(jdbcTemplate, transactionTemplate);
+    }
+
+    @Test
+    void leavesMigratedTableAlone() {
+        schema(false, false, true);
+
+        migration.migrate();
+
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void recreatesOnlyTheMissingIndex() {
+        schema(false, false, false);
+
+        migration.migrate();
+
+        verify(jdbcTemplate).execute(contains("CREATE INDEX IF NOT EXISTS idx_token_hash"));
+        verify(jdbcTemplate, never()).execute(contains("SET NOT NULL"));
+    }
+
+    @Test
+    void hashesRawTokensAndFinishesTheColumn() {
+        schema(true, true, false);
+
+        migration.migrate();
+
+        verify(jdbcTemplate).update(contains("sha256"));
+        verify(jdbcTemplate).execute("ALTER TABLE account_tokens DROP COLUMN token_value");
+        verify(jdbcTemplate).execute(contains("SET NOT NULL"));
+        verify(jdbcTemplate).execute(contains("CREATE INDEX IF NOT EXISTS idx_token_hash"));
+    }
+
+    private void schema(boolean rawColumn, boolean hashNullable, boolean hashIndexed) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("token_value"))).thenReturn(rawColumn);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("token_hash"))).thenReturn(hashNullable);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("idx_token_hash"))).thenReturn(hashIndexed);
+    }
+}